@@ -5,6 +5,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import com.github.jrgen.dictionary.StringDictionary;
+import com.github.jrgen.generator.TextSource;
+import com.github.jrgen.sampler.IndexSampler;
+
 /***
  * <p>
  * A Configuration (or classes that implement it) is a representation of
@@ -28,6 +32,34 @@ import java.util.Set;
  * to be converted to the same type as that of the corresponding property.
  * </p>
  * 
+ * <p>
+ * A value may be given a weight by wrapping it in an object with a 
+ * <i>value</i> and a <i>weight</i> field, for example 
+ * <code>{"value": "US", "weight": 70}</code>. Values without a weight have
+ * a weight of 1. Each value is then selected in proportion to its weight.
+ * Only an object with exactly these two fields and a finite, non-negative
+ * numeric weight is unwrapped, once. An object value that has these two 
+ * fields itself is therefore kept by wrapping it, for example
+ * <code>{"value": {"value": 2, "weight": 5}, "weight": 1}</code>.
+ * </p>
+ * 
+ * <p>
+ * Related values of several properties may be defined together as the rows
+ * of a {@link TupleTable}, in the <i>tuples</i> field, so that a whole row 
+ * is picked at once.
+ * </p>
+ * 
+ * <p>
+ * A property without values may instead be given a pattern, a regular 
+ * expression its generated values match, in the <i>patterns</i> field, for 
+ * example <code>"patterns": {"zipCode": "\\d{5}(-\\d{4})?"}</code>, or 
+ * be given text generated from a corpus on the classpath, in the 
+ * <i>texts</i> field, for example 
+ * <code>"texts": {"bio": "corpus/sample.txt:20"}</code>. Large lists of 
+ * values may be kept outside of the data, in a {@link StringDictionary}
+ * referenced by the <i>dictionaries</i> field.
+ * </p>
+ * 
  * @author Allan J. Shoulders
  * @version 1.0
  * @since 1.0.0
@@ -69,4 +101,47 @@ public interface Configuration {
 	 * of a JSON resource file.
 	 */
 	public Map<String, List<Object>> getData();
+	
+	/***
+	 * Returns the {@link IndexSampler} that picks the index of the next 
+	 * value of a property, according to the weights of its values.
+	 * 
+	 * @param property the name of the property, a key of the data 
+	 * {@link Map}.
+	 * @return the {@link IndexSampler} of the property, or null if the 
+	 * property has no values. The indexes of a property whose values are a
+	 * {@link StringDictionary} are indexes of the dictionary.
+	 * @since 1.2.0
+	 */
+	public IndexSampler getSampler(String property);
+	
+	/***
+	 * Returns the compiled source of the values of a property, from its 
+	 * pattern or its text specification.
+	 * 
+	 * @param property the name of the property.
+	 * @return the {@link TextSource} of the property, or null if the 
+	 * property has neither a pattern nor a text specification.
+	 * @since 1.2.0
+	 */
+	public TextSource getTextSource(String property);
+	
+	/***
+	 * Returns the tables of related values defined by the tuples field.
+	 * 
+	 * @return {@link List} of {@link TupleTable}s, may be empty.
+	 * @since 1.2.0
+	 */
+	public List<TupleTable> getTupleTables();
+	
+	/***
+	 * Returns the {@link StringDictionary} holding the values of a property,
+	 * for properties whose values are not part of the data.
+	 * 
+	 * @param property the name of the property.
+	 * @return the {@link StringDictionary} of the property, or null if the
+	 * property has none.
+	 * @since 1.2.0
+	 */
+	public StringDictionary getDictionary(String property);
 }
@@ -1,13 +1,61 @@
 package com.github.jrgen.configuration;
 
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.github.jrgen.dictionary.DataPack;
+import com.github.jrgen.dictionary.Dictionaries;
+import com.github.jrgen.dictionary.StringDictionary;
+import com.github.jrgen.generator.MarkovText;
+import com.github.jrgen.generator.StringPattern;
+import com.github.jrgen.generator.TextSource;
+import com.github.jrgen.sampler.AliasSampler;
+import com.github.jrgen.sampler.DeckSampler;
+import com.github.jrgen.sampler.Distribution;
+import com.github.jrgen.sampler.IndexSampler;
+import com.github.jrgen.sampler.UniformSampler;
 
 /***
+ * <p>
  * The default implementation of a {@link Configuration}.
+ * </p>
+ * 
+ * <p>
+ * Weighted values are unwrapped when the data is set, and the 
+ * {@link IndexSampler} of each property is built at the same time, so that 
+ * picking a value never depends on the number or the weights of the values.
+ * The values of a property may instead follow a {@link Distribution}, 
+ * specified in the <i>distributions</i> field, for example 
+ * <code>"distributions": {"lastName": "zipf:1.2"}</code>. The special 
+ * <i>deck</i> specification picks every value exactly once before any value
+ * is picked again, see {@link DeckSampler}.
+ * </p>
  * 
+ * <p>
+ * The <i>patterns</i> field is compiled into {@link StringPattern}s when it
+ * is set, so that generating a value never parses a regular expression.
+ * Likewise, the <i>texts</i> field is turned into {@link MarkovText}s, 
+ * trained once per corpus, and the <i>tuples</i> field into 
+ * {@link TupleTable}s when they are set.
+ * </p>
+ * 
+ * <p>
+ * The <i>dictionaries</i> field references lists of {@link DataPack}s, for 
+ * example <code>"dictionaries": {"firstName": "names#firstNames"}</code>,
+ * or text files held off-heap, for example 
+ * <code>"dictionaries": {"userAgent": "agents.txt?lru=256"}</code>.
+ * Each reference is resolved the first time its property is generated, 
+ * which maps its pack once.
+ * </p>
  * 
  * @author Allan J. Shoulders
  * @version 1.0
@@ -17,9 +65,28 @@ import java.util.Set;
  */
 public class ConfigurationImpl implements Configuration {
 	
+	private static final String VALUE = "value";
+	private static final String WEIGHT = "weight";
+	private static final String DECK = "deck";
+	
 	private Set<String> namespaces;
 	private URI resource;
 	private Map<String, List<Object>> data;
+	private Map<String, String> distributions;
+	private Map<String, String> patterns;
+	private Map<String, StringPattern> compiledPatterns;
+	private Map<String, String> texts;
+	private Map<String, MarkovText> compiledTexts;
+	private List<Map<String, Object>> tuples;
+	private List<TupleTable> tupleTables;
+	private Map<String, String> dictionaries;
+	private ConcurrentMap<String, StringDictionary> resolvedDictionaries = 
+			new ConcurrentHashMap<String, StringDictionary>();
+	private ConcurrentMap<String, IndexSampler> dictionarySamplers = 
+			new ConcurrentHashMap<String, IndexSampler>();
+	private Map<String, double[]> weights;
+	private Map<String, IndexSampler> weightSamplers;
+	private Map<String, IndexSampler> samplers;
 	
 	/***
 	 * Default constructor for instantiation.
@@ -43,7 +110,7 @@ public class ConfigurationImpl implements Configuration {
 		super();
 		this.namespaces = namespaces;
 		this.resource = resource;
-		this.data = data;
+		setData(data);
 	}
 
 	@Override
@@ -79,13 +146,469 @@ public class ConfigurationImpl implements Configuration {
 
 	/***
 	 * Setter method that sets the data parameter to the current instance.
+	 * The lists of values are copied before the weighted values are 
+	 * unwrapped, so the data passed in is left as it is.
 	 * 
 	 * @param data {@link Map} which the keys represent the property names, 
 	 * and the values represent the Array of values specified in JSON resource
 	 * file.
 	 */
 	public void setData(Map<String, List<Object>> data) {
+		Map<String, List<Object>> copy = null;
+		
+		if (data != null) {
+			copy = new LinkedHashMap<String, List<Object>>();
+			
+			for (Entry<String, List<Object>> entry : data.entrySet()) {
+				copy.put(entry.getKey(), entry.getValue() == null ? null : 
+						new ArrayList<Object>(entry.getValue()));
+			}
+		}
+		
+		adoptData(copy);
+	}
+	
+	/**
+	 * Sets the data of the current instance, taking over its lists rather 
+	 * than copying them: the weighted values are unwrapped in place, so the
+	 * lists must be modifiable and no longer used by the caller. Readers 
+	 * building the lists of a configuration hand them over this way, so the
+	 * values are held once while loading.
+	 * 
+	 * @param data {@link Map} which the keys represent the property names, 
+	 * and the values represent the Array of values.
+	 */
+	void adoptData(Map<String, List<Object>> data) {
+		if (data == null) {
+			this.data = null;
+			this.weights = null;
+			this.weightSamplers = null;
+			buildSamplers();
+			return;
+		}
+		
+		Map<String, double[]> propertyWeights = 
+				new HashMap<String, double[]>();
+		Map<String, IndexSampler> propertySamplers = 
+				new HashMap<String, IndexSampler>();
+		
+		for (Entry<String, List<Object>> entry : data.entrySet()) {
+			List<Object> values = entry.getValue();
+			
+			if (values == null) {
+				continue;
+			}
+			
+			double[] weights = new double[values.size()];
+			boolean weighted = false;
+			
+			for (int i = 0; i < weights.length; i++) {
+				Object value = values.get(i);
+				
+				if (isWeightedValue(value)) {
+					Map<?, ?> weightedValue = (Map<?, ?>) value;
+					values.set(i, weightedValue.get(VALUE));
+					weights[i] = ((Number) weightedValue.get(WEIGHT))
+							.doubleValue();
+					weighted = true;
+				} else {
+					weights[i] = 1;
+				}
+			}
+			
+			if (weighted) {
+				propertyWeights.put(entry.getKey(), weights);
+			}
+			
+			if (!values.isEmpty()) {
+				propertySamplers.put(entry.getKey(), weighted ? 
+						new AliasSampler(weights) : 
+						new UniformSampler(values.size()));
+			}
+		}
+		
 		this.data = data;
+		this.weights = propertyWeights;
+		this.weightSamplers = propertySamplers;
+		buildSamplers();
+	}
+	
+	/**
+	 * Returns the weights of the values of a property, as they were set.
+	 * 
+	 * @param property the name of the property.
+	 * @return the weights, or null if the values of the property are not 
+	 * weighted.
+	 */
+	double[] getWeights(String property) {
+		return weights == null ? null : weights.get(property);
+	}
+	
+	/***
+	 * Getter method that returns the {@link Distribution} specification of 
+	 * each property that has one.
+	 * 
+	 * @return {@link Map} which the keys represent the property names, and
+	 * the values represent the {@link Distribution} specifications.
+	 */
+	public Map<String, String> getDistributions() {
+		return distributions;
+	}
+	
+	/***
+	 * Setter method that sets the {@link Distribution} specification of 
+	 * each property that has one. The values of such a property are picked
+	 * according to the {@link Distribution}, the first values being the
+	 * ones it favors the most, and their weights are ignored.
+	 * 
+	 * @param distributions {@link Map} which the keys represent the property
+	 * names, and the values represent the {@link Distribution} 
+	 * specifications, as accepted by {@link Distribution#parse(String)}, or
+	 * <i>deck</i> to pick values without replacement.
+	 * @throws IllegalArgumentException if a specification is not valid.
+	 */
+	public void setDistributions(Map<String, String> distributions) {
+		this.distributions = distributions;
+		this.dictionarySamplers.clear();
+		buildSamplers();
+	}
+	
+	/***
+	 * Getter method that returns the dictionary reference of each property
+	 * that has one.
+	 * 
+	 * @return {@link Map} which the keys represent the property names, and
+	 * the values represent the references.
+	 */
+	public Map<String, String> getDictionaries() {
+		return dictionaries;
+	}
+	
+	/***
+	 * Setter method that sets the dictionary reference of each property 
+	 * that has one. The values of such a property are picked from the 
+	 * referenced {@link StringDictionary}, according to the 
+	 * {@link Distribution} of the property if it has one.
+	 * 
+	 * @param dictionaries {@link Map} which the keys represent the property
+	 * names, and the values represent the references, as accepted by 
+	 * {@link Dictionaries#resolve(String)}.
+	 */
+	public void setDictionaries(Map<String, String> dictionaries) {
+		this.dictionaries = dictionaries;
+		this.resolvedDictionaries.clear();
+		this.dictionarySamplers.clear();
+	}
+	
+	@Override
+	public StringDictionary getDictionary(String property) {
+		String reference = dictionaries == null ? null : 
+				dictionaries.get(property);
+		
+		if (reference == null) {
+			return null;
+		}
+		
+		StringDictionary dictionary = resolvedDictionaries.get(property);
+		
+		if (dictionary == null) {
+			dictionary = Dictionaries.resolve(reference);
+			resolvedDictionaries.putIfAbsent(property, dictionary);
+		}
+		
+		return dictionary;
+	}
+	
+	/**
+	 * Binds the dictionary already read for the reference of a property,
+	 * so that it is not resolved again.
+	 * 
+	 * @param property the name of the property.
+	 * @param dictionary the {@link StringDictionary} of its reference.
+	 */
+	void bindDictionary(String property, StringDictionary dictionary) {
+		resolvedDictionaries.put(property, dictionary);
+	}
+	
+	/***
+	 * Getter method that returns the regular expression of each property 
+	 * that has one.
+	 * 
+	 * @return {@link Map} which the keys represent the property names, and
+	 * the values represent the regular expressions.
+	 */
+	public Map<String, String> getPatterns() {
+		return patterns;
+	}
+	
+	/***
+	 * Setter method that sets the regular expression of each property that
+	 * has one. Each regular expression is compiled into a 
+	 * {@link StringPattern}.
+	 * 
+	 * @param patterns {@link Map} which the keys represent the property
+	 * names, and the values represent the regular expressions.
+	 * @throws IllegalArgumentException if a regular expression is not 
+	 * supported by {@link StringPattern}.
+	 */
+	public void setPatterns(Map<String, String> patterns) {
+		Map<String, StringPattern> compiled = null;
+		
+		if (patterns != null) {
+			compiled = new HashMap<String, StringPattern>();
+			
+			for (Entry<String, String> entry : patterns.entrySet()) {
+				compiled.put(entry.getKey(), 
+						StringPattern.compile(entry.getValue()));
+			}
+		}
+		
+		this.patterns = patterns;
+		this.compiledPatterns = compiled;
+	}
+	
+	/***
+	 * Returns the compiled pattern the values of a property match.
+	 * 
+	 * @param property the name of the property.
+	 * @return the {@link StringPattern} of the property, or null if the 
+	 * property has no pattern.
+	 */
+	public StringPattern getPattern(String property) {
+		return compiledPatterns == null ? null : 
+				compiledPatterns.get(property);
+	}
+	
+	/***
+	 * Getter method that returns the text specification of each property 
+	 * that has one.
+	 * 
+	 * @return {@link Map} which the keys represent the property names, and
+	 * the values represent the text specifications.
+	 */
+	public Map<String, String> getTexts() {
+		return texts;
+	}
+	
+	/***
+	 * Setter method that sets the text specification of each property that
+	 * has one. A specification is the classpath resource of a UTF-8 corpus,
+	 * optionally followed by a colon and the number of words to generate,
+	 * for example <i>corpus/sample.txt:20</i>.
+	 * 
+	 * @param texts {@link Map} which the keys represent the property names,
+	 * and the values represent the text specifications.
+	 * @throws IllegalArgumentException if a specification is not valid or
+	 * its corpus cannot be found.
+	 */
+	public void setTexts(Map<String, String> texts) {
+		Map<String, MarkovText> compiled = null;
+		
+		if (texts != null) {
+			compiled = new HashMap<String, MarkovText>();
+			
+			for (Entry<String, String> entry : texts.entrySet()) {
+				compiled.put(entry.getKey(), createText(entry.getValue()));
+			}
+		}
+		
+		this.texts = texts;
+		this.compiledTexts = compiled;
+	}
+	
+	@Override
+	public TextSource getTextSource(String property) {
+		MarkovText text = compiledTexts == null ? null : 
+				compiledTexts.get(property);
+		
+		return text != null ? text : getPattern(property);
+	}
+	
+	/**
+	 * Helper method that creates the {@link MarkovText} of a property from
+	 * its specification.
+	 * 
+	 * @param specification
+	 * @return
+	 */
+	private static MarkovText createText(String specification) {
+		if (specification == null) {
+			throw new IllegalArgumentException(
+					"The text specification cannot be null.");
+		}
+		
+		int colon = specification.lastIndexOf(':');
+		
+		if (colon < 0) {
+			return MarkovText.fromResource(specification.trim());
+		}
+		
+		try {
+			return MarkovText.fromResource(
+					specification.substring(0, colon).trim()).withLength(
+					Integer.parseInt(specification.substring(colon + 1).trim()));
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException(
+					"Illegal text specification: " + specification, e);
+		}
+	}
+	
+	/***
+	 * Getter method that returns the definitions of the tables of related
+	 * values.
+	 * 
+	 * @return {@link List} of table definitions, each with a properties and
+	 * a rows field.
+	 */
+	public List<Map<String, Object>> getTuples() {
+		return tuples;
+	}
+	
+	/***
+	 * Setter method that sets the definitions of the tables of related 
+	 * values. Each definition is turned into a {@link TupleTable}.
+	 * 
+	 * @param tuples {@link List} of table definitions, each with a 
+	 * properties and a rows field.
+	 * @throws IllegalArgumentException if a definition is not valid.
+	 */
+	public void setTuples(List<Map<String, Object>> tuples) {
+		List<TupleTable> tables = new ArrayList<TupleTable>();
+		
+		if (tuples != null) {
+			for (Map<String, Object> definition : tuples) {
+				tables.add(TupleTable.fromDefinition(definition));
+			}
+		}
+		
+		this.tuples = tuples;
+		this.tupleTables = Collections.unmodifiableList(tables);
+	}
+	
+	@Override
+	public List<TupleTable> getTupleTables() {
+		return tupleTables == null ? Collections.<TupleTable>emptyList() : 
+				tupleTables;
+	}
+	
+	/**
+	 * Helper method that builds the {@link IndexSampler} of each property 
+	 * from the weights of its values, or from its {@link Distribution}.
+	 */
+	private void buildSamplers() {
+		Map<String, IndexSampler> propertySamplers = 
+				new HashMap<String, IndexSampler>();
+		
+		if (weightSamplers != null) {
+			propertySamplers.putAll(weightSamplers);
+		}
+		
+		if (distributions != null && data != null) {
+			for (Entry<String, String> entry : distributions.entrySet()) {
+				List<Object> values = data.get(entry.getKey());
+				
+				if (values != null && !values.isEmpty()) {
+					propertySamplers.put(entry.getKey(), 
+							createSampler(entry.getValue(), values.size()));
+				}
+			}
+		}
+		
+		this.samplers = propertySamplers;
+	}
+	
+	/**
+	 * Helper method that creates the {@link IndexSampler} of a property from
+	 * its specification.
+	 * 
+	 * @param specification
+	 * @param size
+	 * @return
+	 */
+	private static IndexSampler createSampler(String specification, 
+			int size) {
+		if (specification != null && 
+				DECK.equalsIgnoreCase(specification.trim())) {
+			return new DeckSampler(size);
+		}
+		
+		return Distribution.parse(specification).sampler(size);
+	}
+	
+	@Override
+	public IndexSampler getSampler(String property) {
+		List<Object> values = data == null ? null : data.get(property);
+		
+		if (values == null || values.isEmpty()) {
+			return getDictionarySampler(property);
+		}
+		
+		IndexSampler sampler = samplers == null ? null : 
+				samplers.get(property);
+		
+		//The data was changed since it was set, the weights no longer apply.
+		if (sampler == null || sampler.size() != values.size()) {
+			return new UniformSampler(values.size());
+		}
+		
+		return sampler;
+	}
+	
+	/**
+	 * Helper method that returns the {@link IndexSampler} of a property 
+	 * whose values are a {@link StringDictionary}, creating it the first 
+	 * time.
+	 * 
+	 * @param property
+	 * @return
+	 */
+	private IndexSampler getDictionarySampler(String property) {
+		StringDictionary dictionary = getDictionary(property);
+		
+		if (dictionary == null || dictionary.size() == 0) {
+			return null;
+		}
+		
+		IndexSampler sampler = dictionarySamplers.get(property);
+		
+		if (sampler == null) {
+			String specification = distributions == null ? null : 
+					distributions.get(property);
+			sampler = specification == null ? 
+					new UniformSampler(dictionary.size()) : 
+					createSampler(specification, dictionary.size());
+			IndexSampler existing = 
+					dictionarySamplers.putIfAbsent(property, sampler);
+			sampler = existing == null ? sampler : existing;
+		}
+		
+		return sampler;
+	}
+	
+	/**
+	 * Helper method that determines if a value is a weighted value, that is
+	 * an object with exactly a value and a weight field, the weight being a
+	 * finite, non-negative number. Any other object is a value of its own.
+	 * 
+	 * @param value
+	 * @return
+	 */
+	private static boolean isWeightedValue(Object value) {
+		if (!(value instanceof Map)) {
+			return false;
+		}
+		
+		Map<?, ?> map = (Map<?, ?>) value;
+		
+		if (map.size() != 2 || !map.containsKey(VALUE) || 
+				!map.containsKey(WEIGHT) || 
+				!(map.get(WEIGHT) instanceof Number)) {
+			return false;
+		}
+		
+		double weight = ((Number) map.get(WEIGHT)).doubleValue();
+		
+		return weight >= 0 && !Double.isInfinite(weight);
 	}
 
 	@Override
@@ -93,10 +616,20 @@ public class ConfigurationImpl implements Configuration {
 		final int prime = 31;
 		int result = 1;
 		result = prime * result + ((data == null) ? 0 : data.hashCode());
+		result = prime * result
+				+ ((dictionaries == null) ? 0 : dictionaries.hashCode());
+		result = prime * result
+				+ ((distributions == null) ? 0 : distributions.hashCode());
 		result = prime * result
 				+ ((namespaces == null) ? 0 : namespaces.hashCode());
+		result = prime * result
+				+ ((patterns == null) ? 0 : patterns.hashCode());
+		result = prime * result
+				+ ((texts == null) ? 0 : texts.hashCode());
 		result = prime * result
 				+ ((resource == null) ? 0 : resource.hashCode());
+		result = prime * result
+				+ ((tuples == null) ? 0 : tuples.hashCode());
 		return result;
 	}
 
@@ -114,23 +647,51 @@ public class ConfigurationImpl implements Configuration {
 				return false;
 		} else if (!data.equals(other.data))
 			return false;
+		if (dictionaries == null) {
+			if (other.dictionaries != null)
+				return false;
+		} else if (!dictionaries.equals(other.dictionaries))
+			return false;
+		if (distributions == null) {
+			if (other.distributions != null)
+				return false;
+		} else if (!distributions.equals(other.distributions))
+			return false;
 		if (namespaces == null) {
 			if (other.namespaces != null)
 				return false;
 		} else if (!namespaces.equals(other.namespaces))
 			return false;
+		if (patterns == null) {
+			if (other.patterns != null)
+				return false;
+		} else if (!patterns.equals(other.patterns))
+			return false;
+		if (texts == null) {
+			if (other.texts != null)
+				return false;
+		} else if (!texts.equals(other.texts))
+			return false;
 		if (resource == null) {
 			if (other.resource != null)
 				return false;
 		} else if (!resource.equals(other.resource))
 			return false;
+		if (tuples == null) {
+			if (other.tuples != null)
+				return false;
+		} else if (!tuples.equals(other.tuples))
+			return false;
 		return true;
 	}
 
 	@Override
 	public String toString() {
 		return "ConfigurationImpl [namespaces=" + namespaces + ", resource="
-				+ resource + ", data=" + data + "]";
+				+ resource + ", data=" + data + ", distributions=" 
+				+ distributions + ", patterns=" + patterns + ", texts=" 
+				+ texts + ", tuples=" + tupleTables + ", dictionaries=" 
+				+ dictionaries + "]";
 	}
 	
 }
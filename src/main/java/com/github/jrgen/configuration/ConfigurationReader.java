@@ -0,0 +1,452 @@
+package com.github.jrgen.configuration;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonMappingException;
+
+/***
+ * <p>
+ * Reads JSON resource files into {@link Configuration}s with a streaming
+ * {@link JsonParser}. The namespaces and the values of each property are
+ * read token by token straight into the lists the {@link ConfigurationImpl}
+ * keeps, sized to their content, without building an intermediate tree of
+ * the whole file. Peak memory while loading therefore stays close to the
+ * size of the loaded configuration.
+ * </p>
+ *
+ * <p>
+ * Values are read the same way Jackson databind reads untyped values:
+ * Strings, Integers, Longs or BigIntegers, Doubles, Booleans, nulls, and
+ * {@link Map}s and {@link List}s for structured values. Unknown fields are
+ * rejected. Resource files encoded with a {@link ResourceCodec} are
+ * decoded as they are streamed to the parser. Instances are thread-safe.
+ * </p>
+ *
+ * <p>
+ * The values of a data property may instead be a reference to a shared
+ * {@link com.github.jrgen.dictionary.StringDictionary StringDictionary},
+ * <code>{"$ref": "dict:firstNames"}</code>, which is the same as listing
+ * the reference in the dictionaries field. Configurations referencing the
+ * same dictionary share it, so it is read once whatever the number of
+ * namespaces using it, see
+ * {@link com.github.jrgen.dictionary.Dictionaries Dictionaries}.
+ * </p>
+ *
+ * @author Allan J. Shoulders
+ * @version 1.0
+ * @since 1.2.0
+ * @see ConfigurationImpl
+ *
+ */
+public final class ConfigurationReader {
+
+	private static final String NAMESPACES = "namespaces";
+	private static final String DATA = "data";
+	private static final String DISTRIBUTIONS = "distributions";
+	private static final String PATTERNS = "patterns";
+	private static final String TEXTS = "texts";
+	private static final String TUPLES = "tuples";
+	private static final String DICTIONARIES = "dictionaries";
+	private static final String RESOURCE = "resource";
+	private static final String REF = "$ref";
+
+	private final JsonFactory factory;
+
+	/**
+	 * Constructs a new instance of the ConfigurationReader class.
+	 */
+	public ConfigurationReader() {
+		this.factory = new JsonFactory();
+	}
+
+	/**
+	 * Reads the configurations of a JSON resource file, an array of
+	 * configuration objects. A file compressed with a registered
+	 * {@link ResourceCodec}, such as <i>names.json.gz</i>, is decompressed
+	 * while it is parsed.
+	 *
+	 * @param url the {@link URL} of the resource file.
+	 * @return the {@link Set} of {@link Configuration}s, in the order of the
+	 * file.
+	 * @throws JsonParseException if the file is not valid JSON.
+	 * @throws JsonMappingException if the JSON is not a valid configuration
+	 * file.
+	 * @throws IOException if the file cannot be read.
+	 */
+	public Set<Configuration> read(URL url) throws IOException {
+		InputStream in = ResourceCodecs.open(url);
+
+		try {
+			return read(in);
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * Reads the configurations of a JSON stream, an array of configuration
+	 * objects.
+	 *
+	 * @param in the {@link InputStream} of the JSON, which is not closed.
+	 * @return the {@link Set} of {@link Configuration}s, in the order of the
+	 * stream.
+	 * @throws JsonParseException if the stream is not valid JSON.
+	 * @throws JsonMappingException if the JSON is not a valid configuration
+	 * file.
+	 * @throws IOException if the stream cannot be read.
+	 */
+	public Set<Configuration> read(InputStream in) throws IOException {
+		JsonParser parser = factory.createParser(in);
+
+		try {
+			Set<Configuration> configs = new LinkedHashSet<Configuration>();
+			expect(parser, parser.nextToken(), JsonToken.START_ARRAY);
+
+			while (parser.nextToken() != JsonToken.END_ARRAY) {
+				configs.add(readConfiguration(parser));
+			}
+
+			return configs;
+		} finally {
+			parser.close();
+		}
+	}
+
+	/**
+	 * Scans a JSON resource file for the namespaces of its configurations,
+	 * skipping every other field without reading its values. This is much
+	 * cheaper than reading the configurations, and allows indexing resource
+	 * files by namespace.
+	 *
+	 * @param url the {@link URL} of the resource file.
+	 * @return the {@link Set} of the namespaces of the configurations of the
+	 * file, in the order of the file.
+	 * @throws JsonParseException if the file is not valid JSON.
+	 * @throws JsonMappingException if the JSON is not a valid configuration
+	 * file.
+	 * @throws IOException if the file cannot be read.
+	 */
+	public Set<String> scanNamespaces(URL url) throws IOException {
+		InputStream in = ResourceCodecs.open(url);
+		JsonParser parser = factory.createParser(in);
+
+		try {
+			Set<String> namespaces = new LinkedHashSet<String>();
+			expect(parser, parser.nextToken(), JsonToken.START_ARRAY);
+
+			while (parser.nextToken() != JsonToken.END_ARRAY) {
+				expect(parser, parser.getCurrentToken(), JsonToken.START_OBJECT);
+
+				while (parser.nextToken() == JsonToken.FIELD_NAME) {
+					String field = parser.getCurrentName();
+
+					if (parser.nextToken() == JsonToken.START_ARRAY &&
+							NAMESPACES.equals(field)) {
+						namespaces.addAll(readNamespaces(parser));
+					} else {
+						parser.skipChildren();
+					}
+				}
+			}
+
+			return namespaces;
+		} finally {
+			parser.close();
+			in.close();
+		}
+	}
+
+	/**
+	 * Helper method that reads a configuration object.
+	 *
+	 * @param parser
+	 * @return
+	 * @throws IOException
+	 */
+	private ConfigurationImpl readConfiguration(JsonParser parser)
+			throws IOException {
+		expect(parser, parser.getCurrentToken(), JsonToken.START_OBJECT);
+		ConfigurationImpl config = new ConfigurationImpl();
+		Map<String, String> references = new LinkedHashMap<String, String>();
+
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String field = parser.getCurrentName();
+			JsonToken token = parser.nextToken();
+
+			try {
+				readField(parser, config, field, token, references);
+			} catch (IllegalArgumentException e) {
+				throw new JsonMappingException("Invalid field \"" + field +
+						"\": " + e.getMessage(), parser.getCurrentLocation(), e);
+			}
+		}
+
+		expect(parser, parser.getCurrentToken(), JsonToken.END_OBJECT);
+
+		//The references of the data join the dictionaries, in either order.
+		if (!references.isEmpty()) {
+			Map<String, String> dictionaries =
+					new LinkedHashMap<String, String>();
+
+			if (config.getDictionaries() != null) {
+				dictionaries.putAll(config.getDictionaries());
+			}
+
+			dictionaries.putAll(references);
+			config.setDictionaries(dictionaries);
+		}
+
+		return config;
+	}
+
+	/**
+	 * Helper method that reads a field of a configuration object into the
+	 * configuration.
+	 *
+	 * @param parser
+	 * @param config
+	 * @param field
+	 * @param token
+	 * @param references receives the dictionary references of the data.
+	 * @throws IOException
+	 */
+	private void readField(JsonParser parser, ConfigurationImpl config,
+			String field, JsonToken token, Map<String, String> references)
+			throws IOException {
+		if (token == JsonToken.VALUE_NULL) {
+			return;
+		} else if (NAMESPACES.equals(field)) {
+			config.setNamespaces(readNamespaces(parser));
+		} else if (DATA.equals(field)) {
+			config.adoptData(readData(parser, references));
+		} else if (DISTRIBUTIONS.equals(field)) {
+			config.setDistributions(readStrings(parser));
+		} else if (PATTERNS.equals(field)) {
+			config.setPatterns(readStrings(parser));
+		} else if (TEXTS.equals(field)) {
+			config.setTexts(readStrings(parser));
+		} else if (DICTIONARIES.equals(field)) {
+			config.setDictionaries(readStrings(parser));
+		} else if (TUPLES.equals(field)) {
+			config.setTuples(readTuples(parser));
+		} else if (RESOURCE.equals(field)) {
+			expect(parser, token, JsonToken.VALUE_STRING);
+			config.setResource(URI.create(parser.getText()));
+		} else {
+			throw new JsonMappingException("Unrecognized field \"" + field +
+					"\"", parser.getCurrentLocation());
+		}
+	}
+
+	/**
+	 * Helper method that reads the array of namespaces.
+	 *
+	 * @param parser
+	 * @return
+	 * @throws IOException
+	 */
+	private Set<String> readNamespaces(JsonParser parser) throws IOException {
+		expect(parser, parser.getCurrentToken(), JsonToken.START_ARRAY);
+		Set<String> namespaces = new LinkedHashSet<String>();
+
+		while (parser.nextToken() != JsonToken.END_ARRAY) {
+			namespaces.add(parser.getValueAsString());
+		}
+
+		return namespaces;
+	}
+
+	/**
+	 * Helper method that reads the data object, the values of each property
+	 * being read into a list sized to its content, unless they reference a
+	 * dictionary.
+	 *
+	 * @param parser
+	 * @param references receives the dictionary reference of each property
+	 * that has one.
+	 * @return
+	 * @throws IOException
+	 */
+	private Map<String, List<Object>> readData(JsonParser parser,
+			Map<String, String> references) throws IOException {
+		expect(parser, parser.getCurrentToken(), JsonToken.START_OBJECT);
+		Map<String, List<Object>> data =
+				new LinkedHashMap<String, List<Object>>();
+
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String property = parser.getCurrentName();
+
+			JsonToken token = parser.nextToken();
+
+			if (token == JsonToken.VALUE_NULL) {
+				data.put(property, null);
+			} else if (token == JsonToken.START_OBJECT) {
+				references.put(property, readReference(parser));
+			} else {
+				data.put(property, readArray(parser));
+			}
+		}
+
+		return data;
+	}
+
+	/**
+	 * Helper method that reads a reference object, holding a single $ref
+	 * field.
+	 *
+	 * @param parser
+	 * @return the reference.
+	 * @throws IOException
+	 */
+	private String readReference(JsonParser parser) throws IOException {
+		expect(parser, parser.nextToken(), JsonToken.FIELD_NAME);
+
+		if (!REF.equals(parser.getCurrentName())) {
+			throw new JsonMappingException("Expected a " + REF + 
+					" field but was \"" + parser.getCurrentName() + "\"",
+					parser.getCurrentLocation());
+		}
+
+		expect(parser, parser.nextToken(), JsonToken.VALUE_STRING);
+		String reference = parser.getText();
+		expect(parser, parser.nextToken(), JsonToken.END_OBJECT);
+
+		return reference;
+	}
+
+	/**
+	 * Helper method that reads an object of String values.
+	 *
+	 * @param parser
+	 * @return
+	 * @throws IOException
+	 */
+	private Map<String, String> readStrings(JsonParser parser)
+			throws IOException {
+		expect(parser, parser.getCurrentToken(), JsonToken.START_OBJECT);
+		Map<String, String> strings = new LinkedHashMap<String, String>();
+
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String field = parser.getCurrentName();
+			parser.nextToken();
+			strings.put(field, parser.getCurrentToken() ==
+					JsonToken.VALUE_NULL ? null : parser.getValueAsString());
+		}
+
+		return strings;
+	}
+
+	/**
+	 * Helper method that reads the array of tuple table definitions.
+	 *
+	 * @param parser
+	 * @return
+	 * @throws IOException
+	 */
+	@SuppressWarnings("unchecked")
+	private List<Map<String, Object>> readTuples(JsonParser parser)
+			throws IOException {
+		expect(parser, parser.getCurrentToken(), JsonToken.START_ARRAY);
+		List<Map<String, Object>> tuples = new ArrayList<Map<String, Object>>();
+
+		while (parser.nextToken() != JsonToken.END_ARRAY) {
+			expect(parser, parser.getCurrentToken(), JsonToken.START_OBJECT);
+			tuples.add((Map<String, Object>) readValue(parser));
+		}
+
+		return tuples;
+	}
+
+	/**
+	 * Helper method that reads an array, trimmed to its content.
+	 *
+	 * @param parser
+	 * @return
+	 * @throws IOException
+	 */
+	private List<Object> readArray(JsonParser parser) throws IOException {
+		expect(parser, parser.getCurrentToken(), JsonToken.START_ARRAY);
+		ArrayList<Object> values = new ArrayList<Object>();
+
+		while (parser.nextToken() != JsonToken.END_ARRAY) {
+			values.add(readValue(parser));
+		}
+
+		values.trimToSize();
+		return values;
+	}
+
+	/**
+	 * Helper method that reads the value at the current token.
+	 *
+	 * @param parser
+	 * @return
+	 * @throws IOException
+	 */
+	private Object readValue(JsonParser parser) throws IOException {
+		switch (parser.getCurrentToken()) {
+		case VALUE_STRING:
+			return parser.getText();
+		case VALUE_NUMBER_INT:
+			return parser.getNumberValue();
+		case VALUE_NUMBER_FLOAT:
+			return parser.getDoubleValue();
+		case VALUE_TRUE:
+			return Boolean.TRUE;
+		case VALUE_FALSE:
+			return Boolean.FALSE;
+		case VALUE_NULL:
+			return null;
+		case START_ARRAY:
+			return readArray(parser);
+		case START_OBJECT:
+			Map<String, Object> object = new LinkedHashMap<String, Object>();
+
+			while (parser.nextToken() == JsonToken.FIELD_NAME) {
+				String field = parser.getCurrentName();
+				parser.nextToken();
+				object.put(field, readValue(parser));
+			}
+
+			return object;
+		default:
+			throw new JsonMappingException("Unexpected token " +
+					parser.getCurrentToken(), parser.getCurrentLocation());
+		}
+	}
+
+	/**
+	 * Helper method that verifies the current token.
+	 *
+	 * @param parser
+	 * @param actual
+	 * @param expected
+	 * @throws JsonMappingException
+	 */
+	private static void expect(JsonParser parser, JsonToken actual,
+			JsonToken expected) throws JsonMappingException {
+		if (actual != expected) {
+			throw new JsonMappingException("Expected " + expected + " but was " +
+					actual, parser.getCurrentLocation());
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "ConfigurationReader [factory=" + factory + "]";
+	}
+
+}
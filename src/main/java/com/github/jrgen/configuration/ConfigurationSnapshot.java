@@ -0,0 +1,894 @@
+package com.github.jrgen.configuration;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.math.BigInteger;
+import java.net.URI;
+import java.net.URLConnection;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * <p>
+ * A ConfigurationSnapshot is a binary file holding the configurations
+ * compiled from a set of JSON resource files, so that a JVM can load them by
+ * memory mapping the snapshot instead of parsing the JSON again. Every String
+ * is stored once in a pool, the values of each property are stored as a
+ * typed array when they are all Strings, ints, longs or doubles, and the
+ * namespaces of every configuration are indexed ahead of their content.
+ * </p>
+ *
+ * <p>
+ * The format, all numbers being big-endian, is:
+ * </p>
+ * <pre>
+ * int     magic, 0x4A524353
+ * int     version, 1
+ * int     number of Strings, n
+ * int[n + 1] offsets of the Strings in the pool, the last being its size
+ * byte[]  pool of UTF-8 bytes
+ * int     number of sources
+ * for each source:
+ *   int   URI, as a String of the pool
+ *   long  last modification time of the source
+ * int     number of configurations
+ * for each configuration, the namespace index:
+ *   int   number of namespaces, followed by the namespaces
+ *   int   position of the configuration, relative to the first one
+ * for each configuration, its resource, data, distributions, patterns,
+ * texts, dictionaries and tuples.
+ * </pre>
+ *
+ * <p>
+ * A snapshot records the last modification time of the resource files it
+ * was compiled from. {@link #isCurrent(Collection)} tells whether it is
+ * still up to date, a snapshot whose sources changed, were added or were
+ * removed having to be compiled again from the JSON. Instances are
+ * immutable and can be shared between threads.
+ * </p>
+ *
+ * @author Allan J. Shoulders
+ * @version 1.0
+ * @since 1.2.0
+ * @see ConfigurationImpl
+ *
+ */
+public final class ConfigurationSnapshot {
+
+	/**
+	 * The version of the snapshot format written by this class.
+	 */
+	public static final int VERSION = 1;
+
+	private static final int MAGIC = 0x4A524353;
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+	private static final String VALUE = "value";
+	private static final String WEIGHT = "weight";
+
+	private static final byte NULL = 0;
+	private static final byte STRING = 1;
+	private static final byte INT = 2;
+	private static final byte LONG = 3;
+	private static final byte DOUBLE = 4;
+	private static final byte TRUE = 5;
+	private static final byte FALSE = 6;
+	private static final byte LIST = 7;
+	private static final byte MAP = 8;
+	private static final byte BIG_INTEGER = 9;
+	private static final byte MIXED = 10;
+
+	private final ByteBuffer buffer;
+	private final String[] strings;
+	private final Map<URI, Long> sources;
+	private final List<Set<String>> namespaces;
+	private final int[] positions;
+	private final int body;
+
+	/**
+	 * Constructs a new instance of the ConfigurationSnapshot class reading
+	 * the given buffer, which must not be modified afterwards.
+	 *
+	 * @param buffer the content of a snapshot.
+	 * @throws IllegalArgumentException if the buffer does not hold a
+	 * snapshot of the current version.
+	 */
+	public ConfigurationSnapshot(ByteBuffer buffer) {
+		if (buffer.limit() < 12 || buffer.getInt(0) != MAGIC) {
+			throw new IllegalArgumentException("Not a configuration snapshot.");
+		}
+
+		if (buffer.getInt(4) != VERSION) {
+			throw new IllegalArgumentException(
+					"Unsupported configuration snapshot version: " +
+					buffer.getInt(4));
+		}
+
+		this.buffer = buffer.duplicate();
+		this.buffer.position(8);
+
+		try {
+			this.strings = readPool(this.buffer);
+			Map<URI, Long> snapshotSources = new LinkedHashMap<URI, Long>();
+			int sourceCount = this.buffer.getInt();
+
+			for (int i = 0; i < sourceCount; i++) {
+				URI uri = URI.create(strings[this.buffer.getInt()]);
+				snapshotSources.put(uri, this.buffer.getLong());
+			}
+
+			this.sources = Collections.unmodifiableMap(snapshotSources);
+			int configCount = this.buffer.getInt();
+			this.namespaces = new ArrayList<Set<String>>(configCount);
+			this.positions = new int[configCount];
+
+			for (int i = 0; i < configCount; i++) {
+				Set<String> configNamespaces = new LinkedHashSet<String>();
+				int namespaceCount = this.buffer.getInt();
+
+				for (int n = 0; n < namespaceCount; n++) {
+					configNamespaces.add(strings[this.buffer.getInt()]);
+				}
+
+				namespaces.add(Collections.unmodifiableSet(configNamespaces));
+				positions[i] = this.buffer.getInt();
+			}
+
+			this.body = this.buffer.position();
+		} catch (RuntimeException e) {
+			throw new IllegalArgumentException(
+					"Corrupt configuration snapshot.", e);
+		}
+	}
+
+	/**
+	 * Opens a snapshot file by memory mapping it.
+	 *
+	 * @param file the snapshot file.
+	 * @return the ConfigurationSnapshot.
+	 * @throws IOException if the file cannot be mapped.
+	 * @throws IllegalArgumentException if the file is not a snapshot of the
+	 * current version.
+	 */
+	public static ConfigurationSnapshot open(File file) throws IOException {
+		RandomAccessFile raf = new RandomAccessFile(file, "r");
+
+		try {
+			FileChannel channel = raf.getChannel();
+			//The mapping remains valid once the channel is closed.
+			return new ConfigurationSnapshot(channel.map(
+					FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+		} finally {
+			raf.close();
+		}
+	}
+
+	/**
+	 * Writes a snapshot file of the given configurations. The snapshot is
+	 * written to a temporary file first, which then replaces the file, so
+	 * that a JVM never maps a partially written snapshot.
+	 *
+	 * @param file the snapshot file.
+	 * @param sources the {@link URI}s of the resource files the
+	 * configurations were loaded from.
+	 * @param configs the configurations.
+	 * @throws IOException if the snapshot cannot be written.
+	 * @throws IllegalArgumentException if a configuration is not a
+	 * {@link ConfigurationImpl} or holds a value that cannot be stored.
+	 */
+	public static void write(File file, Collection<URI> sources,
+			Collection<? extends Configuration> configs) throws IOException {
+		write(file, lastModified(sources), configs);
+	}
+
+	/**
+	 * Writes a snapshot file of the given configurations, recording the 
+	 * given modification time of each resource file, such as the time it 
+	 * had when it was parsed, rather than its current one.
+	 *
+	 * @param file the snapshot file.
+	 * @param sources the {@link URI}s of the resource files the
+	 * configurations were loaded from, and their last modification times.
+	 * @param configs the configurations.
+	 * @throws IOException if the snapshot cannot be written.
+	 * @throws IllegalArgumentException if a configuration is not a
+	 * {@link ConfigurationImpl} or holds a value that cannot be stored.
+	 */
+	public static void write(File file, Map<URI, Long> sources,
+			Collection<? extends Configuration> configs) throws IOException {
+		File directory = file.getAbsoluteFile().getParentFile();
+
+		if (directory != null && !directory.isDirectory()) {
+			directory.mkdirs();
+		}
+
+		File temp = File.createTempFile(file.getName(), ".tmp", directory);
+		OutputStream out = new FileOutputStream(temp);
+
+		try {
+			write(out, sources, configs);
+		} finally {
+			out.close();
+		}
+
+		if (!temp.renameTo(file) && !(file.delete() && temp.renameTo(file))) {
+			temp.delete();
+			throw new IOException("Cannot replace the snapshot: " + file);
+		}
+	}
+
+	/**
+	 * Writes a snapshot of the given configurations.
+	 *
+	 * @param out the {@link OutputStream} the snapshot is written to, which
+	 * is not closed.
+	 * @param sources the {@link URI}s of the resource files the
+	 * configurations were loaded from.
+	 * @param configs the configurations.
+	 * @throws IOException if the snapshot cannot be written.
+	 * @throws IllegalArgumentException if a configuration is not a
+	 * {@link ConfigurationImpl} or holds a value that cannot be stored.
+	 */
+	public static void write(OutputStream out, Collection<URI> sources,
+			Collection<? extends Configuration> configs) throws IOException {
+		write(out, lastModified(sources), configs);
+	}
+
+	/**
+	 * Writes a snapshot of the given configurations, recording the given 
+	 * modification time of each resource file.
+	 *
+	 * @param out the {@link OutputStream} the snapshot is written to, which
+	 * is not closed.
+	 * @param sources the {@link URI}s of the resource files the
+	 * configurations were loaded from, and their last modification times.
+	 * @param configs the configurations.
+	 * @throws IOException if the snapshot cannot be written.
+	 * @throws IllegalArgumentException if a configuration is not a
+	 * {@link ConfigurationImpl} or holds a value that cannot be stored.
+	 */
+	public static void write(OutputStream out, Map<URI, Long> sources,
+			Collection<? extends Configuration> configs) throws IOException {
+		Writer writer = new Writer();
+		ByteArrayOutputStream index = new ByteArrayOutputStream();
+		DataOutputStream indexData = new DataOutputStream(index);
+		indexData.writeInt(sources.size());
+
+		for (Map.Entry<URI, Long> source : sources.entrySet()) {
+			indexData.writeInt(writer.intern(source.getKey().toString()));
+			indexData.writeLong(source.getValue());
+		}
+
+		indexData.writeInt(configs.size());
+
+		for (Configuration config : configs) {
+			if (!(config instanceof ConfigurationImpl)) {
+				throw new IllegalArgumentException("Only ConfigurationImpl " +
+						"instances can be stored in a snapshot: " + config);
+			}
+
+			Set<String> configNamespaces = config.getNamespaces();
+			indexData.writeInt(configNamespaces == null ? 0 :
+					configNamespaces.size());
+
+			if (configNamespaces != null) {
+				for (String namespace : configNamespaces) {
+					indexData.writeInt(writer.intern(namespace));
+				}
+			}
+
+			indexData.writeInt(writer.size());
+			writer.writeConfiguration((ConfigurationImpl) config);
+		}
+
+		DataOutputStream data = new DataOutputStream(out);
+		data.writeInt(MAGIC);
+		data.writeInt(VERSION);
+		writer.writePool(data);
+		index.writeTo(data);
+		writer.body.writeTo(data);
+		data.flush();
+	}
+
+	/**
+	 * Returns the last modification time of a resource file, or 0 if it is
+	 * unknown.
+	 *
+	 * @param source the {@link URI} of the resource file.
+	 * @return the last modification time, in milliseconds since the epoch.
+	 */
+	public static long lastModified(URI source) {
+		if ("file".equals(source.getScheme())) {
+			return new File(source).lastModified();
+		}
+
+		try {
+			URLConnection connection = source.toURL().openConnection();
+			connection.setUseCaches(false);
+			long lastModified = connection.getLastModified();
+			connection.getInputStream().close();
+			return lastModified;
+		} catch (IOException e) {
+			return 0;
+		}
+	}
+
+	/**
+	 * Helper method that reads the current modification time of each 
+	 * resource file.
+	 *
+	 * @param sources
+	 * @return
+	 */
+	private static Map<URI, Long> lastModified(Collection<URI> sources) {
+		Map<URI, Long> times = new LinkedHashMap<URI, Long>();
+
+		for (URI source : sources) {
+			times.put(source, lastModified(source));
+		}
+
+		return times;
+	}
+
+	/**
+	 * Determines if this snapshot is up to date, that is it was compiled
+	 * from exactly the given resource files, none of which was modified
+	 * since. A file whose modification time went back, such as a file 
+	 * restored from a backup, is modified as well.
+	 *
+	 * @param resourceFiles the {@link URI}s of the resource files.
+	 * @return true if the snapshot is up to date.
+	 */
+	public boolean isCurrent(Collection<URI> resourceFiles) {
+		if (resourceFiles.size() != sources.size()) {
+			return false;
+		}
+
+		for (URI resourceFile : resourceFiles) {
+			Long compiled = sources.get(resourceFile);
+
+			if (compiled == null || lastModified(resourceFile) != compiled) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Returns the resource files the snapshot was compiled from, and their
+	 * last modification times.
+	 *
+	 * @return an unmodifiable {@link Map} of the sources.
+	 */
+	public Map<URI, Long> getSources() {
+		return sources;
+	}
+
+	/**
+	 * Returns the number of configurations of the snapshot.
+	 *
+	 * @return the number of configurations.
+	 */
+	public int size() {
+		return positions.length;
+	}
+
+	/**
+	 * Returns the namespaces of a configuration, read from the index without
+	 * reading the configuration.
+	 *
+	 * @param index the index of the configuration.
+	 * @return an unmodifiable {@link Set} of the namespaces.
+	 */
+	public Set<String> getNamespaces(int index) {
+		return namespaces.get(index);
+	}
+
+	/**
+	 * Reads a configuration of the snapshot. Each call returns a new
+	 * instance.
+	 *
+	 * @param index the index of the configuration.
+	 * @return the {@link Configuration}.
+	 * @throws IllegalArgumentException if the snapshot is corrupt.
+	 */
+	public Configuration getConfiguration(int index) {
+		ByteBuffer view = buffer.duplicate();
+		view.position(body + positions[index]);
+
+		try {
+			return readConfiguration(view, namespaces.get(index));
+		} catch (RuntimeException e) {
+			throw new IllegalArgumentException(
+					"Corrupt configuration snapshot.", e);
+		}
+	}
+
+	/**
+	 * Reads all the configurations of the snapshot. Each call returns new
+	 * instances.
+	 *
+	 * @return the {@link Set} of {@link Configuration}s, in the order they
+	 * were written.
+	 * @throws IllegalArgumentException if the snapshot is corrupt.
+	 */
+	public Set<Configuration> getConfigurations() {
+		Set<Configuration> configs = new LinkedHashSet<Configuration>();
+
+		for (int i = 0; i < positions.length; i++) {
+			configs.add(getConfiguration(i));
+		}
+
+		return configs;
+	}
+
+	@Override
+	public String toString() {
+		return "ConfigurationSnapshot [sources=" + sources.size() +
+				", configurations=" + positions.length + "]";
+	}
+
+	/**
+	 * Helper method that reads the String pool.
+	 *
+	 * @param buffer
+	 * @return
+	 */
+	private static String[] readPool(ByteBuffer buffer) {
+		String[] pool = new String[buffer.getInt()];
+		int[] offsets = new int[pool.length + 1];
+
+		for (int i = 0; i < offsets.length; i++) {
+			offsets[i] = buffer.getInt();
+		}
+
+		byte[] bytes = new byte[offsets[pool.length]];
+		buffer.get(bytes);
+
+		for (int i = 0; i < pool.length; i++) {
+			pool[i] = new String(bytes, offsets[i], offsets[i + 1] - offsets[i],
+					UTF_8);
+		}
+
+		return pool;
+	}
+
+	/**
+	 * Helper method that reads a configuration.
+	 *
+	 * @param view
+	 * @param configNamespaces
+	 * @return
+	 */
+	private ConfigurationImpl readConfiguration(ByteBuffer view,
+			Set<String> configNamespaces) {
+		ConfigurationImpl config = new ConfigurationImpl();
+		config.setNamespaces(new LinkedHashSet<String>(configNamespaces));
+		String resource = readString(view);
+		config.setResource(resource == null ? null : URI.create(resource));
+		config.adoptData(readData(view));
+		config.setDistributions(readStrings(view));
+		config.setPatterns(readStrings(view));
+		config.setTexts(readStrings(view));
+		config.setDictionaries(readStrings(view));
+		config.setTuples(readTuples(view));
+
+		return config;
+	}
+
+	/**
+	 * Helper method that reads the data of a configuration, wrapping the
+	 * values of a weighted property back into weighted values.
+	 *
+	 * @param view
+	 * @return
+	 */
+	private Map<String, List<Object>> readData(ByteBuffer view) {
+		int count = view.getInt();
+
+		if (count < 0) {
+			return null;
+		}
+
+		Map<String, List<Object>> data =
+				new LinkedHashMap<String, List<Object>>();
+
+		for (int i = 0; i < count; i++) {
+			String property = strings[view.getInt()];
+			List<Object> values = readArray(view);
+
+			if (values != null && view.get() != 0) {
+				for (int v = 0; v < values.size(); v++) {
+					Map<String, Object> weighted =
+							new LinkedHashMap<String, Object>();
+					weighted.put(VALUE, values.get(v));
+					weighted.put(WEIGHT, view.getDouble());
+					values.set(v, weighted);
+				}
+			}
+
+			data.put(property, values);
+		}
+
+		return data;
+	}
+
+	/**
+	 * Helper method that reads an array of values, stored as a typed array
+	 * or as tagged values.
+	 *
+	 * @param view
+	 * @return
+	 */
+	private List<Object> readArray(ByteBuffer view) {
+		byte kind = view.get();
+
+		if (kind == NULL) {
+			return null;
+		}
+
+		int size = view.getInt();
+		List<Object> values = new ArrayList<Object>(size);
+
+		for (int i = 0; i < size; i++) {
+			switch (kind) {
+			case STRING:
+				values.add(readString(view));
+				break;
+			case INT:
+				values.add(view.getInt());
+				break;
+			case LONG:
+				values.add(view.getLong());
+				break;
+			case DOUBLE:
+				values.add(view.getDouble());
+				break;
+			default:
+				values.add(readValue(view));
+			}
+		}
+
+		return values;
+	}
+
+	/**
+	 * Helper method that reads a tagged value.
+	 *
+	 * @param view
+	 * @return
+	 */
+	private Object readValue(ByteBuffer view) {
+		byte tag = view.get();
+
+		switch (tag) {
+		case NULL:
+			return null;
+		case STRING:
+			return strings[view.getInt()];
+		case INT:
+			return view.getInt();
+		case LONG:
+			return view.getLong();
+		case DOUBLE:
+			return view.getDouble();
+		case TRUE:
+			return Boolean.TRUE;
+		case FALSE:
+			return Boolean.FALSE;
+		case BIG_INTEGER:
+			return new BigInteger(strings[view.getInt()]);
+		case LIST:
+			int size = view.getInt();
+			List<Object> list = new ArrayList<Object>(size);
+
+			for (int i = 0; i < size; i++) {
+				list.add(readValue(view));
+			}
+
+			return list;
+		case MAP:
+			int entries = view.getInt();
+			Map<String, Object> map = new LinkedHashMap<String, Object>();
+
+			for (int i = 0; i < entries; i++) {
+				String key = strings[view.getInt()];
+				map.put(key, readValue(view));
+			}
+
+			return map;
+		default:
+			throw new IllegalArgumentException("Unknown value tag: " + tag);
+		}
+	}
+
+	/**
+	 * Helper method that reads a map of Strings.
+	 *
+	 * @param view
+	 * @return
+	 */
+	private Map<String, String> readStrings(ByteBuffer view) {
+		int count = view.getInt();
+
+		if (count < 0) {
+			return null;
+		}
+
+		Map<String, String> map = new LinkedHashMap<String, String>();
+
+		for (int i = 0; i < count; i++) {
+			String key = strings[view.getInt()];
+			map.put(key, readString(view));
+		}
+
+		return map;
+	}
+
+	/**
+	 * Helper method that reads the tuple table definitions.
+	 *
+	 * @param view
+	 * @return
+	 */
+	@SuppressWarnings("unchecked")
+	private List<Map<String, Object>> readTuples(ByteBuffer view) {
+		int count = view.getInt();
+
+		if (count < 0) {
+			return null;
+		}
+
+		List<Map<String, Object>> tuples = new ArrayList<Map<String, Object>>();
+
+		for (int i = 0; i < count; i++) {
+			tuples.add((Map<String, Object>) readValue(view));
+		}
+
+		return tuples;
+	}
+
+	/**
+	 * Helper method that reads a String of the pool, or null.
+	 *
+	 * @param view
+	 * @return
+	 */
+	private String readString(ByteBuffer view) {
+		int index = view.getInt();
+		return index < 0 ? null : strings[index];
+	}
+
+	/**
+	 * Writes the content of the configurations, interning their Strings in
+	 * the pool.
+	 */
+	private static final class Writer {
+
+		private final Map<String, Integer> pool =
+				new LinkedHashMap<String, Integer>();
+		private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+		private final DataOutputStream out = new DataOutputStream(body);
+
+		private int intern(String value) {
+			if (value == null) {
+				return -1;
+			}
+
+			Integer index = pool.get(value);
+
+			if (index == null) {
+				index = pool.size();
+				pool.put(value, index);
+			}
+
+			return index;
+		}
+
+		private int size() {
+			return out.size();
+		}
+
+		private void writePool(DataOutputStream data) throws IOException {
+			List<byte[]> encoded = new ArrayList<byte[]>(pool.size());
+			int offset = 0;
+			data.writeInt(pool.size());
+
+			for (String value : pool.keySet()) {
+				byte[] bytes = value.getBytes(UTF_8);
+				encoded.add(bytes);
+				data.writeInt(offset);
+				offset += bytes.length;
+			}
+
+			data.writeInt(offset);
+
+			for (byte[] bytes : encoded) {
+				data.write(bytes);
+			}
+		}
+
+		private void writeConfiguration(ConfigurationImpl config)
+				throws IOException {
+			URI resource = config.getResource();
+			out.writeInt(intern(resource == null ? null : resource.toString()));
+			writeData(config);
+			writeStrings(config.getDistributions());
+			writeStrings(config.getPatterns());
+			writeStrings(config.getTexts());
+			writeStrings(config.getDictionaries());
+			List<Map<String, Object>> tuples = config.getTuples();
+			out.writeInt(tuples == null ? -1 : tuples.size());
+
+			if (tuples != null) {
+				for (Map<String, Object> tuple : tuples) {
+					writeValue(tuple);
+				}
+			}
+		}
+
+		private void writeData(ConfigurationImpl config) throws IOException {
+			Map<String, List<Object>> data = config.getData();
+			out.writeInt(data == null ? -1 : data.size());
+
+			if (data == null) {
+				return;
+			}
+
+			for (Map.Entry<String, List<Object>> entry : data.entrySet()) {
+				out.writeInt(intern(entry.getKey()));
+				List<Object> values = entry.getValue();
+				writeArray(values);
+
+				if (values == null) {
+					continue;
+				}
+
+				double[] weights = config.getWeights(entry.getKey());
+
+				if (weights == null || weights.length != values.size()) {
+					out.writeByte(0);
+				} else {
+					out.writeByte(1);
+
+					for (double weight : weights) {
+						out.writeDouble(weight);
+					}
+				}
+			}
+		}
+
+		private void writeArray(List<Object> values) throws IOException {
+			if (values == null) {
+				out.writeByte(NULL);
+				return;
+			}
+
+			byte kind = arrayKind(values);
+			out.writeByte(kind);
+			out.writeInt(values.size());
+
+			for (Object value : values) {
+				switch (kind) {
+				case STRING:
+					out.writeInt(intern((String) value));
+					break;
+				case INT:
+					out.writeInt((Integer) value);
+					break;
+				case LONG:
+					out.writeLong((Long) value);
+					break;
+				case DOUBLE:
+					out.writeDouble((Double) value);
+					break;
+				default:
+					writeValue(value);
+				}
+			}
+		}
+
+		private void writeValue(Object value) throws IOException {
+			if (value == null) {
+				out.writeByte(NULL);
+			} else if (value instanceof String) {
+				out.writeByte(STRING);
+				out.writeInt(intern((String) value));
+			} else if (value instanceof Integer) {
+				out.writeByte(INT);
+				out.writeInt((Integer) value);
+			} else if (value instanceof Long) {
+				out.writeByte(LONG);
+				out.writeLong((Long) value);
+			} else if (value instanceof Double) {
+				out.writeByte(DOUBLE);
+				out.writeDouble((Double) value);
+			} else if (value instanceof Boolean) {
+				out.writeByte((Boolean) value ? TRUE : FALSE);
+			} else if (value instanceof BigInteger) {
+				out.writeByte(BIG_INTEGER);
+				out.writeInt(intern(value.toString()));
+			} else if (value instanceof List) {
+				List<?> list = (List<?>) value;
+				out.writeByte(LIST);
+				out.writeInt(list.size());
+
+				for (Object element : list) {
+					writeValue(element);
+				}
+			} else if (value instanceof Map) {
+				Map<?, ?> map = (Map<?, ?>) value;
+				out.writeByte(MAP);
+				out.writeInt(map.size());
+
+				for (Map.Entry<?, ?> entry : map.entrySet()) {
+					out.writeInt(intern(String.valueOf(entry.getKey())));
+					writeValue(entry.getValue());
+				}
+			} else {
+				throw new IllegalArgumentException("A value of type " +
+						value.getClass().getName() +
+						" cannot be stored in a snapshot: " + value);
+			}
+		}
+
+		private void writeStrings(Map<String, String> map) throws IOException {
+			out.writeInt(map == null ? -1 : map.size());
+
+			if (map != null) {
+				for (Map.Entry<String, String> entry : map.entrySet()) {
+					out.writeInt(intern(entry.getKey()));
+					out.writeInt(intern(entry.getValue()));
+				}
+			}
+		}
+
+		/**
+		 * Returns the kind of typed array the values can be stored in, or
+		 * MIXED when they are of different types or may be null.
+		 */
+		private static byte arrayKind(List<Object> values) {
+			byte kind = MIXED;
+
+			for (Object value : values) {
+				byte valueKind = valueKind(value);
+
+				if (valueKind == MIXED || (kind != MIXED && kind != valueKind)) {
+					return MIXED;
+				}
+
+				kind = valueKind;
+			}
+
+			return kind;
+		}
+
+		private static byte valueKind(Object value) {
+			if (value instanceof String) {
+				return STRING;
+			} else if (value instanceof Integer) {
+				return INT;
+			} else if (value instanceof Long) {
+				return LONG;
+			} else if (value instanceof Double) {
+				return DOUBLE;
+			}
+
+			return MIXED;
+		}
+	}
+}
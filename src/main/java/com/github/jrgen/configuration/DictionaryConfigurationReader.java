@@ -0,0 +1,156 @@
+package com.github.jrgen.configuration;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import com.github.jrgen.dictionary.CsvTable;
+import com.github.jrgen.dictionary.Dictionaries;
+import com.github.jrgen.dictionary.StringDictionary;
+import com.github.jrgen.settings.Settings.FileType;
+
+/***
+ * <p>
+ * Reads text and CSV resource files into {@link Configuration}s whose
+ * properties are picked from {@link com.github.jrgen.dictionary.StringDictionary
+ * StringDictionaries}, rather than from values parsed into the heap. The
+ * configuration is named after the file:
+ * </p>
+ * <ul>
+ * <li><i>com.acme.Person.firstName.txt</i>, one value per line, configures
+ * the <i>firstName</i> property of the <i>com.acme.Person</i>
+ * namespace.</li>
+ * <li><i>com.acme.Person.csv</i> configures a property of the
+ * <i>com.acme.Person</i> namespace for each column, named by the
+ * header.</li>
+ * </ul>
+ *
+ * <p>
+ * The file is scanned once into a memory-mapped dictionary, see
+ * {@link Dictionaries}, and each property references it, so a file of
+ * hundreds of thousands of values is loaded without decoding any of them.
+ * Each read maps its own copy of the file and binds it to the
+ * configuration, leaving the cache of {@link Dictionaries} as it is, so
+ * rewriting the file in place and reading it again never disturbs the
+ * configurations that still pick from the former content, in this context
+ * or another one.
+ * The columns of a CSV file are picked independently of each other; use
+ * the tuples of a JSON configuration for values that must be picked
+ * together. Instances are thread-safe.
+ * </p>
+ *
+ * @author Allan J. Shoulders
+ * @version 1.0
+ * @since 1.2.0
+ * @see FileType
+ *
+ */
+public final class DictionaryConfigurationReader {
+
+	/**
+	 * Reads the configuration of a text or CSV resource file. The file is
+	 * read again even if it was read before, so that a modified file is
+	 * picked up.
+	 *
+	 * @param resource the {@link URI} of the resource file.
+	 * @return a {@link Set} holding the {@link Configuration} of the file.
+	 * @throws IllegalArgumentException if the file is neither a text nor a
+	 * CSV file, its name has no namespace, or it is not a valid CSV file.
+	 * @throws com.github.jrgen.exception.JrgenInitializationException if the
+	 * file cannot be read.
+	 */
+	public Set<Configuration> read(URI resource) {
+		Set<String> namespaces = getNamespaces(resource);
+		String location = resource.toString();
+		String name = getFileName(resource);
+		Map<String, String> dictionaries = new LinkedHashMap<String, String>();
+		Map<String, StringDictionary> resolved = 
+				new LinkedHashMap<String, StringDictionary>();
+
+		if (FileType.forPath(name) == FileType.TEXT) {
+			String property = name.substring(
+					namespaces.iterator().next().length() + 1,
+					name.length() - FileType.TEXT.toString().length());
+			dictionaries.put(property, location);
+			resolved.put(property, Dictionaries.openText(location));
+		} else {
+			CsvTable table = Dictionaries.openTable(location);
+
+			for (String column : table.getColumns()) {
+				dictionaries.put(column, location + "#" + column);
+				resolved.put(column, table.getDictionary(column));
+			}
+		}
+
+		ConfigurationImpl config = new ConfigurationImpl(namespaces, resource,
+				null);
+		config.setDictionaries(dictionaries);
+
+		for (Map.Entry<String, StringDictionary> entry : resolved.entrySet()) {
+			config.bindDictionary(entry.getKey(), entry.getValue());
+		}
+
+		return Collections.<Configuration>singleton(config);
+	}
+
+	/**
+	 * Returns the namespaces of the configuration of a text or CSV resource
+	 * file, given by its name, without reading the file.
+	 *
+	 * @param resource the {@link URI} of the resource file.
+	 * @return the {@link Set} holding the namespace of the file.
+	 * @throws IllegalArgumentException if the file is neither a text nor a
+	 * CSV file, or its name has no namespace.
+	 */
+	public Set<String> getNamespaces(URI resource) {
+		String name = getFileName(resource);
+		FileType type = FileType.forPath(name);
+
+		if (type != FileType.TEXT && type != FileType.CSV) {
+			throw new IllegalArgumentException(
+					"Not a text or CSV resource file: " + resource);
+		}
+
+		String namespace = name.substring(0,
+				name.length() - type.toString().length());
+
+		if (type == FileType.TEXT) {
+			namespace = namespace.substring(0,
+					Math.max(namespace.lastIndexOf('.'), 0));
+		}
+
+		if (namespace.length() == 0) {
+			throw new IllegalArgumentException(
+					"The name of the resource file has no namespace: " +
+							resource);
+		}
+
+		Set<String> namespaces = new LinkedHashSet<String>();
+		namespaces.add(namespace);
+
+		return namespaces;
+	}
+
+	@Override
+	public String toString() {
+		return "DictionaryConfigurationReader";
+	}
+
+	/**
+	 * Helper method that returns the name of a resource file, without the
+	 * extension of its codec if it is encoded.
+	 *
+	 * @param resource
+	 * @return
+	 */
+	private static String getFileName(URI resource) {
+		String path = resource.isOpaque() ? resource.getSchemeSpecificPart() :
+				resource.getPath();
+		path = ResourceCodecs.stripExtension(path == null ? "" : path);
+
+		return path.substring(path.lastIndexOf('/') + 1);
+	}
+}
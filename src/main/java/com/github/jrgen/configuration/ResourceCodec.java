@@ -0,0 +1,63 @@
+package com.github.jrgen.configuration;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/***
+ * <p>
+ * A ResourceCodec decodes resource files stored in a compressed or encoded
+ * form, recognized by an extension following the extension of their format,
+ * such as <i>names.json.gz</i>. The decoded content is streamed to the
+ * parser as it is read, it is never held in memory as a whole.
+ * </p>
+ *
+ * <p>
+ * Codecs are registered with {@link ResourceCodecs#register(ResourceCodec)};
+ * gzip is supported out of the box. Other formats, such as Zstandard, are
+ * plugged in by registering a codec wrapping the decoding stream of their
+ * library:
+ * </p>
+ *
+ * <pre>
+ * ResourceCodecs.register(new ResourceCodec() {
+ *     public String getExtension() {
+ *         return ".zst";
+ *     }
+ *
+ *     public InputStream decode(InputStream in) throws IOException {
+ *         return new ZstdInputStream(in);
+ *     }
+ * });
+ * </pre>
+ *
+ * <p>
+ * Implementations must be thread-safe.
+ * </p>
+ *
+ * @author Allan J. Shoulders
+ * @version 1.0
+ * @since 1.2.0
+ * @see ResourceCodecs
+ *
+ */
+public interface ResourceCodec {
+
+	/**
+	 * Returns the extension of the files decoded by this codec, including
+	 * the leading period, for example <i>.gz</i>.
+	 *
+	 * @return the extension.
+	 */
+	public String getExtension();
+
+	/**
+	 * Wraps the stream of an encoded resource file into a stream of its
+	 * decoded content.
+	 *
+	 * @param in the {@link InputStream} of the encoded file.
+	 * @return the {@link InputStream} of the decoded content, closing the
+	 * encoded stream when closed.
+	 * @throws IOException if the stream cannot be decoded.
+	 */
+	public InputStream decode(InputStream in) throws IOException;
+}
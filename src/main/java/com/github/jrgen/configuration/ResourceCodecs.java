@@ -0,0 +1,153 @@
+package com.github.jrgen.configuration;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPInputStream;
+
+import com.github.jrgen.context.ResourceDiscovery;
+
+/***
+ * <p>
+ * The registry of the {@link ResourceCodec}s, shared by every
+ * {@link com.github.jrgen.context.JrgenContext}. A resource file whose name
+ * ends with the extension of a registered codec, after the extension of its
+ * format, is decoded by the codec while it is parsed.
+ * </p>
+ *
+ * @author Allan J. Shoulders
+ * @version 1.0
+ * @since 1.2.0
+ * @see ResourceCodec
+ *
+ */
+public final class ResourceCodecs {
+
+	/**
+	 * The codec of gzip-compressed files, <i>.gz</i>, registered by default.
+	 */
+	public static final ResourceCodec GZIP = new ResourceCodec() {
+
+		@Override
+		public String getExtension() {
+			return ".gz";
+		}
+
+		@Override
+		public InputStream decode(InputStream in) throws IOException {
+			return new GZIPInputStream(in, GZIP_BUFFER_SIZE);
+		}
+
+		@Override
+		public String toString() {
+			return "GZIP";
+		}
+	};
+
+	private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+	private static final int BUFFER_SIZE = 16 * 1024;
+	private static final Map<String, ResourceCodec> CODECS =
+			new ConcurrentHashMap<String, ResourceCodec>();
+
+	static {
+		register(GZIP);
+	}
+
+	private ResourceCodecs() {
+		super();
+	}
+
+	/**
+	 * Registers a codec, replacing the codec registered for the same
+	 * extension if any.
+	 *
+	 * @param codec the {@link ResourceCodec}.
+	 * @throws IllegalArgumentException if the codec or its extension is null,
+	 * or the extension does not start with a period.
+	 */
+	public static void register(ResourceCodec codec) {
+		String extension = codec == null ? null : codec.getExtension();
+
+		if (extension == null || extension.length() < 2 ||
+				extension.charAt(0) != '.') {
+			throw new IllegalArgumentException(
+					"Illegal codec extension: " + extension);
+		}
+
+		CODECS.put(extension.toLowerCase(), codec);
+	}
+
+	/**
+	 * Unregisters the codec of an extension.
+	 *
+	 * @param extension the extension, including the leading period.
+	 * @return the codec that was registered, or null.
+	 */
+	public static ResourceCodec unregister(String extension) {
+		return extension == null ? null :
+				CODECS.remove(extension.toLowerCase());
+	}
+
+	/**
+	 * Returns the codec decoding a file, given its path or name.
+	 *
+	 * @param path the path of the file.
+	 * @return the {@link ResourceCodec}, or null if the file is not encoded.
+	 */
+	public static ResourceCodec forPath(String path) {
+		int period = path == null ? -1 : path.lastIndexOf('.');
+
+		if (period < 0 || path.indexOf('/', period) >= 0) {
+			return null;
+		}
+
+		return CODECS.get(path.substring(period).toLowerCase());
+	}
+
+	/**
+	 * Removes the extension of the codec decoding a file from its path, if
+	 * it is encoded.
+	 *
+	 * @param path the path of the file.
+	 * @return the path without the extension of its codec.
+	 */
+	public static String stripExtension(String path) {
+		ResourceCodec codec = forPath(path);
+
+		return codec == null ? path :
+				path.substring(0, path.length() - codec.getExtension().length());
+	}
+
+	/**
+	 * Opens a resource file, decoding it with the codec of its extension if
+	 * it is encoded. A resource of a jar nested in another jar, such as
+	 * <code>jar:file:/app.jar!/lib/data.jar!/cfg/names.json</code>, which
+	 * the jar protocol cannot open, is streamed from its enclosing jar, see
+	 * {@link ResourceDiscovery#openStream(URL)}.
+	 *
+	 * @param url the {@link URL} of the resource file.
+	 * @return the buffered {@link InputStream} of the decoded content.
+	 * @throws IOException if the file cannot be opened or decoded.
+	 */
+	public static InputStream open(URL url) throws IOException {
+		InputStream in = ResourceDiscovery.openStream(url);
+		ResourceCodec codec = forPath(url.getPath());
+
+		if (codec == null) {
+			return in;
+		}
+
+		try {
+			return new BufferedInputStream(codec.decode(in), BUFFER_SIZE);
+		} catch (IOException e) {
+			in.close();
+			throw e;
+		} catch (RuntimeException e) {
+			in.close();
+			throw e;
+		}
+	}
+}
@@ -0,0 +1,264 @@
+package com.github.jrgen.configuration;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>
+ * A TupleTable holds rows of related values for a set of properties, such
+ * as a city together with its state and zip code. A whole row is picked at
+ * once so the values of a generated instance are consistent with each
+ * other. It is defined in the <i>tuples</i> field of a JSON resource file,
+ * for example:
+ * </p>
+ *
+ * <pre>
+ * "tuples": [{
+ *     "properties": ["city", "state", "zipCode"],
+ *     "rows": [
+ *         ["Albany", "NY", "12207"],
+ *         ["Fresno", "CA", "93650"]
+ *     ]
+ * }]
+ * </pre>
+ *
+ * <p>
+ * The rows are stored column-wise. Each column keeps its distinct values
+ * once, and the row of each value as an index into them, held in a byte,
+ * short or int array depending on the number of distinct values. Large
+ * reference tables with repeated values, such as states, therefore cost
+ * little more than the indexes. Instances are immutable and can be shared
+ * between threads.
+ * </p>
+ *
+ * @author Allan J. Shoulders
+ * @version 1.0
+ * @since 1.2.0
+ * @see Configuration
+ *
+ */
+public final class TupleTable {
+
+	/**
+	 * The name of the field holding the properties of a table.
+	 */
+	public static final String PROPERTIES = "properties";
+
+	/**
+	 * The name of the field holding the rows of a table.
+	 */
+	public static final String ROWS = "rows";
+
+	private final List<String> properties;
+	private final Column[] columns;
+	private final int size;
+
+	/**
+	 * Constructs a new instance of the TupleTable class.
+	 *
+	 * @param properties the names of the properties, one per column.
+	 * @param rows the rows, each holding one value per property.
+	 * @throws IllegalArgumentException if there are no properties, no rows,
+	 * or a row does not hold one value per property.
+	 */
+	public TupleTable(List<String> properties, List<? extends List<?>> rows) {
+		if (properties == null || properties.isEmpty()) {
+			throw new IllegalArgumentException(
+					"A tuple table requires properties.");
+		}
+
+		if (rows == null || rows.isEmpty()) {
+			throw new IllegalArgumentException(
+					"A tuple table requires rows: " + properties);
+		}
+
+		this.properties = Collections.unmodifiableList(
+				Arrays.asList(properties.toArray(new String[properties.size()])));
+		this.size = rows.size();
+		this.columns = new Column[properties.size()];
+
+		for (int c = 0; c < columns.length; c++) {
+			columns[c] = new Column(size);
+		}
+
+		for (int r = 0; r < size; r++) {
+			List<?> row = rows.get(r);
+
+			if (row == null || row.size() != columns.length) {
+				throw new IllegalArgumentException("Row " + r + " of the " +
+						"tuple table " + properties + " must hold " +
+						columns.length + " values: " + row);
+			}
+
+			for (int c = 0; c < columns.length; c++) {
+				columns[c].add(r, row.get(c));
+			}
+		}
+
+		for (Column column : columns) {
+			column.compact();
+		}
+	}
+
+	/**
+	 * Constructs a new instance of the TupleTable class from its JSON
+	 * definition, an object with a properties and a rows field.
+	 *
+	 * @param definition the definition of the table.
+	 * @return the new TupleTable.
+	 * @throws IllegalArgumentException if the definition is not valid.
+	 */
+	@SuppressWarnings("unchecked")
+	public static TupleTable fromDefinition(Map<String, ?> definition) {
+		Object properties = definition == null ? null :
+				definition.get(PROPERTIES);
+		Object rows = definition == null ? null : definition.get(ROWS);
+
+		if (!(properties instanceof List) || !(rows instanceof List)) {
+			throw new IllegalArgumentException("A tuple table requires a " +
+					"properties and a rows array: " + definition);
+		}
+
+		return new TupleTable((List<String>) properties,
+				(List<? extends List<?>>) rows);
+	}
+
+	/**
+	 * Returns the names of the properties, in the order of the columns.
+	 *
+	 * @return an unmodifiable {@link List} of the properties.
+	 */
+	public List<String> getProperties() {
+		return properties;
+	}
+
+	/**
+	 * Returns the number of rows.
+	 *
+	 * @return the number of rows.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the number of distinct values of a column.
+	 *
+	 * @param column the index of the column.
+	 * @return the number of distinct values.
+	 */
+	public int distinctValues(int column) {
+		return columns[column].values.length;
+	}
+
+	/**
+	 * Returns the distinct values of a column. The value of a row is the
+	 * distinct value at {@link #valueIndex(int, int)}, which allows callers
+	 * to convert each distinct value only once.
+	 *
+	 * @param column the index of the column.
+	 * @return a copy of the distinct values.
+	 */
+	public Object[] getValues(int column) {
+		return columns[column].values.clone();
+	}
+
+	/**
+	 * Returns the index, among the distinct values of a column, of the value
+	 * of a row.
+	 *
+	 * @param column the index of the column.
+	 * @param row the index of the row.
+	 * @return the index of the value.
+	 */
+	public int valueIndex(int column, int row) {
+		return columns[column].index(row);
+	}
+
+	/**
+	 * Returns the value of a property in a row.
+	 *
+	 * @param column the index of the column.
+	 * @param row the index of the row.
+	 * @return the value.
+	 */
+	public Object get(int column, int row) {
+		Column c = columns[column];
+		return c.values[c.index(row)];
+	}
+
+	@Override
+	public String toString() {
+		return "TupleTable [properties=" + properties + ", size=" + size + "]";
+	}
+
+	/**
+	 * A column of the table, its distinct values and the index of the value
+	 * of each row.
+	 */
+	private static final class Column {
+
+		private Map<Object, Integer> distinct;
+		private int[] building;
+		private Object[] values;
+		private byte[] byteIndexes;
+		private short[] shortIndexes;
+		private int[] intIndexes;
+
+		private Column(int size) {
+			distinct = new HashMap<Object, Integer>();
+			building = new int[size];
+		}
+
+		private void add(int row, Object value) {
+			Integer index = distinct.get(value);
+
+			if (index == null) {
+				index = distinct.size();
+				distinct.put(value, index);
+			}
+
+			building[row] = index;
+		}
+
+		private void compact() {
+			values = new Object[distinct.size()];
+
+			for (Map.Entry<Object, Integer> entry : distinct.entrySet()) {
+				values[entry.getValue()] = entry.getKey();
+			}
+
+			if (values.length <= 1 << Byte.SIZE) {
+				byteIndexes = new byte[building.length];
+
+				for (int i = 0; i < building.length; i++) {
+					byteIndexes[i] = (byte) building[i];
+				}
+			} else if (values.length <= 1 << Short.SIZE) {
+				shortIndexes = new short[building.length];
+
+				for (int i = 0; i < building.length; i++) {
+					shortIndexes[i] = (short) building[i];
+				}
+			} else {
+				intIndexes = building;
+			}
+
+			distinct = null;
+			building = null;
+		}
+
+		private int index(int row) {
+			if (byteIndexes != null) {
+				return byteIndexes[row] & 0xFF;
+			} else if (shortIndexes != null) {
+				return shortIndexes[row] & 0xFFFF;
+			}
+
+			return intIndexes[row];
+		}
+	}
+}
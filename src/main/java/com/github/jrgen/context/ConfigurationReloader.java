@@ -0,0 +1,136 @@
+package com.github.jrgen.context;
+
+import static com.github.jrgen.util.JrgenUtil.validateNonNullArgument;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/***
+ * <p>
+ * Reloads the configurations of a {@link JrgenContext} when its resource
+ * files change on the file system, so that a long-running JVM picks up
+ * edited JSON files without being restarted. The resource files are polled
+ * on a single background daemon thread, see {@link JrgenContext#reload()}:
+ * only the modified, added or removed files are parsed again, and the new
+ * type map is published with a single swap, so generating instances is
+ * never blocked by a reload.
+ * </p>
+ *
+ * <pre>
+ * ConfigurationReloader reloader = new ConfigurationReloader(context, 2,
+ *         TimeUnit.SECONDS);
+ * reloader.start();
+ * ...
+ * reloader.stop();
+ * </pre>
+ *
+ * @author Allan J. Shoulders
+ * @version 1.0
+ * @since 1.2.0
+ * @see JrgenContext#reload()
+ *
+ */
+public final class ConfigurationReloader {
+
+	private static final Log log =
+			LogFactory.getLog(ConfigurationReloader.class);
+
+	private final JrgenContext context;
+	private final long period;
+	private final TimeUnit unit;
+	private ScheduledExecutorService executor;
+
+	/**
+	 * Constructs a new instance of the ConfigurationReloader class.
+	 *
+	 * @param context the initialized {@link JrgenContext} to reload.
+	 * @param period the time between two checks of the resource files.
+	 * @param unit the {@link TimeUnit} of the period.
+	 * @throws IllegalArgumentException if the context or the unit is null,
+	 * or the period is less than 1.
+	 */
+	public ConfigurationReloader(JrgenContext context, long period,
+			TimeUnit unit) {
+		validateNonNullArgument(context, "context");
+		validateNonNullArgument(unit, "unit");
+
+		if (period < 1) {
+			throw new IllegalArgumentException("Illegal period: " + period);
+		}
+
+		this.context = context;
+		this.period = period;
+		this.unit = unit;
+	}
+
+	/**
+	 * Starts checking the resource files periodically. Does nothing if the
+	 * reloader is already started.
+	 */
+	public synchronized void start() {
+		if (executor != null) {
+			return;
+		}
+
+		executor = Executors.newSingleThreadScheduledExecutor(
+				new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "jrgen-reloader");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		executor.scheduleWithFixedDelay(new Runnable() {
+			@Override
+			public void run() {
+				check();
+			}
+		}, period, period, unit);
+	}
+
+	/**
+	 * Stops checking the resource files. A reload in progress completes.
+	 */
+	public synchronized void stop() {
+		if (executor != null) {
+			executor.shutdown();
+			executor = null;
+		}
+	}
+
+	/**
+	 * Determines if the reloader is started.
+	 *
+	 * @return true if the resource files are checked periodically.
+	 */
+	public synchronized boolean isStarted() {
+		return executor != null;
+	}
+
+	/**
+	 * Checks the resource files once, reloading the modified ones. A
+	 * failure is logged, the current configurations being kept.
+	 *
+	 * @return true if configurations were reloaded.
+	 */
+	public boolean check() {
+		try {
+			return context.reload();
+		} catch (RuntimeException e) {
+			log.warn("Cannot reload the configurations.", e);
+			return false;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "ConfigurationReloader [period=" + period + " " + unit +
+				", started=" + isStarted() + "]";
+	}
+}
@@ -0,0 +1,381 @@
+package com.github.jrgen.context;
+
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.github.jrgen.settings.Settings;
+import com.github.jrgen.typebuilder.TypeBuilder;
+
+/**
+ * <p>
+ * A GenerationContext tracks the state of a single generation, that is a
+ * single call to one of the generate() methods of a {@link JrgenContext}.
+ * It is used by the {@link TypeBuilder}s that build Java-beans and containers
+ * to bound the graph they build, which is required for self-referential
+ * types such as:
+ * </p>
+ *
+ * <pre>
+ * TreeNode { List&lt;TreeNode&gt; children; TreeNode parent; }
+ * </pre>
+ *
+ * <p>
+ * Every Java-bean or container being built is a node. Before a node is
+ * built, it must be entered. The node is refused if any of the following
+ * {@link Settings} limits would be exceeded:
+ * </p>
+ * <ul>
+ * <li>maxDepth - the number of nodes nested within each other.</li>
+ * <li>maxNodes - the total number of nodes of the generation.</li>
+ * <li>maxRecursionDepth - the number of times a type may be nested within
+ * itself.</li>
+ * </ul>
+ *
+ * <p>
+ * A refused node is replaced by the value determined by the
+ * {@link Settings.LimitPolicy}. The counters are reset when the outermost
+ * node is exited, so each generation starts with a fresh state.
+ * </p>
+ *
+ * <p>
+ * A generation also has a budget, drawn down as it goes, for the total
+ * number of container elements (maxElements) and the approximate number of
+ * bytes (maxBytes) it creates. Containers reserve their elements before
+ * building them, and are shrunk to whatever is left of the budget, which
+ * includes the remaining maxNodes when their elements are themselves
+ * nodes. Outer containers are therefore built at their requested size while
+ * deeper containers shrink as the budget runs down, down to empty ones.
+ * </p>
+ *
+ * <p>
+ * The elements left to a node are split evenly among its children, so that
+ * the first of several sibling containers does not take the whole budget:
+ * the elements of a container share what is left once the container is
+ * reserved, and the properties of a Java-bean that are nodes share the
+ * elements left to the bean, see {@link #shareElements(Collection)}.
+ * </p>
+ *
+ * <p>
+ * Instances are not thread-safe. The {@link JrgenContext} keeps one instance
+ * per thread.
+ * </p>
+ *
+ * @author Allan J. Shoulders
+ * @version 1.0
+ * @since 1.2.0
+ * @see JrgenContext
+ * @see Settings
+ *
+ */
+public final class GenerationContext {
+
+	private static final long OBJECT_HEADER_BYTES = 16;
+	private static final long REFERENCE_BYTES = 8;
+	private static final long STRING_BYTES = 40;
+
+	private final JrgenContext jrgenContext;
+	private final Map<JavaType, Integer> activeTypes;
+
+	private int depth;
+	private long nodes;
+	private long elements;
+	private long bytes;
+
+	//The number of elements left to the children of the node at each depth,
+	//the node at depth zero being the generation itself.
+	private long[] elementShares;
+
+	/**
+	 * Constructs a new instance of the GenerationContext class using the
+	 * supplied {@link JrgenContext}, whose {@link Settings} provide the
+	 * limits.
+	 *
+	 * @param jrgenContext an instance of a {@link JrgenContext}.
+	 */
+	public GenerationContext(JrgenContext jrgenContext) {
+		this.jrgenContext = jrgenContext;
+		this.activeTypes = new HashMap<JavaType, Integer>();
+		this.elementShares = new long[16];
+		this.elementShares[0] = Long.MAX_VALUE;
+	}
+
+	/**
+	 * Enters a node of the given type. If true is returned, the node must be
+	 * exited once it is built by calling the exit method. If false is
+	 * returned, a limit has been reached, the node must not be built and
+	 * must not be exited.
+	 *
+	 * @param javaType the type of the node about to be built.
+	 * @return true if the node may be built, false if a limit was reached.
+	 */
+	public boolean enter(JavaType javaType) {
+		if (!canEnter(javaType)) {
+			return false;
+		}
+
+		activeTypes.put(javaType, occurrences(javaType) + 1);
+		depth++;
+		nodes++;
+
+		if (depth == elementShares.length) {
+			elementShares = Arrays.copyOf(elementShares, 2 * depth);
+		}
+
+		elementShares[depth] = elementShares[depth - 1];
+
+		return true;
+	}
+
+	/**
+	 * Returns true if a node of the given type could be entered. Containers
+	 * use this method to find out whether their content can be built before
+	 * building any of it.
+	 *
+	 * @param javaType the type of the node.
+	 * @return true if the node could be entered, false if a limit would be
+	 * reached.
+	 */
+	public boolean canEnter(JavaType javaType) {
+		Settings settings = jrgenContext.getSettings();
+
+		return depth < settings.getMaxDepth() &&
+				nodes < settings.getMaxNodes() &&
+				occurrences(javaType) <= settings.getMaxRecursionDepth();
+	}
+
+	/**
+	 * Exits a node of the given type that was previously entered.
+	 *
+	 * @param javaType the type of the node that was built.
+	 */
+	public void exit(JavaType javaType) {
+		Integer occurrences = activeTypes.get(javaType);
+
+		if (occurrences == null || occurrences.intValue() <= 1) {
+			activeTypes.remove(javaType);
+		} else {
+			activeTypes.put(javaType, occurrences - 1);
+		}
+
+		if (--depth <= 0) {
+			reset();
+		}
+	}
+
+	/**
+	 * Reserves the elements of a container about to be built, shrinking the
+	 * requested size to what is left of the budget of this generation and to
+	 * the share of the elements left to the container by its parent. What
+	 * is left of that share is then split evenly among the elements.
+	 *
+	 * @param requested the size the container would have without a budget.
+	 * @param contentTypes the types making up each element, such as the
+	 * content type of a {@link java.util.Collection} or the key and value
+	 * types of a {@link java.util.Map}.
+	 * @return the number of elements the container may have, between zero
+	 * and the requested size.
+	 */
+	public int reserveElements(int requested, JavaType... contentTypes) {
+		Settings settings = jrgenContext.getSettings();
+		long elementBytes = 0;
+		boolean nodeElements = false;
+
+		for (JavaType contentType : contentTypes) {
+			elementBytes += estimateBytes(contentType);
+			nodeElements |= !isValueType(contentType);
+		}
+
+		charge(OBJECT_HEADER_BYTES);
+
+		long share = Math.min(elementShares[Math.max(depth - 1, 0)],
+				settings.getMaxElements() - elements);
+		long granted = Math.min(requested, share);
+		granted = Math.min(granted, (settings.getMaxBytes() - bytes) /
+				Math.max(1, elementBytes));
+
+		if (nodeElements) {
+			granted = Math.min(granted, settings.getMaxNodes() - nodes);
+		}
+
+		granted = Math.max(0, granted);
+		elements += granted;
+		charge(granted * elementBytes);
+
+		if (depth > 0) {
+			elementShares[depth] = granted == 0 ? 0 :
+				(share - granted) / granted;
+		}
+
+		return (int) granted;
+	}
+
+	/**
+	 * Splits the elements left to the node last entered, a Java-bean, evenly
+	 * among those of its properties whose values are nodes, such as its
+	 * containers and the Java-beans that may hold containers.
+	 *
+	 * @param propertyTypes the types of the properties of the Java-bean
+	 * that are about to be built.
+	 */
+	public void shareElements(Collection<JavaType> propertyTypes) {
+		int children = 0;
+
+		for (JavaType propertyType : propertyTypes) {
+			if (!isValueType(propertyType)) {
+				children++;
+			}
+		}
+
+		if (depth > 0 && children > 1) {
+			elementShares[depth] = Math.min(elementShares[depth - 1],
+					jrgenContext.getSettings().getMaxElements() - elements) /
+					children;
+		}
+	}
+
+	/**
+	 * Draws the given number of bytes from the budget of this generation.
+	 * Java-beans are charged their estimated size once they are entered.
+	 *
+	 * @param estimatedBytes the approximate number of bytes of a value.
+	 */
+	public void charge(long estimatedBytes) {
+		bytes = bytes > Long.MAX_VALUE - estimatedBytes ?
+				Long.MAX_VALUE : bytes + estimatedBytes;
+	}
+
+	/**
+	 * Returns the approximate number of bytes a value of the given type
+	 * adds to its Java-bean or container. Values of types that are
+	 * themselves nodes only add a reference, their content is charged when
+	 * they are built.
+	 *
+	 * @param javaType the type of the value.
+	 * @return the approximate size of the value in bytes.
+	 */
+	public long estimateBytes(JavaType javaType) {
+		Class<?> rawClass = javaType.getRawClass();
+
+		if (rawClass == boolean.class || rawClass == byte.class) {
+			return 1;
+		} else if (rawClass == char.class || rawClass == short.class) {
+			return 2;
+		} else if (rawClass == int.class || rawClass == float.class) {
+			return 4;
+		} else if (rawClass == long.class || rawClass == double.class) {
+			return 8;
+		} else if (CharSequence.class.isAssignableFrom(rawClass)) {
+			return REFERENCE_BYTES + STRING_BYTES + 2L *
+					jrgenContext.getSettings().getDefaultStringLength();
+		} else if (isValueType(javaType) && !rawClass.isEnum()) {
+			return REFERENCE_BYTES + OBJECT_HEADER_BYTES + 8;
+		}
+
+		return REFERENCE_BYTES;
+	}
+
+	/**
+	 * Clears every counter of this GenerationContext.
+	 */
+	public void reset() {
+		activeTypes.clear();
+		depth = 0;
+		nodes = 0;
+		elements = 0;
+		bytes = 0;
+		elementShares[0] = Long.MAX_VALUE;
+	}
+
+	/**
+	 * Returns true when a refused node should be replaced by an empty
+	 * container rather than a null value.
+	 *
+	 * @return true if the {@link Settings.LimitPolicy} is EMPTY.
+	 */
+	public boolean isEmptyAtLimit() {
+		return jrgenContext.getSettings().getLimitPolicy() ==
+				Settings.LimitPolicy.EMPTY;
+	}
+
+	/**
+	 * Helper method that returns the number of nodes of the given type
+	 * currently entered.
+	 *
+	 * @param javaType
+	 * @return
+	 */
+	private int occurrences(JavaType javaType) {
+		Integer occurrences = activeTypes.get(javaType);
+
+		return occurrences == null ? 0 : occurrences.intValue();
+	}
+
+	/**
+	 * Helper method that determines if values of the given type are built
+	 * without entering a node.
+	 *
+	 * @param javaType
+	 * @return
+	 */
+	private static boolean isValueType(JavaType javaType) {
+		Class<?> rawClass = javaType.getRawClass();
+
+		return rawClass.isPrimitive() || rawClass.isEnum() ||
+				Number.class.isAssignableFrom(rawClass) ||
+				CharSequence.class.isAssignableFrom(rawClass) ||
+				Boolean.class == rawClass || Character.class == rawClass ||
+				Date.class.isAssignableFrom(rawClass) ||
+				Calendar.class.isAssignableFrom(rawClass);
+	}
+
+	/**
+	 * Returns the number of nodes currently entered.
+	 *
+	 * @return the current depth.
+	 */
+	public int getDepth() {
+		return depth;
+	}
+
+	/**
+	 * Returns the number of nodes entered since the generation started.
+	 *
+	 * @return the number of nodes.
+	 */
+	public long getNodes() {
+		return nodes;
+	}
+
+	/**
+	 * Returns the number of container elements reserved since the
+	 * generation started.
+	 *
+	 * @return the number of container elements.
+	 */
+	public long getElements() {
+		return elements;
+	}
+
+	/**
+	 * Returns the approximate number of bytes charged since the generation
+	 * started.
+	 *
+	 * @return the approximate number of bytes.
+	 */
+	public long getBytes() {
+		return bytes;
+	}
+
+	@Override
+	public String toString() {
+		return "GenerationContext [depth=" + depth + ", nodes=" + nodes
+				+ ", elements=" + elements + ", bytes=" + bytes
+				+ ", activeTypes=" + activeTypes + "]";
+	}
+
+}
@@ -6,6 +6,7 @@ import static com.github.jrgen.util.JrgenUtil.getMessages;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URISyntaxException;
@@ -14,15 +15,25 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.commons.collections.CollectionUtils;
-import org.apache.commons.lang.ArrayUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 
 import com.fasterxml.jackson.core.JsonParseException;
 import com.fasterxml.jackson.databind.JavaType;
@@ -30,10 +41,15 @@ import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.util.ClassUtil;
 import com.github.jrgen.configuration.Configuration;
-import com.github.jrgen.configuration.ConfigurationImpl;
+import com.github.jrgen.configuration.ConfigurationReader;
+import com.github.jrgen.configuration.ConfigurationSnapshot;
+import com.github.jrgen.configuration.DictionaryConfigurationReader;
+import com.github.jrgen.configuration.ResourceCodec;
+import com.github.jrgen.configuration.ResourceCodecs;
 import com.github.jrgen.descriptor.Descriptor;
 import com.github.jrgen.exception.JrgenInitializationException;
 import com.github.jrgen.settings.Settings;
+import com.github.jrgen.settings.Settings.FileType;
 import com.github.jrgen.typebuilder.ArrayTypeBuilder;
 import com.github.jrgen.typebuilder.CollectionTypeBuilder;
 import com.github.jrgen.typebuilder.ConfigurationBasedTypeBuilder;
@@ -43,7 +59,9 @@ import com.github.jrgen.typebuilder.MapTypeBuilder;
 import com.github.jrgen.typebuilder.PrimitiveTypeBuilder;
 import com.github.jrgen.typebuilder.TypeBuilder;
 import com.github.jrgen.typehandler.AbstractTypeHandler;
+import com.github.jrgen.typehandler.SequencePropertyHandler;
 import com.github.jrgen.typehandler.TransientPropertyHandler;
+import com.github.jrgen.typehandler.UniquePropertyHandler;
 import com.github.jrgen.workflow.DefaultWorkflow;
 import com.github.jrgen.workflow.Workflow;
 
@@ -123,8 +141,18 @@ import com.github.jrgen.workflow.Workflow;
  */
 public final class JrgenContext {
 	
-	private final Set<Configuration> configSet;
-	private final Map<JavaType, Configuration> typeMap;
+	private static final Log log = LogFactory.getLog(JrgenContext.class);
+	private static final ObjectMapper CONFIG_MAPPER = new ObjectMapper();
+	private static final ConfigurationReader CONFIG_READER = 
+			new ConfigurationReader();
+	private static final DictionaryConfigurationReader DICTIONARY_READER = 
+			new DictionaryConfigurationReader();
+	
+	private final Map<URI, Long> loadTimes;
+	private final Map<URI, Long> lastModified;
+	private final Object reloadLock;
+	private volatile TypeIndex typeIndex;
+	private final ThreadLocal<GenerationContext> generationContext;
 	
 	private boolean initialized;
 	private Settings settings;
@@ -132,6 +160,9 @@ public final class JrgenContext {
 	private List<TypeBuilder<?>> typeBuilders;
 	private AbstractTypeHandler abstractTypeHandler;
 	private TransientPropertyHandler transientPropertyHandler;
+	private UniquePropertyHandler uniquePropertyHandler;
+	private SequencePropertyHandler sequencePropertyHandler;
+	private ConfigurationBasedTypeBuilder populator;
 
 	/**
 	 * Constructs an instance using the default {@link Settings}.
@@ -149,14 +180,25 @@ public final class JrgenContext {
 	public JrgenContext(Settings settings) {
 		validateNonNullArgument(settings, "settings");
 		
-		typeMap = new HashMap<JavaType, Configuration>();
-		configSet = new LinkedHashSet<Configuration>();
+		typeIndex = new TypeIndex(newConfigurationSet(), 
+				new NamespaceTrie<Configuration>(), null);
+		loadTimes = new LinkedHashMap<URI, Long>();
+		lastModified = new ConcurrentHashMap<URI, Long>();
+		reloadLock = new Object();
 		
 		this.settings = settings;
 		abstractTypeHandler = new AbstractTypeHandler();
 		workflow = new DefaultWorkflow();
 		typeBuilders = new ArrayList<TypeBuilder<?>>();
 		transientPropertyHandler = new TransientPropertyHandler();
+		uniquePropertyHandler = new UniquePropertyHandler();
+		sequencePropertyHandler = new SequencePropertyHandler();
+		generationContext = new ThreadLocal<GenerationContext>() {
+			@Override
+			protected GenerationContext initialValue() {
+				return new GenerationContext(JrgenContext.this);
+			}
+		};
 		initialized = false;
 	}
 	
@@ -216,16 +258,33 @@ public final class JrgenContext {
 			IOException, 
 			URISyntaxException {
 		
-		for (URI uri : settings.getResources()) {
-			Set<Configuration> confSet = getConfigurationSetFromJson(uri);
+		List<URI> resourceFiles = listResourceFiles(false);
+		Map<URI, Long> modified = new ConcurrentHashMap<URI, Long>();
+		Set<Configuration> configs = newConfigurationSet();
+		
+		if (settings.isLazyLoading()) {
+			initializeWorkflow();
+			typeIndex = new TypeIndex(configs, null, 
+					indexConfigurations(resourceFiles, configs, modified));
+			lastModified.putAll(modified);
+			initialized = true;
 			
-			if (confSet != null) {
-				configSet.addAll(getConfigurationSetFromJson(uri));
-			}
+			return this;
+		}
+		
+		Set<Configuration> snapshotConfigs = 
+				loadSnapshot(resourceFiles, modified);
+		
+		if (snapshotConfigs != null) {
+			configs.addAll(snapshotConfigs);
+		} else {
+			configs.addAll(loadConfigurations(resourceFiles, modified));
+			writeSnapshot(resourceFiles, modified, configs);
 		}
 		
 		initializeWorkflow();
-		buildConfigurationMapping(configSet);
+		typeIndex = new TypeIndex(configs, indexNamespaces(configs), null);
+		lastModified.putAll(modified);
 		initialized = true;
 		
 		return this;
@@ -234,14 +293,124 @@ public final class JrgenContext {
 	/***
 	 * Returns an immutable {@link Map} containing the type as 
 	 * ({@link JavaType}) and the corresponding {@link Configuration} object.
-	 * This mapping is built during initialization.
+	 * The map holds the class named by each namespace, which is resolved 
+	 * the first time this method is called rather than during 
+	 * initialization, and only then, and the types matched by a namespace pattern so far,
+	 * see {@link #getConfiguration(JavaType)}. When the configurations are
+	 * loaded on demand, the configurations of the classes named are loaded
+	 * first.
 	 * 
 	 * @return an immutable (unmodifiable) {@link Map} containing the 
 	 * type as {@link JavaType} and the configuration file represented
 	 * as a {@link Configuration} object.
 	 */	
 	public Map<JavaType, Configuration> getTypeMap() {
-		return unmodifiableMap(typeMap);
+		TypeIndex index = typeIndex;
+		
+		if (!index.namesResolved) {
+			for (String namespace : index.getNames()) {
+				Class<?> _class = findClass(namespace);
+				
+				if (_class != null) {
+					getConfiguration(index, 
+							CONFIG_MAPPER.constructType(_class));
+				}
+			}
+			
+			index.namesResolved = true;
+		}
+		
+		return index.typeMap;
+	}
+	
+	/***
+	 * Returns the {@link Configuration} of a type. The namespaces naming 
+	 * the class of the type apply, or if there is none, the namespace 
+	 * patterns matching it, such as <i>com.acme.model.*</i> or 
+	 * <i>com.acme.**.dto.*</i>: a <i>*</i> segment matches a single segment
+	 * of the class name, and a <i>**</i> segment any number of segments. The
+	 * namespaces are matched through a trie the first time a type is 
+	 * requested, and the configuration of the type, or its absence, is 
+	 * cached. 
+	 * 
+	 * When the configurations are loaded on demand, see 
+	 * {@link Settings#setLazyLoading(boolean)}, the resource files holding 
+	 * the namespaces of the type are parsed the first time it is requested.
+	 * Each file is parsed once, even when several threads request its types
+	 * at the same time.
+	 * 
+	 * @param type the type as {@link JavaType}.
+	 * @return the {@link Configuration} of the type, or null if it has none.
+	 * @throws RuntimeException if a resource file cannot be parsed.
+	 * @since 1.2.0
+	 */
+	public Configuration getConfiguration(JavaType type) {
+		return type == null ? null : getConfiguration(typeIndex, type);
+	}
+	
+	/***
+	 * Reloads the resource files of the file system that were modified, 
+	 * added or removed since they were loaded. Only those files are parsed
+	 * again. The new configurations are compiled aside and published with
+	 * a single swap of the type map, so that generating instances never 
+	 * waits for a reload, and never sees a partially reloaded type map. 
+	 * When a file cannot be parsed, the current configurations are kept,
+	 * and the file is parsed again by the next reload. A resource outside 
+	 * the file system is only loaded once, when it is first listed.
+	 * Configurations loaded on demand are all loaded by the first reload.
+	 * The snapshot of the {@link Settings}, if any, is written again once
+	 * the configurations are reloaded.
+	 * 
+	 * @return true if configurations were reloaded.
+	 * @throws JrgenInitializationException if the context is not 
+	 * initialized.
+	 * @throws RuntimeException if the resource files cannot be listed or 
+	 * a modified file cannot be parsed.
+	 * @see ConfigurationReloader
+	 * @since 1.2.0
+	 */
+	public boolean reload() {
+		if (!isInitialized()) {
+			throw new JrgenInitializationException(getMessages()
+						.getString("jrgencontext.notinitialized.exception"));
+		}
+		
+		synchronized (reloadLock) {
+			TypeIndex index = typeIndex;
+			
+			if (index.lazyConfigurations != null) {
+				for (LazyConfigurations configurations : 
+						index.lazyConfigurations.getValues()) {
+					configurations.load();
+				}
+			}
+			
+			try {
+				return reloadModified(listResourceFiles(true));
+			} catch (IOException e) {
+				throw new RuntimeException(e);
+			}
+		}
+	}
+	
+	/***
+	 * Returns the time spent reading and parsing each resource file during
+	 * initialization, in the order the files were listed, whether they 
+	 * were parsed one after another or in parallel. When the configurations
+	 * are loaded lazily, a file is only added once it is first needed, so 
+	 * the files come in the order they were needed instead. When the 
+	 * configurations were loaded from the snapshot of the Settings, the 
+	 * map holds the time spent reading the snapshot instead.
+	 * 
+	 * @return an immutable {@link Map} containing the {@link URI} of each 
+	 * resource file, or of the snapshot, and the time it took to load in 
+	 * nanoseconds.
+	 * @since 1.2.0
+	 */
+	public Map<URI, Long> getLoadTimes() {
+		synchronized (loadTimes) {
+			return unmodifiableMap(new LinkedHashMap<URI, Long>(loadTimes));
+		}
 	}
 	
 	/***
@@ -278,7 +447,17 @@ public final class JrgenContext {
 						.getString("jrgencontext.notinitialized.exception"));
 		}
 		
-		Object generatedObj = workflow.workflow(javaType);
+		GenerationContext genContext = getGenerationContext();
+		boolean outermost = genContext.getDepth() == 0;
+		Object generatedObj;
+		
+		try {
+			generatedObj = workflow.workflow(javaType);
+		} finally {
+			if (outermost) {
+				genContext.reset();
+			}
+		}
 		
 		if (generatedObj == null && settings.isNotNull()) {
 			return abstractTypeHandler.getObjectMapper()
@@ -357,6 +536,67 @@ public final class JrgenContext {
 		return generatedObjs;
 	}
 	
+	/***
+	 * Writes new values into an existing instance rather than generating a 
+	 * new one. Nested Java-beans, Arrays and mutable containers are 
+	 * repopulated in place, so that recycling a small pool of instances 
+	 * keeps the allocation rate of the generator low. See 
+	 * {@link ConfigurationBasedTypeBuilder#populate(Object)} for details.
+	 * 
+	 * @param <T> the parameterized type.
+	 * @param existing the instance to repopulate.
+	 * @return the existing instance, repopulated, or left as is if a limit 
+	 * of the {@link GenerationContext} in progress was reached.
+	 * @throws IllegalArgumentException if the existing parameter is null or
+	 * is not a Java-bean with properties.
+	 */
+	public <T> T populate (T existing) {
+		if (!isInitialized()) {
+			throw new JrgenInitializationException(getMessages()
+						.getString("jrgencontext.notinitialized.exception"));
+		}
+		
+		validateNonNullArgument(existing, "existing");
+		
+		GenerationContext genContext = getGenerationContext();
+		boolean outermost = genContext.getDepth() == 0;
+		
+		//A limit reached by the generation in progress is not an error.
+		if (!genContext.canEnter(getAbstractTypeHandler().getObjectMapper()
+				.constructType(existing.getClass()))) {
+			return existing;
+		}
+		
+		boolean populated;
+		
+		try {
+			populated = getPopulator().populate(existing);
+		} finally {
+			if (outermost) {
+				genContext.reset();
+			}
+		}
+		
+		if (!populated) {
+			throw new IllegalArgumentException(String.format(getMessages()
+					.getString("jrgencontext.populate.exception"), 
+					existing.getClass().getName()));
+		}
+		
+		return existing;
+	}
+	
+	/***
+	 * Returns the {@link GenerationContext} of the calling thread. The 
+	 * {@link GenerationContext} tracks the depth and number of nodes of the
+	 * generation in progress on that thread.
+	 * 
+	 * @return the {@link GenerationContext} of the calling thread.
+	 */
+	public GenerationContext getGenerationContext() {
+		return generationContext.get();
+	}
+	
 	/***
 	 * Sets the {@link Settings} object for this instance of JrgenContext.
 	 * 
@@ -482,6 +722,80 @@ public final class JrgenContext {
 		this.transientPropertyHandler = transientPropertyHandler;
 	}
 
+	/**
+	 * Returns the {@link UniquePropertyHandler} object associated with 
+	 * this instance of JrgenContext.
+	 * 
+	 * @return the {@link UniquePropertyHandler} object.
+	 */
+	public UniquePropertyHandler getUniquePropertyHandler() {
+		return uniquePropertyHandler;
+	}
+
+	/**
+	 * Sets the given {@link UniquePropertyHandler} object to this 
+	 * instance of JrgenContext.
+	 * 
+	 * @param uniquePropertyHandler the {@link UniquePropertyHandler} 
+	 * object.
+	 * @throws IllegalArgumentException if the uniquePropertyHandler is 
+	 * null.
+	 */
+	public void setUniquePropertyHandler(
+			UniquePropertyHandler uniquePropertyHandler) {
+		validateNonNullArgument(uniquePropertyHandler, 
+				"uniquePropertyHandler");
+		this.uniquePropertyHandler = uniquePropertyHandler;
+	}
+
+	/**
+	 * Returns the {@link SequencePropertyHandler} object associated with 
+	 * this instance of JrgenContext.
+	 * 
+	 * @return the {@link SequencePropertyHandler} object.
+	 */
+	public SequencePropertyHandler getSequencePropertyHandler() {
+		return sequencePropertyHandler;
+	}
+
+	/**
+	 * Sets the given {@link SequencePropertyHandler} object to this 
+	 * instance of JrgenContext.
+	 * 
+	 * @param sequencePropertyHandler the {@link SequencePropertyHandler} 
+	 * object.
+	 * @throws IllegalArgumentException if the sequencePropertyHandler is 
+	 * null.
+	 */
+	public void setSequencePropertyHandler(
+			SequencePropertyHandler sequencePropertyHandler) {
+		validateNonNullArgument(sequencePropertyHandler, 
+				"sequencePropertyHandler");
+		this.sequencePropertyHandler = sequencePropertyHandler;
+	}
+
+	/**
+	 * A helper method that returns the {@link ConfigurationBasedTypeBuilder}
+	 * of the {@link Workflow}, sharing its cached plans. A separate instance 
+	 * is used when the {@link Workflow} has none.
+	 * 
+	 * @return
+	 */
+	private ConfigurationBasedTypeBuilder getPopulator() {
+		TypeBuilder<?> typeBuilder = workflow.findTypeBuilder(
+				ConfigurationBasedTypeBuilder.class);
+		
+		if (typeBuilder != null) {
+			return (ConfigurationBasedTypeBuilder) typeBuilder;
+		}
+		
+		if (populator == null) {
+			populator = new ConfigurationBasedTypeBuilder(this);
+		}
+		
+		return populator;
+	}
+
 	/**
 	 * A helper method that creates new instances of the default
 	 * TypeBuilder, and Workflow objects provided by Jrgen.
@@ -506,104 +820,693 @@ public final class JrgenContext {
 	}
 
 	/**
-	 * A helper method that builds a "typeMap". That is, a Map object that
-	 * contains Class objects as keys with Configuration objects as values.
-	 * The Class objects are determined by the "namespace" of the Configuration
-	 * object.   
+	 * Helper method that parses the modified, added or removed resource 
+	 * files of the file system again, and publishes the resulting 
+	 * configurations, the configurations of the other files being kept.
+	 * 
+	 * @param resourceFiles
+	 * @return
+	 * @throws IOException
+	 */
+	private boolean reloadModified(List<URI> resourceFiles) 
+			throws IOException {
+		Map<URI, List<Configuration>> byFile = 
+				new LinkedHashMap<URI, List<Configuration>>();
+		List<URI> modified = new ArrayList<URI>();
+		boolean removed = false;
+		
+		for (URI resourceFile : resourceFiles) {
+			//A file configured by its URI is listed even once deleted.
+			if (!"file".equals(resourceFile.getScheme()) || 
+					new File(resourceFile).isFile()) {
+				byFile.put(resourceFile, new ArrayList<Configuration>());
+			}
+		}
+		
+		for (Configuration config : currentConfigurations()) {
+			List<Configuration> fileConfigs = byFile.get(config.getResource());
+			
+			if (fileConfigs == null) {
+				removed = true;
+			} else {
+				fileConfigs.add(config);
+			}
+		}
+		
+		for (Map.Entry<URI, List<Configuration>> entry : byFile.entrySet()) {
+			URI resourceFile = entry.getKey();
+			Long loaded = lastModified.get(resourceFile);
+			
+			//A resource outside the file system is only loaded once.
+			if (loaded == null || "file".equals(resourceFile.getScheme()) && 
+					ConfigurationSnapshot.lastModified(resourceFile) != loaded) {
+				modified.add(resourceFile);
+			}
+		}
+		
+		if (modified.isEmpty() && !removed) {
+			return false;
+		}
+		
+		Map<URI, Long> reloadedModified = new ConcurrentHashMap<URI, Long>();
+		Set<Configuration> reloaded = 
+				loadConfigurations(modified, reloadedModified);
+		
+		for (URI resourceFile : modified) {
+			byFile.get(resourceFile).clear();
+		}
+		
+		for (Configuration config : reloaded) {
+			byFile.get(config.getResource()).add(config);
+		}
+		
+		Set<Configuration> configs = new LinkedHashSet<Configuration>();
+		
+		for (List<Configuration> fileConfigs : byFile.values()) {
+			configs.addAll(fileConfigs);
+		}
+		
+		Set<Configuration> configSet = newConfigurationSet();
+		configSet.addAll(configs);
+		TypeIndex index = new TypeIndex(configSet, indexNamespaces(configs), 
+				null);
+		
+		//A single write publishes the configurations and their index, so 
+		//readers see either the old or the new ones. The files are only 
+		//marked as loaded once published, so a failed reload is retried.
+		typeIndex = index;
+		lastModified.keySet().retainAll(byFile.keySet());
+		lastModified.putAll(reloadedModified);
+		
+		//The snapshot would otherwise hand the replaced configurations to
+		//the next JVM for as long as its sources look unchanged.
+		writeSnapshot(resourceFiles, lastModified, configs);
+		
+		if (log.isInfoEnabled()) {
+			log.info("Reloaded " + modified + ", " + configs.size() + 
+					" configuration(s) for " + index.getNames().size() + 
+					" class(es)");
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * Helper method that records when a resource file was loaded: the last 
+	 * modification time of a file of the file system, read before parsing 
+	 * it, or 0 for a resource outside the file system, which is never 
+	 * loaded again.
+	 * 
+	 * @param modified
+	 * @param resourceFile
+	 * @param time
+	 */
+	private static void recordLastModified(Map<URI, Long> modified, 
+			URI resourceFile, long time) {
+		modified.put(resourceFile, 
+				"file".equals(resourceFile.getScheme()) ? time : 0L);
+	}
+	
+	/**
+	 * Helper method that records when a resource file is loaded, reading 
+	 * the last modification time of a file of the file system.
+	 * 
+	 * @param modified
+	 * @param resourceFile
+	 */
+	private static void recordLastModified(Map<URI, Long> modified, 
+			URI resourceFile) {
+		recordLastModified(modified, resourceFile, 
+				"file".equals(resourceFile.getScheme()) ? 
+						ConfigurationSnapshot.lastModified(resourceFile) : 0L);
+	}
+	
+	/**
+	 * Helper method that creates the Set of the configurations of a 
+	 * TypeIndex, to which the configurations loaded on demand are added.
+	 * 
+	 * @return
+	 */
+	private static Set<Configuration> newConfigurationSet() {
+		return Collections.synchronizedSet(new LinkedHashSet<Configuration>());
+	}
+	
+	/**
+	 * Helper method that copies the configurations of the current TypeIndex.
+	 * 
+	 * @return
+	 */
+	private Set<Configuration> currentConfigurations() {
+		Set<Configuration> configs = typeIndex.configs;
+		
+		synchronized (configs) {
+			return new LinkedHashSet<Configuration>(configs);
+		}
+	}
+	
+	/**
+	 * A helper method that indexes the configurations by namespace, class 
+	 * name or pattern, without resolving any class.
 	 * 
 	 * @param configSet Set of Configuration objects. Usually this is provided
-	 * by the getConfigurationSetFromJson() method.
+	 * by the loadConfigurations() method.
+	 * @return
 	 */
-	private void buildConfigurationMapping(Set<Configuration> configSet) {
-		ObjectMapper mapper = new ObjectMapper();
+	private static NamespaceTrie<Configuration> indexNamespaces(
+			Collection<Configuration> configSet) {
+		NamespaceTrie<Configuration> namespaces = 
+				new NamespaceTrie<Configuration>();
 		
 		for (Configuration config : configSet) {
-			for (String actualNamespace : config.getNamespaces()) {
-				Class<?> _class = findClass(actualNamespace);
-				
-				if (_class != null) {
-					typeMap.put(mapper.constructType(_class), config);
-				}
+			for (String namespace : config.getNamespaces()) {
+				namespaces.add(namespace, config);
 			}
 		}
+		
+		return namespaces;
 	}
 	
 	/**
-	 * Helper method that builds a Set of Configuration objects that are 
-	 * representations of the JSON resource files. It pulls the URIs from the
-	 * Settings object. Each URI is converted to a URL or File object depending
-	 * on the scheme of the URI. 
+	 * Helper method that returns the configuration of a type from an index,
+	 * matching the class name of the type the first time.
 	 * 
-	 * If the URI indicates it is anything other than a file, that resource is
-	 * fetched using the appropriate protocol of the URI if that protocol is 
-	 * supported.
+	 * @param index
+	 * @param type
+	 * @return the configuration, or null if the type has none.
+	 */
+	private Configuration getConfiguration(TypeIndex index, JavaType type) {
+		Configuration config = index.types.get(type);
+		
+		if (config != null || index.unmatchedTypes.contains(type)) {
+			return config;
+		}
+		
+		config = matchConfiguration(index, type.getRawClass().getName());
+		
+		if (config == null) {
+			index.unmatchedTypes.add(type);
+			return null;
+		}
+		
+		Configuration existing = index.types.putIfAbsent(type, config);
+		return existing == null ? config : existing;
+	}
+	
+	/**
+	 * Helper method that returns the configuration of a class from the
+	 * configurations of the namespaces matching its name. When the 
+	 * configurations are loaded on demand, those of the resource files 
+	 * matching the name are loaded, keeping the ones whose namespaces 
+	 * match it too. As when the configurations are loaded eagerly, the 
+	 * namespaces naming the class take precedence over the patterns.
 	 * 
-	 * If the URI is a file (the scheme being "file"), the URI is converted to
-	 * File object. This done in situations where it is the developer's intent
-	 * to load any number of JSON configuration files from a specified folder
-	 * on the classpath. All of the files associated with that classpath
-	 * directory, are then loaded individually by conversion to URIs, once
-	 * again having a "file" scheme.
+	 * @param index
+	 * @param className
+	 * @return
+	 */
+	private static Configuration matchConfiguration(TypeIndex index, 
+			String className) {
+		List<Configuration> configs;
+		
+		if (index.configurations != null) {
+			configs = index.configurations.match(className);
+		} else {
+			boolean named = index.getNames().contains(className);
+			configs = new ArrayList<Configuration>();
+			
+			for (LazyConfigurations configurations : 
+					index.lazyConfigurations.match(className)) {
+				for (Configuration config : configurations.load()) {
+					if (appliesTo(config, className, named)) {
+						configs.add(config);
+					}
+				}
+			}
+		}
+		
+		return configs.isEmpty() ? null : layerConfigurations(configs);
+	}
+	
+	/**
+	 * Helper method that checks if a configuration applies to a class, 
+	 * either by naming it or by a pattern matching its name.
 	 * 
-	 * ObjectMapper provided by the Jackson library is used to convert the 
-	 * JSON resource file to an actual Configuration object.
+	 * @param config
+	 * @param className
+	 * @param named true if only the namespaces naming the class apply.
+	 * @return
+	 */
+	private static boolean appliesTo(Configuration config, String className,
+			boolean named) {
+		for (String namespace : config.getNamespaces()) {
+			if (named ? namespace.equals(className) : 
+					NamespaceTrie.isPattern(namespace) && 
+					NamespaceTrie.matches(namespace, className)) {
+				return true;
+			}
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * Helper method that returns the configuration of a type from the
+	 * configurations of its namespace, in the order they were listed. The 
+	 * last JSON configuration wins, and the configurations of text and CSV
+	 * files are layered over it.
 	 * 
-	 * @param resourceURI
+	 * @param configs
 	 * @return
-	 * @throws JsonParseException
-	 * @throws JsonMappingException
-	 * @throws MalformedURLException
-	 * @throws IOException
-	 * @throws URISyntaxException
 	 */
-	@SuppressWarnings("unchecked")
-	private Set<Configuration> getConfigurationSetFromJson (URI resourceURI) 
-			throws JsonParseException, 
-			JsonMappingException, 
-			MalformedURLException, 
-			IOException, 
-			URISyntaxException {
+	private static Configuration layerConfigurations(
+			List<Configuration> configs) {
+		Configuration base = null;
+		List<Configuration> layers = new ArrayList<Configuration>();
 		
-		ObjectMapper mapper = new ObjectMapper();
-		Set<Configuration> fileConfigSet = new LinkedHashSet<Configuration>();
+		for (Configuration config : configs) {
+			if (config.getResource() == null || isJson(config.getResource())) {
+				base = config;
+			} else {
+				layers.add(config);
+			}
+		}
 		
-		JavaType setConfigType = 
-				mapper.getTypeFactory().constructCollectionType(
-						Set.class, ConfigurationImpl.class);
+		if (base == null) {
+			base = layers.remove(0);
+		}
 		
+		return layers.isEmpty() ? base : 
+			new LayeredConfiguration(base, layers);
+	}
+	
+	/**
+	 * Helper method that lists the JSON resource files of the URIs of the 
+	 * Settings object, each file being listed once.
+	 * 
+	 * @param refresh true to list the classpath folders again rather than 
+	 * using their cached listing.
+	 * @return
+	 * @throws IOException
+	 */
+	private List<URI> listResourceFiles(boolean refresh) throws IOException {
+		List<URI> resourceFiles = new ArrayList<URI>();
+		
+		for (URI uri : settings.getResources()) {
+			addResourceFiles(uri, resourceFiles, refresh);
+		}
+		
+		return resourceFiles;
+	}
+	
+	/**
+	 * Helper method that lists the resource files of a URI from the 
+	 * Settings object, each file being listed once.
+	 * 
+	 * If the URI is absolute, it is the resource file itself, fetched using 
+	 * the appropriate protocol of the URI if that protocol is supported.
+	 * 
+	 * Otherwise the URI is a location on the classpath. This done in 
+	 * situations where it is the developer's intent to load any number of 
+	 * JSON configuration files from a specified folder on the classpath. 
+	 * The folder is listed by the {@link ResourceDiscovery} in every 
+	 * directory or jar of the classpath holding it, each file being listed
+	 * individually with a "file" or "jar" URI.
+	 * 
+	 * @param resourceURI
+	 * @param resourceFiles
+	 * @param refresh true to list the classpath folders again rather than 
+	 * using their cached listing.
+	 * @throws IOException
+	 */
+	private void addResourceFiles (URI resourceURI, List<URI> resourceFiles,
+			boolean refresh) throws IOException {
 		if (resourceURI.isAbsolute()) {
 			if (hasSupportedExtension(settings, resourceURI)) {
-				Set<Configuration> configs = 
-						(Set<Configuration>) mapper
-							.readValue(resourceURI.toURL(), setConfigType);
-				
-				setResource(resourceURI, fileConfigSet);
-				
-				fileConfigSet.addAll(configs);
+				resourceFiles.add(resourceURI);
 			}
 			
-			return fileConfigSet;
+			return;
+		}
+		
+		//Classpath resources, in directories or jars...
+		List<URI> listed = refresh ? 
+				ResourceDiscovery.refresh(getClassLoader(), 
+						resourceURI.toString(), settings.getLoaderThreads()) :
+				ResourceDiscovery.list(getClassLoader(), 
+						resourceURI.toString(), settings.getLoaderThreads());
+		
+		for (URI resourceFile : listed) {
+			if (hasSupportedExtension(settings, resourceFile) && 
+					!resourceFiles.contains(resourceFile)) {
+				resourceFiles.add(resourceFile);
+			}
+		}
+	}
+	
+	/**
+	 * Helper method that loads the configurations from the snapshot file of
+	 * the Settings object, provided it is up to date with the resource 
+	 * files.
+	 * 
+	 * @param resourceFiles
+	 * @param modified receives the modification time of each file.
+	 * @return the configurations, or null if they must be parsed from the 
+	 * resource files.
+	 */
+	private Set<Configuration> loadSnapshot(List<URI> resourceFiles, 
+			Map<URI, Long> modified) {
+		long start = System.nanoTime();
+		ConfigurationSnapshot snapshot = openSnapshot(resourceFiles);
+		
+		if (snapshot == null) {
+			return null;
+		}
+		
+		try {
+			Set<Configuration> configs = snapshot.getConfigurations();
+			long elapsed = System.nanoTime() - start;
+			
+			for (Map.Entry<URI, Long> source : 
+					snapshot.getSources().entrySet()) {
+				recordLastModified(modified, source.getKey(), 
+						source.getValue());
+			}
+			
+			synchronized (loadTimes) {
+				loadTimes.put(settings.getSnapshot().toURI(), elapsed);
+			}
+			
+			if (log.isDebugEnabled()) {
+				log.debug("Loaded " + configs.size() + " configuration(s) " +
+						"from the snapshot " + settings.getSnapshot() + 
+						" in " + elapsed / 1000000.0 + " ms");
+			}
+			
+			return configs;
+		} catch (IllegalArgumentException e) {
+			log.warn("Ignoring the snapshot " + settings.getSnapshot() + 
+					": " + e.getMessage());
+			return null;
+		}
+	}
+	
+	/**
+	 * Helper method that opens the snapshot file of the Settings object, 
+	 * provided it is up to date with the resource files. A missing, stale, 
+	 * corrupt or older snapshot is ignored.
+	 * 
+	 * @param resourceFiles
+	 * @return the snapshot, or null if there is no usable snapshot.
+	 */
+	private ConfigurationSnapshot openSnapshot(List<URI> resourceFiles) {
+		File snapshotFile = settings.getSnapshot();
+		
+		if (snapshotFile == null || !snapshotFile.isFile()) {
+			return null;
+		}
+		
+		try {
+			ConfigurationSnapshot snapshot = 
+					ConfigurationSnapshot.open(snapshotFile);
+			
+			if (snapshot.isCurrent(resourceFiles)) {
+				return snapshot;
+			}
+			
+			log.debug("The snapshot " + snapshotFile + " is out of date.");
+		} catch (IOException e) {
+			log.warn("Cannot read the snapshot " + snapshotFile, e);
+		} catch (IllegalArgumentException e) {
+			log.warn("Ignoring the snapshot " + snapshotFile + ": " + 
+					e.getMessage());
+		}
+		
+		return null;
+	}
+	
+	/**
+	 * Helper method that indexes the configurations by namespace, without
+	 * loading them. The namespaces are read from the up to date snapshot of
+	 * the Settings object if there is one, otherwise from a scan of each 
+	 * resource file that skips everything but the namespaces. A stale 
+	 * snapshot is not written again, as that requires parsing every file.
+	 * 
+	 * @param resourceFiles
+	 * @param configs receives the configurations once they are loaded.
+	 * @param modified receives the modification time of each file.
+	 * @return the configurations not loaded yet, by namespace, in the order
+	 * of the resource files.
+	 * @throws IOException
+	 */
+	private NamespaceTrie<LazyConfigurations> indexConfigurations(
+			List<URI> resourceFiles, Set<Configuration> configs, 
+			Map<URI, Long> modified) throws IOException {
+		NamespaceTrie<LazyConfigurations> index = 
+				new NamespaceTrie<LazyConfigurations>();
+		final ConfigurationSnapshot snapshot = openSnapshot(resourceFiles);
+		
+		if (snapshot != null) {
+			for (Map.Entry<URI, Long> source : 
+					snapshot.getSources().entrySet()) {
+				recordLastModified(modified, source.getKey(), 
+						source.getValue());
+			}
+			
+			for (int i = 0; i < snapshot.size(); i++) {
+				final int position = i;
+				addToIndex(index, snapshot.getNamespaces(i), 
+						new LazyConfigurations(configs, 
+								new Callable<Set<Configuration>>() {
+					@Override
+					public Set<Configuration> call() {
+						return Collections.singleton(
+								snapshot.getConfiguration(position));
+					}
+				}));
+			}
+			
+			return index;
+		}
+		
+		for (final URI resourceFile : resourceFiles) {
+			recordLastModified(modified, resourceFile);
+			addToIndex(index, isJson(resourceFile) ? 
+					CONFIG_READER.scanNamespaces(resourceFile.toURL()) : 
+					DICTIONARY_READER.getNamespaces(resourceFile), 
+					new LazyConfigurations(configs, 
+							new Callable<Set<Configuration>>() {
+				@Override
+				public Set<Configuration> call() throws IOException {
+					return getConfigurationSetFromFile(resourceFile, null);
+				}
+			}));
+		}
+		
+		return index;
+	}
+	
+	/**
+	 * Helper method that adds configurations not loaded yet to the index of
+	 * each of their namespaces.
+	 * 
+	 * @param index
+	 * @param namespaces
+	 * @param configurations
+	 */
+	private static void addToIndex(NamespaceTrie<LazyConfigurations> index, 
+			Set<String> namespaces, LazyConfigurations configurations) {
+		for (String namespace : namespaces) {
+			index.add(namespace, configurations);
+		}
+	}
+	
+	/**
+	 * Helper method that writes the configurations parsed from the resource
+	 * files to the snapshot file of the Settings object, if any, during 
+	 * initialization or after a reload. A file of the file system is 
+	 * recorded with the modification time it had when it was parsed, so 
+	 * that a change made since is still detected. Failing to write the 
+	 * snapshot does not fail the initialization or the reload.
+	 * 
+	 * @param resourceFiles
+	 * @param loaded
+	 * @param configs
+	 */
+	private void writeSnapshot(List<URI> resourceFiles, 
+			Map<URI, Long> loaded, Collection<Configuration> configs) {
+		File snapshotFile = settings.getSnapshot();
+		
+		if (snapshotFile == null) {
+			return;
 		}
 		
-		//Classpath resources...
-		File[] resourceFiles = createResourceFile(resourceURI);
+		Map<URI, Long> sources = new LinkedHashMap<URI, Long>();
+		
+		for (URI resourceFile : resourceFiles) {
+			Long time = loaded.get(resourceFile);
+			
+			sources.put(resourceFile, 
+					time != null && "file".equals(resourceFile.getScheme()) ? 
+							time : 
+							ConfigurationSnapshot.lastModified(resourceFile));
+		}
 		
-		if (ArrayUtils.isEmpty(resourceFiles)) {
+		try {
+			ConfigurationSnapshot.write(snapshotFile, sources, configs);
+		} catch (IOException e) {
+			log.warn("Cannot write the snapshot " + snapshotFile, e);
+		} catch (IllegalArgumentException e) {
+			log.warn("Cannot write the snapshot " + snapshotFile + ": " + 
+					e.getMessage());
+		}
+	}
+	
+	/**
+	 * Helper method that parses each resource file exactly once into a Set 
+	 * of Configuration objects, preserving the order of the files. The 
+	 * files are spread across at most loaderThreads threads of the Settings
+	 * object, and are parsed on the calling thread when there is a single
+	 * one.
+	 * 
+	 * @param resourceFiles
+	 * @param modified receives the modification time of each file.
+	 * @return
+	 * @throws IOException
+	 */
+	private Set<Configuration> loadConfigurations (List<URI> resourceFiles, 
+			final Map<URI, Long> modified) throws IOException {
+		Set<Configuration> fileConfigSet = new LinkedHashSet<Configuration>();
+		int threads = Math.min(settings.getLoaderThreads(), 
+				resourceFiles.size());
+		
+		if (threads <= 1) {
+			for (URI resourceFile : resourceFiles) {
+				fileConfigSet.addAll(
+						getConfigurationSetFromFile(resourceFile, modified));
+			}
+			
 			return fileConfigSet;
 		}
 		
-		for (File resourceFile : resourceFiles) {
-			if (hasSupportedExtension(settings, resourceFile)) {
-				Set<Configuration> configs = (Set<Configuration>) mapper
-						.readValue(resourceFile, setConfigType);
-				setResource(resourceFile.toURI(), configs);
-				fileConfigSet.addAll(configs);
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		List<Future<Set<Configuration>>> futures = 
+				new ArrayList<Future<Set<Configuration>>>();
+		Set<URI> known;
+		
+		synchronized (loadTimes) {
+			known = new HashSet<URI>(loadTimes.keySet());
+		}
+		
+		try {
+			for (final URI resourceFile : resourceFiles) {
+				futures.add(executor.submit(new Callable<Set<Configuration>>() {
+					@Override
+					public Set<Configuration> call() throws Exception {
+						return getConfigurationSetFromFile(resourceFile, 
+								modified);
+					}
+				}));
+			}
+			
+			for (Future<Set<Configuration>> future : futures) {
+				fileConfigSet.addAll(future.get());
+			}
+			
+			orderLoadTimes(resourceFiles, known);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException(e.getMessage());
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			} else if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
 			}
+			
+			throw new RuntimeException(cause);
+		} finally {
+			executor.shutdownNow();
 		}
 		
 		return fileConfigSet;
 	}
 	
+	/**
+	 * Helper method that moves the load times of the files parsed in 
+	 * parallel into the order the files were listed, since the threads 
+	 * record them in the order they complete. The files loaded before keep 
+	 * their place, as they do when the files are parsed one after another.
+	 * 
+	 * @param resourceFiles
+	 * @param known
+	 */
+	private void orderLoadTimes(List<URI> resourceFiles, Set<URI> known) {
+		synchronized (loadTimes) {
+			for (URI resourceFile : resourceFiles) {
+				if (!known.contains(resourceFile)) {
+					Long elapsed = loadTimes.remove(resourceFile);
+					
+					if (elapsed != null) {
+						loadTimes.put(resourceFile, elapsed);
+					}
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Helper method that parses a single resource file into a Set of 
+	 * Configuration objects, and records the time it took. The modification
+	 * time of the file is read before it is parsed, so that a change made 
+	 * meanwhile is picked up by the next reload. A JSON file is
+	 * streamed by the {@link ConfigurationReader} shared by every 
+	 * JrgenContext, so no intermediate tree of the file is built. A text or
+	 * CSV file is scanned into dictionaries by the 
+	 * {@link DictionaryConfigurationReader}.
+	 * 
+	 * @param resourceFile
+	 * @param modified receives the modification time of the file, unless 
+	 * it is null.
+	 * @return
+	 * @throws JsonParseException
+	 * @throws JsonMappingException
+	 * @throws MalformedURLException
+	 * @throws IOException
+	 */
+	private Set<Configuration> getConfigurationSetFromFile (URI resourceFile, 
+			Map<URI, Long> modified) 
+			throws JsonParseException, 
+			JsonMappingException, 
+			MalformedURLException, 
+			IOException {
+		if (modified != null) {
+			recordLastModified(modified, resourceFile);
+		}
+		
+		long start = System.nanoTime();
+		Set<Configuration> configs = isJson(resourceFile) ? 
+				CONFIG_READER.read(resourceFile.toURL()) : 
+				DICTIONARY_READER.read(resourceFile);
+		long elapsed = System.nanoTime() - start;
+		
+		setResource(resourceFile, configs);
+		
+		synchronized (loadTimes) {
+			loadTimes.put(resourceFile, elapsed);
+		}
+		
+		if (log.isDebugEnabled()) {
+			log.debug("Loaded " + configs.size() + " configuration(s) from " +
+					resourceFile + " in " + elapsed / 1000000.0 + " ms");
+		}
+		
+		return configs;
+	}
+	
 	/**
 	 * Helper method that simply sets the original URI onto all the 
 	 * configuration objects in the given Set of Configurations. THis method
@@ -618,31 +1521,18 @@ public final class JrgenContext {
 		}
 	}
 	
-	/***
-	 * This helper method converts a given URI to an Array of Files. Even
-	 * if the File that is produced by conversion of the URI is an actual
-	 * file and not a directory it is still an Array of Files (albeit an array
-	 * with just one element.)
+	/**
+	 * Helper method that returns the ClassLoader the classpath resources are
+	 * listed from, the context ClassLoader of the current thread if there 
+	 * is one.
 	 * 
-	 * @param uri
 	 * @return
-	 * @throws URISyntaxException 
 	 */
-	private File[] createResourceFile(URI uri) throws URISyntaxException {		
-		URL resourceURL = 
-				JrgenContext.class.getResource(uri.toString());
+	private static ClassLoader getClassLoader() {
+		ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
 		
-		if (resourceURL == null) {
-			return null;
-		}
-		
-		File classpathFile = new File(resourceURL.toURI());
-		
-		if (classpathFile.isDirectory()) {
-			return classpathFile.listFiles();
-		} else {
-			return new File[] {classpathFile};
-		}		
+		return classLoader != null ? classLoader : 
+				JrgenContext.class.getClassLoader();
 	}
 	
 	/***
@@ -662,34 +1552,143 @@ public final class JrgenContext {
 	}
 	
 	/**
-	 * A helper method that checks if the URI resource has a .json
-	 * extension. From the perspective of Jrgen, a file containing
-	 * a .json extension is assumed to be a json file.
+	 * A helper method that checks if the URI resource has the extension of
+	 * one of the {@link FileType}s of the settings, such as .json. The 
+	 * extension may be followed by the extension of a 
+	 * {@link ResourceCodec}, such as .gz.
 	 * 
 	 * @param settings
 	 * @param uri
 	 * @return
 	 */
 	private boolean hasSupportedExtension (Settings settings, URI uri) {
-		return uri.getPath().endsWith(settings.getExtension().toString());
-	}	
+		FileType type = getFileType(uri);
+		
+		return type != null && settings.getFileTypes().contains(type);
+	}
 	
 	/**
-	 * A helper method that checks if the File object has a .json
-	 * extension. From the perspective of Jrgen, a file containing
-	 * a .json extension is assumed to be a json file.
+	 * Helper method that checks if the URI resource is a JSON file.
 	 * 
-	 * @param settings
-	 * @param file
+	 * @param uri
 	 * @return
 	 */
-	private boolean hasSupportedExtension (Settings settings, File file) {
-		return file.getName().endsWith(settings.getExtension().toString());
+	private static boolean isJson (URI uri) {
+		return getFileType(uri) == FileType.JSON;
+	}
+	
+	/**
+	 * Helper method that returns the {@link FileType} of the URI resource,
+	 * ignoring the extension of its {@link ResourceCodec}, if any.
+	 * 
+	 * @param uri
+	 * @return the {@link FileType}, or null if it is not supported.
+	 */
+	private static FileType getFileType (URI uri) {
+		String path = uri.isOpaque() ? uri.getSchemeSpecificPart() : 
+				uri.getPath();
+		
+		return path == null ? null : 
+			FileType.forPath(ResourceCodecs.stripExtension(path));
+	}
+	
+	/**
+	 * Configurations that are loaded the first time they are requested. The
+	 * underlying FutureTask guarantees they are loaded once, the threads 
+	 * requesting them at the same time waiting for the first one. A failed
+	 * load is not kept: the FutureTask is replaced by a fresh one, so the 
+	 * next request loads the configurations again, such as once the file 
+	 * has been fixed.
+	 */
+	private static final class LazyConfigurations {
+		
+		private final Set<Configuration> configSet;
+		private final Callable<Set<Configuration>> loader;
+		private final AtomicReference<FutureTask<Set<Configuration>>> task;
+		
+		private LazyConfigurations(Set<Configuration> configSet, 
+				Callable<Set<Configuration>> loader) {
+			this.configSet = configSet;
+			this.loader = loader;
+			this.task = new AtomicReference<FutureTask<Set<Configuration>>>(
+					newTask());
+		}
+		
+		private FutureTask<Set<Configuration>> newTask() {
+			return new FutureTask<Set<Configuration>>(loader) {
+				@Override
+				protected void set(Set<Configuration> configs) {
+					configSet.addAll(configs);
+					super.set(configs);
+				}
+			};
+		}
+		
+		private Set<Configuration> load() {
+			FutureTask<Set<Configuration>> current = task.get();
+			current.run();
+			
+			try {
+				return current.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new RuntimeException(e);
+			} catch (ExecutionException e) {
+				//Only the first thread to see the failure replaces the task,
+				//the threads that waited for it rethrow the same failure.
+				task.compareAndSet(current, newTask());
+				
+				if (e.getCause() instanceof RuntimeException) {
+					throw (RuntimeException) e.getCause();
+				}
+				
+				throw new RuntimeException(e.getCause());
+			}
+		}
+	}
+	
+	/**
+	 * The configurations loaded, the configurations indexed by namespace, 
+	 * either loaded or loaded on demand, and the configuration of each type
+	 * matched so far, with whether the classes named by the namespaces were
+	 * resolved already. A reload replaces the whole index, so a type is never
+	 * cached from the configurations of another index, and the 
+	 * configurations always match their index.
+	 */
+	private static final class TypeIndex {
+		
+		private final Set<Configuration> configs;
+		private final NamespaceTrie<Configuration> configurations;
+		private final NamespaceTrie<LazyConfigurations> lazyConfigurations;
+		private final ConcurrentHashMap<JavaType, Configuration> types;
+		private final Set<JavaType> unmatchedTypes;
+		private final Map<JavaType, Configuration> typeMap;
+		private volatile boolean namesResolved;
+		
+		private TypeIndex(Set<Configuration> configs, 
+				NamespaceTrie<Configuration> configurations, 
+				NamespaceTrie<LazyConfigurations> lazyConfigurations) {
+			this.configs = configs;
+			this.configurations = configurations;
+			this.lazyConfigurations = lazyConfigurations;
+			this.types = new ConcurrentHashMap<JavaType, Configuration>();
+			this.unmatchedTypes = Collections.newSetFromMap(
+					new ConcurrentHashMap<JavaType, Boolean>());
+			this.typeMap = unmodifiableMap(types);
+		}
+		
+		private Set<String> getNames() {
+			return configurations != null ? configurations.getNames() : 
+				lazyConfigurations.getNames();
+		}
 	}
 	
 	@Override
 	public String toString() {
-		return "JrgenContext [configSet=" + configSet + ", typeMap=" + typeMap
+		TypeIndex index = typeIndex;
+		
+		return "JrgenContext [configSet=" + index.configs + ", typeMap=" + 
+				index.types
 				+ ", initialized=" + initialized + ", settings=" + settings
 				+ ", workflow=" + workflow + ", typeBuilders=" + typeBuilders
 				+ ", abstractTypeHandler=" + abstractTypeHandler + "]";
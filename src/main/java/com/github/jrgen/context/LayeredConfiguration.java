@@ -0,0 +1,136 @@
+package com.github.jrgen.context;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.github.jrgen.configuration.Configuration;
+import com.github.jrgen.configuration.DictionaryConfigurationReader;
+import com.github.jrgen.configuration.TupleTable;
+import com.github.jrgen.dictionary.StringDictionary;
+import com.github.jrgen.generator.TextSource;
+import com.github.jrgen.sampler.IndexSampler;
+
+/***
+ * <p>
+ * The configuration of a type combining the configuration of a JSON
+ * resource file with the configurations of the text and CSV resource files
+ * of the same namespace, see {@link DictionaryConfigurationReader}. A
+ * property whose values are held by the dictionary of a layer is picked
+ * from it, the last layer holding the property taking precedence, and
+ * every other property is configured by the base configuration.
+ * </p>
+ *
+ * @author Allan J. Shoulders
+ * @version 1.0
+ * @since 1.2.0
+ * @see JrgenContext
+ *
+ */
+final class LayeredConfiguration implements Configuration {
+
+	private final Configuration base;
+	private final List<Configuration> layers;
+	private final Map<String, List<Object>> data;
+
+	/**
+	 * Constructs a new instance of the LayeredConfiguration class.
+	 *
+	 * @param base the configuration of the properties the layers do not
+	 * hold.
+	 * @param layers the configurations of dictionary resource files, in
+	 * the order they were listed.
+	 */
+	LayeredConfiguration(Configuration base, List<Configuration> layers) {
+		this.base = base;
+		this.layers = new ArrayList<Configuration>(layers);
+		Collections.reverse(this.layers);
+
+		Map<String, List<Object>> baseData = base.getData();
+		Map<String, List<Object>> layeredData = baseData == null ? null :
+				new LinkedHashMap<String, List<Object>>(baseData);
+
+		if (layeredData != null) {
+			for (String property : baseData.keySet()) {
+				if (getLayer(property) != null) {
+					layeredData.remove(property);
+				}
+			}
+		}
+
+		this.data = layeredData;
+	}
+
+	@Override
+	public void setResource(URI uri) {
+		base.setResource(uri);
+	}
+
+	@Override
+	public URI getResource() {
+		return base.getResource();
+	}
+
+	@Override
+	public Set<String> getNamespaces() {
+		return base.getNamespaces();
+	}
+
+	@Override
+	public Map<String, List<Object>> getData() {
+		return data;
+	}
+
+	@Override
+	public IndexSampler getSampler(String property) {
+		Configuration layer = getLayer(property);
+
+		return layer != null ? layer.getSampler(property) :
+			base.getSampler(property);
+	}
+
+	@Override
+	public TextSource getTextSource(String property) {
+		return base.getTextSource(property);
+	}
+
+	@Override
+	public List<TupleTable> getTupleTables() {
+		return base.getTupleTables();
+	}
+
+	@Override
+	public StringDictionary getDictionary(String property) {
+		Configuration layer = getLayer(property);
+
+		return layer != null ? layer.getDictionary(property) :
+			base.getDictionary(property);
+	}
+
+	@Override
+	public String toString() {
+		return "LayeredConfiguration [base=" + base + ", layers=" + layers +
+				"]";
+	}
+
+	/**
+	 * Helper method that returns the last layer holding the dictionary of
+	 * a property.
+	 *
+	 * @param property
+	 * @return the layer, or null if no layer holds the property.
+	 */
+	private Configuration getLayer(String property) {
+		for (Configuration layer : layers) {
+			if (layer.getDictionary(property) != null) {
+				return layer;
+			}
+		}
+
+		return null;
+	}
+}
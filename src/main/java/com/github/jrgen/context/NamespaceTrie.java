@@ -0,0 +1,313 @@
+package com.github.jrgen.context;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/***
+ * <p>
+ * Indexes values by namespace, the namespaces being class names, such as
+ * <i>com.acme.model.Person</i>, or patterns of class names where a
+ * <i>*</i> segment matches a single segment of a name, and a <i>**</i>
+ * segment matches any number of segments, none included. For example,
+ * <i>com.acme.model.*</i> matches the classes of the com.acme.model
+ * package, and <i>com.acme.**.dto.*</i> the classes of every dto package
+ * under com.acme.
+ * </p>
+ *
+ * <p>
+ * The namespaces are kept in a trie of their segments, so matching a
+ * class name takes a walk of its segments, whatever the number of
+ * namespaces. A class name listed as such takes precedence over the
+ * patterns matching it. A trie is built once and then only read, so it
+ * can be shared by several threads once it is published.
+ * </p>
+ *
+ * @author Allan J. Shoulders
+ * @version 1.0
+ * @since 1.2.0
+ * @see JrgenContext
+ *
+ */
+final class NamespaceTrie<V> {
+
+	private static final char SEPARATOR = '.';
+	private static final String ANY = "*";
+	private static final String ANY_SEGMENTS = "**";
+
+	private final Node<V> root;
+	private final Set<String> names;
+	private final List<V> values;
+
+	/**
+	 * Constructs a new, empty instance of the NamespaceTrie class.
+	 */
+	NamespaceTrie() {
+		this.root = new Node<V>(false);
+		this.names = new LinkedHashSet<String>();
+		this.values = new ArrayList<V>();
+	}
+
+	/**
+	 * Determines if a namespace is a pattern rather than a class name.
+	 *
+	 * @param namespace the namespace.
+	 * @return true if a segment of the namespace is a wildcard.
+	 */
+	static boolean isPattern(String namespace) {
+		for (String segment : split(namespace)) {
+			if (ANY.equals(segment) || ANY_SEGMENTS.equals(segment)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Determines if a namespace, a class name or a pattern, matches a class
+	 * name.
+	 *
+	 * @param namespace the namespace.
+	 * @param className the class name.
+	 * @return true if the namespace matches the class name.
+	 */
+	static boolean matches(String namespace, String className) {
+		NamespaceTrie<String> trie = new NamespaceTrie<String>();
+		trie.add(namespace, namespace);
+
+		return !trie.match(className).isEmpty();
+	}
+
+	/**
+	 * Adds a value under a namespace.
+	 *
+	 * @param namespace the class name or pattern.
+	 * @param value the value.
+	 */
+	void add(String namespace, V value) {
+		Node<V> node = root;
+
+		for (String segment : split(namespace)) {
+			Node<V> child = node.children.get(segment);
+
+			if (child == null) {
+				child = new Node<V>(ANY_SEGMENTS.equals(segment));
+				node.children.put(segment, child);
+			}
+
+			node = child;
+		}
+
+		node.entries.add(new Entry<V>(values.size(), value));
+		values.add(value);
+
+		if (!isPattern(namespace)) {
+			names.add(namespace);
+		}
+	}
+
+	/**
+	 * Returns the values of the namespaces matching a class name: the
+	 * values added under the class name itself if any, otherwise the values
+	 * added under the patterns matching it.
+	 *
+	 * @param className the class name.
+	 * @return the values, each value once, in the order they were added.
+	 */
+	List<V> match(String className) {
+		List<String> segments = split(className);
+		Node<V> node = root;
+
+		for (int i = 0; i < segments.size() && node != null; i++) {
+			node = node.children.get(segments.get(i));
+		}
+
+		if (node != null && !node.entries.isEmpty()) {
+			return collect(Collections.singleton(node));
+		}
+
+		Set<Node<V>> states = expand(Collections.singleton(root));
+
+		for (String segment : segments) {
+			Set<Node<V>> next = newNodeSet();
+
+			for (Node<V> state : states) {
+				if (state.anySegments) {
+					next.add(state);
+				}
+
+				Node<V> child = state.children.get(segment);
+
+				if (child != null) {
+					next.add(child);
+				}
+
+				child = state.children.get(ANY);
+
+				if (child != null) {
+					next.add(child);
+				}
+			}
+
+			if (next.isEmpty()) {
+				return Collections.emptyList();
+			}
+
+			states = expand(next);
+		}
+
+		return collect(states);
+	}
+
+	/**
+	 * Returns the class names added, the patterns excluded.
+	 *
+	 * @return the class names, in the order they were added.
+	 */
+	Set<String> getNames() {
+		return Collections.unmodifiableSet(names);
+	}
+
+	/**
+	 * Returns every value added.
+	 *
+	 * @return the values, in the order they were added.
+	 */
+	List<V> getValues() {
+		return Collections.unmodifiableList(values);
+	}
+
+	@Override
+	public String toString() {
+		return "NamespaceTrie [names=" + names + ", size=" + values.size() +
+				"]";
+	}
+
+	/**
+	 * Helper method that adds to a set of nodes the nodes reached by
+	 * matching no segment with a <i>**</i> segment.
+	 *
+	 * @param nodes
+	 * @return
+	 */
+	private Set<Node<V>> expand(Set<Node<V>> nodes) {
+		Set<Node<V>> expanded = newNodeSet();
+		List<Node<V>> pending = new ArrayList<Node<V>>(nodes);
+
+		while (!pending.isEmpty()) {
+			Node<V> node = pending.remove(pending.size() - 1);
+
+			if (expanded.add(node)) {
+				Node<V> anySegments = node.children.get(ANY_SEGMENTS);
+
+				if (anySegments != null) {
+					pending.add(anySegments);
+				}
+			}
+		}
+
+		return expanded;
+	}
+
+	/**
+	 * Helper method that returns the values of a set of nodes, in the order
+	 * they were added.
+	 *
+	 * @param nodes
+	 * @return
+	 */
+	private List<V> collect(Set<Node<V>> nodes) {
+		List<Entry<V>> entries = new ArrayList<Entry<V>>();
+
+		for (Node<V> node : nodes) {
+			entries.addAll(node.entries);
+		}
+
+		if (entries.isEmpty()) {
+			return Collections.emptyList();
+		}
+
+		Collections.sort(entries);
+		Set<V> seen = Collections.newSetFromMap(new IdentityHashMap<V, Boolean>());
+		List<V> matched = new ArrayList<V>(entries.size());
+
+		for (Entry<V> entry : entries) {
+			if (seen.add(entry.value)) {
+				matched.add(entry.value);
+			}
+		}
+
+		return matched;
+	}
+
+	/**
+	 * Helper method that creates a set of nodes compared by identity.
+	 *
+	 * @return
+	 */
+	private Set<Node<V>> newNodeSet() {
+		return Collections.newSetFromMap(
+				new IdentityHashMap<Node<V>, Boolean>());
+	}
+
+	/**
+	 * Helper method that splits a namespace into its segments.
+	 *
+	 * @param namespace
+	 * @return
+	 */
+	private static List<String> split(String namespace) {
+		List<String> segments = new ArrayList<String>();
+		int start = 0;
+
+		for (int i = 0; i <= namespace.length(); i++) {
+			if (i == namespace.length() || namespace.charAt(i) == SEPARATOR) {
+				segments.add(namespace.substring(start, i));
+				start = i + 1;
+			}
+		}
+
+		return segments;
+	}
+
+	/**
+	 * A node of the trie, reached by a segment.
+	 */
+	private static final class Node<V> {
+
+		private final Map<String, Node<V>> children;
+		private final List<Entry<V>> entries;
+		private final boolean anySegments;
+
+		private Node(boolean anySegments) {
+			this.children = new HashMap<String, Node<V>>(4);
+			this.entries = new ArrayList<Entry<V>>(1);
+			this.anySegments = anySegments;
+		}
+	}
+
+	/**
+	 * A value of the trie, with the order it was added in.
+	 */
+	private static final class Entry<V> implements Comparable<Entry<V>> {
+
+		private final int order;
+		private final V value;
+
+		private Entry(int order, V value) {
+			this.order = order;
+			this.value = value;
+		}
+
+		@Override
+		public int compareTo(Entry<V> other) {
+			return order < other.order ? -1 : (order == other.order ? 0 : 1);
+		}
+	}
+}
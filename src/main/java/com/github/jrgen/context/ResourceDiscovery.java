@@ -0,0 +1,502 @@
+package com.github.jrgen.context;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.WeakHashMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.JarInputStream;
+
+import com.github.jrgen.configuration.ResourceCodecs;
+
+/***
+ * <p>
+ * Lists the resources of a classpath location, whether the location is a
+ * directory, a directory of a jar, or a directory of a jar nested in
+ * another jar, such as <code>jar:file:/app.jar!/lib/data.jar!/config</code>.
+ * The entries of a jar are enumerated without being extracted, and a nested
+ * jar is streamed from its enclosing jar, as it is when its resources are
+ * opened, see {@link #openStream(URL)}.
+ * </p>
+ *
+ * <p>
+ * Every classpath root holding the location is listed, in parallel when
+ * there are several. The listing of a location is cached per
+ * {@link ClassLoader}, as the classpath of a ClassLoader does not change;
+ * {@link #clearCache()} forgets the listings, for instance when resources
+ * were added to a directory.
+ * </p>
+ *
+ * @author Allan J. Shoulders
+ * @version 1.0
+ * @since 1.2.0
+ * @see JrgenContext
+ *
+ */
+public final class ResourceDiscovery {
+
+	private static final String JAR = "jar";
+	private static final String FILE = "file";
+	private static final String SEPARATOR = "!/";
+	private static final Map<ClassLoader, ConcurrentMap<String, List<URI>>>
+			CACHE = new WeakHashMap<ClassLoader,
+					ConcurrentMap<String, List<URI>>>();
+
+	private ResourceDiscovery() {
+		super();
+	}
+
+	/**
+	 * Lists the resources directly under a classpath location, in every
+	 * classpath root holding it. When the location is a resource rather
+	 * than a directory, the resource itself is listed.
+	 *
+	 * @param classLoader the {@link ClassLoader} of the classpath.
+	 * @param location the classpath location, with or without a leading
+	 * slash.
+	 * @param threads the maximum number of threads listing the roots.
+	 * @return an unmodifiable {@link List} of the {@link URI}s of the
+	 * resources, sorted by name within each root.
+	 * @throws IOException if a root cannot be listed.
+	 * @throws IllegalArgumentException if a parameter is null or threads is
+	 * less than 1.
+	 */
+	public static List<URI> list(ClassLoader classLoader, String location,
+			int threads) throws IOException {
+		if (classLoader == null || location == null || threads < 1) {
+			throw new IllegalArgumentException("Illegal resource location: " +
+					location + ", threads: " + threads);
+		}
+
+		String path = trimSlashes(location);
+		List<URI> resources = getListings(classLoader).get(path);
+
+		return resources != null ? resources : 
+				refresh(classLoader, location, threads);
+	}
+
+	/**
+	 * Lists the resources directly under a classpath location again, as
+	 * {@link #list(ClassLoader, String, int)} does, replacing its cached
+	 * listing. This picks up the resources added to or removed from a
+	 * directory since it was listed.
+	 *
+	 * @param classLoader the {@link ClassLoader} of the classpath.
+	 * @param location the classpath location, with or without a leading
+	 * slash.
+	 * @param threads the maximum number of threads listing the roots.
+	 * @return an unmodifiable {@link List} of the {@link URI}s of the
+	 * resources, sorted by name within each root.
+	 * @throws IOException if a root cannot be listed.
+	 * @throws IllegalArgumentException if a parameter is null or threads is
+	 * less than 1.
+	 */
+	public static List<URI> refresh(ClassLoader classLoader, String location,
+			int threads) throws IOException {
+		if (classLoader == null || location == null || threads < 1) {
+			throw new IllegalArgumentException("Illegal resource location: " +
+					location + ", threads: " + threads);
+		}
+
+		String path = trimSlashes(location);
+		List<URI> resources = Collections.unmodifiableList(listRoots(
+				Collections.list(classLoader.getResources(path)), threads));
+		getListings(classLoader).put(path, resources);
+
+		return resources;
+	}
+
+	/**
+	 * Lists the resources directly under a location given by its URL, a
+	 * directory, a directory of a jar, or a directory of a nested jar. When
+	 * the location is a resource rather than a directory, the resource
+	 * itself is listed. The result is not cached.
+	 *
+	 * @param root the {@link URL} of the location.
+	 * @return the {@link URI}s of the resources, sorted by name.
+	 * @throws IOException if the location cannot be listed.
+	 */
+	public static List<URI> list(URL root) throws IOException {
+		try {
+			if (FILE.equals(root.getProtocol())) {
+				return listDirectory(new File(root.toURI()));
+			} else if (JAR.equals(root.getProtocol())) {
+				return listJar(root);
+			}
+
+			//Other protocols cannot be listed, the location is a resource.
+			return Collections.singletonList(root.toURI());
+		} catch (URISyntaxException e) {
+			throw new IOException("Illegal resource location: " + root, e);
+		}
+	}
+
+	/**
+	 * Opens the stream of a resource. A resource of a jar nested in another
+	 * jar, such as 
+	 * <code>jar:file:/app.jar!/lib/data.jar!/cfg/names.json</code>, which 
+	 * the jar protocol cannot open, is streamed from the outermost jar, the
+	 * stream closing that jar once closed. Decoding the resource is left to
+	 * {@link ResourceCodecs#open(URL)}.
+	 *
+	 * @param url the {@link URL} of the resource.
+	 * @return the {@link InputStream} of the resource.
+	 * @throws IOException if the resource cannot be opened.
+	 */
+	public static InputStream openStream(URL url) throws IOException {
+		String spec = url.toString();
+		String[] parts = spec.substring(JAR.length() + 1).split(SEPARATOR, -1);
+
+		if (!JAR.equals(url.getProtocol()) || parts.length < 3 ||
+				!parts[0].startsWith(FILE + ":")) {
+			return url.openStream();
+		}
+
+		final JarFile jar;
+
+		try {
+			jar = new JarFile(new File(new URL(parts[0]).toURI()));
+		} catch (URISyntaxException e) {
+			throw new IOException("Illegal jar location: " + url, e);
+		}
+
+		try {
+			JarInputStream in = openNested(jar, parts);
+
+			if (in == null || 
+					!skipTo(in, decode(parts[parts.length - 1]))) {
+				throw new FileNotFoundException(spec);
+			}
+
+			//Closing the entry closes the streams of the jars enclosing it.
+			return new FilterInputStream(in) {
+				@Override
+				public void close() throws IOException {
+					try {
+						super.close();
+					} finally {
+						jar.close();
+					}
+				}
+			};
+		} catch (URISyntaxException e) {
+			jar.close();
+			throw new IOException("Illegal jar entry: " + url, e);
+		} catch (IOException e) {
+			jar.close();
+			throw e;
+		} catch (RuntimeException e) {
+			jar.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Forgets the cached listings of every {@link ClassLoader}.
+	 */
+	public static void clearCache() {
+		synchronized (CACHE) {
+			CACHE.clear();
+		}
+	}
+
+	/**
+	 * Helper method that returns the cached listings of a ClassLoader.
+	 *
+	 * @param classLoader
+	 * @return
+	 */
+	private static ConcurrentMap<String, List<URI>> getListings(
+			ClassLoader classLoader) {
+		synchronized (CACHE) {
+			ConcurrentMap<String, List<URI>> listings = CACHE.get(classLoader);
+
+			if (listings == null) {
+				listings = new ConcurrentHashMap<String, List<URI>>();
+				CACHE.put(classLoader, listings);
+			}
+
+			return listings;
+		}
+	}
+
+	/**
+	 * Helper method that lists each root, in parallel when there are
+	 * several, keeping the order of the roots.
+	 *
+	 * @param roots
+	 * @param threads
+	 * @return
+	 * @throws IOException
+	 */
+	private static List<URI> listRoots(List<URL> roots, int threads)
+			throws IOException {
+		List<URI> resources = new ArrayList<URI>();
+		int poolSize = Math.min(threads, roots.size());
+
+		if (poolSize <= 1) {
+			for (URL root : roots) {
+				resources.addAll(list(root));
+			}
+
+			return resources;
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(poolSize);
+
+		try {
+			List<Future<List<URI>>> listings =
+					new ArrayList<Future<List<URI>>>(roots.size());
+
+			for (final URL root : roots) {
+				listings.add(executor.submit(new Callable<List<URI>>() {
+					@Override
+					public List<URI> call() throws IOException {
+						return list(root);
+					}
+				}));
+			}
+
+			for (Future<List<URI>> listing : listings) {
+				resources.addAll(listing.get());
+			}
+
+			return resources;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while listing resources.", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			} else if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+
+			throw new IOException(e.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Helper method that lists the files of a directory.
+	 *
+	 * @param directory
+	 * @return
+	 */
+	private static List<URI> listDirectory(File directory) {
+		if (!directory.isDirectory()) {
+			return Collections.singletonList(directory.toURI());
+		}
+
+		File[] files = directory.listFiles();
+		List<URI> resources = new ArrayList<URI>();
+
+		if (files == null) {
+			return resources;
+		}
+
+		Arrays.sort(files);
+
+		for (File file : files) {
+			if (file.isFile()) {
+				resources.add(file.toURI());
+			}
+		}
+
+		return resources;
+	}
+
+	/**
+	 * Helper method that lists a location of a jar, opening the outermost
+	 * jar as a {@link JarFile} and streaming the nested jars, if any.
+	 *
+	 * @param root
+	 * @return
+	 * @throws IOException
+	 * @throws URISyntaxException
+	 */
+	private static List<URI> listJar(URL root)
+			throws IOException, URISyntaxException {
+		String spec = root.toString();
+		String[] parts = spec.substring(JAR.length() + 1).split(SEPARATOR, -1);
+
+		if (parts.length < 2) {
+			throw new IOException("Illegal jar location: " + root);
+		}
+
+		String path = trimSlashes(decode(parts[parts.length - 1]));
+		String base = spec.endsWith("/") ? spec.substring(0, spec.length() - 1)
+				: spec;
+		JarFile jar = new JarFile(new File(new URL(parts[0]).toURI()));
+
+		try {
+			if (parts.length == 2) {
+				return listEntries(Collections.list(jar.entries()), path, base,
+						spec);
+			}
+
+			JarInputStream nestedJar = openNested(jar, parts);
+
+			if (nestedJar == null) {
+				return Collections.emptyList();
+			}
+
+			List<JarEntry> entries = new ArrayList<JarEntry>();
+			JarEntry entry;
+
+			while ((entry = nestedJar.getNextJarEntry()) != null) {
+				entries.add(entry);
+			}
+
+			return listEntries(entries, path, base, spec);
+		} finally {
+			jar.close();
+		}
+	}
+
+	/**
+	 * Helper method that streams the innermost jar of the parts of a jar 
+	 * URL, split at each separator: the first part is the outermost jar, 
+	 * opened as a {@link JarFile}, the last part a path of the innermost 
+	 * jar, and the parts in between the jars nested in one another. The 
+	 * stream is closed with the outermost jar.
+	 *
+	 * @param jar
+	 * @param parts
+	 * @return the stream of the innermost jar, or null if a jar is missing.
+	 * @throws IOException
+	 * @throws URISyntaxException
+	 */
+	private static JarInputStream openNested(JarFile jar, String[] parts)
+			throws IOException, URISyntaxException {
+		JarEntry nested = jar.getJarEntry(decode(parts[1]));
+
+		if (nested == null) {
+			return null;
+		}
+
+		JarInputStream in = new JarInputStream(jar.getInputStream(nested));
+
+		for (int i = 2; i < parts.length - 1; i++) {
+			if (!skipTo(in, decode(parts[i]))) {
+				return null;
+			}
+
+			in = new JarInputStream(in);
+		}
+
+		return in;
+	}
+
+	/**
+	 * Helper method that positions a jar stream on one of its entries.
+	 *
+	 * @param jar
+	 * @param name
+	 * @return true if the entry was found.
+	 * @throws IOException
+	 */
+	private static boolean skipTo(JarInputStream jar, String name)
+			throws IOException {
+		JarEntry entry;
+
+		while ((entry = jar.getNextJarEntry()) != null) {
+			if (entry.getName().equals(name)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Helper method that lists the entries directly under a path of a jar.
+	 *
+	 * @param entries
+	 * @param path
+	 * @param base
+	 * @param spec
+	 * @return
+	 * @throws URISyntaxException
+	 */
+	private static List<URI> listEntries(List<JarEntry> entries,
+			String path, String base, String spec) throws URISyntaxException {
+		String prefix = path.length() == 0 ? "" : path + "/";
+		TreeSet<String> names = new TreeSet<String>();
+
+		for (JarEntry entry : entries) {
+			String name = entry.getName();
+
+			if (!entry.isDirectory() && name.equals(path)) {
+				return Collections.singletonList(new URI(spec));
+			}
+
+			if (!entry.isDirectory() && name.startsWith(prefix) &&
+					name.indexOf('/', prefix.length()) < 0) {
+				names.add(name.substring(prefix.length()));
+			}
+		}
+
+		List<URI> resources = new ArrayList<URI>(names.size());
+
+		for (String name : names) {
+			//Encodes the name as a path, the base being already encoded.
+			resources.add(new URI(base + "/" +
+					new URI(null, null, name, null).getRawPath()));
+		}
+
+		return resources;
+	}
+
+	/**
+	 * Helper method that decodes the escaped characters of a path of a URL.
+	 *
+	 * @param path
+	 * @return
+	 * @throws URISyntaxException
+	 */
+	private static String decode(String path) throws URISyntaxException {
+		return new URI("file:///" + path).getPath().substring(1);
+	}
+
+	/**
+	 * Helper method that removes the leading and trailing slashes of a path.
+	 *
+	 * @param path
+	 * @return
+	 */
+	private static String trimSlashes(String path) {
+		int start = 0;
+		int end = path.length();
+
+		while (start < end && path.charAt(start) == '/') {
+			start++;
+		}
+
+		while (end > start && path.charAt(end - 1) == '/') {
+			end--;
+		}
+
+		return path.substring(start, end);
+	}
+}
@@ -4,8 +4,11 @@ import java.beans.PropertyDescriptor;
 import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.commons.beanutils.PropertyUtils;
 
@@ -47,6 +50,9 @@ public class Descriptor {
 	
 	private static final TypeFactory typeFactory = 
 			TypeFactory.defaultInstance();
+	private static final ConcurrentMap<Class<?>, Map<String, PropertyAccessor>>
+		accessorCache = 
+			new ConcurrentHashMap<Class<?>, Map<String, PropertyAccessor>>();
 	
 	
 	/**
@@ -94,17 +100,77 @@ public class Descriptor {
 	 * information.
 	 */
 	public <T> Map<String, JavaType> describe (Class<T> classObj) {
-		PropertyDescriptor[] propertyDescriptors = 
-				PropertyUtils.getPropertyDescriptors(classObj);
+		Map<String, PropertyAccessor> accessors = describeAccessors(classObj);
+		
+		if (accessors == null) {
+			return null;
+		}
 		
 		Map<String, JavaType> description = 
 				new LinkedHashMap<String, JavaType>();
 		
+		for (PropertyAccessor accessor : accessors.values()) {
+			description.put(accessor.getName(), accessor.getJavaType());
+		}
+		
+		return description;
+	}
+	
+	/***
+	 * Same as the describeAccessors method that accepts a {@link Class}, only
+	 * this overloaded method accepts a {@link JavaType}.
+	 * 
+	 * @param javaType {@link JavaType} containing the class information needed
+	 * to create the accessors.
+	 * @return an unmodifiable Map with property names and associated 
+	 * {@link PropertyAccessor}s, or null if the class has no conforming 
+	 * properties.
+	 */
+	public Map<String, PropertyAccessor> describeAccessors (JavaType javaType) {
+		return describeAccessors(javaType.getRawClass());
+	}
+	
+	/***
+	 * The describeAccessors method returns the same properties as the 
+	 * describe method, but each property is represented by a 
+	 * {@link PropertyAccessor} holding its getter and setter. The result is 
+	 * cached, so only the first call for a given class introspects it.
+	 * 
+	 * @param classObj the class type that will be described.
+	 * @return an unmodifiable Map with property names and associated 
+	 * {@link PropertyAccessor}s, or null if the class has no conforming 
+	 * properties.
+	 */
+	public Map<String, PropertyAccessor> describeAccessors (Class<?> classObj) {
+		Map<String, PropertyAccessor> accessors = accessorCache.get(classObj);
+		
+		if (accessors == null) {
+			accessors = introspect(classObj);
+			accessorCache.putIfAbsent(classObj, accessors);
+		}
+		
+		return accessors.isEmpty() ? null : accessors;
+	}
+	
+	/**
+	 * Helper method that introspects the class and creates a 
+	 * PropertyAccessor for each property that has both a getter and a setter.
+	 * 
+	 * @param classObj
+	 * @return
+	 */
+	private Map<String, PropertyAccessor> introspect (Class<?> classObj) {
+		PropertyDescriptor[] propertyDescriptors = 
+				PropertyUtils.getPropertyDescriptors(classObj);
+		
+		Map<String, PropertyAccessor> accessors = 
+				new LinkedHashMap<String, PropertyAccessor>();
+		
 		for (PropertyDescriptor propertyDescriptor : propertyDescriptors) {
 			Method readMethod = propertyDescriptor.getReadMethod();
+			Method writeMethod = propertyDescriptor.getWriteMethod();
 			
-			if (propertyDescriptor.getWriteMethod() != null && 
-					readMethod != null) {
+			if (writeMethod != null && readMethod != null) {
 				String property = propertyDescriptor.getDisplayName();
 				
 				Type t = readMethod.getGenericReturnType();
@@ -120,11 +186,12 @@ public class Descriptor {
 					finalJavaType = typeFactory.constructType(t);
 				}
 				
-				description.put(property, finalJavaType);
+				accessors.put(property, new PropertyAccessor(property, 
+						finalJavaType, readMethod, writeMethod));
 			}
 		}
 		
-		return description.isEmpty() ? null : description;
+		return Collections.unmodifiableMap(accessors);
 	}
 	
 	/**
@@ -0,0 +1,143 @@
+package com.github.jrgen.descriptor;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import com.fasterxml.jackson.databind.JavaType;
+
+/**
+ * <p>
+ * A PropertyAccessor holds the cached reflective information of a single
+ * Java-bean property: its display name, its type wrapped in a
+ * {@link JavaType}, and its read and write methods.
+ * </p>
+ *
+ * <p>
+ * Instances are created and cached by the {@link Descriptor} class, so that
+ * the cost of introspecting a class is paid only once per class. Instances
+ * are immutable and can be shared between threads.
+ * </p>
+ *
+ * @author Allan J. Shoulders
+ * @version 1.0
+ * @since 1.2.0
+ * @see Descriptor
+ *
+ */
+public final class PropertyAccessor {
+
+	private final String name;
+	private final JavaType javaType;
+	private final Method readMethod;
+	private final Method writeMethod;
+
+	/**
+	 * Constructs a new instance of the PropertyAccessor class.
+	 *
+	 * @param name the display name of the property.
+	 * @param javaType the type of the property wrapped in a {@link JavaType}.
+	 * @param readMethod the getter method of the property.
+	 * @param writeMethod the setter method of the property.
+	 */
+	public PropertyAccessor(String name, JavaType javaType, Method readMethod,
+			Method writeMethod) {
+		this.name = name;
+		this.javaType = javaType;
+		this.readMethod = readMethod;
+		this.writeMethod = writeMethod;
+	}
+
+	/**
+	 * Returns the value of this property held by the given bean.
+	 *
+	 * @param bean the instance the value is read from.
+	 * @return the current value of the property.
+	 * @throws RuntimeException if the getter method cannot be invoked.
+	 */
+	public Object get(Object bean) {
+		try {
+			return readMethod.invoke(bean);
+		} catch (IllegalAccessException e) {
+			throw new RuntimeException(e);
+		} catch (InvocationTargetException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Assigns the value to this property of the given bean. A null value
+	 * is never assigned to a property of a primitive type, the property
+	 * keeps its current value instead.
+	 *
+	 * @param bean the instance the value is written to.
+	 * @param value the value to assign.
+	 * @throws IllegalArgumentException if the value cannot be assigned to
+	 * the type of the property.
+	 * @throws RuntimeException if the setter method cannot be invoked.
+	 */
+	public void set(Object bean, Object value) {
+		if (value == null && isPrimitive()) {
+			return;
+		}
+
+		try {
+			writeMethod.invoke(bean, value);
+		} catch (IllegalAccessException e) {
+			throw new RuntimeException(e);
+		} catch (InvocationTargetException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Returns true if the type of this property is a Java primitive.
+	 *
+	 * @return true if the property is a primitive, false otherwise.
+	 */
+	public boolean isPrimitive() {
+		return javaType.isPrimitive();
+	}
+
+	/**
+	 * Getter method that returns the display name of the property.
+	 *
+	 * @return the display name of the property.
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Getter method that returns the type of the property.
+	 *
+	 * @return the type of the property wrapped in a {@link JavaType}.
+	 */
+	public JavaType getJavaType() {
+		return javaType;
+	}
+
+	/**
+	 * Getter method that returns the getter method of the property.
+	 *
+	 * @return the getter {@link Method}.
+	 */
+	public Method getReadMethod() {
+		return readMethod;
+	}
+
+	/**
+	 * Getter method that returns the setter method of the property.
+	 *
+	 * @return the setter {@link Method}.
+	 */
+	public Method getWriteMethod() {
+		return writeMethod;
+	}
+
+	@Override
+	public String toString() {
+		return "PropertyAccessor [name=" + name + ", javaType=" + javaType
+				+ "]";
+	}
+
+}
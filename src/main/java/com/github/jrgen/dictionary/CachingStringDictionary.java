@@ -0,0 +1,228 @@
+package com.github.jrgen.dictionary;
+
+/**
+ * <p>
+ * A {@link StringDictionary} keeping the most recently picked values of 
+ * another dictionary, so that the values picked most often, such as the 
+ * first values under a Zipf distribution, are decoded only once. A value 
+ * that has not been picked recently is evicted once the capacity is 
+ * reached.
+ * </p>
+ * 
+ * <p>
+ * The cache is split into stripes by index, each stripe being a cache of 
+ * its own with its own lock, so threads picking different values rarely 
+ * wait on each other. Each stripe keeps its indexes and values in parallel
+ * arrays, an open-addressing table keyed by the primitive index, so 
+ * picking a value boxes nothing. A value is evicted once its stripe is 
+ * full, by a clock sweep that gives every recently picked value a second 
+ * chance, which approximates the least recently used value of the whole 
+ * cache.
+ * </p>
+ * 
+ * @author Allan J. Shoulders
+ * @version 1.0
+ * @since 1.2.0
+ * @see StringDictionary
+ *
+ */
+public final class CachingStringDictionary implements StringDictionary {
+	
+	private static final int MAX_STRIPES = 16;
+	
+	private final StringDictionary dictionary;
+	private final int capacity;
+	private final Stripe[] stripes;
+	
+	/**
+	 * Constructs a new instance of the CachingStringDictionary class.
+	 * 
+	 * @param dictionary the {@link StringDictionary} whose values are cached.
+	 * @param capacity the maximum number of values cached.
+	 * @throws IllegalArgumentException if the dictionary is null or the 
+	 * capacity is less than 1.
+	 */
+	public CachingStringDictionary(StringDictionary dictionary, 
+			int capacity) {
+		if (dictionary == null || capacity < 1) {
+			throw new IllegalArgumentException(
+					"Illegal dictionary or capacity: " + capacity);
+		}
+		
+		this.dictionary = dictionary;
+		this.capacity = capacity;
+		this.stripes = newStripes(Math.min(MAX_STRIPES, capacity), capacity);
+	}
+
+	@Override
+	public int size() {
+		return dictionary.size();
+	}
+
+	@Override
+	public String get(int index) {
+		Stripe stripe = stripes[(index & 0x7fffffff) % stripes.length];
+		
+		synchronized (stripe) {
+			String value = stripe.get(index);
+			
+			if (value != null) {
+				return value;
+			}
+		}
+		
+		String value = dictionary.get(index);
+		
+		synchronized (stripe) {
+			stripe.put(index, value);
+		}
+		
+		return value;
+	}
+
+	@Override
+	public String toString() {
+		return "CachingStringDictionary [dictionary=" + dictionary 
+				+ ", capacity=" + capacity + ", stripes=" + stripes.length 
+				+ "]";
+	}
+	
+	/**
+	 * Helper method that creates the stripes of the cache, sharing the 
+	 * capacity among them.
+	 * 
+	 * @param count
+	 * @param capacity
+	 * @return
+	 */
+	private static Stripe[] newStripes(int count, int capacity) {
+		Stripe[] stripes = new Stripe[count];
+		
+		for (int i = 0; i < count; i++) {
+			stripes[i] = new Stripe(
+					capacity / count + (i < capacity % count ? 1 : 0));
+		}
+		
+		return stripes;
+	}
+	
+	/**
+	 * A stripe of the cache: a linear probing table of at least twice its 
+	 * capacity, whose slots hold an index, its value, and whether the value
+	 * was picked since the clock hand last passed it. An empty slot has a 
+	 * null value. Callers synchronize on the stripe.
+	 */
+	private static final class Stripe {
+		
+		private final int capacity;
+		private final int shift;
+		private final int mask;
+		private final int[] indexes;
+		private final String[] values;
+		private final boolean[] referenced;
+		
+		private int size;
+		private int hand;
+		
+		private Stripe(int capacity) {
+			int bits = 1;
+			
+			while (bits < 30 && (1 << bits) < 2 * capacity) {
+				bits++;
+			}
+			
+			this.capacity = capacity;
+			this.shift = 32 - bits;
+			this.mask = (1 << bits) - 1;
+			this.indexes = new int[1 << bits];
+			this.values = new String[1 << bits];
+			this.referenced = new boolean[1 << bits];
+		}
+		
+		private String get(int index) {
+			for (int i = slot(index); values[i] != null; i = (i + 1) & mask) {
+				if (indexes[i] == index) {
+					referenced[i] = true;
+					return values[i];
+				}
+			}
+			
+			return null;
+		}
+		
+		private void put(int index, String value) {
+			//Null values are not cached, another thread may have cached 
+			//the value in the meantime.
+			if (value == null || get(index) != null) {
+				return;
+			}
+			
+			if (size == capacity) {
+				evict();
+			}
+			
+			int i = slot(index);
+			
+			while (values[i] != null) {
+				i = (i + 1) & mask;
+			}
+			
+			indexes[i] = index;
+			values[i] = value;
+			referenced[i] = true;
+			size++;
+		}
+		
+		/**
+		 * Helper method that moves the clock hand to the first value not 
+		 * picked since it last passed, and removes it.
+		 */
+		private void evict() {
+			while (values[hand] == null || referenced[hand]) {
+				referenced[hand] = false;
+				hand = (hand + 1) & mask;
+			}
+			
+			remove(hand);
+		}
+		
+		/**
+		 * Helper method that empties a slot, shifting back the values 
+		 * probed past it so they can still be found.
+		 * 
+		 * @param i
+		 */
+		private void remove(int i) {
+			int j = i;
+			
+			while (true) {
+				j = (j + 1) & mask;
+				
+				if (values[j] == null) {
+					break;
+				}
+				
+				int k = slot(indexes[j]);
+				
+				//A value whose own slot lies cyclically within (i, j] 
+				//stays where it is.
+				if (i <= j ? (i < k && k <= j) : (i < k || k <= j)) {
+					continue;
+				}
+				
+				indexes[i] = indexes[j];
+				values[i] = values[j];
+				referenced[i] = referenced[j];
+				i = j;
+			}
+			
+			values[i] = null;
+			referenced[i] = false;
+			size--;
+		}
+		
+		private int slot(int index) {
+			return (index * 0x9E3779B9) >>> shift;
+		}
+	}
+}
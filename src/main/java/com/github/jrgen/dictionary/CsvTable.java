@@ -0,0 +1,331 @@
+package com.github.jrgen.dictionary;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>
+ * A UTF-8 CSV file whose columns are read as {@link StringDictionary}s,
+ * the first record of the file naming the columns. Like a
+ * {@link MappedStringDictionary}, the file is memory mapped and scanned
+ * once, keeping the offsets of the fields in a direct buffer, so a table
+ * of millions of records costs a few bytes of heap per record and a field
+ * is only decoded when it is picked.
+ * </p>
+ *
+ * <p>
+ * Fields are separated by commas and records by <code>\n</code> or
+ * <code>\r\n</code>. A field may be enclosed in double quotes to hold
+ * commas, line separators or double quotes, which are then doubled. Every
+ * record must have as many fields as the header, and a trailing line
+ * separator does not add an empty record. Files are limited to 2GB.
+ * </p>
+ *
+ * @author Allan J. Shoulders
+ * @version 1.0
+ * @since 1.2.0
+ * @see Dictionaries
+ *
+ */
+public final class CsvTable {
+
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+	private static final byte QUOTE = '"';
+	private static final byte COMMA = ',';
+	private static final byte CR = '\r';
+	private static final byte LF = '\n';
+
+	private final ByteBuffer content;
+	private final Map<String, StringDictionary> columns;
+	private final int width;
+	private final int size;
+
+	//For each record, the start of each field followed by the end of the
+	//last field, so a field ends where the next one starts, less a comma.
+	private final IntBuffer offsets;
+
+	/**
+	 * Constructs a new instance of the CsvTable class reading the given
+	 * content, which must not be modified afterwards.
+	 *
+	 * @param content the UTF-8 content, a header followed by the records.
+	 * @throws IllegalArgumentException if there is no header, a record is
+	 * malformed or does not have as many fields as the header, or the
+	 * offsets of the fields do not fit in a buffer.
+	 */
+	public CsvTable(ByteBuffer content) {
+		int limit = content.limit();
+
+		if (limit == 0) {
+			throw new IllegalArgumentException("A CSV table needs a header.");
+		}
+
+		this.content = content;
+
+		int[] fields = new int[1];
+		int position = scanRecord(0, null, fields);
+		IntBuffer header = IntBuffer.allocate(fields[0] + 1);
+		scanRecord(0, header, fields);
+		List<String> names = new ArrayList<String>();
+
+		for (int i = 0; i < fields[0]; i++) {
+			names.add(decode(header.get(i), i == fields[0] - 1 ?
+					header.get(i + 1) : header.get(i + 1) - 1));
+		}
+
+		this.width = names.size();
+
+		//Counts and checks the records, then records their offsets.
+		int records = 0;
+
+		for (int start = position; start < limit; records++) {
+			start = scanRecord(start, null, fields);
+
+			if (fields[0] != width) {
+				throw new IllegalArgumentException("Record " + (records + 1) +
+						" has " + fields[0] + " field(s) instead of " + width);
+			}
+		}
+
+		long capacity = 4L * records * (width + 1);
+
+		if (capacity > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("The offsets of " + records +
+					" records of " + width + " field(s) take " + capacity +
+					" bytes, more than a buffer holds; split the CSV file.");
+		}
+
+		IntBuffer recordOffsets = ByteBuffer.allocateDirect((int) capacity)
+				.asIntBuffer();
+
+		for (int start = position; start < limit; ) {
+			start = scanRecord(start, recordOffsets, fields);
+		}
+
+		this.offsets = recordOffsets;
+		this.size = records;
+
+		Map<String, StringDictionary> tableColumns =
+				new LinkedHashMap<String, StringDictionary>();
+
+		for (int i = 0; i < width; i++) {
+			tableColumns.put(names.get(i), new Column(i));
+		}
+
+		this.columns = Collections.unmodifiableMap(tableColumns);
+	}
+
+	/**
+	 * Opens a CSV file by memory mapping it. The file must not be rewritten in
+	 * place while it is mapped, {@link Dictionaries} maps a copy instead.
+	 *
+	 * @param file the UTF-8 CSV file.
+	 * @return the CsvTable.
+	 * @throws IOException if the file cannot be mapped.
+	 * @throws IllegalArgumentException if the file is not a valid table.
+	 */
+	public static CsvTable open(File file) throws IOException {
+		RandomAccessFile raf = new RandomAccessFile(file, "r");
+
+		try {
+			FileChannel channel = raf.getChannel();
+			return new CsvTable(channel.map(FileChannel.MapMode.READ_ONLY, 0,
+					channel.size()));
+		} finally {
+			raf.close();
+		}
+	}
+
+	/**
+	 * Returns the {@link StringDictionary} of a column of this table.
+	 *
+	 * @param column the name of the column.
+	 * @return the {@link StringDictionary}, or null if there is no such
+	 * column.
+	 */
+	public StringDictionary getDictionary(String column) {
+		return columns.get(column);
+	}
+
+	/**
+	 * Returns the names of the columns of this table, in the order of the
+	 * header.
+	 *
+	 * @return the names of the columns.
+	 */
+	public List<String> getColumns() {
+		return new ArrayList<String>(columns.keySet());
+	}
+
+	/**
+	 * Returns the number of records of this table, the header excluded.
+	 *
+	 * @return the number of records.
+	 */
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public String toString() {
+		return "CsvTable [columns=" + columns.keySet() + ", size=" + size +
+				"]";
+	}
+
+	/**
+	 * Helper method that scans the record starting at the given position,
+	 * adding the start of each field and the end of the last field to the
+	 * offsets, if any.
+	 *
+	 * @param start
+	 * @param recordOffsets
+	 * @param fields receives the number of fields of the record.
+	 * @return the start of the next record.
+	 */
+	private int scanRecord(int start, IntBuffer recordOffsets, int[] fields) {
+		int limit = content.limit();
+		int position = start;
+		fields[0] = 0;
+
+		while (true) {
+			add(recordOffsets, position);
+			fields[0]++;
+
+			if (position < limit && content.get(position) == QUOTE) {
+				position++;
+
+				while (true) {
+					if (position >= limit) {
+						throw new IllegalArgumentException(
+								"Unterminated quoted field at " + start);
+					}
+
+					if (content.get(position++) == QUOTE) {
+						if (position < limit && content.get(position) == QUOTE) {
+							position++;
+						} else {
+							break;
+						}
+					}
+				}
+			} else {
+				while (position < limit && content.get(position) != COMMA &&
+						content.get(position) != LF) {
+					position++;
+				}
+			}
+
+			if (position >= limit) {
+				add(recordOffsets, endOfLine(position));
+				return limit;
+			}
+
+			byte separator = content.get(position);
+
+			if (separator == COMMA) {
+				position++;
+			} else if (separator == LF || (separator == CR &&
+					position + 1 < limit && content.get(position + 1) == LF)) {
+				add(recordOffsets, endOfLine(position +
+						(separator == CR ? 1 : 0)));
+				return position + (separator == CR ? 2 : 1);
+			} else {
+				throw new IllegalArgumentException(
+						"Illegal character after a quoted field at " +
+								position);
+			}
+		}
+	}
+
+	/**
+	 * Helper method that returns the end of the last field of a record,
+	 * excluding the carriage return of its line separator.
+	 *
+	 * @param position
+	 * @return
+	 */
+	private int endOfLine(int position) {
+		return position > 0 && content.get(position - 1) == CR ?
+				position - 1 : position;
+	}
+
+	/**
+	 * Helper method that adds an offset to a buffer, if any.
+	 *
+	 * @param recordOffsets
+	 * @param offset
+	 */
+	private static void add(IntBuffer recordOffsets, int offset) {
+		if (recordOffsets != null) {
+			recordOffsets.put(offset);
+		}
+	}
+
+	/**
+	 * Helper method that decodes a field, removing its quotes.
+	 *
+	 * @param start
+	 * @param end
+	 * @return
+	 */
+	private String decode(int start, int end) {
+		boolean quoted = end - start >= 2 && content.get(start) == QUOTE;
+		int from = quoted ? start + 1 : start;
+		int to = quoted ? end - 1 : end;
+		byte[] bytes = new byte[to - from];
+		ByteBuffer view = content.duplicate();
+		view.position(from);
+		view.get(bytes);
+		String value = new String(bytes, UTF_8);
+
+		return quoted && value.indexOf('"') >= 0 ?
+				value.replace("\"\"", "\"") : value;
+	}
+
+	/**
+	 * A column of the table.
+	 */
+	private final class Column implements StringDictionary {
+
+		private final int column;
+
+		private Column(int column) {
+			this.column = column;
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+
+		@Override
+		public String get(int index) {
+			if (index < 0 || index >= size) {
+				throw new IndexOutOfBoundsException("Index: " + index +
+						", Size: " + size);
+			}
+
+			int field = index * (width + 1) + column;
+			int end = column == width - 1 ? offsets.get(field + 1) :
+				offsets.get(field + 1) - 1;
+
+			return decode(offsets.get(field), end);
+		}
+
+		@Override
+		public String toString() {
+			return "CsvTable.Column [index=" + column + ", size=" + size +
+					"]";
+		}
+	}
+}
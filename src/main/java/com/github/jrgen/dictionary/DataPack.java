@@ -0,0 +1,397 @@
+package com.github.jrgen.dictionary;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.github.jrgen.exception.JrgenInitializationException;
+
+/**
+ * <p>
+ * A DataPack is a binary file holding named lists of Strings, such as first
+ * names, streets, cities or companies. Each list is stored as an index of
+ * offsets followed by a pool of UTF-8 bytes, so a pack is loaded by memory
+ * mapping it rather than parsing it, and its Strings are only decoded when
+ * they are picked. The pages of a mapped pack live in the page cache and
+ * are shared by every JVM mapping the same file.
+ * </p>
+ *
+ * <p>
+ * The format, all numbers being big-endian, is:
+ * </p>
+ * <pre>
+ * int     magic, 0x4A524450
+ * int     version, 1
+ * int     number of lists
+ * for each list:
+ *   short length of the name, followed by the UTF-8 bytes of the name
+ *   int   number of Strings, n
+ *   long  position of the list
+ * for each list, at its position:
+ *   int[n + 1] offsets of the Strings in the pool, the last being its size
+ *   byte[]     pool of UTF-8 bytes
+ * </pre>
+ *
+ * <p>
+ * Packs are written by {@link #write(OutputStream, Map)}. Configurations
+ * reference a list of a pack by name, as <i>pack#list</i>, where the pack is
+ * either a name given to {@link #register(String, DataPack)}, a classpath
+ * resource, or a file, the {@value #EXTENSION} extension being optional.
+ * Resolved packs are cached, so each pack is mapped once.
+ * </p>
+ *
+ * @author Allan J. Shoulders
+ * @version 1.0
+ * @since 1.2.0
+ * @see StringDictionary
+ *
+ */
+public final class DataPack {
+
+	/**
+	 * The extension of data pack files.
+	 */
+	public static final String EXTENSION = ".jrdp";
+
+	private static final int MAGIC = 0x4A524450;
+	private static final int VERSION = 1;
+	private static final char SEPARATOR = '#';
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+	private static final ConcurrentMap<String, DataPack> PACKS =
+			new ConcurrentHashMap<String, DataPack>();
+
+	private final Map<String, StringDictionary> dictionaries;
+
+	/**
+	 * Constructs a new instance of the DataPack class reading the given
+	 * buffer, which must not be modified afterwards.
+	 *
+	 * @param buffer the content of a data pack.
+	 * @throws IllegalArgumentException if the buffer does not hold a data
+	 * pack of a supported version.
+	 */
+	public DataPack(ByteBuffer buffer) {
+		if (buffer.limit() < 12 || buffer.getInt(0) != MAGIC) {
+			throw new IllegalArgumentException("Not a data pack.");
+		}
+
+		if (buffer.getInt(4) != VERSION) {
+			throw new IllegalArgumentException(
+					"Unsupported data pack version: " + buffer.getInt(4));
+		}
+
+		int lists = buffer.getInt(8);
+		int position = 12;
+		Map<String, StringDictionary> packDictionaries =
+				new LinkedHashMap<String, StringDictionary>();
+
+		for (int i = 0; i < lists; i++) {
+			byte[] name = new byte[buffer.getShort(position) & 0xFFFF];
+			ByteBuffer nameBuffer = buffer.duplicate();
+			nameBuffer.position(position + 2);
+			nameBuffer.get(name);
+			position += 2 + name.length;
+
+			int count = buffer.getInt(position);
+			long listPosition = buffer.getLong(position + 4);
+			position += 12;
+
+			if (count < 0 || listPosition < 0 ||
+					listPosition + 4L * (count + 1) > buffer.limit()) {
+				throw new IllegalArgumentException("Corrupt data pack.");
+			}
+
+			packDictionaries.put(new String(name, UTF_8),
+					new PackDictionary(buffer, count, (int) listPosition));
+		}
+
+		this.dictionaries = Collections.unmodifiableMap(packDictionaries);
+	}
+
+	/**
+	 * Opens a data pack file by memory mapping it.
+	 *
+	 * @param file the data pack file.
+	 * @return the DataPack.
+	 * @throws IOException if the file cannot be mapped.
+	 * @throws IllegalArgumentException if the file is not a data pack.
+	 */
+	public static DataPack open(File file) throws IOException {
+		RandomAccessFile raf = new RandomAccessFile(file, "r");
+
+		try {
+			FileChannel channel = raf.getChannel();
+			//The mapping remains valid once the channel is closed.
+			return new DataPack(channel.map(FileChannel.MapMode.READ_ONLY, 0,
+					channel.size()));
+		} finally {
+			raf.close();
+		}
+	}
+
+	/**
+	 * Opens a data pack found on the classpath. A pack in a directory is
+	 * memory mapped, a pack within a jar is read into a direct buffer.
+	 *
+	 * @param resource the path of the pack on the classpath.
+	 * @return the DataPack, or null if the resource does not exist.
+	 * @throws IOException if the resource cannot be read.
+	 * @throws IllegalArgumentException if the resource is not a data pack.
+	 */
+	public static DataPack fromResource(String resource) throws IOException {
+		URL url = Dictionaries.findResource(resource);
+
+		if (url == null) {
+			return null;
+		}
+
+		File file = Dictionaries.toFile(url);
+
+		return file != null ? open(file) : 
+			new DataPack(Dictionaries.read(url));
+	}
+
+	/**
+	 * Registers a data pack under the given name, so that configurations can
+	 * reference its lists as <i>name#list</i>.
+	 *
+	 * @param name the name of the pack.
+	 * @param pack the DataPack.
+	 * @throws IllegalArgumentException if a parameter is null.
+	 */
+	public static void register(String name, DataPack pack) {
+		if (name == null || pack == null) {
+			throw new IllegalArgumentException(
+					"The name and the pack cannot be null.");
+		}
+
+		PACKS.put(name, pack);
+	}
+
+	/**
+	 * Resolves a reference to a list of a data pack, opening the pack the
+	 * first time it is referenced.
+	 *
+	 * @param reference the reference, <i>pack#list</i>.
+	 * @return the {@link StringDictionary} of the list.
+	 * @throws IllegalArgumentException if the reference is malformed, or the
+	 * pack or the list cannot be found.
+	 * @throws JrgenInitializationException if the pack cannot be read.
+	 */
+	public static StringDictionary resolve(String reference) {
+		int separator = reference == null ? -1 :
+				reference.lastIndexOf(SEPARATOR);
+
+		if (separator <= 0 || separator == reference.length() - 1) {
+			throw new IllegalArgumentException(
+					"Illegal data pack reference: " + reference);
+		}
+
+		String packName = reference.substring(0, separator).trim();
+		String list = reference.substring(separator + 1).trim();
+		StringDictionary dictionary = getPack(packName).getDictionary(list);
+
+		if (dictionary == null) {
+			throw new IllegalArgumentException("No list " + list +
+					" in the data pack " + packName);
+		}
+
+		return dictionary;
+	}
+
+	/**
+	 * Writes a data pack holding the given lists.
+	 *
+	 * @param out the {@link OutputStream} the pack is written to, which is
+	 * not closed.
+	 * @param lists the lists of Strings, by name.
+	 * @throws IOException if the pack cannot be written.
+	 * @throws IllegalArgumentException if a list holds a null value or its
+	 * pool exceeds 2GB.
+	 */
+	public static void write(OutputStream out,
+			Map<String, ? extends List<String>> lists) throws IOException {
+		List<byte[]> names = new ArrayList<byte[]>();
+		long position = 12;
+
+		for (String name : lists.keySet()) {
+			byte[] bytes = name.getBytes(UTF_8);
+			names.add(bytes);
+			position += 2 + bytes.length + 12;
+		}
+
+		DataOutputStream data = new DataOutputStream(
+				new BufferedOutputStream(out));
+		List<byte[][]> encodedLists = new ArrayList<byte[][]>();
+		data.writeInt(MAGIC);
+		data.writeInt(VERSION);
+		data.writeInt(lists.size());
+		int i = 0;
+
+		for (List<String> values : lists.values()) {
+			byte[][] encoded = new byte[values.size()][];
+			long poolSize = 0;
+
+			for (int v = 0; v < encoded.length; v++) {
+				if (values.get(v) == null) {
+					throw new IllegalArgumentException(
+							"A data pack cannot hold null values.");
+				}
+
+				encoded[v] = values.get(v).getBytes(UTF_8);
+				poolSize += encoded[v].length;
+			}
+
+			if (poolSize > Integer.MAX_VALUE) {
+				throw new IllegalArgumentException(
+						"A list of a data pack cannot exceed 2GB.");
+			}
+
+			byte[] name = names.get(i++);
+			data.writeShort(name.length);
+			data.write(name);
+			data.writeInt(encoded.length);
+			data.writeLong(position);
+			encodedLists.add(encoded);
+			position += 4L * (encoded.length + 1) + poolSize;
+		}
+
+		for (byte[][] encoded : encodedLists) {
+			int offset = 0;
+
+			for (byte[] value : encoded) {
+				data.writeInt(offset);
+				offset += value.length;
+			}
+
+			data.writeInt(offset);
+
+			for (byte[] value : encoded) {
+				data.write(value);
+			}
+		}
+
+		data.flush();
+	}
+
+	/**
+	 * Returns the {@link StringDictionary} of a list of this pack.
+	 *
+	 * @param list the name of the list.
+	 * @return the {@link StringDictionary}, or null if there is no such list.
+	 */
+	public StringDictionary getDictionary(String list) {
+		return dictionaries.get(list);
+	}
+
+	/**
+	 * Returns the names of the lists of this pack.
+	 *
+	 * @return the names of the lists.
+	 */
+	public Set<String> getNames() {
+		return dictionaries.keySet();
+	}
+
+	@Override
+	public String toString() {
+		return "DataPack [lists=" + dictionaries.keySet() + "]";
+	}
+
+	/**
+	 * Helper method that returns the pack of the given name, opening and
+	 * caching it the first time.
+	 *
+	 * @param packName
+	 * @return
+	 */
+	private static DataPack getPack(String packName) {
+		DataPack pack = PACKS.get(packName);
+
+		if (pack != null) {
+			return pack;
+		}
+
+		try {
+			String fileName = packName.endsWith(EXTENSION) ? packName :
+					packName + EXTENSION;
+			pack = fromResource(fileName);
+
+			if (pack == null && new File(fileName).isFile()) {
+				pack = open(new File(fileName));
+			}
+		} catch (IOException e) {
+			throw new JrgenInitializationException(
+					"The data pack could not be read: " + packName, e);
+		}
+
+		if (pack == null) {
+			throw new IllegalArgumentException(
+					"Data pack not found: " + packName);
+		}
+
+		DataPack existing = PACKS.putIfAbsent(packName, pack);
+		return existing == null ? pack : existing;
+	}
+
+	/**
+	 * A list of a data pack, read from the shared buffer of the pack.
+	 */
+	private static final class PackDictionary implements StringDictionary {
+
+		private final ByteBuffer buffer;
+		private final int count;
+		private final int indexPosition;
+		private final int poolPosition;
+
+		private PackDictionary(ByteBuffer buffer, int count, int position) {
+			this.buffer = buffer;
+			this.count = count;
+			this.indexPosition = position;
+			this.poolPosition = position + 4 * (count + 1);
+		}
+
+		@Override
+		public int size() {
+			return count;
+		}
+
+		@Override
+		public String get(int index) {
+			if (index < 0 || index >= count) {
+				throw new IndexOutOfBoundsException("Index: " + index +
+						", Size: " + count);
+			}
+
+			int start = buffer.getInt(indexPosition + 4 * index);
+			byte[] bytes = new byte[buffer.getInt(indexPosition + 4 *
+					(index + 1)) - start];
+			//Absolute reads on a duplicate keep the shared buffer untouched.
+			ByteBuffer view = buffer.duplicate();
+			view.position(poolPosition + start);
+			view.get(bytes);
+
+			return new String(bytes, UTF_8);
+		}
+
+		@Override
+		public String toString() {
+			return "PackDictionary [size=" + count + "]";
+		}
+	}
+}
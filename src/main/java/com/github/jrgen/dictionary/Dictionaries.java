@@ -0,0 +1,450 @@
+package com.github.jrgen.dictionary;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.net.MalformedURLException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.github.jrgen.configuration.ResourceCodecs;
+import com.github.jrgen.exception.JrgenInitializationException;
+
+/**
+ * <p>
+ * Resolves the references of configurations to {@link StringDictionary}s.
+ * A reference is either:
+ * </p>
+ * <ul>
+ * <li><i>dict:name</i>, a named dictionary, either registered by 
+ * {@link #register(String, StringDictionary)} or the text file 
+ * <i>dictionaries/name.txt</i> of the classpath.</li>
+ * <li><i>pack#list</i>, a list of a {@link DataPack}.</li>
+ * <li>the path of a UTF-8 text file with one value per line, a classpath
+ * resource, a file or a URL, read by a {@link MappedStringDictionary}.</li>
+ * <li><i>table.csv#column</i>, a column of a CSV file, read by a 
+ * {@link CsvTable}.</li>
+ * </ul>
+ * 
+ * <p>
+ * Any may be followed by <i>?lru=n</i> to keep the n most recently 
+ * picked values decoded, see {@link CachingStringDictionary}. Text and CSV
+ * files are mapped once, whatever the number of references to them, so a
+ * dictionary shared by many configurations costs its size once, and
+ * files encoded by a {@link ResourceCodecs codec}, such as 
+ * <i>names.txt.gz</i>, are decoded into a direct buffer.
+ * </p>
+ * 
+ * <p>
+ * A file is never mapped in place: it is copied to the temporary directory
+ * first, and the copy is mapped then deleted. A file rewritten in place, 
+ * for instance before the configurations are reloaded, would otherwise
+ * truncate a mapping that dictionaries still read, which fails with a 
+ * bus error rather than an exception. The copy is only deleted on exit
+ * where a mapped file cannot be deleted.
+ * </p>
+ * 
+ * @author Allan J. Shoulders
+ * @version 1.0
+ * @since 1.2.0
+ * @see StringDictionary
+ *
+ */
+public final class Dictionaries {
+	
+	private static final String LRU = "?lru=";
+	private static final String CSV = ".csv";
+	private static final String NAMED = "dict:";
+	private static final String NAMED_DIRECTORY = "dictionaries/";
+	private static final String TEXT = ".txt";
+	private static final ConcurrentMap<String, StringDictionary> NAMES = 
+			new ConcurrentHashMap<String, StringDictionary>();
+	private static final ConcurrentMap<String, StringDictionary> TEXTS = 
+			new ConcurrentHashMap<String, StringDictionary>();
+	private static final ConcurrentMap<String, CsvTable> TABLES = 
+			new ConcurrentHashMap<String, CsvTable>();
+	
+	private Dictionaries() {
+	}
+	
+	/**
+	 * Resolves a reference to a {@link StringDictionary}.
+	 * 
+	 * @param reference the reference.
+	 * @return the {@link StringDictionary}.
+	 * @throws IllegalArgumentException if the reference is malformed, or the
+	 * dictionary cannot be found.
+	 * @throws JrgenInitializationException if the dictionary cannot be read.
+	 */
+	public static StringDictionary resolve(String reference) {
+		if (reference == null) {
+			throw new IllegalArgumentException(
+					"The reference cannot be null.");
+		}
+		
+		int lru = reference.lastIndexOf(LRU);
+		String location = lru < 0 ? reference.trim() : 
+				reference.substring(0, lru).trim();
+		int separator = location.lastIndexOf('#');
+		StringDictionary dictionary;
+		
+		if (location.startsWith(NAMED)) {
+			dictionary = getNamed(location.substring(NAMED.length()).trim());
+		} else if (separator < 0) {
+			dictionary = getText(location);
+		} else if (ResourceCodecs.stripExtension(
+				location.substring(0, separator).trim()).endsWith(CSV)) {
+			String column = location.substring(separator + 1).trim();
+			dictionary = resolveTable(location.substring(0, separator).trim())
+					.getDictionary(column);
+			
+			if (dictionary == null) {
+				throw new IllegalArgumentException("No column " + column + 
+						" in the CSV file " + location.substring(0, separator));
+			}
+		} else {
+			dictionary = DataPack.resolve(location);
+		}
+		
+		if (lru < 0) {
+			return dictionary;
+		}
+		
+		try {
+			return new CachingStringDictionary(dictionary, Integer.parseInt(
+					reference.substring(lru + LRU.length()).trim()));
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException(
+					"Illegal dictionary reference: " + reference, e);
+		}
+	}
+	
+	/**
+	 * Registers a dictionary under the given name, so that configurations 
+	 * can reference it as <i>dict:name</i>, replacing the dictionary 
+	 * registered under the name, if any. The configurations that already
+	 * resolved the name keep the former dictionary.
+	 * 
+	 * @param name the name of the dictionary.
+	 * @param dictionary the {@link StringDictionary}.
+	 * @throws IllegalArgumentException if a parameter is null.
+	 */
+	public static void register(String name, StringDictionary dictionary) {
+		if (name == null || dictionary == null) {
+			throw new IllegalArgumentException(
+					"The name and the dictionary cannot be null.");
+		}
+		
+		NAMES.put(name, dictionary);
+	}
+	
+	/**
+	 * Removes the dictionary registered under the given name.
+	 * 
+	 * @param name the name of the dictionary.
+	 * @return the {@link StringDictionary}, or null if none was registered.
+	 */
+	public static StringDictionary unregister(String name) {
+		return NAMES.remove(name);
+	}
+	
+	/**
+	 * Resolves the location of a CSV file to a {@link CsvTable}, mapping the
+	 * file the first time.
+	 * 
+	 * @param location the path of the file, a classpath resource, a file or
+	 * a URL.
+	 * @return the {@link CsvTable}.
+	 * @throws IllegalArgumentException if the file cannot be found, or is 
+	 * not a valid table.
+	 * @throws JrgenInitializationException if the file cannot be read.
+	 */
+	public static CsvTable resolveTable(String location) {
+		CsvTable table = TABLES.get(location);
+		
+		if (table != null) {
+			return table;
+		}
+		
+		table = openTable(location);
+		CsvTable existing = TABLES.putIfAbsent(location, table);
+		return existing == null ? table : existing;
+	}
+	
+	/**
+	 * Reads the text file of a location into a new {@link StringDictionary},
+	 * whether it was resolved before or not, leaving the dictionaries
+	 * resolved so far as they are.
+	 * 
+	 * @param location the path of the file, a classpath resource, a file or
+	 * a URL.
+	 * @return the {@link StringDictionary}.
+	 * @throws IllegalArgumentException if the file cannot be found.
+	 * @throws JrgenInitializationException if the file cannot be read.
+	 */
+	public static StringDictionary openText(String location) {
+		try {
+			File file = findFile(location);
+			return new MappedStringDictionary(file != null ? map(file) : 
+				load(location));
+		} catch (IOException e) {
+			throw new JrgenInitializationException(
+					"The text file could not be read: " + location, e);
+		}
+	}
+	
+	/**
+	 * Reads the CSV file of a location into a new {@link CsvTable}, whether
+	 * it was resolved before or not, leaving the tables resolved so far as
+	 * they are.
+	 * 
+	 * @param location the path of the file, a classpath resource, a file or
+	 * a URL.
+	 * @return the {@link CsvTable}.
+	 * @throws IllegalArgumentException if the file cannot be found, or is 
+	 * not a valid table.
+	 * @throws JrgenInitializationException if the file cannot be read.
+	 */
+	public static CsvTable openTable(String location) {
+		try {
+			File file = findFile(location);
+			return new CsvTable(file != null ? map(file) : load(location));
+		} catch (IOException e) {
+			throw new JrgenInitializationException(
+					"The CSV file could not be read: " + location, e);
+		}
+	}
+	
+	/**
+	 * Forgets the text or CSV file of a location, so that it is read again
+	 * the next time it is referenced, for instance once it was modified. The
+	 * dictionaries already resolved keep reading the former content, from 
+	 * their own copy of the file.
+	 * 
+	 * @param location the path of the file, as referenced.
+	 */
+	public static void evict(String location) {
+		TEXTS.remove(location);
+		TABLES.remove(location);
+	}
+	
+	/**
+	 * Finds a resource with the context class loader of the current thread, 
+	 * or the class loader of this class.
+	 * 
+	 * @param resource the path of the resource.
+	 * @return the {@link URL} of the resource, or null if there is none.
+	 */
+	static URL findResource(String resource) {
+		ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+		URL url = classLoader == null ? null : classLoader.getResource(resource);
+		
+		return url != null ? url :
+			Dictionaries.class.getClassLoader().getResource(resource);
+	}
+	
+	/**
+	 * Returns the {@link File} of a resource in a directory.
+	 * 
+	 * @param url the {@link URL} of the resource.
+	 * @return the {@link File}, or null if the resource is not a file, for 
+	 * example when it is within a jar.
+	 */
+	static File toFile(URL url) {
+		if (!"file".equals(url.getProtocol())) {
+			return null;
+		}
+		
+		try {
+			return new File(url.toURI());
+		} catch (URISyntaxException e) {
+			return new File(url.getPath());
+		}
+	}
+	
+	/**
+	 * Reads a resource into a direct buffer, for resources that cannot be
+	 * memory mapped, decoding it if it is encoded.
+	 * 
+	 * @param url the {@link URL} of the resource.
+	 * @return the content of the resource.
+	 * @throws IOException if the resource cannot be read.
+	 */
+	static ByteBuffer read(URL url) throws IOException {
+		InputStream in = ResourceCodecs.open(url);
+		
+		try {
+			ByteBuffer buffer = ByteBuffer.allocateDirect(8192);
+			byte[] chunk = new byte[8192];
+			int read;
+			
+			while ((read = in.read(chunk)) != -1) {
+				if (buffer.remaining() < read) {
+					ByteBuffer larger = ByteBuffer.allocateDirect(
+							Math.max(buffer.capacity() * 2, 
+									buffer.position() + read));
+					buffer.flip();
+					larger.put(buffer);
+					buffer = larger;
+				}
+				
+				buffer.put(chunk, 0, read);
+			}
+			
+			buffer.flip();
+			return buffer;
+		} finally {
+			in.close();
+		}
+	}
+	
+	/**
+	 * Helper method that returns a named dictionary, the registered one or
+	 * the text file of the dictionaries directory of the classpath.
+	 * 
+	 * @param name
+	 * @return
+	 */
+	private static StringDictionary getNamed(String name) {
+		if (name.length() == 0) {
+			throw new IllegalArgumentException(
+					"The name of a dictionary cannot be empty.");
+		}
+		
+		StringDictionary dictionary = NAMES.get(name);
+		
+		return dictionary != null ? dictionary : 
+			getText(NAMED_DIRECTORY + name + TEXT);
+	}
+	
+	/**
+	 * Helper method that returns the dictionary of a text file, mapping it 
+	 * the first time.
+	 * 
+	 * @param location
+	 * @return
+	 */
+	private static StringDictionary getText(String location) {
+		StringDictionary dictionary = TEXTS.get(location);
+		
+		if (dictionary != null) {
+			return dictionary;
+		}
+		
+		dictionary = openText(location);
+		StringDictionary existing = TEXTS.putIfAbsent(location, dictionary);
+		return existing == null ? dictionary : existing;
+	}
+	
+	/**
+	 * Helper method that returns the file of a location when it can be
+	 * memory mapped, a file in a directory that is not encoded.
+	 * 
+	 * @param location
+	 * @return the {@link File}, or null if the location must be read.
+	 */
+	private static File findFile(String location) {
+		URL url = toURL(location);
+		File file = url == null ? new File(location) : toFile(url);
+		
+		return file != null && file.isFile() && 
+				ResourceCodecs.forPath(file.getPath()) == null ? file : null;
+	}
+	
+	/**
+	 * Helper method that maps a private copy of a file, so that the mapping
+	 * outlives any change of the file.
+	 * 
+	 * @param file
+	 * @return
+	 * @throws IOException
+	 */
+	private static ByteBuffer map(File file) throws IOException {
+		File copy = File.createTempFile("jrgen-", ".dictionary");
+		
+		try {
+			FileChannel source = new FileInputStream(file).getChannel();
+			
+			try {
+				FileChannel target = new FileOutputStream(copy).getChannel();
+				
+				try {
+					long size = source.size();
+					long position = 0;
+					
+					while (position < size) {
+						position += source.transferTo(position, 
+								size - position, target);
+					}
+				} finally {
+					target.close();
+				}
+			} finally {
+				source.close();
+			}
+			
+			RandomAccessFile mapped = new RandomAccessFile(copy, "r");
+			
+			try {
+				FileChannel channel = mapped.getChannel();
+				return channel.map(FileChannel.MapMode.READ_ONLY, 0, 
+						channel.size());
+			} finally {
+				mapped.close();
+			}
+		} finally {
+			if (!copy.delete()) {
+				copy.deleteOnExit();
+			}
+		}
+	}
+	
+	/**
+	 * Helper method that reads the content of a location that cannot be
+	 * memory mapped.
+	 * 
+	 * @param location
+	 * @return
+	 * @throws IOException
+	 */
+	private static ByteBuffer load(String location) throws IOException {
+		URL url = toURL(location);
+		
+		if (url == null && new File(location).isFile()) {
+			url = new File(location).toURI().toURL();
+		}
+		
+		if (url == null) {
+			throw new IllegalArgumentException(
+					"Dictionary not found: " + location);
+		}
+		
+		return read(url);
+	}
+	
+	/**
+	 * Helper method that returns the URL of a location, a URL or a classpath
+	 * resource. A drive letter is not mistaken for a protocol.
+	 * 
+	 * @param location
+	 * @return the {@link URL}, or null if the location is neither.
+	 */
+	private static URL toURL(String location) {
+		if (location.indexOf(':') > 1) {
+			try {
+				return new URL(location);
+			} catch (MalformedURLException e) {
+				//Not a URL, but possibly a path.
+			}
+		}
+		
+		return findResource(location);
+	}
+}
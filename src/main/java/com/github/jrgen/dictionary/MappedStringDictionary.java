@@ -0,0 +1,140 @@
+package com.github.jrgen.dictionary;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+
+/**
+ * <p>
+ * A {@link StringDictionary} reading a UTF-8 text file with one value per
+ * line, such as a list of millions of product names or user agents, 
+ * without holding the values on the heap. The file is memory mapped, and 
+ * the offset of each line is kept in a direct buffer built by a single 
+ * scan of the file, so the only heap cost is the String of each value 
+ * picked. Empty lines are values too, and a trailing line separator does 
+ * not add an empty value. Both <code>\n</code> and <code>\r\n</code> 
+ * separators are recognized.
+ * </p>
+ * 
+ * <p>
+ * Files are limited to 2GB, the size of a single mapping. Combine with a
+ * {@link CachingStringDictionary} to keep the hottest values decoded.
+ * </p>
+ * 
+ * @author Allan J. Shoulders
+ * @version 1.0
+ * @since 1.2.0
+ * @see StringDictionary
+ *
+ */
+public final class MappedStringDictionary implements StringDictionary {
+	
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+	
+	private final ByteBuffer content;
+	private final IntBuffer offsets;
+	private final int size;
+	
+	/**
+	 * Constructs a new instance of the MappedStringDictionary class reading
+	 * the given content, which must not be modified afterwards.
+	 * 
+	 * @param content the UTF-8 content, one value per line.
+	 */
+	public MappedStringDictionary(ByteBuffer content) {
+		int limit = content.limit();
+		int lines = 0;
+		
+		for (int i = 0; i < limit; i++) {
+			if (content.get(i) == '\n') {
+				lines++;
+			}
+		}
+		
+		if (limit > 0 && content.get(limit - 1) != '\n') {
+			lines++;
+		}
+		
+		//The start of each line, followed by the end of the content.
+		IntBuffer lineOffsets = ByteBuffer.allocateDirect(4 * (lines + 1))
+				.asIntBuffer();
+		int line = 0;
+		
+		if (lines > 0) {
+			lineOffsets.put(line++, 0);
+		}
+		
+		for (int i = 0; i < limit - 1; i++) {
+			if (content.get(i) == '\n') {
+				lineOffsets.put(line++, i + 1);
+			}
+		}
+		
+		lineOffsets.put(lines, limit);
+		
+		this.content = content;
+		this.offsets = lineOffsets;
+		this.size = lines;
+	}
+	
+	/**
+	 * Opens a text file by memory mapping it. The file must not be rewritten in
+	 * place while it is mapped, {@link Dictionaries} maps a copy instead.
+	 * 
+	 * @param file the UTF-8 text file, one value per line.
+	 * @return the MappedStringDictionary.
+	 * @throws IOException if the file cannot be mapped.
+	 */
+	public static MappedStringDictionary open(File file) throws IOException {
+		RandomAccessFile raf = new RandomAccessFile(file, "r");
+		
+		try {
+			FileChannel channel = raf.getChannel();
+			return new MappedStringDictionary(channel.map(
+					FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+		} finally {
+			raf.close();
+		}
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public String get(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + 
+					", Size: " + size);
+		}
+		
+		int start = offsets.get(index);
+		int end = offsets.get(index + 1);
+		
+		if (end > start && content.get(end - 1) == '\n') {
+			end--;
+		}
+		
+		if (end > start && content.get(end - 1) == '\r') {
+			end--;
+		}
+		
+		byte[] bytes = new byte[end - start];
+		ByteBuffer view = content.duplicate();
+		view.position(start);
+		view.get(bytes);
+		
+		return new String(bytes, UTF_8);
+	}
+
+	@Override
+	public String toString() {
+		return "MappedStringDictionary [size=" + size + "]";
+	}
+	
+}
@@ -0,0 +1,34 @@
+package com.github.jrgen.dictionary;
+
+/**
+ * <p>
+ * A StringDictionary is an indexed list of Strings kept outside of the 
+ * configuration data, typically in a memory-mapped file, so that large 
+ * lists of values do not have to be parsed nor held on the heap. A String
+ * is only decoded when it is picked. Implementations must be thread-safe.
+ * </p>
+ * 
+ * @author Allan J. Shoulders
+ * @version 1.0
+ * @since 1.2.0
+ * @see DataPack
+ *
+ */
+public interface StringDictionary {
+	
+	/**
+	 * Returns the number of Strings of the dictionary.
+	 * 
+	 * @return the number of Strings.
+	 */
+	public int size();
+	
+	/**
+	 * Returns the String at the given index.
+	 * 
+	 * @param index the index, between 0, inclusive, and size(), exclusive.
+	 * @return the String at the index.
+	 * @throws IndexOutOfBoundsException if the index is out of range.
+	 */
+	public String get(int index);
+}
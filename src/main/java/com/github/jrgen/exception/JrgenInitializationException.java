@@ -6,7 +6,9 @@ import com.github.jrgen.context.JrgenContext;
  * <p>
  * JrgenInitializationException is thrown when the initialize() method had not
  * been called prior to any attempts to generate a class instance in a given
- * {@link JrgenContext} instance.
+ * {@link JrgenContext} instance, or when a resource a {@link JrgenContext} is
+ * initialized from, such as a dictionary, a data pack or a corpus, cannot 
+ * be read.
  * </p>
  * 
  * @author Allan J. Shoulders
@@ -38,7 +38,8 @@ import com.github.jrgen.util.JrgenUtil;
  * all of it's instances. It is used to obtain a range of values to choose
  * from for a given type. If the developer wants to change the range of 
  * types selected at random, they are advised to do so from the 
- * {@link Settings} object.
+ * {@link Settings} object. The numbers are spread over their range 
+ * according to the {@link Settings#getDistribution()}.
  * </p>
  * 
  * <p>
@@ -164,7 +165,8 @@ public class DefaultGenerator {
 	 * than the minimum value set in the {@link Settings} object.
 	 */
 	public Byte createByte() {
-		return (byte)JrgenUtil.getNumberFromRange(settings.getMinByteValue(), 
+		return (byte) settings.getDistribution().nextLong(RANDOM, 
+				settings.getMinByteValue(), 
 				settings.getMaxByteValue());
 	}
 	
@@ -177,7 +179,8 @@ public class DefaultGenerator {
 	 * than the minimum value set in the {@link Settings} object.
 	 */
 	public Short createShort() {
-		return (short) JrgenUtil.getNumberFromRange(settings.getMinShortValue(), 
+		return (short) settings.getDistribution().nextLong(RANDOM, 
+				settings.getMinShortValue(), 
 				settings.getMaxShortValue());
 	}
 	
@@ -190,7 +193,8 @@ public class DefaultGenerator {
 	 * than the minimum value set in the {@link Settings} object.
 	 */	
 	public Integer createInteger() {		
-		return (int) JrgenUtil.getNumberFromRange(settings.getMinIntValue(), 
+		return (int) settings.getDistribution().nextLong(RANDOM, 
+				settings.getMinIntValue(), 
 				settings.getMaxIntValue());
 	}
 	
@@ -203,7 +207,8 @@ public class DefaultGenerator {
 	 * than the minimum value set in the {@link Settings} object.
 	 */	
 	public Long createLong() {
-		return JrgenUtil.getNumberFromRange(settings.getMinLongValue(),
+		return settings.getDistribution().nextLong(RANDOM, 
+				settings.getMinLongValue(),
 				settings.getMaxLongValue());		
 	}
 	
@@ -216,7 +221,8 @@ public class DefaultGenerator {
 	 * than the minimum value set in the {@link Settings} object.
 	 */	
 	public Float createFloat() {
-		return (float) JrgenUtil.getNumberFromRange(settings.getMinFloatValue(), 
+		return (float) settings.getDistribution().nextDouble(RANDOM, 
+				settings.getMinFloatValue(), 
 				settings.getMaxFloatValue());
 	}
 	
@@ -229,7 +235,8 @@ public class DefaultGenerator {
 	 * than the minimum value set in the {@link Settings} object.
 	 */	
 	public Double createDouble() {
-		return JrgenUtil.getNumberFromRange(settings.getMinDoubleValue(), 
+		return settings.getDistribution().nextDouble(RANDOM, 
+				settings.getMinDoubleValue(), 
 				settings.getMaxDoubleValue());
 	}
 	
@@ -0,0 +1,362 @@
+package com.github.jrgen.generator;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.github.jrgen.exception.JrgenInitializationException;
+import com.github.jrgen.sampler.AliasSampler;
+
+/**
+ * <p>
+ * A MarkovText generates sentences that read like the corpus it was trained
+ * from. The corpus is split into words on whitespace, punctuation included,
+ * and a word ending with <code>.</code>, <code>!</code> or <code>?</code>
+ * ends a sentence. Training counts, for every word, the words that follow
+ * it, and compiles the counts into transition tables made of primitive
+ * arrays:
+ * </p>
+ * <ul>
+ * <li>the words following each word are stored contiguously, the range of
+ * each word being given by an offset array.</li>
+ * <li>each range holds the alias table of its counts, see
+ * {@link AliasSampler#fillTable(double[], int, int, double[], int[])}, so
+ * the next word is picked in constant time.</li>
+ * <li>the words starting a sentence have an alias table of their own.</li>
+ * </ul>
+ *
+ * <p>
+ * Generating text then costs two random numbers per word. Models trained
+ * from a classpath resource are cached, so each corpus is trained once.
+ * Instances are immutable and can be shared between threads.
+ * </p>
+ *
+ * @author Allan J. Shoulders
+ * @version 1.0
+ * @since 1.2.0
+ * @see TextSource
+ *
+ */
+public final class MarkovText implements TextSource {
+
+	/**
+	 * The default number of words generated.
+	 */
+	public static final int DEFAULT_WORDS = 12;
+
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+	private static final ConcurrentMap<String, MarkovText> MODELS =
+			new ConcurrentHashMap<String, MarkovText>();
+
+	private final String[] words;
+	private final boolean[] endsSentence;
+	private final int[] offsets;
+	private final int[] targets;
+	private final double[] probability;
+	private final int[] alias;
+	private final int[] starts;
+	private final double[] startProbability;
+	private final int[] startAlias;
+	private final int length;
+
+	/**
+	 * Trains a new MarkovText from the given corpus.
+	 *
+	 * @param corpus the {@link Reader} of the corpus, which is not closed.
+	 * @throws IOException if the corpus cannot be read.
+	 * @throws IllegalArgumentException if the corpus holds no words.
+	 */
+	public MarkovText(Reader corpus) throws IOException {
+		Map<String, Integer> ids = new HashMap<String, Integer>();
+		List<String> vocabulary = new ArrayList<String>();
+		List<Map<Integer, Integer>> transitions =
+				new ArrayList<Map<Integer, Integer>>();
+		Map<Integer, Integer> startCounts = new HashMap<Integer, Integer>();
+		BufferedReader reader = new BufferedReader(corpus);
+		String line;
+		int previous = -1;
+
+		while ((line = reader.readLine()) != null) {
+			for (String token : line.trim().split("\\s+")) {
+				if (token.length() == 0) {
+					continue;
+				}
+
+				Integer id = ids.get(token);
+
+				if (id == null) {
+					id = vocabulary.size();
+					ids.put(token, id);
+					vocabulary.add(token);
+					transitions.add(new HashMap<Integer, Integer>());
+				}
+
+				if (previous < 0 || isSentenceEnd(vocabulary.get(previous))) {
+					increment(startCounts, id);
+				} else {
+					increment(transitions.get(previous), id);
+				}
+
+				previous = id;
+			}
+		}
+
+		if (vocabulary.isEmpty()) {
+			throw new IllegalArgumentException("The corpus holds no words.");
+		}
+
+		int size = vocabulary.size();
+		int edges = 0;
+
+		this.words = vocabulary.toArray(new String[size]);
+		this.endsSentence = new boolean[size];
+		this.offsets = new int[size + 1];
+
+		for (int i = 0; i < size; i++) {
+			endsSentence[i] = isSentenceEnd(words[i]);
+			offsets[i] = edges;
+			edges += transitions.get(i).size();
+		}
+
+		offsets[size] = edges;
+		this.targets = new int[edges];
+		this.probability = new double[edges];
+		this.alias = new int[edges];
+
+		double[] counts = new double[edges];
+
+		for (int i = 0; i < size; i++) {
+			int edge = offsets[i];
+
+			for (Map.Entry<Integer, Integer> entry :
+					transitions.get(i).entrySet()) {
+				targets[edge] = entry.getKey();
+				counts[edge++] = entry.getValue();
+			}
+
+			if (offsets[i + 1] > offsets[i]) {
+				AliasSampler.fillTable(counts, offsets[i],
+						offsets[i + 1] - offsets[i], probability, alias);
+			}
+		}
+
+		this.starts = new int[startCounts.size()];
+		this.startProbability = new double[starts.length];
+		this.startAlias = new int[starts.length];
+
+		double[] weights = new double[starts.length];
+		int start = 0;
+
+		for (Map.Entry<Integer, Integer> entry : startCounts.entrySet()) {
+			starts[start] = entry.getKey();
+			weights[start++] = entry.getValue();
+		}
+
+		AliasSampler.fillTable(weights, 0, starts.length, startProbability,
+				startAlias);
+		this.length = DEFAULT_WORDS;
+	}
+
+	/**
+	 * Constructs a copy of a MarkovText generating a different number of
+	 * words, sharing its transition tables.
+	 *
+	 * @param model the trained MarkovText.
+	 * @param length the number of words generated.
+	 */
+	private MarkovText(MarkovText model, int length) {
+		this.words = model.words;
+		this.endsSentence = model.endsSentence;
+		this.offsets = model.offsets;
+		this.targets = model.targets;
+		this.probability = model.probability;
+		this.alias = model.alias;
+		this.starts = model.starts;
+		this.startProbability = model.startProbability;
+		this.startAlias = model.startAlias;
+		this.length = length;
+	}
+
+	/**
+	 * Returns the MarkovText trained from a classpath resource, training it
+	 * the first time the resource is requested.
+	 *
+	 * @param resource the path of the corpus on the classpath, read as
+	 * UTF-8.
+	 * @return the trained MarkovText.
+	 * @throws IllegalArgumentException if the resource does not exist or
+	 * holds no words.
+	 * @throws JrgenInitializationException if the resource cannot be read.
+	 */
+	public static MarkovText fromResource(String resource) {
+		MarkovText model = MODELS.get(resource);
+
+		if (model != null) {
+			return model;
+		}
+
+		ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+		InputStream in = classLoader == null ? null :
+				classLoader.getResourceAsStream(resource);
+
+		if (in == null) {
+			in = MarkovText.class.getClassLoader().getResourceAsStream(resource);
+		}
+
+		if (in == null) {
+			throw new IllegalArgumentException(
+					"Corpus not found on the classpath: " + resource);
+		}
+
+		try {
+			model = new MarkovText(new InputStreamReader(in, UTF_8));
+		} catch (IOException e) {
+			throw new JrgenInitializationException(
+					"The corpus could not be read: " + resource, e);
+		} finally {
+			try {
+				in.close();
+			} catch (IOException e) {
+				//Nothing to do, the corpus was read.
+			}
+		}
+
+		MarkovText existing = MODELS.putIfAbsent(resource, model);
+		return existing == null ? model : existing;
+	}
+
+	/**
+	 * Returns a MarkovText sharing the transition tables of this instance
+	 * and generating the given number of words.
+	 *
+	 * @param length the number of words generated.
+	 * @return a MarkovText generating the given number of words.
+	 * @throws IllegalArgumentException if the length is less than 1.
+	 */
+	public MarkovText withLength(int length) {
+		if (length < 1) {
+			throw new IllegalArgumentException("Illegal length: " + length);
+		}
+
+		return length == this.length ? this : new MarkovText(this, length);
+	}
+
+	/**
+	 * Generates text of the configured number of words. Sentences follow
+	 * each other until the number of words is reached, and the text always
+	 * ends with a complete sentence or a period.
+	 *
+	 * @param random the source of randomness.
+	 * @return the generated text.
+	 */
+	@Override
+	public String generate(Random random) {
+		StringBuilder sb = new StringBuilder(length * 8);
+		int word = -1;
+
+		for (int i = 0; i < length; i++) {
+			word = nextWord(word, random);
+
+			if (i > 0) {
+				sb.append(' ');
+			}
+
+			sb.append(words[word]);
+		}
+
+		if (!endsSentence[word]) {
+			trimPunctuation(sb);
+			sb.append('.');
+		}
+
+		return sb.toString();
+	}
+
+	/**
+	 * Returns the number of distinct words of the corpus.
+	 *
+	 * @return the number of distinct words.
+	 */
+	public int getVocabularySize() {
+		return words.length;
+	}
+
+	/**
+	 * Returns the number of words generated.
+	 *
+	 * @return the number of words generated.
+	 */
+	public int getLength() {
+		return length;
+	}
+
+	@Override
+	public String toString() {
+		return "MarkovText [vocabulary=" + words.length + ", transitions="
+				+ targets.length + ", length=" + length + "]";
+	}
+
+	/**
+	 * Helper method that picks the word following the given word, starting
+	 * a new sentence after the end of a sentence or a word never followed
+	 * by another.
+	 *
+	 * @param word
+	 * @param random
+	 * @return
+	 */
+	private int nextWord(int word, Random random) {
+		if (word < 0 || endsSentence[word] || offsets[word + 1] == offsets[word]) {
+			return starts[AliasSampler.nextIndex(random, startProbability,
+					startAlias, 0, starts.length)];
+		}
+
+		return targets[AliasSampler.nextIndex(random, probability, alias,
+				offsets[word], offsets[word + 1] - offsets[word])];
+	}
+
+	/**
+	 * Helper method that removes the punctuation ending the text.
+	 *
+	 * @param sb
+	 */
+	private static void trimPunctuation(StringBuilder sb) {
+		while (sb.length() > 1 &&
+				!Character.isLetterOrDigit(sb.charAt(sb.length() - 1))) {
+			sb.setLength(sb.length() - 1);
+		}
+	}
+
+	/**
+	 * Helper method that determines if a word ends a sentence.
+	 *
+	 * @param word
+	 * @return
+	 */
+	private static boolean isSentenceEnd(String word) {
+		char last = word.charAt(word.length() - 1);
+
+		return last == '.' || last == '!' || last == '?';
+	}
+
+	/**
+	 * Helper method that increments the count of a word.
+	 *
+	 * @param counts
+	 * @param word
+	 */
+	private static void increment(Map<Integer, Integer> counts, int word) {
+		Integer count = counts.get(word);
+		counts.put(word, count == null ? 1 : count + 1);
+	}
+}
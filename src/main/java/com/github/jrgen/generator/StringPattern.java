@@ -0,0 +1,554 @@
+package com.github.jrgen.generator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * <p>
+ * A StringPattern generates Strings matching a regular expression, such as
+ * <code>[A-Z]{3}-\d{4}</code> or <code>\(\d{3}\) \d{3}-\d{4}</code>. The
+ * expression is compiled once into a tree of fragments, literals,
+ * character classes, repetitions, sequences and alternatives, and each
+ * String is generated by a single walk of the tree, with no parsing and no
+ * backtracking.
+ * </p>
+ *
+ * <p>
+ * The following syntax is supported:
+ * </p>
+ * <ul>
+ * <li>literal characters, and escaped metacharacters such as
+ * <code>\.</code> or <code>\(</code>.</li>
+ * <li>character classes, <code>[a-z0-9_]</code>, negated classes,
+ * <code>[^0-9]</code>, the shorthand classes <code>\d</code>,
+ * <code>\w</code> and <code>\s</code>, and the <code>.</code>
+ * wildcard. Negated classes and the wildcard pick among the printable ASCII
+ * characters.</li>
+ * <li>the quantifiers <code>?</code>, <code>*</code>, <code>+</code>,
+ * <code>{n}</code>, <code>{n,}</code> and <code>{n,m}</code>. Unbounded
+ * quantifiers repeat at most {@value #MAX_UNBOUNDED_REPEAT} times more than
+ * their minimum.</li>
+ * <li>groups, <code>(...)</code> or <code>(?:...)</code>, and
+ * alternatives, <code>a|b</code>.</li>
+ * </ul>
+ *
+ * <p>
+ * The anchors <code>^</code> and <code>$</code> are ignored. Instances are
+ * immutable and can be shared between threads.
+ * </p>
+ *
+ * @author Allan J. Shoulders
+ * @version 1.0
+ * @since 1.2.0
+ * @see TextSource
+ *
+ */
+public final class StringPattern implements TextSource {
+
+	/**
+	 * The maximum number of repetitions an unbounded quantifier adds to its
+	 * minimum.
+	 */
+	public static final int MAX_UNBOUNDED_REPEAT = 8;
+
+	private static final int MAX_EXPECTED_LENGTH = 1024;
+	private static final char[] DIGIT_CHARS = range('0', '9');
+	private static final char[] WORD_CHARS = concat(range('a', 'z'),
+			range('A', 'Z'), DIGIT_CHARS, new char[] {'_'});
+	private static final char[] SPACE_CHARS = {' ', '\t'};
+	private static final char[] PRINTABLE_CHARS = range(' ', '~');
+
+	private final String regex;
+	private final Fragment root;
+	private final int expectedLength;
+
+	/**
+	 * Constructs a new instance of the StringPattern class.
+	 *
+	 * @param regex the regular expression the generated Strings match.
+	 * @param root the compiled tree of the regular expression.
+	 */
+	private StringPattern(String regex, Fragment root) {
+		this.regex = regex;
+		this.root = root;
+		this.expectedLength = Math.min(MAX_EXPECTED_LENGTH, 
+				Math.max(16, root.maxLength()));
+	}
+
+	/**
+	 * Compiles the given regular expression.
+	 *
+	 * @param regex the regular expression.
+	 * @return the compiled StringPattern.
+	 * @throws IllegalArgumentException if the regular expression is null or
+	 * uses unsupported or malformed syntax.
+	 */
+	public static StringPattern compile(String regex) {
+		if (regex == null) {
+			throw new IllegalArgumentException("The pattern cannot be null.");
+		}
+
+		Parser parser = new Parser(regex);
+		Fragment root = parser.parseAlternatives();
+
+		if (!parser.atEnd()) {
+			throw parser.error("Unbalanced ')'");
+		}
+
+		return new StringPattern(regex, root);
+	}
+
+	/**
+	 * Generates a String matching the regular expression.
+	 *
+	 * @param random the source of randomness.
+	 * @return the generated String.
+	 */
+	@Override
+	public String generate(Random random) {
+		StringBuilder sb = new StringBuilder(expectedLength);
+		root.append(sb, random);
+		return sb.toString();
+	}
+
+	/**
+	 * Returns the regular expression this StringPattern was compiled from.
+	 *
+	 * @return the regular expression.
+	 */
+	public String getRegex() {
+		return regex;
+	}
+
+	@Override
+	public String toString() {
+		return "StringPattern [regex=" + regex + "]";
+	}
+
+	/**
+	 * Helper method that returns the characters from first to last.
+	 *
+	 * @param first
+	 * @param last
+	 * @return
+	 */
+	private static char[] range(char first, char last) {
+		char[] chars = new char[last - first + 1];
+
+		for (int i = 0; i < chars.length; i++) {
+			chars[i] = (char) (first + i);
+		}
+
+		return chars;
+	}
+
+	/**
+	 * Helper method that concatenates arrays of characters.
+	 *
+	 * @param arrays
+	 * @return
+	 */
+	private static char[] concat(char[]... arrays) {
+		int length = 0;
+
+		for (char[] array : arrays) {
+			length += array.length;
+		}
+
+		char[] chars = new char[length];
+		int offset = 0;
+
+		for (char[] array : arrays) {
+			System.arraycopy(array, 0, chars, offset, array.length);
+			offset += array.length;
+		}
+
+		return chars;
+	}
+
+	/**
+	 * A node of the compiled tree.
+	 */
+	private static abstract class Fragment {
+
+		abstract void append(StringBuilder sb, Random random);
+
+		abstract int maxLength();
+	}
+
+	private static final class Literal extends Fragment {
+
+		private final char c;
+
+		private Literal(char c) {
+			this.c = c;
+		}
+
+		@Override
+		void append(StringBuilder sb, Random random) {
+			sb.append(c);
+		}
+
+		@Override
+		int maxLength() {
+			return 1;
+		}
+	}
+
+	private static final class CharClass extends Fragment {
+
+		private final char[] chars;
+
+		private CharClass(char[] chars) {
+			this.chars = chars;
+		}
+
+		@Override
+		void append(StringBuilder sb, Random random) {
+			sb.append(chars[random.nextInt(chars.length)]);
+		}
+
+		@Override
+		int maxLength() {
+			return 1;
+		}
+	}
+
+	private static final class Repeat extends Fragment {
+
+		private final Fragment fragment;
+		private final int min;
+		private final int max;
+
+		private Repeat(Fragment fragment, int min, int max) {
+			this.fragment = fragment;
+			this.min = min;
+			this.max = max;
+		}
+
+		@Override
+		void append(StringBuilder sb, Random random) {
+			int count = min == max ? min : min + random.nextInt(max - min + 1);
+
+			for (int i = 0; i < count; i++) {
+				fragment.append(sb, random);
+			}
+		}
+
+		@Override
+		int maxLength() {
+			return (int) Math.min(Integer.MAX_VALUE, 
+					(long) fragment.maxLength() * max);
+		}
+	}
+
+	private static final class Sequence extends Fragment {
+
+		private final Fragment[] fragments;
+
+		private Sequence(Fragment[] fragments) {
+			this.fragments = fragments;
+		}
+
+		@Override
+		void append(StringBuilder sb, Random random) {
+			for (Fragment fragment : fragments) {
+				fragment.append(sb, random);
+			}
+		}
+
+		@Override
+		int maxLength() {
+			long length = 0;
+
+			for (Fragment fragment : fragments) {
+				length += fragment.maxLength();
+			}
+
+			return (int) Math.min(Integer.MAX_VALUE, length);
+		}
+	}
+
+	private static final class Alternatives extends Fragment {
+
+		private final Fragment[] fragments;
+
+		private Alternatives(Fragment[] fragments) {
+			this.fragments = fragments;
+		}
+
+		@Override
+		void append(StringBuilder sb, Random random) {
+			fragments[random.nextInt(fragments.length)].append(sb, random);
+		}
+
+		@Override
+		int maxLength() {
+			int length = 0;
+
+			for (Fragment fragment : fragments) {
+				length = Math.max(length, fragment.maxLength());
+			}
+
+			return length;
+		}
+	}
+
+	/**
+	 * A recursive descent parser compiling a regular expression into a tree
+	 * of fragments.
+	 */
+	private static final class Parser {
+
+		private final String regex;
+		private int position;
+
+		private Parser(String regex) {
+			this.regex = regex;
+		}
+
+		private boolean atEnd() {
+			return position >= regex.length();
+		}
+
+		private char peek() {
+			return regex.charAt(position);
+		}
+
+		private char next() {
+			if (atEnd()) {
+				throw error("Unexpected end of pattern");
+			}
+
+			return regex.charAt(position++);
+		}
+
+		private IllegalArgumentException error(String message) {
+			return new IllegalArgumentException(message + " at index " +
+					position + " of pattern: " + regex);
+		}
+
+		private Fragment parseAlternatives() {
+			List<Fragment> alternatives = new ArrayList<Fragment>();
+			alternatives.add(parseSequence());
+
+			while (!atEnd() && peek() == '|') {
+				position++;
+				alternatives.add(parseSequence());
+			}
+
+			return alternatives.size() == 1 ? alternatives.get(0) :
+				new Alternatives(alternatives.toArray(
+						new Fragment[alternatives.size()]));
+		}
+
+		private Fragment parseSequence() {
+			List<Fragment> fragments = new ArrayList<Fragment>();
+
+			while (!atEnd() && peek() != '|' && peek() != ')') {
+				Fragment atom = parseAtom();
+
+				if (atom != null) {
+					fragments.add(parseQuantifier(atom));
+				}
+			}
+
+			return fragments.size() == 1 ? fragments.get(0) :
+				new Sequence(fragments.toArray(new Fragment[fragments.size()]));
+		}
+
+		private Fragment parseAtom() {
+			char c = next();
+
+			switch (c) {
+			case '^':
+			case '$':
+				return null;
+			case '.':
+				return new CharClass(PRINTABLE_CHARS);
+			case '[':
+				return new CharClass(parseClass());
+			case '(':
+				if (regex.startsWith("?:", position)) {
+					position += 2;
+				}
+
+				Fragment group = parseAlternatives();
+
+				if (atEnd() || next() != ')') {
+					throw error("Missing ')'");
+				}
+
+				return group;
+			case '\\':
+				char[] shorthand = parseShorthand();
+				return shorthand.length == 1 ? new Literal(shorthand[0]) :
+					new CharClass(shorthand);
+			case '?':
+			case '*':
+			case '+':
+			case '{':
+				throw error("Dangling quantifier '" + c + "'");
+			default:
+				return new Literal(c);
+			}
+		}
+
+		private char[] parseShorthand() {
+			char c = next();
+
+			switch (c) {
+			case 'd':
+				return DIGIT_CHARS;
+			case 'w':
+				return WORD_CHARS;
+			case 's':
+				return SPACE_CHARS;
+			case 't':
+				return new char[] {'\t'};
+			case 'n':
+				return new char[] {'\n'};
+			default:
+				if (Character.isLetterOrDigit(c)) {
+					throw error("Unsupported escape '\\" + c + "'");
+				}
+
+				return new char[] {c};
+			}
+		}
+
+		private char[] parseClass() {
+			boolean negated = !atEnd() && peek() == '^';
+
+			if (negated) {
+				position++;
+			}
+
+			StringBuilder members = new StringBuilder();
+			boolean first = true;
+
+			while (first || peek() != ']') {
+				first = false;
+				char c = next();
+				char[] chars;
+
+				if (c == '\\') {
+					chars = parseShorthand();
+				} else if (!atEnd() && peek() == '-' &&
+						position + 1 < regex.length() &&
+						regex.charAt(position + 1) != ']') {
+					position++;
+					char last = next();
+
+					if (last == '\\') {
+						last = parseShorthand()[0];
+					}
+
+					if (last < c) {
+						throw error("Illegal range " + c + "-" + last);
+					}
+
+					chars = range(c, last);
+				} else {
+					chars = new char[] {c};
+				}
+
+				for (char member : chars) {
+					if (members.indexOf(String.valueOf(member)) < 0) {
+						members.append(member);
+					}
+				}
+
+				if (atEnd()) {
+					throw error("Missing ']'");
+				}
+			}
+
+			position++;
+
+			if (!negated) {
+				return members.toString().toCharArray();
+			}
+
+			StringBuilder complement = new StringBuilder();
+
+			for (char c : PRINTABLE_CHARS) {
+				if (members.indexOf(String.valueOf(c)) < 0) {
+					complement.append(c);
+				}
+			}
+
+			if (complement.length() == 0) {
+				throw error("Empty character class");
+			}
+
+			return complement.toString().toCharArray();
+		}
+
+		private Fragment parseQuantifier(Fragment atom) {
+			if (atEnd()) {
+				return atom;
+			}
+
+			int min;
+			int max;
+
+			switch (peek()) {
+			case '?':
+				min = 0;
+				max = 1;
+				break;
+			case '*':
+				min = 0;
+				max = MAX_UNBOUNDED_REPEAT;
+				break;
+			case '+':
+				min = 1;
+				max = 1 + MAX_UNBOUNDED_REPEAT;
+				break;
+			case '{':
+				int close = regex.indexOf('}', position);
+
+				if (close < 0) {
+					throw error("Missing '}'");
+				}
+
+				String bounds = regex.substring(position + 1, close);
+				int comma = bounds.indexOf(',');
+
+				try {
+					if (comma < 0) {
+						min = max = Integer.parseInt(bounds.trim());
+					} else {
+						min = Integer.parseInt(bounds.substring(0, comma).trim());
+						String upper = bounds.substring(comma + 1).trim();
+						max = upper.length() == 0 ?
+								min + MAX_UNBOUNDED_REPEAT :
+								Integer.parseInt(upper);
+					}
+				} catch (NumberFormatException e) {
+					throw error("Illegal quantifier {" + bounds + "}");
+				}
+
+				if (min < 0 || max < min) {
+					throw error("Illegal quantifier {" + bounds + "}");
+				}
+
+				position = close;
+				break;
+			default:
+				return atom;
+			}
+
+			position++;
+
+			//Lazy and possessive modifiers do not change what is generated.
+			if (!atEnd() && (peek() == '?' || peek() == '+')) {
+				position++;
+			}
+
+			return new Repeat(atom, min, max);
+		}
+	}
+}
@@ -0,0 +1,26 @@
+package com.github.jrgen.generator;
+
+import java.util.Random;
+
+/**
+ * <p>
+ * A TextSource generates the value of a String property from a structure 
+ * compiled ahead of time, such as a {@link StringPattern} or a 
+ * {@link MarkovText}. Implementations must be thread-safe.
+ * </p>
+ * 
+ * @author Allan J. Shoulders
+ * @version 1.0
+ * @since 1.2.0
+ *
+ */
+public interface TextSource {
+	
+	/**
+	 * Generates the next String.
+	 * 
+	 * @param random the source of randomness.
+	 * @return the generated String.
+	 */
+	public String generate(Random random);
+}
@@ -0,0 +1,147 @@
+package com.github.jrgen.sampler;
+
+import java.util.Random;
+
+/**
+ * <p>
+ * An {@link IndexSampler} where each value is picked in proportion to its 
+ * weight. The alias table is built once, in linear time, using Vose's 
+ * variant of the alias method. Each pick then costs one random index and 
+ * one random coin flip, whatever the number of values.
+ * </p>
+ * 
+ * @author Allan J. Shoulders
+ * @version 1.0
+ * @since 1.2.0
+ * @see IndexSampler
+ *
+ */
+public final class AliasSampler implements IndexSampler {
+	
+	private final double[] probability;
+	private final int[] alias;
+	
+	/**
+	 * Constructs a new instance of the AliasSampler class.
+	 * 
+	 * @param weights the weight of each value. Weights do not have to add
+	 * up to any particular total.
+	 * @throws IllegalArgumentException if there are no weights, if a weight
+	 * is negative or not a number, or if every weight is zero.
+	 */
+	public AliasSampler(double[] weights) {
+		int size = weights == null ? 0 : weights.length;
+		
+		probability = new double[size];
+		alias = new int[size];
+		fillTable(weights, 0, size, probability, alias);
+	}
+	
+	/**
+	 * Builds the alias table of a range of weights into the given arrays,
+	 * which allows many tables to be packed in the same primitive arrays. 
+	 * The aliases stored are indexes of the whole arrays, within the range.
+	 * 
+	 * @param weights the weights, of which the range is used.
+	 * @param offset the index of the first weight of the range.
+	 * @param length the number of weights of the range.
+	 * @param probability the array receiving the probability of each index
+	 * of the range.
+	 * @param alias the array receiving the alias of each index of the range.
+	 * @throws IllegalArgumentException if the range is empty, if a weight 
+	 * is negative or not a number, or if every weight is zero.
+	 */
+	public static void fillTable(double[] weights, int offset, int length, 
+			double[] probability, int[] alias) {
+		double total = 0;
+		
+		for (int i = offset; i < offset + length; i++) {
+			if (!(weights[i] >= 0) || Double.isInfinite(weights[i])) {
+				throw new IllegalArgumentException(
+						"Illegal weight: " + weights[i]);
+			}
+			
+			total += weights[i];
+		}
+		
+		if (!(total > 0)) {
+			throw new IllegalArgumentException(
+					"At least one weight must be greater than 0.");
+		}
+		
+		double[] scaled = new double[length];
+		int[] small = new int[length];
+		int[] large = new int[length];
+		int smallCount = 0;
+		int largeCount = 0;
+		
+		for (int i = 0; i < length; i++) {
+			scaled[i] = weights[offset + i] * length / total;
+			
+			if (scaled[i] < 1.0) {
+				small[smallCount++] = i;
+			} else {
+				large[largeCount++] = i;
+			}
+		}
+		
+		while (smallCount > 0 && largeCount > 0) {
+			int less = small[--smallCount];
+			int more = large[--largeCount];
+			
+			probability[offset + less] = scaled[less];
+			alias[offset + less] = offset + more;
+			scaled[more] = (scaled[more] + scaled[less]) - 1.0;
+			
+			if (scaled[more] < 1.0) {
+				small[smallCount++] = more;
+			} else {
+				large[largeCount++] = more;
+			}
+		}
+		
+		//Whatever is left is only off by rounding errors.
+		while (largeCount > 0) {
+			probability[offset + large[--largeCount]] = 1.0;
+		}
+		
+		while (smallCount > 0) {
+			probability[offset + small[--smallCount]] = 1.0;
+		}
+	}
+	
+	/**
+	 * Picks an index of a range of an alias table built by 
+	 * {@link #fillTable(double[], int, int, double[], int[])}.
+	 * 
+	 * @param random the source of randomness.
+	 * @param probability the probabilities of the table.
+	 * @param alias the aliases of the table.
+	 * @param offset the index of the first entry of the range.
+	 * @param length the number of entries of the range.
+	 * @return an index between offset, inclusive, and offset + length, 
+	 * exclusive.
+	 */
+	public static int nextIndex(Random random, double[] probability, 
+			int[] alias, int offset, int length) {
+		int index = offset + random.nextInt(length);
+		
+		return random.nextDouble() < probability[index] ? index : alias[index];
+	}
+
+	@Override
+	public int nextIndex(Random random) {
+		return nextIndex(random, probability, alias, 0, probability.length);
+	}
+
+	@Override
+	public int size() {
+		return probability.length;
+	}
+
+	@Override
+	public String toString() {
+		return "AliasSampler [size=" + probability.length + "]";
+	}
+	
+}
@@ -0,0 +1,145 @@
+package com.github.jrgen.sampler;
+
+import java.util.Random;
+
+/**
+ * <p>
+ * An {@link IndexSampler} picking values without replacement, like cards 
+ * dealt from a deck: no value is picked twice within a round. Once every 
+ * value was dealt, the deck is reshuffled for the next round.
+ * </p>
+ * 
+ * <p>
+ * The deck is an array of indexes shuffled lazily with the Fisher-Yates 
+ * algorithm, so no copy of the values is made and no work is done for 
+ * values not yet dealt. To be thread-safe without contention, the deck is 
+ * dealt in segments: a thread claims the next segment, shuffling only its 
+ * positions against the rest of the deck and copying them while holding a 
+ * lock, then deals its copy on its own. Each pick therefore costs O(1) 
+ * amortized time.
+ * </p>
+ * 
+ * <p>
+ * When a single thread picks, every value is picked exactly once per 
+ * round. When several threads pick, a round ends once every segment of the
+ * deck was claimed, possibly before the threads dealt all of them. The 
+ * values left in the segments of the previous round are then discarded 
+ * rather than dealt, so no value is ever picked twice within a round, but
+ * a new round may start before every value of the previous one was picked.
+ * </p>
+ * 
+ * @author Allan J. Shoulders
+ * @version 1.0
+ * @since 1.2.0
+ * @see IndexSampler
+ *
+ */
+public final class DeckSampler implements IndexSampler {
+	
+	private static final int MAX_SEGMENT_SIZE = 1024;
+	private static final int SEGMENTS_PER_DECK = 16;
+	
+	private final int[] deck;
+	private final int segmentSize;
+	private final ThreadLocal<Segment> segments;
+	
+	//Guarded by this.
+	private int position;
+	
+	//Written while holding this, read without it to discard stale segments.
+	private volatile int round;
+	
+	/**
+	 * Constructs a new instance of the DeckSampler class.
+	 * 
+	 * @param size the number of values in the deck.
+	 * @throws IllegalArgumentException if the size is less than 1.
+	 */
+	public DeckSampler(int size) {
+		if (size < 1) {
+			throw new IllegalArgumentException("Illegal size: " + size);
+		}
+		
+		deck = new int[size];
+		
+		for (int i = 0; i < size; i++) {
+			deck[i] = i;
+		}
+		
+		segmentSize = Math.max(1, 
+				Math.min(MAX_SEGMENT_SIZE, size / SEGMENTS_PER_DECK));
+		segments = new ThreadLocal<Segment>();
+	}
+
+	@Override
+	public int nextIndex(Random random) {
+		Segment segment = segments.get();
+		
+		if (segment == null) {
+			segment = new Segment(segmentSize);
+			segments.set(segment);
+		}
+		
+		if (segment.next >= segment.end || segment.round != round) {
+			claim(segment, random);
+		}
+		
+		return segment.indexes[segment.next++];
+	}
+
+	@Override
+	public int size() {
+		return deck.length;
+	}
+	
+	/**
+	 * Helper method that deals a copy of the next segment of the deck to the
+	 * calling thread, starting a new round when the deck ran out.
+	 * 
+	 * @param segment
+	 * @param random
+	 */
+	private synchronized void claim(Segment segment, Random random) {
+		if (position >= deck.length) {
+			position = 0;
+			round++;
+		}
+		
+		int start = position;
+		int end = Math.min(deck.length, start + segmentSize);
+		
+		for (int i = start; i < end; i++) {
+			int j = i + random.nextInt(deck.length - i);
+			int swap = deck[i];
+			deck[i] = deck[j];
+			deck[j] = swap;
+			segment.indexes[i - start] = deck[i];
+		}
+		
+		position = end;
+		segment.round = round;
+		segment.next = 0;
+		segment.end = end - start;
+	}
+
+	@Override
+	public String toString() {
+		return "DeckSampler [size=" + deck.length + ", segmentSize=" 
+				+ segmentSize + "]";
+	}
+	
+	/**
+	 * The copy of the positions of the deck dealt to a thread, with the 
+	 * round they were dealt in.
+	 */
+	private static final class Segment {
+		private final int[] indexes;
+		private int round;
+		private int next;
+		private int end;
+		
+		private Segment(int size) {
+			this.indexes = new int[size];
+		}
+	}
+}
@@ -0,0 +1,195 @@
+package com.github.jrgen.sampler;
+
+import java.util.Random;
+
+import com.github.jrgen.settings.Settings;
+import com.github.jrgen.util.JrgenUtil;
+
+/**
+ * <p>
+ * A Distribution determines how values are spread over a range, such as the
+ * numeric ranges of the {@link Settings}, or over the values of a property
+ * of a {@link com.github.jrgen.configuration.Configuration}. 
+ * </p>
+ * 
+ * <p>
+ * Implementations sample a fraction of the range between 0 (inclusive) and
+ * 1 (exclusive), which is then scaled to the range. Implementations whose 
+ * values are discrete by nature, such as the {@link ZipfDistribution}, 
+ * override the methods sampling whole numbers. Every implementation samples 
+ * in constant time, and is immutable so it can be shared between threads.
+ * </p>
+ * 
+ * <p>
+ * Distributions can be created from a specification of the form 
+ * <i>name[:parameter[,parameter]]</i> with the parse method:
+ * </p>
+ * <ul>
+ * <li>uniform</li>
+ * <li>zipf[:exponent], defaults to zipf:1.0</li>
+ * <li>normal[:standard deviation], as a fraction of the range, defaults to 
+ * normal:0.166</li>
+ * <li>exponential[:mean], as a fraction of the range, defaults to 
+ * exponential:0.2</li>
+ * <li>lognormal[:median[,sigma]], the median as a fraction of the range,
+ * defaults to lognormal:0.1,1.0</li>
+ * </ul>
+ * 
+ * @author Allan J. Shoulders
+ * @version 1.0
+ * @since 1.2.0
+ * @see IndexSampler
+ *
+ */
+public abstract class Distribution {
+	
+	/**
+	 * Samples a fraction of a range.
+	 * 
+	 * @param random the source of randomness.
+	 * @return a value greater than or equal to 0 and less than 1.
+	 */
+	public abstract double nextFraction(Random random);
+	
+	/**
+	 * Samples a whole number of the range.
+	 * 
+	 * @param random the source of randomness.
+	 * @param min the smallest possible value that can be returned.
+	 * @param max the largest possible value that can be returned.
+	 * @return a value greater than or equal to the min and less than or 
+	 * equal to the max.
+	 * @throws IllegalArgumentException if the min value is greater than the
+	 * max value.
+	 */
+	public long nextLong(Random random, long min, long max) {
+		JrgenUtil.validateMaxMin(min, max);
+		
+		double span = (double) max - (double) min + 1.0;
+		long value = min + (long) (nextFraction(random) * span);
+		
+		return value > max || value < min ? max : value;
+	}
+	
+	/**
+	 * Samples a decimal number of the range.
+	 * 
+	 * @param random the source of randomness.
+	 * @param min the smallest possible value that can be returned.
+	 * @param max the upper bound of the range.
+	 * @return a value greater than or equal to the min and less than the 
+	 * max.
+	 * @throws IllegalArgumentException if the min value is greater than the
+	 * max value.
+	 */
+	public double nextDouble(Random random, double min, double max) {
+		JrgenUtil.validateMaxMin(min, max);
+		
+		return min + nextFraction(random) * (max - min);
+	}
+	
+	/**
+	 * Returns an {@link IndexSampler} picking among the given number of 
+	 * values according to this Distribution. The first values are the ones
+	 * the Distribution favors the most.
+	 * 
+	 * @param size the number of values to pick from.
+	 * @return the {@link IndexSampler}.
+	 */
+	public IndexSampler sampler(final int size) {
+		JrgenUtil.validatePositiveNumber(size);
+		
+		return new IndexSampler() {
+
+			@Override
+			public int nextIndex(Random random) {
+				return (int) nextLong(random, 0, size - 1);
+			}
+
+			@Override
+			public int size() {
+				return size;
+			}
+		};
+	}
+	
+	/**
+	 * Creates a Distribution from its specification, as listed in the 
+	 * description of this class.
+	 * 
+	 * @param specification the specification of the Distribution.
+	 * @return the Distribution.
+	 * @throws IllegalArgumentException if the specification is not valid.
+	 */
+	public static Distribution parse(String specification) {
+		JrgenUtil.validateNonNullArgument(specification, "specification");
+		
+		String[] parts = specification.trim().split(":", 2);
+		String name = parts[0].trim().toLowerCase();
+		double[] params = parseParameters(parts.length > 1 ? parts[1] : null);
+		
+		if ("uniform".equals(name)) {
+			return UniformDistribution.INSTANCE;
+		} else if ("zipf".equals(name)) {
+			return new ZipfDistribution(param(params, 0, 1.0));
+		} else if ("normal".equals(name)) {
+			return new NormalDistribution(param(params, 0, 1.0 / 6.0));
+		} else if ("exponential".equals(name)) {
+			return new ExponentialDistribution(param(params, 0, 0.2));
+		} else if ("lognormal".equals(name)) {
+			return new LogNormalDistribution(param(params, 0, 0.1), 
+					param(params, 1, 1.0));
+		}
+		
+		throw new IllegalArgumentException(
+				"Unknown distribution: " + specification);
+	}
+	
+	/**
+	 * Helper method that parses the comma separated parameters of a 
+	 * specification.
+	 * 
+	 * @param parameters
+	 * @return
+	 */
+	private static double[] parseParameters(String parameters) {
+		if (parameters == null || parameters.trim().length() == 0) {
+			return new double[0];
+		}
+		
+		String[] values = parameters.split(",");
+		double[] params = new double[values.length];
+		
+		for (int i = 0; i < values.length; i++) {
+			try {
+				params[i] = Double.parseDouble(values[i].trim());
+			} catch (NumberFormatException e) {
+				throw new IllegalArgumentException(e);
+			}
+		}
+		
+		return params;
+	}
+	
+	private static double param(double[] params, int index, 
+			double defaultValue) {
+		return index < params.length ? params[index] : defaultValue;
+	}
+	
+	/**
+	 * Helper method that validates a parameter that must be a finite number
+	 * greater than zero.
+	 * 
+	 * @param value
+	 * @param name
+	 * @return
+	 */
+	static double validatePositiveParameter(double value, String name) {
+		if (!(value > 0) || Double.isInfinite(value)) {
+			throw new IllegalArgumentException(
+					"Illegal " + name + ": " + value);
+		}
+		
+		return value;
+	}
+}
@@ -0,0 +1,51 @@
+package com.github.jrgen.sampler;
+
+import java.util.Random;
+
+/**
+ * <p>
+ * A {@link Distribution} following an exponential distribution truncated to
+ * the range, where the smallest values are the most likely. Samples are 
+ * drawn by inverting the truncated distribution, so no sample is ever 
+ * drawn again.
+ * </p>
+ * 
+ * @author Allan J. Shoulders
+ * @version 1.0
+ * @since 1.2.0
+ * @see Distribution
+ *
+ */
+public final class ExponentialDistribution extends Distribution {
+	
+	private final double mean;
+	private final double rate;
+	private final double truncation;
+	
+	/**
+	 * Constructs a new instance of the ExponentialDistribution class.
+	 * 
+	 * @param mean the mean of the untruncated distribution, as a fraction 
+	 * of the range.
+	 * @throws IllegalArgumentException if the mean is not greater than zero.
+	 */
+	public ExponentialDistribution(double mean) {
+		this.mean = validatePositiveParameter(mean, "mean");
+		this.rate = 1.0 / mean;
+		this.truncation = -Math.expm1(-rate);
+	}
+
+	@Override
+	public double nextFraction(Random random) {
+		double fraction = 
+				-Math.log1p(-random.nextDouble() * truncation) / rate;
+		
+		return fraction < 1 ? fraction : Math.nextAfter(1.0, 0);
+	}
+
+	@Override
+	public String toString() {
+		return "exponential:" + mean;
+	}
+	
+}
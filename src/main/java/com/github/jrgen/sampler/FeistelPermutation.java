@@ -0,0 +1,136 @@
+package com.github.jrgen.sampler;
+
+/**
+ * <p>
+ * A FeistelPermutation is a keyed bijection of the range [0, size): every
+ * index of the range is mapped to a distinct index of the same range, in an
+ * order that looks random and is determined by the key. Mapping the indexes
+ * 0, 1, 2, ... therefore yields values that are unique by construction, 
+ * without remembering any of the values already issued.
+ * </p>
+ * 
+ * <p>
+ * The permutation is a balanced Feistel network over the smallest power of
+ * four covering the range. Indexes mapped outside of the range are mapped 
+ * again (cycle-walking) until they fall within it, which takes less than 
+ * four rounds on average. Instances are immutable and can be shared between
+ * threads.
+ * </p>
+ * 
+ * @author Allan J. Shoulders
+ * @version 1.0
+ * @since 1.2.0
+ * @see UniqueSequence
+ *
+ */
+public final class FeistelPermutation {
+	
+	/**
+	 * The largest size supported, ranges above it are truncated.
+	 */
+	public static final long MAX_SIZE = 1L << 62;
+	
+	private static final int ROUNDS = 6;
+	
+	private final long size;
+	private final int halfBits;
+	private final long halfMask;
+	private final long[] roundKeys;
+	
+	/**
+	 * Constructs a new instance of the FeistelPermutation class.
+	 * 
+	 * @param size the size of the range, truncated to MAX_SIZE.
+	 * @param key the key determining the order of the permutation.
+	 * @throws IllegalArgumentException if the size is less than 1.
+	 */
+	public FeistelPermutation(long size, long key) {
+		if (size < 1) {
+			throw new IllegalArgumentException("Illegal size: " + size);
+		}
+		
+		this.size = Math.min(size, MAX_SIZE);
+		
+		int bits = 64 - Long.numberOfLeadingZeros(this.size - 1);
+		this.halfBits = Math.max(1, (bits + 1) / 2);
+		this.halfMask = (1L << halfBits) - 1;
+		this.roundKeys = new long[ROUNDS];
+		
+		long state = key;
+		
+		for (int i = 0; i < ROUNDS; i++) {
+			state += 0x9E3779B97F4A7C15L;
+			roundKeys[i] = mix(state);
+		}
+	}
+	
+	/**
+	 * Maps an index of the range to its permuted index.
+	 * 
+	 * @param index an index between 0 (inclusive) and the size (exclusive).
+	 * @return the permuted index, between 0 (inclusive) and the size 
+	 * (exclusive).
+	 * @throws IllegalArgumentException if the index is outside of the range.
+	 */
+	public long permute(long index) {
+		if (index < 0 || index >= size) {
+			throw new IllegalArgumentException("Illegal index: " + index);
+		}
+		
+		long value = index;
+		
+		do {
+			value = encrypt(value);
+		} while (value >= size);
+		
+		return value;
+	}
+	
+	/**
+	 * Returns the size of the range.
+	 * 
+	 * @return the size of the range.
+	 */
+	public long size() {
+		return size;
+	}
+	
+	/**
+	 * Helper method running one pass of the Feistel network over the 
+	 * power of four covering the range.
+	 * 
+	 * @param value
+	 * @return
+	 */
+	private long encrypt(long value) {
+		long left = (value >>> halfBits) & halfMask;
+		long right = value & halfMask;
+		
+		for (int i = 0; i < ROUNDS; i++) {
+			long next = left ^ (mix(right ^ roundKeys[i]) & halfMask);
+			left = right;
+			right = next;
+		}
+		
+		return (left << halfBits) | right;
+	}
+	
+	/**
+	 * Helper method that scrambles the bits of a value (the finalizer of 
+	 * the SplitMix64 generator).
+	 * 
+	 * @param z
+	 * @return
+	 */
+	private static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+	@Override
+	public String toString() {
+		return "FeistelPermutation [size=" + size + "]";
+	}
+	
+}
@@ -0,0 +1,45 @@
+package com.github.jrgen.sampler;
+
+import java.util.Random;
+
+import com.github.jrgen.configuration.Configuration;
+
+/**
+ * <p>
+ * An IndexSampler picks the index of the next value out of a fixed number 
+ * of values, such as the values of a property of a {@link Configuration}. 
+ * Implementations determine the distribution of the picks, and are built 
+ * once so that every pick is cheap.
+ * </p>
+ * 
+ * <p>
+ * Implementations must be safe to share between threads. The 
+ * {@link Random} object holding the state of the sequence is supplied by 
+ * the caller.
+ * </p>
+ * 
+ * @author Allan J. Shoulders
+ * @version 1.0
+ * @since 1.2.0
+ * @see UniformSampler
+ * @see AliasSampler
+ *
+ */
+public interface IndexSampler {
+
+	/**
+	 * Picks the index of the next value.
+	 * 
+	 * @param random the source of randomness.
+	 * @return an index between zero (inclusive) and the size of this 
+	 * IndexSampler (exclusive).
+	 */
+	public int nextIndex(Random random);
+	
+	/**
+	 * Returns the number of values this IndexSampler picks from.
+	 * 
+	 * @return the number of values.
+	 */
+	public int size();
+}
@@ -0,0 +1,58 @@
+package com.github.jrgen.sampler;
+
+import java.util.Random;
+
+/**
+ * <p>
+ * A {@link Distribution} following a log-normal distribution truncated to 
+ * the range: most values are close to the median, with a long tail of 
+ * larger values. Samples falling outside of the range are drawn again.
+ * </p>
+ * 
+ * @author Allan J. Shoulders
+ * @version 1.0
+ * @since 1.2.0
+ * @see Distribution
+ *
+ */
+public final class LogNormalDistribution extends Distribution {
+	
+	private static final int MAX_ATTEMPTS = 64;
+	
+	private final double median;
+	private final double sigma;
+	
+	/**
+	 * Constructs a new instance of the LogNormalDistribution class.
+	 * 
+	 * @param median the median of the untruncated distribution, as a 
+	 * fraction of the range.
+	 * @param sigma the standard deviation of the logarithm of the values.
+	 * @throws IllegalArgumentException if the median or sigma is not 
+	 * greater than zero.
+	 */
+	public LogNormalDistribution(double median, double sigma) {
+		this.median = validatePositiveParameter(median, "median");
+		this.sigma = validatePositiveParameter(sigma, "sigma");
+	}
+
+	@Override
+	public double nextFraction(Random random) {
+		for (int i = 0; i < MAX_ATTEMPTS; i++) {
+			double fraction = median * Math.exp(sigma * random.nextGaussian());
+			
+			if (fraction < 1) {
+				return fraction;
+			}
+		}
+		
+		//Only reachable when the median is close to the end of the range.
+		return random.nextDouble();
+	}
+
+	@Override
+	public String toString() {
+		return "lognormal:" + median + "," + sigma;
+	}
+	
+}
@@ -0,0 +1,58 @@
+package com.github.jrgen.sampler;
+
+import java.util.Random;
+
+/**
+ * <p>
+ * A {@link Distribution} following a normal (Gaussian) distribution 
+ * centered on the middle of the range and truncated to the range. Samples 
+ * falling outside of the range are drawn again, which happens for about 
+ * 0.3% of the samples with the default standard deviation.
+ * </p>
+ * 
+ * @author Allan J. Shoulders
+ * @version 1.0
+ * @since 1.2.0
+ * @see Distribution
+ *
+ */
+public final class NormalDistribution extends Distribution {
+	
+	private static final int MAX_ATTEMPTS = 64;
+	
+	private final double standardDeviation;
+	
+	/**
+	 * Constructs a new instance of the NormalDistribution class.
+	 * 
+	 * @param standardDeviation the standard deviation, as a fraction of the
+	 * range.
+	 * @throws IllegalArgumentException if the standard deviation is not 
+	 * greater than zero.
+	 */
+	public NormalDistribution(double standardDeviation) {
+		this.standardDeviation = 
+				validatePositiveParameter(standardDeviation, 
+						"standard deviation");
+	}
+
+	@Override
+	public double nextFraction(Random random) {
+		for (int i = 0; i < MAX_ATTEMPTS; i++) {
+			double fraction = 0.5 + random.nextGaussian() * standardDeviation;
+			
+			if (fraction >= 0 && fraction < 1) {
+				return fraction;
+			}
+		}
+		
+		//Only reachable with a very wide standard deviation.
+		return random.nextDouble();
+	}
+
+	@Override
+	public String toString() {
+		return "normal:" + standardDeviation;
+	}
+	
+}
@@ -0,0 +1,146 @@
+package com.github.jrgen.sampler;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>
+ * A StripedSequence issues increasing numbers, start, start + step, 
+ * start + 2 * step, ..., from many threads without contention. Each thread
+ * reserves a block of numbers from a shared counter, then issues the 
+ * numbers of its block on its own, so the shared counter is only touched 
+ * once per block.
+ * </p>
+ * 
+ * <p>
+ * The numbers are unique across all threads, and each thread issues 
+ * increasing numbers. The numbers of different threads are not ordered: a
+ * thread holding a block issues its numbers whenever it picks, however far
+ * other threads advanced the shared counter meanwhile. A smaller block 
+ * size only makes this less likely, at the cost of contention.
+ * </p>
+ * 
+ * <p>
+ * A sequence whose next number does not fit a long fails with an 
+ * {@link ArithmeticException} rather than wrapping around.
+ * </p>
+ * 
+ * @author Allan J. Shoulders
+ * @version 1.0
+ * @since 1.2.0
+ *
+ */
+public final class StripedSequence {
+	
+	/**
+	 * The default number of numbers a thread reserves at a time.
+	 */
+	public static final int DEFAULT_BLOCK_SIZE = 64;
+	
+	private final long start;
+	private final long step;
+	private final int blockSize;
+	private final AtomicLong reserved;
+	private final ThreadLocal<Block> blocks;
+	
+	/**
+	 * Constructs a new instance of the StripedSequence class with the 
+	 * default block size.
+	 * 
+	 * @param start the first number of the sequence.
+	 * @param step the difference between two consecutive numbers.
+	 * @throws IllegalArgumentException if the step is 0.
+	 */
+	public StripedSequence(long start, long step) {
+		this(start, step, DEFAULT_BLOCK_SIZE);
+	}
+	
+	/**
+	 * Constructs a new instance of the StripedSequence class.
+	 * 
+	 * @param start the first number of the sequence.
+	 * @param step the difference between two consecutive numbers.
+	 * @param blockSize the number of numbers a thread reserves at a time.
+	 * @throws IllegalArgumentException if the step is 0 or the block size is
+	 * less than 1.
+	 */
+	public StripedSequence(long start, long step, int blockSize) {
+		if (step == 0) {
+			throw new IllegalArgumentException("The step cannot be 0.");
+		}
+		
+		if (blockSize < 1) {
+			throw new IllegalArgumentException(
+					"Illegal block size: " + blockSize);
+		}
+		
+		this.start = start;
+		this.step = step;
+		this.blockSize = blockSize;
+		this.reserved = new AtomicLong();
+		this.blocks = new ThreadLocal<Block>() {
+			@Override
+			protected Block initialValue() {
+				return new Block();
+			}
+		};
+	}
+	
+	/**
+	 * Issues the next number of the sequence for the calling thread.
+	 * 
+	 * @return the next number.
+	 * @throws ArithmeticException if the next number does not fit a long.
+	 */
+	public long next() {
+		Block block = blocks.get();
+		
+		if (block.next >= block.end) {
+			block.next = reserved.getAndAdd(blockSize);
+			block.end = block.next + blockSize;
+		}
+		
+		long position = block.next++;
+		long offset = position * step;
+		long number = start + offset;
+		
+		if (position < 0 || offset / step != position || 
+				((start ^ number) & (offset ^ number)) < 0) {
+			throw new ArithmeticException("The sequence overflows a long: " + 
+					this);
+		}
+		
+		return number;
+	}
+	
+	/**
+	 * Returns the first number of the sequence.
+	 * 
+	 * @return the first number.
+	 */
+	public long getStart() {
+		return start;
+	}
+	
+	/**
+	 * Returns the difference between two consecutive numbers.
+	 * 
+	 * @return the step.
+	 */
+	public long getStep() {
+		return step;
+	}
+
+	@Override
+	public String toString() {
+		return "StripedSequence [start=" + start + ", step=" + step 
+				+ ", blockSize=" + blockSize + ", reserved=" + reserved + "]";
+	}
+	
+	/**
+	 * The numbers reserved by a thread, as positions of the sequence.
+	 */
+	private static final class Block {
+		private long next;
+		private long end;
+	}
+}
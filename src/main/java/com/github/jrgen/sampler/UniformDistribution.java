@@ -0,0 +1,61 @@
+package com.github.jrgen.sampler;
+
+import java.util.Random;
+
+import com.github.jrgen.util.JrgenUtil;
+
+/**
+ * <p>
+ * A {@link Distribution} where every value of the range is equally likely.
+ * This is the default Distribution, it samples whole numbers exactly as 
+ * {@link JrgenUtil#getNumberFromRange(long, long)} does.
+ * </p>
+ * 
+ * @author Allan J. Shoulders
+ * @version 1.0
+ * @since 1.2.0
+ * @see Distribution
+ *
+ */
+public final class UniformDistribution extends Distribution {
+	
+	/**
+	 * The shared instance of the UniformDistribution.
+	 */
+	public static final UniformDistribution INSTANCE = 
+			new UniformDistribution();
+	
+	/**
+	 * Private constructor, the shared instance should be used instead.
+	 */
+	private UniformDistribution() {
+		super();
+	}
+
+	@Override
+	public double nextFraction(Random random) {
+		return random.nextDouble();
+	}
+
+	@Override
+	public long nextLong(Random random, long min, long max) {
+		JrgenUtil.validateMaxMin(min, max);
+		
+		if (max - min == 1) {
+			return random.nextBoolean() ? min : max;
+		}
+		
+		return min + (long)(random.nextDouble() * (max - min));
+	}
+
+	@Override
+	public IndexSampler sampler(int size) {
+		return new UniformSampler(size);
+	}
+
+	@Override
+	public String toString() {
+		return "uniform";
+	}
+	
+}
@@ -0,0 +1,48 @@
+package com.github.jrgen.sampler;
+
+import java.util.Random;
+
+import com.github.jrgen.util.JrgenUtil;
+
+/**
+ * <p>
+ * An {@link IndexSampler} where every value is equally likely to be picked.
+ * </p>
+ * 
+ * @author Allan J. Shoulders
+ * @version 1.0
+ * @since 1.2.0
+ * @see IndexSampler
+ *
+ */
+public final class UniformSampler implements IndexSampler {
+	
+	private final int size;
+	
+	/**
+	 * Constructs a new instance of the UniformSampler class.
+	 * 
+	 * @param size the number of values to pick from.
+	 * @throws IllegalArgumentException if the size is less than zero.
+	 */
+	public UniformSampler(int size) {
+		JrgenUtil.validatePositiveNumber(size);
+		this.size = size;
+	}
+
+	@Override
+	public int nextIndex(Random random) {
+		return random.nextInt(size);
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public String toString() {
+		return "UniformSampler [size=" + size + "]";
+	}
+	
+}
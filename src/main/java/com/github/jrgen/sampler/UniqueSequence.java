@@ -0,0 +1,105 @@
+package com.github.jrgen.sampler;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>
+ * A UniqueSequence issues whole numbers of a range that are never repeated,
+ * in an order that looks random. The n-th number issued is the n-th index
+ * of the range mapped through a {@link FeistelPermutation}, so only the 
+ * count of numbers issued is kept in memory.
+ * </p>
+ * 
+ * <p>
+ * Instances are thread-safe. Separate processes generating the same range
+ * share the work by using the same key and a distinct worker number: the 
+ * worker w of W workers only issues the indexes w, w + W, w + 2W, ... so 
+ * no two workers ever issue the same number.
+ * </p>
+ * 
+ * @author Allan J. Shoulders
+ * @version 1.0
+ * @since 1.2.0
+ * @see FeistelPermutation
+ *
+ */
+public final class UniqueSequence {
+	
+	private final long min;
+	private final FeistelPermutation permutation;
+	private final int worker;
+	private final int workers;
+	private final AtomicLong issued;
+	
+	/**
+	 * Constructs a new instance of the UniqueSequence class.
+	 * 
+	 * @param min the smallest number of the range.
+	 * @param max the largest number of the range.
+	 * @param key the key determining the order of the numbers.
+	 * @param worker the number of this worker, from 0 to workers - 1.
+	 * @param workers the number of workers sharing the range.
+	 * @throws IllegalArgumentException if the min is greater than the max, 
+	 * or the worker is not a number from 0 to workers - 1.
+	 */
+	public UniqueSequence(long min, long max, long key, int worker, 
+			int workers) {
+		if (max < min) {
+			throw new IllegalArgumentException(
+					"Illegal range: " + min + " - " + max);
+		}
+		
+		if (workers < 1 || worker < 0 || worker >= workers) {
+			throw new IllegalArgumentException(
+					"Illegal worker: " + worker + " of " + workers);
+		}
+		
+		long size = max - min + 1;
+		
+		this.min = min;
+		this.permutation = new FeistelPermutation(
+				size <= 0 ? FeistelPermutation.MAX_SIZE : size, key);
+		this.worker = worker;
+		this.workers = workers;
+		this.issued = new AtomicLong();
+	}
+	
+	/**
+	 * Issues the next number of the sequence.
+	 * 
+	 * @return a number of the range that was never issued before.
+	 * @throws IllegalStateException if every number of the range available
+	 * to this worker was issued.
+	 */
+	public long next() {
+		long count = issued.getAndIncrement();
+		long index = count * workers + worker;
+		
+		if (count < 0 || index < 0 || index >= permutation.size() || 
+				(index - worker) / workers != count) {
+			issued.decrementAndGet();
+			throw new IllegalStateException(
+					"The " + permutation.size() + " unique values of the " 
+							+ "range starting at " + min + " are exhausted.");
+		}
+		
+		return min + permutation.permute(index);
+	}
+	
+	/**
+	 * Returns the number of numbers issued by this UniqueSequence.
+	 * 
+	 * @return the number of numbers issued.
+	 */
+	public long getIssued() {
+		return issued.get();
+	}
+
+	@Override
+	public String toString() {
+		return "UniqueSequence [min=" + min + ", size=" + permutation.size()
+				+ ", worker=" + worker + ", workers=" + workers 
+				+ ", issued=" + issued + "]";
+	}
+	
+}
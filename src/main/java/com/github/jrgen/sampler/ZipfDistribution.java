@@ -0,0 +1,191 @@
+package com.github.jrgen.sampler;
+
+import java.util.Random;
+
+/**
+ * <p>
+ * A {@link Distribution} following Zipf's law, where the k-th value of the
+ * range is picked in proportion to 1 / k<sup>exponent</sup>. The first 
+ * values of the range are the hot keys. 
+ * </p>
+ * 
+ * <p>
+ * Samples are drawn with the rejection-inversion method of Hormann and 
+ * Derflinger, which needs no table and accepts most samples at the first 
+ * attempt whatever the size of the range. The constants of the method are 
+ * computed once per range size; the ones of the last range used are kept.
+ * </p>
+ * 
+ * @author Allan J. Shoulders
+ * @version 1.0
+ * @since 1.2.0
+ * @see Distribution
+ *
+ */
+public final class ZipfDistribution extends Distribution {
+	
+	/**
+	 * The number of ranks decimal ranges are divided into.
+	 */
+	private static final long FRACTION_RANKS = 1L << 20;
+	
+	private final double exponent;
+	private volatile Ranks lastRanks;
+	
+	/**
+	 * Constructs a new instance of the ZipfDistribution class.
+	 * 
+	 * @param exponent the exponent of the distribution, the larger it is, 
+	 * the more the first values are favored.
+	 * @throws IllegalArgumentException if the exponent is not greater than 
+	 * zero.
+	 */
+	public ZipfDistribution(double exponent) {
+		this.exponent = validatePositiveParameter(exponent, "exponent");
+	}
+
+	@Override
+	public double nextFraction(Random random) {
+		return (double) (ranks(FRACTION_RANKS).sample(random) - 1) / 
+				FRACTION_RANKS;
+	}
+
+	@Override
+	public long nextLong(Random random, long min, long max) {
+		if (max < min) {
+			return super.nextLong(random, min, max);
+		}
+		
+		long size = max - min + 1;
+		
+		//The range is wider than a long, fall back to fractions.
+		if (size <= 0) {
+			return super.nextLong(random, min, max);
+		}
+		
+		return min + ranks(size).sample(random) - 1;
+	}
+
+	@Override
+	public IndexSampler sampler(final int size) {
+		final Ranks ranks = ranks(size);
+		
+		return new IndexSampler() {
+
+			@Override
+			public int nextIndex(Random random) {
+				return (int) ranks.sample(random) - 1;
+			}
+
+			@Override
+			public int size() {
+				return size;
+			}
+		};
+	}
+	
+	/**
+	 * Helper method that returns the constants of the given range size.
+	 * 
+	 * @param size
+	 * @return
+	 */
+	private Ranks ranks(long size) {
+		Ranks ranks = lastRanks;
+		
+		if (ranks == null || ranks.size != size) {
+			ranks = new Ranks(size, exponent);
+			lastRanks = ranks;
+		}
+		
+		return ranks;
+	}
+
+	@Override
+	public String toString() {
+		return "zipf:" + exponent;
+	}
+	
+	/**
+	 * The constants of the rejection-inversion method for a number of ranks.
+	 */
+	private static final class Ranks {
+		
+		private final long size;
+		private final double exponent;
+		private final double hIntegralX1;
+		private final double hIntegralSize;
+		private final double s;
+		
+		private Ranks(long size, double exponent) {
+			this.size = size;
+			this.exponent = exponent;
+			this.hIntegralX1 = hIntegral(1.5) - 1.0;
+			this.hIntegralSize = hIntegral(size + 0.5);
+			this.s = 2.0 - hIntegralInverse(hIntegral(2.5) - h(2));
+		}
+		
+		/**
+		 * Returns a rank between 1 and the size, both inclusive.
+		 */
+		private long sample(Random random) {
+			while (true) {
+				double u = hIntegralSize + 
+						random.nextDouble() * (hIntegralX1 - hIntegralSize);
+				double x = hIntegralInverse(u);
+				long k = (long) (x + 0.5);
+				
+				if (k < 1) {
+					k = 1;
+				} else if (k > size) {
+					k = size;
+				}
+				
+				if (k - x <= s || u >= hIntegral(k + 0.5) - h(k)) {
+					return k;
+				}
+			}
+		}
+		
+		private double hIntegral(double x) {
+			double logX = Math.log(x);
+			return helper2((1.0 - exponent) * logX) * logX;
+		}
+		
+		private double h(double x) {
+			return Math.exp(-exponent * Math.log(x));
+		}
+		
+		private double hIntegralInverse(double x) {
+			double t = x * (1.0 - exponent);
+			
+			if (t < -1.0) {
+				t = -1.0;
+			}
+			
+			return Math.exp(helper1(t) * x);
+		}
+		
+		/**
+		 * log(1 + x) / x, accurate near 0.
+		 */
+		private static double helper1(double x) {
+			if (Math.abs(x) > 1e-8) {
+				return Math.log1p(x) / x;
+			}
+			
+			return 1.0 - x * (0.5 - x * (1.0 / 3.0 - 0.25 * x));
+		}
+		
+		/**
+		 * (exp(x) - 1) / x, accurate near 0.
+		 */
+		private static double helper2(double x) {
+			if (Math.abs(x) > 1e-8) {
+				return Math.expm1(x) / x;
+			}
+			
+			return 1.0 + x * 0.5 * (1.0 + x * 1.0 / 3.0 * (1.0 + 0.25 * x));
+		}
+	}
+}
@@ -1,15 +1,22 @@
 package com.github.jrgen.settings;
 
+import java.io.File;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.Calendar;
 import java.util.Collection;
+import java.util.EnumSet;
 import java.util.LinkedHashSet;
+import java.util.Random;
 import java.util.Set;
 
+import com.github.jrgen.configuration.ConfigurationSnapshot;
 import com.github.jrgen.context.JrgenContext;
 import com.github.jrgen.generator.DefaultGenerator;
+import com.github.jrgen.sampler.Distribution;
+import com.github.jrgen.sampler.UniformDistribution;
 import com.github.jrgen.typebuilder.TypeBuilder;
+import com.github.jrgen.util.JrgenUtil;
 
 /***
  * <p>
@@ -37,7 +44,7 @@ import com.github.jrgen.typebuilder.TypeBuilder;
  * Default Values:
  * </p>
  * <ul>
- * <li>extension = JSON</li>
+ * <li>fileTypes = JSON</li>
  * <li>resources = /jrgen-resources</li>
  * <li>randomContainerSize = true</li>
  * <li>alphaUsed = true</li>
@@ -64,6 +71,19 @@ import com.github.jrgen.typebuilder.TypeBuilder;
  * <li>generateUndefined = true</li>      
  * <li>nullOnEmptySet = false</li>      
  * <li>isNotNull = false</li>                                
+ * <li>maxDepth = Integer.MAX_VALUE (no limit)</li>
+ * <li>maxNodes = Long.MAX_VALUE (no limit)</li>
+ * <li>maxRecursionDepth = Integer.MAX_VALUE (no limit)</li>
+ * <li>limitPolicy = NULL</li>
+ * <li>maxElements = Long.MAX_VALUE (unbounded)</li>
+ * <li>maxBytes = Long.MAX_VALUE (unbounded)</li>
+ * <li>distribution = uniform</li>
+ * <li>uniqueKey = &lt;a random key&gt;</li>
+ * <li>uniqueWorker = 0</li>
+ * <li>uniqueWorkers = 1</li>
+ * <li>loaderThreads = &lt;the number of available processors&gt;</li>
+ * <li>snapshot = null (no snapshot)</li>
+ * <li>lazyLoading = false</li>
  * </ul>
  * 
  * @author Allan J. Shoulders
@@ -77,7 +97,7 @@ public class Settings {
 	
 	private final Set<URI> resources;
 	private final Calendar cal;
-	private FileType extension;
+	private final Set<FileType> fileTypes;
 	
 	private boolean alphaUsed;
 	private boolean digitsUsed;
@@ -114,8 +134,42 @@ public class Settings {
 	private int maxContainerSize;
 	private int minContainerSize;
 	
+	private int maxDepth;
+	private long maxNodes;
+	private int maxRecursionDepth;
+	private LimitPolicy limitPolicy;
+	private long maxElements;
+	private long maxBytes;
+	private Distribution distribution;
+	private long uniqueKey;
+	private int uniqueWorker;
+	private int uniqueWorkers;
+	private int loaderThreads;
+	private File snapshot;
+	private boolean lazyLoading;
+	
+	/***
+	 * The formats of the resource files.
+	 */
 	public enum FileType {
-		JSON(".json");
+		/**
+		 * An array of configurations.
+		 */
+		JSON(".json"),
+		
+		/**
+		 * A UTF-8 text file with one value per line, holding the values of a
+		 * single property. The file name is the namespace followed by the
+		 * property name, such as <i>com.acme.Person.firstName.txt</i>.
+		 */
+		TEXT(".txt"),
+		
+		/**
+		 * A UTF-8 CSV file whose header names the properties, each column
+		 * holding the values of a property. The file name is the namespace,
+		 * such as <i>com.acme.Person.csv</i>.
+		 */
+		CSV(".csv");
 		
 		private String fileType;
 		
@@ -123,12 +177,45 @@ public class Settings {
 			this.fileType = fileType;
 		}
 		
+		/**
+		 * Returns the FileType of a file, given by its extension.
+		 * 
+		 * @param path the path of the file.
+		 * @return the FileType, or null if the extension is not supported.
+		 */
+		public static FileType forPath(String path) {
+			for (FileType type : values()) {
+				if (path != null && path.endsWith(type.fileType)) {
+					return type;
+				}
+			}
+			
+			return null;
+		}
+		
 		@Override
 		public String toString() {
 			return fileType;
 		}
 	}
 	
+	/***
+	 * The value generated in place of a Java-bean or container when the 
+	 * maxDepth, maxNodes or maxRecursionDepth limit is reached.
+	 */
+	public enum LimitPolicy {
+		/**
+		 * Java-beans, containers and Arrays are generated as null values.
+		 */
+		NULL,
+		
+		/**
+		 * Containers and Arrays are generated empty, Java-beans are 
+		 * generated as null values.
+		 */
+		EMPTY
+	}
+	
 	/***
 	 * This method is used to obtain an instance of the Settings object.
 	 * The instance returned contains the default values listed in the class
@@ -154,7 +241,7 @@ public class Settings {
 	 */
 	public static Settings getInstanceCE () throws URISyntaxException {
 		Settings settings = new Settings();
-		settings.extension = FileType.JSON;
+		settings.fileTypes.add(FileType.JSON);
 		settings.resources.add(new URI("/jrgen-resources"));
 		settings.randomContainerSize = true;
 
@@ -186,21 +273,50 @@ public class Settings {
 		settings.nullOnEmptySet = false;
 		settings.isNotNull = false;
 		
+		settings.maxDepth = Integer.MAX_VALUE;
+		settings.maxNodes = Long.MAX_VALUE;
+		settings.maxRecursionDepth = Integer.MAX_VALUE;
+		settings.limitPolicy = LimitPolicy.NULL;
+		settings.maxElements = Long.MAX_VALUE;
+		settings.maxBytes = Long.MAX_VALUE;
+		settings.distribution = UniformDistribution.INSTANCE;
+		settings.uniqueKey = new Random().nextLong();
+		settings.uniqueWorker = 0;
+		settings.uniqueWorkers = 1;
+		settings.loaderThreads = Runtime.getRuntime().availableProcessors();
+		
 		return settings;
 	}
 	
 	private Settings() {
 		this.resources = new LinkedHashSet<URI>();
+		this.fileTypes = EnumSet.noneOf(FileType.class);
 		this.cal = Calendar.getInstance();
 	}
 
 	/***
 	 * Getter method to return the {@link FileType} extension.
 	 * 
-	 * @return the {@link FileType} extension. 
+	 * @return {@link FileType#JSON}, whatever the resource files loaded. 
+	 * @deprecated the resource files loaded are selected by their 
+	 * {@link FileType}s, see {@link #getFileTypes()}.
 	 */
+	@Deprecated
 	public FileType getExtension() {
-		return extension;
+		return FileType.JSON;
+	}
+	
+	/***
+	 * Getter method to return the {@link FileType}s of the resource files 
+	 * that are loaded, the other files of the resource locations being
+	 * ignored. Text and CSV files are not loaded by default, so they may 
+	 * be kept next to the JSON files as referenced dictionaries; add their
+	 * {@link FileType}s to load them as configurations of their own.
+	 * 
+	 * @return the {@link FileType}s as a modifiable {@link Set}.
+	 */
+	public Set<FileType> getFileTypes() {
+		return fileTypes;
 	}
 	
 	/***
@@ -804,10 +920,329 @@ public class Settings {
 		this.minDoubleValue = minDoubleValue;
 	}
 
+	/**
+	 * Getter method returns the maximum number of Java-beans and containers
+	 * that can be nested within each other in a generated object graph.
+	 * 
+	 * @return the maximum nesting depth of a generated object graph.
+	 */
+	public int getMaxDepth() {
+		return maxDepth;
+	}
+
+	/**
+	 * Setter method sets the maximum number of Java-beans and containers
+	 * that can be nested within each other in a generated object graph.
+	 * 
+	 * @param maxDepth the maximum nesting depth of a generated object graph.
+	 * @throws IllegalArgumentException when the maxDepth parameter is less 
+	 * than zero.
+	 */
+	public void setMaxDepth(int maxDepth) {
+		JrgenUtil.validatePositiveNumber(maxDepth);
+		this.maxDepth = maxDepth;
+	}
+
+	/**
+	 * Getter method returns the maximum number of Java-beans and containers
+	 * a single call to generate can create.
+	 * 
+	 * @return the maximum number of Java-beans and containers per 
+	 * generation.
+	 */
+	public long getMaxNodes() {
+		return maxNodes;
+	}
+
+	/**
+	 * Setter method sets the maximum number of Java-beans and containers
+	 * a single call to generate can create.
+	 * 
+	 * @param maxNodes the maximum number of Java-beans and containers per 
+	 * generation.
+	 * @throws IllegalArgumentException when the maxNodes parameter is less 
+	 * than zero.
+	 */
+	public void setMaxNodes(long maxNodes) {
+		JrgenUtil.validatePositiveNumber(maxNodes);
+		this.maxNodes = maxNodes;
+	}
+
+	/**
+	 * Getter method returns the number of times a type can be nested within
+	 * itself, such as a TreeNode property of a TreeNode.
+	 * 
+	 * @return the number of times a type can be nested within itself.
+	 */
+	public int getMaxRecursionDepth() {
+		return maxRecursionDepth;
+	}
+
+	/**
+	 * Setter method sets the number of times a type can be nested within
+	 * itself, such as a TreeNode property of a TreeNode.
+	 * 
+	 * @param maxRecursionDepth the number of times a type can be nested 
+	 * within itself.
+	 * @throws IllegalArgumentException when the maxRecursionDepth parameter 
+	 * is less than zero.
+	 */
+	public void setMaxRecursionDepth(int maxRecursionDepth) {
+		JrgenUtil.validatePositiveNumber(maxRecursionDepth);
+		this.maxRecursionDepth = maxRecursionDepth;
+	}
+
+	/**
+	 * Getter method returns the {@link LimitPolicy} that determines what is
+	 * generated once the maxDepth, maxNodes or maxRecursionDepth limit is 
+	 * reached.
+	 * 
+	 * @return the current {@link LimitPolicy}.
+	 */
+	public LimitPolicy getLimitPolicy() {
+		return limitPolicy;
+	}
+
+	/**
+	 * Setter method sets the {@link LimitPolicy} that determines what is
+	 * generated once the maxDepth, maxNodes or maxRecursionDepth limit is 
+	 * reached.
+	 * 
+	 * @param limitPolicy the {@link LimitPolicy} to use.
+	 * @throws IllegalArgumentException when the limitPolicy parameter is 
+	 * null.
+	 */
+	public void setLimitPolicy(LimitPolicy limitPolicy) {
+		JrgenUtil.validateNonNullArgument(limitPolicy, "limitPolicy");
+		this.limitPolicy = limitPolicy;
+	}
+
+	/**
+	 * Getter method returns the total number of elements of all the 
+	 * containers and Arrays a single call to generate can create.
+	 * 
+	 * @return the maximum number of container elements per generation.
+	 */
+	public long getMaxElements() {
+		return maxElements;
+	}
+
+	/**
+	 * Setter method sets the total number of elements of all the containers
+	 * and Arrays a single call to generate can create. Once the budget runs 
+	 * down, containers are generated smaller than their configured size, 
+	 * down to empty containers.
+	 * 
+	 * @param maxElements the maximum number of container elements per 
+	 * generation.
+	 * @throws IllegalArgumentException when the maxElements parameter is 
+	 * less than zero.
+	 */
+	public void setMaxElements(long maxElements) {
+		JrgenUtil.validatePositiveNumber(maxElements);
+		this.maxElements = maxElements;
+	}
+
+	/**
+	 * Getter method returns the approximate number of bytes of the object 
+	 * graph a single call to generate can create.
+	 * 
+	 * @return the approximate maximum number of bytes per generation.
+	 */
+	public long getMaxBytes() {
+		return maxBytes;
+	}
+
+	/**
+	 * Setter method sets the approximate number of bytes of the object graph
+	 * a single call to generate can create. The size of each value is 
+	 * estimated from its type. Once the budget runs down, containers are 
+	 * generated smaller than their configured size, down to empty 
+	 * containers.
+	 * 
+	 * @param maxBytes the approximate maximum number of bytes per 
+	 * generation.
+	 * @throws IllegalArgumentException when the maxBytes parameter is less 
+	 * than zero.
+	 */
+	public void setMaxBytes(long maxBytes) {
+		JrgenUtil.validatePositiveNumber(maxBytes);
+		this.maxBytes = maxBytes;
+	}
+
+	/**
+	 * Getter method returns the {@link Distribution} of the values 
+	 * generated within the numeric ranges, such as the range between 
+	 * minIntValue and maxIntValue.
+	 * 
+	 * @return the {@link Distribution} of generated numbers.
+	 */
+	public Distribution getDistribution() {
+		return distribution;
+	}
+
+	/**
+	 * Setter method sets the {@link Distribution} of the values generated 
+	 * within the numeric ranges, such as the range between minIntValue and
+	 * maxIntValue. A {@link com.github.jrgen.sampler.ZipfDistribution}, for
+	 * example, generates the smallest values of each range the most often.
+	 * 
+	 * @param distribution the {@link Distribution} of generated numbers.
+	 * @throws IllegalArgumentException when the distribution parameter is 
+	 * null.
+	 */
+	public void setDistribution(Distribution distribution) {
+		JrgenUtil.validateNonNullArgument(distribution, "distribution");
+		this.distribution = distribution;
+	}
+
+	/**
+	 * Getter method returns the key determining the order in which the 
+	 * values of unique properties are generated.
+	 * 
+	 * @return the key of unique values.
+	 * @see com.github.jrgen.typehandler.UniquePropertyHandler
+	 */
+	public long getUniqueKey() {
+		return uniqueKey;
+	}
+
+	/**
+	 * Setter method sets the key determining the order in which the values
+	 * of unique properties are generated. Processes generating unique 
+	 * values in parallel must use the same key.
+	 * 
+	 * @param uniqueKey the key of unique values.
+	 * @see com.github.jrgen.typehandler.UniquePropertyHandler
+	 */
+	public void setUniqueKey(long uniqueKey) {
+		this.uniqueKey = uniqueKey;
+	}
+
+	/**
+	 * Getter method returns the number of this process among the processes
+	 * generating unique values in parallel.
+	 * 
+	 * @return the number of this worker, from 0 to uniqueWorkers - 1.
+	 */
+	public int getUniqueWorker() {
+		return uniqueWorker;
+	}
+
+	/**
+	 * Getter method returns the number of processes generating unique 
+	 * values in parallel.
+	 * 
+	 * @return the number of workers.
+	 */
+	public int getUniqueWorkers() {
+		return uniqueWorkers;
+	}
+
+	/**
+	 * Setter method sets the number of this process among the processes 
+	 * generating unique values in parallel. Each process is then only 
+	 * issued its share of the unique values.
+	 * 
+	 * @param uniqueWorker the number of this worker, from 0 to 
+	 * uniqueWorkers - 1.
+	 * @param uniqueWorkers the number of workers.
+	 * @throws IllegalArgumentException when uniqueWorkers is less than 1, 
+	 * or uniqueWorker is not between 0 and uniqueWorkers - 1.
+	 */
+	public void setUniqueWorker(int uniqueWorker, int uniqueWorkers) {
+		if (uniqueWorkers < 1 || uniqueWorker < 0 || 
+				uniqueWorker >= uniqueWorkers) {
+			throw new IllegalArgumentException("Illegal worker: " + 
+				uniqueWorker + " of " + uniqueWorkers);
+		}
+		
+		this.uniqueWorker = uniqueWorker;
+		this.uniqueWorkers = uniqueWorkers;
+	}
+
+	/**
+	 * Getter method returns the maximum number of threads parsing the 
+	 * resource files in parallel when a {@link JrgenContext} is 
+	 * initialized.
+	 * 
+	 * @return the maximum number of loader threads.
+	 */
+	public int getLoaderThreads() {
+		return loaderThreads;
+	}
+
+	/**
+	 * Setter method sets the maximum number of threads parsing the resource
+	 * files in parallel when a {@link JrgenContext} is initialized. A value
+	 * of 1 parses the files one after another on the calling thread.
+	 * 
+	 * @param loaderThreads the maximum number of loader threads.
+	 * @throws IllegalArgumentException when loaderThreads is less than 1.
+	 */
+	public void setLoaderThreads(int loaderThreads) {
+		if (loaderThreads < 1) {
+			throw new IllegalArgumentException(
+					"Illegal number of loader threads: " + loaderThreads);
+		}
+		
+		this.loaderThreads = loaderThreads;
+	}
+
+	/**
+	 * Getter method returns the file of the binary snapshot of the 
+	 * configurations, see {@link ConfigurationSnapshot}.
+	 * 
+	 * @return the snapshot file, or null if no snapshot is used.
+	 */
+	public File getSnapshot() {
+		return snapshot;
+	}
+
+	/**
+	 * Setter method sets the file of the binary snapshot of the 
+	 * configurations. When a {@link JrgenContext} is initialized, the 
+	 * configurations are loaded from the snapshot if it is up to date with
+	 * the resource files. Otherwise they are parsed from the resource files
+	 * and the snapshot is written again for the next JVM, as it is after 
+	 * every reload of the context.
+	 * 
+	 * @param snapshot the snapshot file, or null to always parse the 
+	 * resource files.
+	 */
+	public void setSnapshot(File snapshot) {
+		this.snapshot = snapshot;
+	}
+
+	/**
+	 * Getter method returns whether the configurations are loaded on 
+	 * demand rather than when the {@link JrgenContext} is initialized.
+	 * 
+	 * @return true if the configurations are loaded on demand.
+	 */
+	public boolean isLazyLoading() {
+		return lazyLoading;
+	}
+
+	/**
+	 * Setter method sets whether the configurations are loaded on demand.
+	 * When true, initializing a {@link JrgenContext} only indexes the 
+	 * resource files by namespace, and a resource file is parsed the first
+	 * time a type of one of its namespaces is generated. Errors in a 
+	 * resource file are then reported when it is parsed rather than when 
+	 * the context is initialized.
+	 * 
+	 * @param lazyLoading true to load the configurations on demand.
+	 */
+	public void setLazyLoading(boolean lazyLoading) {
+		this.lazyLoading = lazyLoading;
+	}
+
 	@Override
 	public String toString() {
 		return "Settings [resources=" + resources + ", cal=" + cal
-				+ ", extension=" + extension + ", alphaUsed=" + alphaUsed
+				+ ", fileTypes=" + fileTypes
+				+ ", alphaUsed=" + alphaUsed
 				+ ", digitsUsed=" + digitsUsed + ", specialsUsed="
 				+ specialsUsed + ", defaultStringLength=" + defaultStringLength
 				+ ", maxIntValue=" + maxIntValue + ", minIntValue="
@@ -824,7 +1259,14 @@ public class Settings {
 				+ ", isNotNull=" + isNotNull + ", defaultContainerSize="
 				+ defaultContainerSize + ", maxContainerSize="
 				+ maxContainerSize + ", minContainerSize=" + minContainerSize
-				+ "]";
+				+ ", maxDepth=" + maxDepth + ", maxNodes=" + maxNodes
+				+ ", maxRecursionDepth=" + maxRecursionDepth 
+				+ ", limitPolicy=" + limitPolicy + ", maxElements=" 
+				+ maxElements + ", maxBytes=" + maxBytes + ", distribution="
+				+ distribution + ", uniqueWorker=" + uniqueWorker 
+				+ ", uniqueWorkers=" + uniqueWorkers + ", loaderThreads=" 
+				+ loaderThreads + ", snapshot=" + snapshot + ", lazyLoading="
+				+ lazyLoading + "]";
 	}
 
 	
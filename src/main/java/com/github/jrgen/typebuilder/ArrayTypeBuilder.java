@@ -24,7 +24,7 @@ import com.github.jrgen.context.JrgenContext;
  * @see CollectionTypeBuilder
  *
  */
-public class ArrayTypeBuilder implements TypeBuilder<Object> {
+public class ArrayTypeBuilder implements StepwiseTypeBuilder<Object> {
 	
 	private JrgenContext jrgenContext;
 	
@@ -40,12 +40,17 @@ public class ArrayTypeBuilder implements TypeBuilder<Object> {
 
 	@Override
 	public Object build(JavaType javaType) {
+		return BuildTasks.run(begin(javaType), jrgenContext.getWorkflow());
+	}
+
+	@Override
+	public BuildTask<Object> begin(JavaType javaType) {
 		
 		if (!javaType.isArrayType()) {
 			return null;
 		}
 		
-		return new ListLikeTypeBuilder(jrgenContext).build(javaType);
+		return new ListLikeTypeBuilder(jrgenContext).begin(javaType);
 	}
 
 }
@@ -0,0 +1,752 @@
+package com.github.jrgen.typebuilder;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.apache.commons.collections.CollectionUtils;
+import org.apache.commons.collections.MapUtils;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.jrgen.configuration.Configuration;
+import com.github.jrgen.configuration.TupleTable;
+import com.github.jrgen.context.GenerationContext;
+import com.github.jrgen.descriptor.PropertyAccessor;
+import com.github.jrgen.dictionary.StringDictionary;
+import com.github.jrgen.generator.StringPattern;
+import com.github.jrgen.generator.TextSource;
+import com.github.jrgen.sampler.IndexSampler;
+import com.github.jrgen.sampler.UniformSampler;
+
+/**
+ * <p>
+ * A BeanPlan is the cached, per-type recipe the
+ * {@link ConfigurationBasedTypeBuilder} follows to build an instance of a
+ * Java-bean. It is created once per type and {@link Configuration}, and
+ * holds:
+ * </p>
+ * <ul>
+ * <li>the constructor used to instantiate the type.</li>
+ * <li>the properties defined by the {@link Configuration}, with their
+ * values already converted to the type of each property, and the
+ * {@link IndexSampler} picking among them, or the {@link StringDictionary}
+ * they are picked from, or the {@link TextSource}, such as a 
+ * {@link StringPattern}, generating them.</li>
+ * <li>the {@link TupleTable}s of the {@link Configuration}, whose properties
+ * are assigned a whole row at a time with a single draw.</li>
+ * <li>the properties not defined by the {@link Configuration}, known ahead
+ * of time so they never have to be computed per instance.</li>
+ * </ul>
+ *
+ * <p>
+ * A configured value that is a JSON object is converted to the Java-bean
+ * type of its property. The properties the object leaves undefined are
+ * reported as a {@link PartialValue}, so they can be generated like the
+ * undefined properties of the bean itself.
+ * </p>
+ *
+ * <p>
+ * Instances are populated through their setters. A type carrying Jackson 
+ * annotations, such as <code>@JsonProperty</code>, <code>@JsonIgnore</code>
+ * or <code>@JsonCreator</code>, or without a no-argument constructor, is 
+ * populated as a {@link Map} of its properties instead, which the 
+ * {@link ObjectMapper} converts to the type once it is complete, so the 
+ * annotations apply as they do to a whole-object conversion.
+ * </p>
+ *
+ * <p>
+ * Configuration values of immutable types (Strings, wrappers, Enums, etc.)
+ * are converted only once. Values of mutable types, such as {@link Map}s
+ * and {@link java.util.Collection}s, are converted every time they are
+ * picked so generated instances never share them.
+ * </p>
+ *
+ * @author Allan J. Shoulders
+ * @version 1.0
+ * @since 1.2.0
+ * @see ConfigurationBasedTypeBuilder
+ *
+ */
+final class BeanPlan {
+
+	private static final Set<Class<?>> IMMUTABLE_TYPES =
+			new HashSet<Class<?>>(Arrays.<Class<?>>asList(String.class,
+					Boolean.class, Character.class, Byte.class, Short.class,
+					Integer.class, Long.class, Float.class, Double.class,
+					BigInteger.class, BigDecimal.class));
+
+	private static final long OBJECT_HEADER_BYTES = 16;
+	private static final String JACKSON_PACKAGE = "com.fasterxml.jackson.";
+
+	private final JavaType javaType;
+	private final Configuration configuration;
+	private final ObjectMapper mapper;
+	private final Constructor<?> constructor;
+	private final boolean mapped;
+	private final List<ConfiguredProperty> configuredProperties;
+	private final List<TupleGroup> tupleGroups;
+	private final List<PropertyAccessor> undefinedProperties;
+	private final List<JavaType> undefinedTypes;
+	private final boolean partial;
+
+	/**
+	 * Constructs a new plan for the given type.
+	 *
+	 * @param javaType the type the plan builds.
+	 * @param configuration the {@link Configuration} of the type, may be null.
+	 * @param accessors the properties of the type.
+	 * @param mapper the {@link ObjectMapper} used to convert configuration
+	 * values to the type of each property.
+	 */
+	BeanPlan(JavaType javaType, Configuration configuration,
+			Map<String, PropertyAccessor> accessors, ObjectMapper mapper) {
+		this.javaType = javaType;
+		this.configuration = configuration;
+		this.mapper = mapper;
+		this.constructor = findConstructor(javaType.getRawClass());
+		this.mapped = constructor == null || 
+				hasJacksonAnnotations(javaType.getRawClass());
+
+		List<ConfiguredProperty> configured =
+				new ArrayList<ConfiguredProperty>();
+		List<PropertyAccessor> undefined = new ArrayList<PropertyAccessor>();
+		List<JavaType> undefinedJavaTypes = new ArrayList<JavaType>();
+		List<TupleGroup> groups = new ArrayList<TupleGroup>();
+		Set<String> tupleProperties = new HashSet<String>();
+		boolean mutable = false;
+		Map<String, List<Object>> data =
+				configuration == null ? null : configuration.getData();
+		
+		if (configuration != null) {
+			for (TupleTable table : configuration.getTupleTables()) {
+				TupleGroup group = new TupleGroup(table, accessors, mapper);
+				
+				if (group.hasProperties()) {
+					groups.add(group);
+					tupleProperties.addAll(table.getProperties());
+					mutable |= group.hasMutableValues();
+				}
+			}
+		}
+
+		for (PropertyAccessor accessor : accessors.values()) {
+			if (tupleProperties.contains(accessor.getName())) {
+				continue;
+			}
+			
+			List<Object> values =
+					MapUtils.isEmpty(data) ? null : data.get(accessor.getName());
+			StringDictionary dictionary = configuration == null ? null : 
+					configuration.getDictionary(accessor.getName());
+			TextSource textSource = configuration == null ? null : 
+					configuration.getTextSource(accessor.getName());
+			
+			if (!CollectionUtils.isEmpty(values)) {
+				ConfiguredProperty property = new ConfiguredProperty(accessor,
+						values, configuration.getSampler(accessor.getName()), 
+						mapper);
+				configured.add(property);
+				mutable |= !property.converted;
+			} else if (dictionary != null && dictionary.size() > 0) {
+				configured.add(new ConfiguredProperty(accessor, dictionary, 
+						configuration.getSampler(accessor.getName())));
+			} else if (textSource != null) {
+				configured.add(new ConfiguredProperty(accessor, textSource));
+			} else {
+				undefined.add(accessor);
+				undefinedJavaTypes.add(accessor.getJavaType());
+			}
+		}
+
+		this.configuredProperties = Collections.unmodifiableList(configured);
+		this.tupleGroups = Collections.unmodifiableList(groups);
+		this.undefinedProperties = Collections.unmodifiableList(undefined);
+		this.undefinedTypes = Collections.unmodifiableList(undefinedJavaTypes);
+		this.partial = mutable;
+	}
+
+	/**
+	 * Creates a new, unpopulated instance of the type, or the {@link Map} 
+	 * of its properties when the type is populated through the 
+	 * {@link ObjectMapper}, see {@link #finish(Object, ObjectMapper)}.
+	 *
+	 * @return the new instance.
+	 * @throws IllegalArgumentException if the type cannot be instantiated.
+	 */
+	Object newInstance() {
+		if (mapped) {
+			return new MappedBean(javaType);
+		}
+
+		try {
+			return constructor.newInstance();
+		} catch (InstantiationException e) {
+			throw new IllegalArgumentException(e);
+		} catch (IllegalAccessException e) {
+			throw new IllegalArgumentException(e);
+		} catch (InvocationTargetException e) {
+			throw new IllegalArgumentException(e);
+		}
+	}
+
+	/**
+	 * Assigns a randomly picked configuration value to every configured
+	 * property of the bean that is not ignored. The properties of a
+	 * {@link TupleTable} are assigned the values of a single row.
+	 *
+	 * @param bean the instance being populated.
+	 * @param ignoreProperties the properties to skip, may be null.
+	 * @param random the source of randomness.
+	 * @param mapper the {@link ObjectMapper} used to convert mutable values.
+	 * @param partialValues receives the assigned values converted from JSON
+	 * objects, may be null.
+	 * @return the number of properties that were assigned.
+	 */
+	int assignConfigured(Object bean, Set<String> ignoreProperties,
+			Random random, ObjectMapper mapper, 
+			List<PartialValue> partialValues) {
+		int assigned = 0;
+
+		for (ConfiguredProperty property : configuredProperties) {
+			PropertyAccessor accessor = property.getAccessor();
+
+			if (ignoreProperties == null ||
+					!ignoreProperties.contains(accessor.getName())) {
+				set(bean, accessor, property.pick(random, mapper, 
+						partialValues));
+				assigned++;
+			}
+		}
+		
+		for (TupleGroup group : tupleGroups) {
+			assigned += group.assign(bean, ignoreProperties, random, mapper,
+					partialValues);
+		}
+
+		return assigned;
+	}
+
+	/**
+	 * Returns the approximate number of bytes of an instance of the type,
+	 * not counting the Java-beans and containers it references.
+	 *
+	 * @param generationContext the {@link GenerationContext} estimating the
+	 * size of each property.
+	 * @return the approximate size of an instance in bytes.
+	 */
+	long estimateBytes(GenerationContext generationContext) {
+		long estimatedBytes = OBJECT_HEADER_BYTES;
+
+		for (ConfiguredProperty property : configuredProperties) {
+			estimatedBytes += generationContext.estimateBytes(
+					property.getAccessor().getJavaType());
+		}
+
+		for (PropertyAccessor accessor : undefinedProperties) {
+			estimatedBytes += generationContext.estimateBytes(
+					accessor.getJavaType());
+		}
+		
+		for (TupleGroup group : tupleGroups) {
+			estimatedBytes += group.estimateBytes(generationContext);
+		}
+
+		return estimatedBytes;
+	}
+
+	/**
+	 * Returns true if the type is populated as a {@link Map} of its 
+	 * properties converted by the {@link ObjectMapper} once complete, rather
+	 * than through its setters.
+	 *
+	 * @return true if the instances are converted by the mapper.
+	 */
+	boolean isMapped() {
+		return mapped;
+	}
+
+	/**
+	 * Assigns a value to a property of an instance being populated, either
+	 * through its setter or into the {@link Map} of its properties.
+	 *
+	 * @param bean the instance being populated.
+	 * @param accessor the property.
+	 * @param value the value.
+	 * @throws IllegalArgumentException if the value is not of the type of 
+	 * the setter.
+	 */
+	static void set(Object bean, PropertyAccessor accessor, Object value) {
+		if (bean instanceof MappedBean) {
+			((MappedBean) bean).put(accessor.getName(), value);
+		} else {
+			accessor.set(bean, value);
+		}
+	}
+
+	/**
+	 * Returns the populated instance: an instance populated through its 
+	 * setters as is, or the {@link Map} of the properties of a mapped type
+	 * converted to the type.
+	 *
+	 * @param bean the instance being populated.
+	 * @param mapper the {@link ObjectMapper}.
+	 * @return the instance.
+	 * @throws IllegalArgumentException if the properties cannot be 
+	 * converted to the type.
+	 */
+	static Object finish(Object bean, ObjectMapper mapper) {
+		if (bean instanceof MappedBean) {
+			return mapper.convertValue(bean, ((MappedBean) bean).javaType);
+		}
+		
+		return bean;
+	}
+
+	/**
+	 * Returns true if a configured value may be converted from a JSON 
+	 * object, and reported as a {@link PartialValue} when it is assigned.
+	 * Only the values of mutable types are converted as they are picked.
+	 *
+	 * @return true if the assigned values may be partial.
+	 */
+	boolean hasPartialValues() {
+		return partial;
+	}
+
+	/**
+	 * Returns true if the type has at least one configured property.
+	 *
+	 * @return true if the type has configured properties.
+	 */
+	boolean hasConfiguredProperties() {
+		return !configuredProperties.isEmpty() || !tupleGroups.isEmpty();
+	}
+
+	/**
+	 * Returns the properties that are not defined by the configuration.
+	 *
+	 * @return the properties not defined by the configuration.
+	 */
+	List<PropertyAccessor> getUndefinedProperties() {
+		return undefinedProperties;
+	}
+
+	/**
+	 * Returns the types of the properties that are not defined by the 
+	 * configuration.
+	 *
+	 * @return the types of the properties not defined by the configuration.
+	 */
+	List<JavaType> getUndefinedTypes() {
+		return undefinedTypes;
+	}
+
+	/**
+	 * Returns the configuration this plan was created from.
+	 *
+	 * @return the {@link Configuration}, may be null.
+	 */
+	Configuration getConfiguration() {
+		return configuration;
+	}
+
+	/**
+	 * Returns the {@link ObjectMapper} the configured values were converted
+	 * with. A new mapper is created whenever an abstract type is registered
+	 * or removed, so a plan of another mapper may hold outdated types.
+	 *
+	 * @return the {@link ObjectMapper}.
+	 */
+	ObjectMapper getMapper() {
+		return mapper;
+	}
+
+	/**
+	 * Helper method that finds the no-argument constructor of a concrete
+	 * class. A null value is returned when there is none, in which case
+	 * instantiation is left to the {@link ObjectMapper}.
+	 *
+	 * @param rawClass
+	 * @return
+	 */
+	private static Constructor<?> findConstructor(Class<?> rawClass) {
+		if (rawClass.isInterface() ||
+				Modifier.isAbstract(rawClass.getModifiers())) {
+			return null;
+		}
+
+		try {
+			Constructor<?> c = rawClass.getDeclaredConstructor();
+			c.setAccessible(true);
+			return c;
+		} catch (NoSuchMethodException e) {
+			return null;
+		} catch (SecurityException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Helper method that determines if a class, or a superclass, carries a
+	 * Jackson annotation on itself, its fields, methods or constructors.
+	 *
+	 * @param rawClass
+	 * @return
+	 */
+	private static boolean hasJacksonAnnotations(Class<?> rawClass) {
+		for (Class<?> c = rawClass; c != null && c != Object.class; 
+				c = c.getSuperclass()) {
+			if (isJackson(c.getDeclaredAnnotations()) || 
+					isJackson(c.getDeclaredFields()) || 
+					isJackson(c.getDeclaredMethods()) || 
+					isJackson(c.getDeclaredConstructors())) {
+				return true;
+			}
+			
+			for (Method method : c.getDeclaredMethods()) {
+				for (Annotation[] annotations : 
+						method.getParameterAnnotations()) {
+					if (isJackson(annotations)) {
+						return true;
+					}
+				}
+			}
+			
+			for (Constructor<?> constructor : c.getDeclaredConstructors()) {
+				for (Annotation[] annotations : 
+						constructor.getParameterAnnotations()) {
+					if (isJackson(annotations)) {
+						return true;
+					}
+				}
+			}
+		}
+		
+		return false;
+	}
+
+	/**
+	 * Helper method that determines if a member carries a Jackson 
+	 * annotation.
+	 *
+	 * @param members
+	 * @return
+	 */
+	private static boolean isJackson(AccessibleObject[] members) {
+		for (AccessibleObject member : members) {
+			if (isJackson(member.getDeclaredAnnotations())) {
+				return true;
+			}
+		}
+		
+		return false;
+	}
+
+	/**
+	 * Helper method that determines if an annotation is a Jackson one.
+	 *
+	 * @param annotations
+	 * @return
+	 */
+	private static boolean isJackson(Annotation[] annotations) {
+		for (Annotation annotation : annotations) {
+			if (annotation.annotationType().getName()
+					.startsWith(JACKSON_PACKAGE)) {
+				return true;
+			}
+		}
+		
+		return false;
+	}
+
+	/**
+	 * Helper method that determines if a converted value can be shared
+	 * between generated instances.
+	 *
+	 * @param value
+	 * @return
+	 */
+	private static boolean isImmutable(Object value) {
+		return value == null || value instanceof Enum<?> ||
+				IMMUTABLE_TYPES.contains(value.getClass());
+	}
+
+	/**
+	 * Helper method that reports a picked value converted from a JSON object
+	 * to a Java-bean.
+	 *
+	 * @param partialValues
+	 * @param rawValue
+	 * @param value
+	 */
+	@SuppressWarnings("unchecked")
+	private static void addPartialValue(List<PartialValue> partialValues,
+			Object rawValue, Object value) {
+		if (partialValues != null && rawValue instanceof Map && 
+				value != null && !(value instanceof Map)) {
+			partialValues.add(new PartialValue(value, 
+					((Map<String, Object>) rawValue).keySet()));
+		}
+	}
+
+	/**
+	 * The properties of an instance of a mapped type, by name, until they 
+	 * are converted to the type.
+	 */
+	private static final class MappedBean extends LinkedHashMap<String, Object> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final transient JavaType javaType;
+
+		private MappedBean(JavaType javaType) {
+			this.javaType = javaType;
+		}
+	}
+
+	/**
+	 * A configured value converted from a JSON object to a Java-bean, 
+	 * together with the properties the object defines.
+	 */
+	static final class PartialValue {
+
+		private final Object value;
+		private final Set<String> definedProperties;
+
+		private PartialValue(Object value, Set<String> definedProperties) {
+			this.value = value;
+			this.definedProperties = definedProperties;
+		}
+
+		/**
+		 * Returns the Java-bean the JSON object was converted to.
+		 *
+		 * @return the Java-bean.
+		 */
+		Object getValue() {
+			return value;
+		}
+
+		/**
+		 * Determines if the JSON object defines a property.
+		 *
+		 * @param property the name of the property.
+		 * @return true if the JSON object defines the property.
+		 */
+		boolean isDefined(String property) {
+			return definedProperties.contains(property);
+		}
+	}
+
+	/**
+	 * A property defined by the configuration, together with its values, its
+	 * {@link StringDictionary} or its {@link TextSource}.
+	 */
+	private static final class ConfiguredProperty {
+
+		private final PropertyAccessor accessor;
+		private final Object[] values;
+		private final StringDictionary dictionary;
+		private final IndexSampler sampler;
+		private final boolean converted;
+		private final TextSource textSource;
+
+		private ConfiguredProperty(PropertyAccessor accessor, 
+				TextSource textSource) {
+			this.accessor = accessor;
+			this.values = null;
+			this.dictionary = null;
+			this.sampler = null;
+			this.converted = isString(accessor);
+			this.textSource = textSource;
+		}
+
+		private ConfiguredProperty(PropertyAccessor accessor, 
+				StringDictionary dictionary, IndexSampler sampler) {
+			this.accessor = accessor;
+			this.values = null;
+			this.dictionary = dictionary;
+			this.sampler = sampler == null ? 
+					new UniformSampler(dictionary.size()) : sampler;
+			this.converted = isString(accessor);
+			this.textSource = null;
+		}
+
+		private ConfiguredProperty(PropertyAccessor accessor,
+				List<Object> rawValues, IndexSampler sampler, 
+				ObjectMapper mapper) {
+			this.accessor = accessor;
+			this.sampler = sampler == null ? 
+					new UniformSampler(rawValues.size()) : sampler;
+
+			Object[] convertedValues = new Object[rawValues.size()];
+			boolean allImmutable = true;
+
+			for (int i = 0; i < convertedValues.length && allImmutable; i++) {
+				convertedValues[i] = mapper.convertValue(rawValues.get(i),
+						accessor.getJavaType());
+				allImmutable = isImmutable(convertedValues[i]);
+			}
+
+			this.converted = allImmutable;
+			this.values = allImmutable ? convertedValues : rawValues.toArray();
+			this.dictionary = null;
+			this.textSource = null;
+		}
+
+		private Object pick(Random random, ObjectMapper mapper, 
+				List<PartialValue> partialValues) {
+			Object value;
+			
+			if (textSource != null) {
+				value = textSource.generate(random);
+			} else if (dictionary != null) {
+				value = dictionary.get(sampler.nextIndex(random));
+			} else {
+				value = values[sampler.nextIndex(random)];
+			}
+
+			if (converted) {
+				return value;
+			}
+			
+			Object convertedValue = 
+					mapper.convertValue(value, accessor.getJavaType());
+			addPartialValue(partialValues, value, convertedValue);
+			
+			return convertedValue;
+		}
+
+		private PropertyAccessor getAccessor() {
+			return accessor;
+		}
+		
+		private static boolean isString(PropertyAccessor accessor) {
+			return accessor.getJavaType().getRawClass()
+					.isAssignableFrom(String.class);
+		}
+	}
+
+	/**
+	 * The properties of a bean defined by a {@link TupleTable}, with the
+	 * distinct values of each column converted to the type of its property.
+	 */
+	private static final class TupleGroup {
+
+		private final TupleTable table;
+		private final PropertyAccessor[] accessors;
+		private final Object[][] values;
+		private final boolean[] converted;
+
+		private TupleGroup(TupleTable table,
+				Map<String, PropertyAccessor> accessors, ObjectMapper mapper) {
+			List<String> properties = table.getProperties();
+			
+			this.table = table;
+			this.accessors = new PropertyAccessor[properties.size()];
+			this.values = new Object[properties.size()][];
+			this.converted = new boolean[properties.size()];
+
+			for (int c = 0; c < properties.size(); c++) {
+				PropertyAccessor accessor = accessors.get(properties.get(c));
+
+				if (accessor == null) {
+					continue;
+				}
+
+				Object[] rawValues = table.getValues(c);
+				Object[] convertedValues = new Object[rawValues.length];
+				boolean allImmutable = true;
+
+				for (int i = 0; i < rawValues.length && allImmutable; i++) {
+					convertedValues[i] = mapper.convertValue(rawValues[i],
+							accessor.getJavaType());
+					allImmutable = isImmutable(convertedValues[i]);
+				}
+
+				this.accessors[c] = accessor;
+				this.converted[c] = allImmutable;
+				this.values[c] = allImmutable ? convertedValues : rawValues;
+			}
+		}
+
+		private boolean hasProperties() {
+			for (PropertyAccessor accessor : accessors) {
+				if (accessor != null) {
+					return true;
+				}
+			}
+
+			return false;
+		}
+
+		private int assign(Object bean, Set<String> ignoreProperties,
+				Random random, ObjectMapper mapper, 
+				List<PartialValue> partialValues) {
+			int row = random.nextInt(table.size());
+			int assigned = 0;
+
+			for (int c = 0; c < accessors.length; c++) {
+				PropertyAccessor accessor = accessors[c];
+
+				if (accessor == null || (ignoreProperties != null &&
+						ignoreProperties.contains(accessor.getName()))) {
+					continue;
+				}
+
+				Object value = values[c][table.valueIndex(c, row)];
+				
+				if (converted[c]) {
+					set(bean, accessor, value);
+				} else {
+					Object convertedValue = 
+							mapper.convertValue(value, accessor.getJavaType());
+					addPartialValue(partialValues, value, convertedValue);
+					set(bean, accessor, convertedValue);
+				}
+				
+				assigned++;
+			}
+
+			return assigned;
+		}
+
+		private boolean hasMutableValues() {
+			for (int c = 0; c < accessors.length; c++) {
+				if (accessors[c] != null && !converted[c]) {
+					return true;
+				}
+			}
+
+			return false;
+		}
+
+		private long estimateBytes(GenerationContext generationContext) {
+			long estimatedBytes = 0;
+
+			for (PropertyAccessor accessor : accessors) {
+				if (accessor != null) {
+					estimatedBytes += generationContext.estimateBytes(
+							accessor.getJavaType());
+				}
+			}
+
+			return estimatedBytes;
+		}
+	}
+}
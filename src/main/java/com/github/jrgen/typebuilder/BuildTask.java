@@ -0,0 +1,79 @@
+package com.github.jrgen.typebuilder;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.github.jrgen.workflow.Workflow;
+
+/**
+ * <p>
+ * A BuildTask is an instance of a type being built one step at a time by a 
+ * {@link StepwiseTypeBuilder}. Rather than calling the {@link Workflow} 
+ * itself for every value it depends on, such as the elements of a 
+ * {@link java.util.Collection} or the properties of a Java-bean, the task 
+ * hands out the type of each value it needs, and is given the value once it 
+ * has been resolved.
+ * </p>
+ * 
+ * <p>
+ * A BuildTask is driven as follows:
+ * </p>
+ * <pre>
+ * while (task.hasNext()) {
+ *     task.accept(workflow.workflow(task.next()));
+ * }
+ * 
+ * return task.complete();
+ * </pre>
+ * 
+ * <p>
+ * Because the caller decides how each value is resolved, a {@link Workflow} 
+ * may keep the tasks of a whole object graph on an explicit stack instead of 
+ * the thread's call stack.
+ * </p>
+ * 
+ * @author Allan J. Shoulders
+ * @param <T> the parameterized type the task completes with.
+ * @version 1.0
+ * @since 1.2.0
+ * @see StepwiseTypeBuilder
+ *
+ */
+public interface BuildTask<T> {
+
+	/**
+	 * Returns true if the task depends on another value before it can be
+	 * completed.
+	 * 
+	 * @return true if another value is needed, false if the task can be
+	 * completed.
+	 */
+	public boolean hasNext();
+	
+	/**
+	 * Returns the type of the next value the task depends on. This method 
+	 * must only be called after hasNext returned true, and must be followed
+	 * by a call to accept.
+	 * 
+	 * @return the {@link JavaType} of the value needed.
+	 */
+	public JavaType next();
+	
+	/**
+	 * Hands the resolved value of the type returned by next to the task.
+	 * 
+	 * @param value the resolved value, may be null.
+	 */
+	public void accept(Object value);
+	
+	/**
+	 * Completes the task, once hasNext returned false.
+	 * 
+	 * @return the built instance. A null value indicates that the next 
+	 * {@link TypeBuilder} of the {@link Workflow} should be tried.
+	 */
+	public T complete();
+	
+	/**
+	 * Abandons the task when building fails, releasing anything it holds.
+	 */
+	public void abort();
+}
@@ -0,0 +1,93 @@
+package com.github.jrgen.typebuilder;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.github.jrgen.workflow.Workflow;
+
+/**
+ * <p>
+ * BuildTasks is a utility class providing the recursive driver of a 
+ * {@link BuildTask}, used by the build method of each 
+ * {@link StepwiseTypeBuilder}, and a task that is completed from the start.
+ * </p>
+ * 
+ * @author Allan J. Shoulders
+ * @version 1.0
+ * @since 1.2.0
+ * @see BuildTask
+ *
+ */
+final class BuildTasks {
+
+	/**
+	 * Private constructor to prevent instantiation of a utility class.
+	 */
+	private BuildTasks() {
+		super();
+	}
+	
+	/**
+	 * Runs the task to completion, resolving every value it depends on 
+	 * through the given {@link Workflow}.
+	 * 
+	 * @param <T> the parameterized type.
+	 * @param task the task to run, may be null.
+	 * @param workflow the {@link Workflow} resolving the values.
+	 * @return the built instance, or null if the task is null.
+	 */
+	static <T> T run(BuildTask<T> task, Workflow workflow) {
+		if (task == null) {
+			return null;
+		}
+		
+		try {
+			while (task.hasNext()) {
+				task.accept(workflow.workflow(task.next()));
+			}
+		} catch (RuntimeException e) {
+			task.abort();
+			throw e;
+		} catch (Error e) {
+			task.abort();
+			throw e;
+		}
+		
+		return task.complete();
+	}
+	
+	/**
+	 * Returns a task that depends on no value and completes with the given
+	 * value.
+	 * 
+	 * @param <T> the parameterized type.
+	 * @param value the value the task completes with.
+	 * @return the completed task.
+	 */
+	static <T> BuildTask<T> completed(final T value) {
+		return new BuildTask<T>() {
+
+			@Override
+			public boolean hasNext() {
+				return false;
+			}
+
+			@Override
+			public JavaType next() {
+				throw new IllegalStateException();
+			}
+
+			@Override
+			public void accept(Object value) {
+				throw new IllegalStateException();
+			}
+
+			@Override
+			public T complete() {
+				return value;
+			}
+
+			@Override
+			public void abort() {
+			}
+		};
+	}
+}
@@ -28,7 +28,8 @@ import com.github.jrgen.context.JrgenContext;
  * @see ArrayTypeBuilder
  *
  */
-public class CollectionTypeBuilder implements TypeBuilder<Collection<?>> {
+public class CollectionTypeBuilder 
+		implements StepwiseTypeBuilder<Collection<?>> {
 
 	private JrgenContext jrgenContext;
 
@@ -44,22 +45,72 @@ public class CollectionTypeBuilder implements TypeBuilder<Collection<?>> {
 	
 	@Override
 	public Collection<?> build(JavaType javaType) {
+		return BuildTasks.run(begin(javaType), jrgenContext.getWorkflow());
+	}
+	
+	@Override
+	public BuildTask<Collection<?>> begin(JavaType javaType) {
 		
 		if (!javaType.isCollectionLikeType()) {
 			return null;
 		}
 		
-		Object objs = new ListLikeTypeBuilder(jrgenContext).build(javaType);
+		return new CollectionTask(javaType, 
+				new ListLikeTypeBuilder(jrgenContext).begin(javaType));
+	}
+	
+	/**
+	 * The task filling an Array of elements, which is then copied to a 
+	 * {@link Collection} of the requested type.
+	 */
+	private final class CollectionTask implements BuildTask<Collection<?>> {
 		
-		Collection<Object> objsColl = jrgenContext.getAbstractTypeHandler()
-				.getObjectMapper()
-				.convertValue(Collections.EMPTY_LIST, javaType);
+		private final JavaType javaType;
+		private final BuildTask<Object> arrayTask;
 		
-		for (int i = 0; i < Array.getLength(objs); i++) {
-			objsColl.add(Array.get(objs, i));
+		private CollectionTask(JavaType javaType, BuildTask<Object> arrayTask) {
+			this.javaType = javaType;
+			this.arrayTask = arrayTask;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return arrayTask.hasNext();
+		}
+
+		@Override
+		public JavaType next() {
+			return arrayTask.next();
+		}
+
+		@Override
+		public void accept(Object value) {
+			arrayTask.accept(value);
+		}
+
+		@Override
+		public Collection<?> complete() {
+			Object objs = arrayTask.complete();
+			
+			if (objs == null) {
+				return null;
+			}
+			
+			Collection<Object> objsColl = jrgenContext.getAbstractTypeHandler()
+					.getObjectMapper()
+					.convertValue(Collections.EMPTY_LIST, javaType);
+			
+			for (int i = 0; i < Array.getLength(objs); i++) {
+				objsColl.add(Array.get(objs, i));
+			}
+			
+			return objsColl;
+		}
+
+		@Override
+		public void abort() {
+			arrayTask.abort();
 		}
-		
- 		return objsColl;
 	}
 
 }
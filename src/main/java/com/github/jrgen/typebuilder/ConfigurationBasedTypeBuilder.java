@@ -1,21 +1,33 @@
 package com.github.jrgen.typebuilder;
 
+import java.lang.reflect.Array;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
-import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.collections.MapUtils;
 
 import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.jrgen.configuration.Configuration;
+import com.github.jrgen.context.GenerationContext;
 import com.github.jrgen.context.JrgenContext;
 import com.github.jrgen.descriptor.Descriptor;
+import com.github.jrgen.descriptor.PropertyAccessor;
+import com.github.jrgen.typebuilder.BeanPlan.PartialValue;
 import com.github.jrgen.typehandler.AbstractTypeHandler;
+import com.github.jrgen.typehandler.SequencePropertyHandler;
+import com.github.jrgen.typehandler.UniquePropertyHandler;
+import com.github.jrgen.workflow.Workflow;
 import com.github.jrgen.workflow.DefaultWorkflow;
 
 /**
@@ -36,6 +48,10 @@ import com.github.jrgen.workflow.DefaultWorkflow;
  * encapsulated type are populated with a random value from the data field of 
  * the {@link Configuration} object.
  * </li>
+ * <li>Fields that were not defined in the {@link Configuration} object in 
+ * step 1 and are registered with the {@link SequencePropertyHandler} or the
+ * {@link UniquePropertyHandler} are given their next value.
+ * </li>
  * <li>If there are fields that were not defined in the {@link Configuration} 
  * object in step 1, then find {@link Configuration} objects matching the 
  * types for the missing fields. If {@link Configuration} objects are found 
@@ -43,21 +59,36 @@ import com.github.jrgen.workflow.DefaultWorkflow;
  * for the matching {@link Configuration} object.
  * </li>
  * <li>If turned on by the developer, generate any missing fields that could
- * not be resolve in steps 1 and 2.
+ * not be resolve in steps 1 to 3, including the fields left undefined by 
+ * configured values that are JSON objects.
  * </li>
  * </ol>
  * 
+ * <p>
+ * Instances are populated directly through their setters, except for the
+ * types carrying Jackson annotations or lacking a no-argument constructor,
+ * whose properties are collected and converted by the {@link ObjectMapper}
+ * as a whole, see {@link BeanPlan}. The properties
+ * of each type, the configured values converted to the type of each 
+ * property, and the properties missing from the {@link Configuration} are
+ * computed once per type and cached in a {@link BeanPlan}. Each instance
+ * is built by a {@link BuildTask} that hands out the types of the 
+ * properties resolved through the workflow one at a time.
+ * </p>
+ * 
  * @author Allan J. Shoulders
  * @version 1.0
  * @since 1.0.0
  * @see TypeBuilder
  *
  */
-public class ConfigurationBasedTypeBuilder implements TypeBuilder<Object> {
+public class ConfigurationBasedTypeBuilder 
+		implements StepwiseTypeBuilder<Object> {
 	
 	private JrgenContext jrgenContext;
 	private Random random;	
 	private Descriptor descriptor;
+	private final ConcurrentMap<JavaType, BeanPlan> planCache;
 	
 	/**
 	 * Constructs a new instance of the ConfigurationBasedTypeBuilder class 
@@ -69,167 +100,1057 @@ public class ConfigurationBasedTypeBuilder implements TypeBuilder<Object> {
 		this.jrgenContext = jrgenContext;
 		random = new Random();
 		descriptor = new Descriptor();
+		planCache = new ConcurrentHashMap<JavaType, BeanPlan>();
 	}
 
 	@Override
 	public Object build(JavaType javaType) {
+		return BuildTasks.run(begin(javaType), jrgenContext.getWorkflow());
+	}
+	
+	@Override
+	public BuildTask<Object> begin(JavaType javaType) {
 		AbstractTypeHandler abstractTypeHandler = 
 				jrgenContext.getAbstractTypeHandler();
 		
 		javaType = abstractTypeHandler
 				.findAbstractTypeDefaultJavaType(javaType);	
 		
+		//Find the plan of the javaType. The plan contains all the properties
+		//for the type we are trying to resolve.
+		BeanPlan plan = getPlan(javaType);
+		
+		if (plan == null) {
+			return null;
+		}
+		
+		//Self-referential types are cut off once a limit is reached.
+		GenerationContext generationContext = 
+				jrgenContext.getGenerationContext();
+		
+		if (!generationContext.enter(javaType)) {
+			return null;
+		}
+		
+		generationContext.charge(plan.estimateBytes(generationContext));
+		generationContext.shareElements(plan.getUndefinedTypes());
+		
 		Set<String> ignoreProperties = jrgenContext
 				.getTransientPropertyHandler()
 				.getProperties(javaType);
 		
-		Map<String, Object> propertiesMap = new HashMap<String, Object>();
+		ObjectMapper mapper = abstractTypeHandler.getObjectMapper();
 		
-		//Find configuration object...Resolve on the object type level first.
-		resolveByObjectConfig(javaType, propertiesMap, ignoreProperties);
+		try {
+			Object bean = plan.newInstance();
+			List<PartialValue> partialValues = newPartialValues(plan);
+			
+			//Resolve on the object type level first.
+			int assigned = plan.assignConfigured(bean, ignoreProperties, 
+					random, mapper, partialValues);
+			
+			return new BeanTask(javaType, plan, bean, ignoreProperties, 
+					mapper, assigned, partialValues);
+		} catch (RuntimeException e) {
+			generationContext.exit(javaType);
+			throw e;
+		}
+	}
+	
+	/**
+	 * <p>
+	 * Writes new values into an existing instance rather than building a new
+	 * one, using the same {@link BeanPlan} as the build method. Properties 
+	 * are repopulated in place where possible:
+	 * </p>
+	 * <ul>
+	 * <li>Nested Java-beans are repopulated in turn.</li>
+	 * <li>Mutable {@link List}s keep their element instances up to their new
+	 * size, other mutable {@link Collection}s and {@link Map}s are cleared 
+	 * and refilled.</li>
+	 * <li>Arrays keep their length and are refilled in place.</li>
+	 * <li>Every other property, or a property whose value is null or 
+	 * immutable, is assigned a new value built by the {@link Workflow}.</li>
+	 * </ul>
+	 * 
+	 * <p>
+	 * The nested instances being repopulated are kept on an explicit stack
+	 * of {@link BuildTask}s rather than the thread's call stack, so together
+	 * with an {@link com.github.jrgen.workflow.IterativeWorkflow} the depth 
+	 * of the repopulated graph is not bounded by the size of the thread's 
+	 * stack.
+	 * </p>
+	 * 
+	 * @param bean the instance to repopulate.
+	 * @return true if the instance was repopulated, false if its type has no
+	 * properties that can be described or a limit of the 
+	 * {@link GenerationContext} was reached.
+	 */
+	public boolean populate(Object bean) {
+		RefillTask task = beginBean(bean);
 		
-		//Find the description of the javaType. The description contains all
-		//the properties for the type we are trying to resolve.
-		Map<String, JavaType> description = descriptor.describe(javaType);
+		if (task == null) {
+			return false;
+		}
+		
+		Workflow workflow = jrgenContext.getWorkflow();
+		Deque<RefillTask> stack = new ArrayDeque<RefillTask>();
+		stack.push(task);
 		
-		if (MapUtils.isEmpty(description)) {
+		try {
+			while (!stack.isEmpty()) {
+				RefillTask top = stack.peek();
+				
+				if (top.hasNext()) {
+					JavaType javaType = top.next();
+					RefillTask nested = begin(top.existing(), javaType);
+					
+					if (nested != null) {
+						stack.push(nested);
+					} else {
+						top.accept(workflow.workflow(javaType));
+					}
+					
+					continue;
+				}
+				
+				stack.pop();
+				boolean refilled = top.complete() != null;
+				
+				if (!stack.isEmpty()) {
+					RefillTask parent = stack.peek();
+					
+					//A value that could not be repopulated in place is 
+					//replaced.
+					if (refilled) {
+						parent.keep();
+					} else {
+						parent.accept(workflow.workflow(parent.next()));
+					}
+				}
+			}
+		} catch (RuntimeException e) {
+			abort(stack);
+			throw e;
+		} catch (Error e) {
+			abort(stack);
+			throw e;
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * Returns the cached {@link BeanPlan} of the given type, creating it if
+	 * it does not exist yet, or if the {@link Configuration} of the type or
+	 * the {@link ObjectMapper} of the {@link AbstractTypeHandler}, which is
+	 * replaced whenever an abstract type is registered or removed, has 
+	 * changed since it was created.
+	 * 
+	 * @param javaType the type the plan builds.
+	 * @return the {@link BeanPlan}, or null if the type has no properties
+	 * that can be described.
+	 */
+	BeanPlan getPlan (JavaType javaType) {
+		Configuration config = jrgenContext.getConfiguration(javaType);
+		ObjectMapper mapper = 
+				jrgenContext.getAbstractTypeHandler().getObjectMapper();
+		BeanPlan plan = planCache.get(javaType);
+		
+		if (plan != null && plan.getConfiguration() == config && 
+				plan.getMapper() == mapper) {
+			return plan;
+		}
+		
+		Map<String, PropertyAccessor> accessors = 
+				descriptor.describeAccessors(javaType);
+		
+		if (MapUtils.isEmpty(accessors)) {
 			return null;
 		}
-
-		//If top-level configuration has undefined fields, use field level
-		//configuration.
-		resolveByFieldConfig(description, propertiesMap);
 		
-		//If there are fields that cannot be resolved through configuration
-		//files (or lack thereof) try pass the field type to the workflow.
-		resolveByWorkflow(description, propertiesMap, ignoreProperties);
+		plan = new BeanPlan(javaType, config, accessors, mapper);
+		planCache.put(javaType, plan);
 		
-		//If fields are undefined in configurations, generate the values
-		//if this setting is turned on.
-		generateDefaultsForUndefined(description, propertiesMap);		
+		return plan;
+	}
+	
+	/**
+	 * Helper method that returns the list receiving the configured values 
+	 * of the plan converted from JSON objects, or null if the plan has no 
+	 * such values or their undefined properties are not generated.
+	 * 
+	 * @param plan
+	 * @return
+	 */
+	private List<PartialValue> newPartialValues (BeanPlan plan) {
+		return plan.hasPartialValues() && 
+				jrgenContext.getSettings().isGenerateUndefined() ? 
+						new ArrayList<PartialValue>() : null;
+	}
+	
+	/**
+	 * Helper method that returns the properties of a configured value 
+	 * converted from a JSON object. The properties the object defines are
+	 * skipped by {@link #nextProperty}.
+	 * 
+	 * @param partialValue
+	 * @return
+	 */
+	private Iterator<PropertyAccessor> getProperties (
+			PartialValue partialValue) {
+		Map<String, PropertyAccessor> accessors = descriptor
+				.describeAccessors(partialValue.getValue().getClass());
 		
-		return MapUtils.isEmpty(propertiesMap) ? null : abstractTypeHandler
-				.getObjectMapper().convertValue(propertiesMap, javaType);
+		return accessors == null ? 
+				Collections.<PropertyAccessor>emptyList().iterator() : 
+				accessors.values().iterator();
 	}
 	
-	private void resolveByObjectConfig (JavaType javaType, 
-			Map<String, Object> propertiesMap,
-			Set<String> ignoreProperties) {
+	/**
+	 * Helper method that returns the next property of a nested instance to
+	 * resolve through the workflow, skipping the ignored properties and the
+	 * properties defined by the partial value, and assigning the managed 
+	 * ones on the way.
+	 * 
+	 * @param properties
+	 * @param partialValue
+	 * @param bean
+	 * @param beanType
+	 * @param ignoreProperties
+	 * @param mapper
+	 * @return the next property, or null if there is none left.
+	 */
+	private PropertyAccessor nextProperty (
+			Iterator<PropertyAccessor> properties, PartialValue partialValue, 
+			Object bean, JavaType beanType, Set<String> ignoreProperties, 
+			ObjectMapper mapper) {
+		while (properties.hasNext()) {
+			PropertyAccessor property = properties.next();
+			
+			if (isPropertyIgnored(property.getName(), ignoreProperties) || 
+					(partialValue != null && 
+						partialValue.isDefined(property.getName()))) {
+				continue;
+			}
+			
+			Object managed = managedValue(beanType, property);
+			
+			if (managed == null) {
+				return property;
+			}
+			
+			assign(bean, property, managed, mapper);
+		}
 		
-		Configuration config = jrgenContext.getTypeMap().get(javaType);
+		return null;
+	}
+	
+	/**
+	 * Helper method that assigns a value to a property. If the value is not
+	 * of the property's type, it is converted first.
+	 * 
+	 * @param bean
+	 * @param property
+	 * @param value
+	 * @param mapper
+	 */
+	private void assign (Object bean, PropertyAccessor property, Object value,
+			ObjectMapper mapper) {
+		try {
+			BeanPlan.set(bean, property, value);
+		} catch (IllegalArgumentException e) {
+			BeanPlan.set(bean, property, 
+					mapper.convertValue(value, property.getJavaType()));
+		}
+	}
+	
+	/**
+	 * Helper method that starts writing new values into the existing value 
+	 * of a property. Returns null if the value must be replaced instead.
+	 * 
+	 * @param value
+	 * @param javaType
+	 * @return
+	 */
+	@SuppressWarnings("unchecked")
+	private RefillTask begin (Object value, JavaType javaType) {
+		if (value == null) {
+			return null;
+		}
+		
+		try {
+			if (!javaType.isContainerType() && 
+					(value.getClass().isArray() || 
+						value instanceof Collection || value instanceof Map)) {
+				//The content type of the container is unknown.
+				return null;
+			} else if (value.getClass().isArray()) {
+				return new ArrayRefill(value, javaType.getContentType());
+			} else if (value instanceof List) {
+				return new ListRefill((List<Object>) value, javaType);
+			} else if (value instanceof Collection) {
+				return new CollectionRefill((Collection<Object>) value, 
+						javaType);
+			} else if (value instanceof Map) {
+				return new MapRefill((Map<Object, Object>) value, javaType);
+			} else if (value.getClass().getName().startsWith("java.")) {
+				//Values of the JDK types that are not containers are 
+				//replaced, their setters are not bean properties.
+				return null;
+			}
+		} catch (UnsupportedOperationException e) {
+			//The container is immutable, it is replaced instead.
+			return null;
+		}
+		
+		return beginBean(value);
+	}
+	
+	/**
+	 * Helper method that starts writing new values into an existing 
+	 * Java-bean. Returns null if its type has no properties that can be 
+	 * described or a limit of the {@link GenerationContext} was reached.
+	 * 
+	 * @param bean
+	 * @return
+	 */
+	private RefillTask beginBean (Object bean) {
+		ObjectMapper mapper = 
+				jrgenContext.getAbstractTypeHandler().getObjectMapper();
+		JavaType javaType = mapper.constructType(bean.getClass());
+		BeanPlan plan = getPlan(javaType);
+		GenerationContext generationContext = 
+				jrgenContext.getGenerationContext();
+		
+		if (plan == null || !generationContext.enter(javaType)) {
+			return null;
+		}
 		
-		if (config == null || MapUtils.isEmpty(config.getData())) {
-			return;
-		} 				
+		generationContext.shareElements(plan.getUndefinedTypes());
 		
-		for (Entry<String, List<Object>> configDataEntry : 
-			config.getData().entrySet()) {
+		try {
+			Set<String> ignoreProperties = jrgenContext
+					.getTransientPropertyHandler()
+					.getProperties(javaType);
+			List<PartialValue> partialValues = newPartialValues(plan);
 			
-			String fieldName = configDataEntry.getKey();
+			plan.assignConfigured(bean, ignoreProperties, random, mapper, 
+					partialValues);
 			
-			if (!isPropertyIgnored(fieldName, ignoreProperties)) {
-				List<Object> fieldData = configDataEntry.getValue();
-				propertiesMap.put(fieldName, 
-						fieldData.get(random.nextInt(fieldData.size())));				
-			}
+			return new BeanRefill(javaType, plan, bean, ignoreProperties, 
+					mapper, partialValues);
+		} catch (RuntimeException e) {
+			generationContext.exit(javaType);
+			throw e;
+		}
+	}
+	
+	/**
+	 * Helper method that aborts every unfinished task, innermost first.
+	 * 
+	 * @param stack
+	 */
+	private void abort (Deque<RefillTask> stack) {
+		while (!stack.isEmpty()) {
+			stack.pop().abort();
+		}
+	}
+	
+	/**
+	 * Helper method that returns the new size of a repopulated container 
+	 * within the budget of the {@link GenerationContext}.
+	 * 
+	 * @param javaType
+	 * @return
+	 */
+	private int reserve (JavaType javaType) {
+		int requested = 
+				ListLikeTypeBuilder.requestedSize(jrgenContext.getSettings());
+		GenerationContext generationContext = 
+				jrgenContext.getGenerationContext();
+		
+		return javaType.isMapLikeType() ? 
+				generationContext.reserveElements(requested, 
+						javaType.getKeyType(), javaType.getContentType()) :
+				generationContext.reserveElements(requested, 
+						javaType.getContentType());
+	}
+	
+	/**
+	 * Helper method that returns the next value of a property registered 
+	 * with the {@link SequencePropertyHandler} or the 
+	 * {@link UniquePropertyHandler}.
+	 * 
+	 * @param beanType
+	 * @param property
+	 * @return the next value, or null if the property is not registered.
+	 */
+	private Object managedValue (JavaType beanType, PropertyAccessor property) {
+		Object value = jrgenContext.getSequencePropertyHandler().nextValue(
+				beanType, property.getName(), property.getJavaType());
+		
+		if (value != null) {
+			return value;
 		}
+		
+		return jrgenContext.getUniquePropertyHandler().nextValue(beanType, 
+				property.getName(), property.getJavaType(), 
+				jrgenContext.getSettings());
+	}
+	
+	private boolean isPropertyIgnored (String fieldName, 
+			Set<String> ignoreProperties) {
+		return ignoreProperties != null && 
+				ignoreProperties.contains(fieldName);
 	}
 	
-	private void resolveByFieldConfig (Map<String, JavaType> description,
-			Map<String, Object> propertiesMap) {
+	/**
+	 * <p>
+	 * The task populating a Java-bean. Properties undefined by the 
+	 * configuration are resolved in order:
+	 * </p>
+	 * <ol>
+	 * <li>If the type of the property has a configuration, a nested 
+	 * instance is populated from it. If turned on by the developer, the 
+	 * properties of the nested instance undefined by that configuration are
+	 * handed out to the workflow.</li>
+	 * <li>Otherwise, the property itself is handed out to the workflow.</li>
+	 * </ol>
+	 * 
+	 * <p>
+	 * Last, if turned on by the developer, the properties left undefined by
+	 * configured values that are JSON objects are handed out to the 
+	 * workflow.
+	 * </p>
+	 */
+	private final class BeanTask implements BuildTask<Object> {
+		
+		private final JavaType javaType;
+		private final BeanPlan plan;
+		private final Object bean;
+		private final Set<String> ignoreProperties;
+		private final ObjectMapper mapper;
+		private final List<PropertyAccessor> properties;
+		
+		private List<PartialValue> partialValues;
+		private int assigned;
+		private int index;
+		private int partialIndex;
+		private PropertyAccessor pending;
+		
+		private JavaType fieldJavaType;
+		private Iterator<PropertyAccessor> fieldProperties;
+		private Object fieldBean;
+		private Set<String> fieldIgnoreProperties;
+		private PartialValue fieldPartialValue;
+		private boolean fieldPartial;
+		
+		private BeanTask(JavaType javaType, BeanPlan plan, Object bean, 
+				Set<String> ignoreProperties, ObjectMapper mapper, 
+				int assigned, List<PartialValue> partialValues) {
+			this.javaType = javaType;
+			this.plan = plan;
+			this.bean = bean;
+			this.ignoreProperties = ignoreProperties;
+			this.mapper = mapper;
+			this.assigned = assigned;
+			this.properties = plan.getUndefinedProperties();
+			this.partialValues = partialValues;
+		}
+
+		@Override
+		public boolean hasNext() {
+			while (pending == null) {
+				if (fieldBean != null) {
+					pending = nextFieldProperty();
+					
+					if (pending == null) {
+						completeFieldConfig();
+					}
+				} else if (index < properties.size()) {
+					PropertyAccessor property = properties.get(index);
+					
+					Object managed;
+					
+					if (isPropertyIgnored(property.getName(), 
+							ignoreProperties)) {
+						index++;
+					} else if ((managed = 
+							managedValue(javaType, property)) != null) {
+						assign(bean, property, managed, mapper);
+						assigned++;
+						index++;
+					} else if (!beginFieldConfig(property.getJavaType())) {
+						pending = property;
+					}
+				} else if (partialValues != null && 
+						partialIndex < partialValues.size()) {
+					beginPartialValue(partialValues.get(partialIndex++));
+				} else {
+					return false;
+				}
+			}
+			
+			return true;
+		}
+
+		@Override
+		public JavaType next() {
+			return pending.getJavaType();
+		}
+
+		@Override
+		public void accept(Object value) {
+			if (fieldBean != null) {
+				assign(fieldBean, pending, value, mapper);
+			} else {
+				assign(bean, pending, value, mapper);
+				assigned++;
+				index++;
+			}
+			
+			pending = null;
+		}
+
+		@Override
+		public Object complete() {
+			jrgenContext.getGenerationContext().exit(javaType);
+			
+			return assigned == 0 ? null : BeanPlan.finish(bean, mapper);
+		}
 		
-		for (Entry<String, JavaType> d : description.entrySet()) {
-			String fieldName = d.getKey();			
-			JavaType fieldJavaType = d.getValue();
+		@Override
+		public void abort() {
+			if (fieldBean != null && !fieldPartial) {
+				jrgenContext.getGenerationContext().exit(fieldJavaType);
+			}
 			
-			Set<String> ignoreProperties = jrgenContext
+			jrgenContext.getGenerationContext().exit(javaType);
+		}
+		
+		/**
+		 * Helper method that starts populating the value of a property 
+		 * whose own type has a configuration defining any of its properties,
+		 * through data, tuples, dictionaries, patterns or texts. Returns 
+		 * false if the value should be resolved through the workflow 
+		 * instead.
+		 * 
+		 * @param propertyJavaType
+		 * @return
+		 */
+		private boolean beginFieldConfig (JavaType propertyJavaType) {
+			Configuration config = 
+					jrgenContext.getConfiguration(propertyJavaType);
+			
+			if (config == null) {
+				return false;
+			}
+			
+			BeanPlan propertyPlan = getPlan(propertyJavaType);
+			
+			if (propertyPlan == null || 
+					!propertyPlan.hasConfiguredProperties()) {
+				return false;
+			}
+			
+			GenerationContext generationContext = 
+					jrgenContext.getGenerationContext();
+			
+			if (!generationContext.enter(propertyJavaType)) {
+				return false;
+			}
+			
+			generationContext.charge(
+					propertyPlan.estimateBytes(generationContext));
+			generationContext.shareElements(
+					propertyPlan.getUndefinedTypes());
+			
+			Set<String> propertyIgnoreProperties = jrgenContext
 					.getTransientPropertyHandler()
-					.getProperties(fieldJavaType);
+					.getProperties(propertyJavaType);
+			Object propertyBean = null;
+			boolean configured = false;
 			
-			if (!propertiesMap.containsKey(fieldName)) {
-				Map<String, Object> fieldPropertiesMap = 
-						new HashMap<String, Object>();
-				resolveByObjectConfig(fieldJavaType, fieldPropertiesMap, 
-						ignoreProperties);
+			try {
+				//The values of a mapped type are converted with it, so their
+				//undefined properties cannot be generated afterwards.
+				if (partialValues == null && !propertyPlan.isMapped()) {
+					partialValues = newPartialValues(propertyPlan);
+				}
 				
-				if (!MapUtils.isEmpty(fieldPropertiesMap)) {	
-					propertiesMap.put(fieldName, fieldPropertiesMap);
+				propertyBean = propertyPlan.newInstance();
+				configured = propertyPlan.assignConfigured(propertyBean, 
+						propertyIgnoreProperties, random, mapper, 
+						propertyPlan.isMapped() ? null : partialValues) > 0;
+			} finally {
+				if (!configured) {
+					generationContext.exit(propertyJavaType);
 				}
 			}
+			
+			if (!configured) {
+				return false;
+			}
+			
+			fieldJavaType = propertyJavaType;
+			fieldProperties = 
+					propertyPlan.getUndefinedProperties().iterator();
+			fieldBean = propertyBean;
+			fieldIgnoreProperties = propertyIgnoreProperties;
+			fieldPartialValue = null;
+			fieldPartial = false;
+			
+			return true;
+		}
+		
+		/**
+		 * Helper method that starts populating the properties a configured
+		 * value converted from a JSON object leaves undefined.
+		 * 
+		 * @param partialValue
+		 */
+		private void beginPartialValue (PartialValue partialValue) {
+			fieldBean = partialValue.getValue();
+			fieldJavaType = mapper.constructType(fieldBean.getClass());
+			fieldIgnoreProperties = jrgenContext
+					.getTransientPropertyHandler()
+					.getProperties(fieldJavaType);
+			fieldProperties = getProperties(partialValue);
+			fieldPartialValue = partialValue;
+			fieldPartial = true;
+		}
+		
+		/**
+		 * Helper method that returns the next property of the nested 
+		 * instance to resolve through the workflow, if turned on by the 
+		 * developer.
+		 * 
+		 * @return
+		 */
+		private PropertyAccessor nextFieldProperty () {
+			if (!jrgenContext.getSettings().isGenerateUndefined()) {
+				return null;
+			}
+			
+			return nextProperty(fieldProperties, fieldPartialValue, 
+					fieldBean, fieldJavaType, fieldIgnoreProperties, mapper);
+		}
+		
+		/**
+		 * Helper method that assigns the completed nested instance to the
+		 * current property. A configured value converted from a JSON object
+		 * is already assigned.
+		 */
+		private void completeFieldConfig () {
+			if (!fieldPartial) {
+				jrgenContext.getGenerationContext().exit(fieldJavaType);
+				assign(bean, properties.get(index), 
+						BeanPlan.finish(fieldBean, mapper), mapper);
+				assigned++;
+				index++;
+			}
+			
+			fieldJavaType = null;
+			fieldProperties = null;
+			fieldBean = null;
+			fieldIgnoreProperties = null;
+			fieldPartialValue = null;
 		}
 	}
 	
-	private void resolveByWorkflow (Map<String, JavaType> description,
-			Map<String, Object> propertiesMap, 
-			Set<String> ignoreProperties) {
+	/**
+	 * <p>
+	 * A task writing new values into an existing instance. Like any 
+	 * {@link BuildTask}, it hands out the type of each value it needs, but 
+	 * it also exposes the existing value at that position, so the populate
+	 * method can repopulate it in place rather than build a new one. The 
+	 * type handed out by next is kept until the position is filled, through
+	 * accept, or kept as is, through keep.
+	 * </p>
+	 * 
+	 * <p>
+	 * The task completes with null if the instance could not be repopulated
+	 * in place and must be replaced. A task whose values are always built
+	 * anew has no existing values to keep.
+	 * </p>
+	 */
+	private abstract class RefillTask implements BuildTask<Object> {
 		
-		for (Entry<String, JavaType> d : description.entrySet()) {
-			JavaType fieldJavaType = d.getValue();
-			String fieldName = d.getKey();		
-			
-			if (!isPropertyIgnored(fieldName, ignoreProperties)) {
-				if (!propertiesMap.containsKey(fieldName)) {
-					Object tempValue = jrgenContext.getWorkflow()
-							.workflow(fieldJavaType);
+		/**
+		 * Returns the existing value at the position handed out by next.
+		 * 
+		 * @return the existing value, or null if it must be replaced.
+		 */
+		Object existing() {
+			return null;
+		}
+		
+		/**
+		 * Moves past the position handed out by next, keeping its existing
+		 * value, once it has been repopulated in place.
+		 */
+		void keep() {
+			throw new IllegalStateException();
+		}
+		
+		@Override
+		public void abort() {
+		}
+	}
+	
+	/**
+	 * <p>
+	 * The task repopulating an existing Java-bean. The properties undefined 
+	 * by the configuration are handed out in order, with their existing 
+	 * values. Last, if turned on by the developer, the properties left 
+	 * undefined by configured values that are JSON objects are handed out
+	 * to be built anew.
+	 * </p>
+	 */
+	private final class BeanRefill extends RefillTask {
+		
+		private final JavaType javaType;
+		private final Object bean;
+		private final Set<String> ignoreProperties;
+		private final ObjectMapper mapper;
+		private final List<PropertyAccessor> properties;
+		private final List<PartialValue> partialValues;
+		
+		private int index;
+		private int partialIndex;
+		private PropertyAccessor pending;
+		
+		private JavaType partialJavaType;
+		private Iterator<PropertyAccessor> partialProperties;
+		private PartialValue partialValue;
+		private Set<String> partialIgnoreProperties;
+		
+		private BeanRefill(JavaType javaType, BeanPlan plan, Object bean, 
+				Set<String> ignoreProperties, ObjectMapper mapper, 
+				List<PartialValue> partialValues) {
+			this.javaType = javaType;
+			this.bean = bean;
+			this.ignoreProperties = ignoreProperties;
+			this.mapper = mapper;
+			this.properties = plan.getUndefinedProperties();
+			this.partialValues = partialValues;
+		}
+
+		@Override
+		public boolean hasNext() {
+			while (pending == null) {
+				if (partialProperties != null) {
+					pending = nextProperty(partialProperties, partialValue,
+							partialValue.getValue(), partialJavaType, 
+							partialIgnoreProperties, mapper);
+					
+					if (pending == null) {
+						partialProperties = null;
+					}
+				} else if (index < properties.size()) {
+					PropertyAccessor property = properties.get(index);
+					Object managed;
 					
-					propertiesMap.put(fieldName, tempValue);
+					if (isPropertyIgnored(property.getName(), 
+							ignoreProperties)) {
+						index++;
+					} else if ((managed = 
+							managedValue(javaType, property)) != null) {
+						assign(bean, property, managed, mapper);
+						index++;
+					} else {
+						pending = property;
+					}
+				} else if (partialValues != null && 
+						partialIndex < partialValues.size()) {
+					partialValue = partialValues.get(partialIndex++);
+					partialJavaType = 
+							mapper.constructType(partialValue.getValue()
+									.getClass());
+					partialIgnoreProperties = jrgenContext
+							.getTransientPropertyHandler()
+							.getProperties(partialJavaType);
+					partialProperties = getProperties(partialValue);
+				} else {
+					return false;
 				}
 			}
+			
+			return true;
+		}
+
+		@Override
+		public JavaType next() {
+			return pending.getJavaType();
+		}
+
+		@Override
+		Object existing() {
+			return partialProperties != null ? null : pending.get(bean);
+		}
+
+		@Override
+		public void accept(Object value) {
+			assign(partialProperties != null ? partialValue.getValue() : 
+				bean, pending, value, mapper);
+			keep();
+		}
+
+		@Override
+		void keep() {
+			if (partialProperties == null) {
+				index++;
+			}
+			
+			pending = null;
+		}
+
+		@Override
+		public Object complete() {
+			jrgenContext.getGenerationContext().exit(javaType);
+			
+			return bean;
+		}
+		
+		@Override
+		public void abort() {
+			jrgenContext.getGenerationContext().exit(javaType);
 		}
 	}
 	
-	private void resolveUndefined (JavaType fieldJavaType, 
-			Map<String, Object> tempField,
-			Set<String> ignoreProperties) {
-		Map<String, JavaType> fieldDescr = 
-				descriptor.describe(fieldJavaType);
+	/**
+	 * The task refilling an existing Array in place, keeping its length. The
+	 * elements of an Array of primitives are always built anew.
+	 */
+	private final class ArrayRefill extends RefillTask {
 		
-		if (MapUtils.isEmpty(fieldDescr)) {
-			return;
-		}		
+		private final Object array;
+		private final JavaType contentType;
+		private final boolean primitive;
+		private final int length;
 		
-		Collection<?> diffKeys = CollectionUtils.subtract(fieldDescr.keySet(), 
-				tempField.keySet());
+		private int index;
 		
-		for (Object keyObj : diffKeys) {
-			if (!isPropertyIgnored(keyObj.toString(), ignoreProperties)) {
-				JavaType keyJavaType = fieldDescr.get(keyObj);
-				
-				Object tempValue = jrgenContext
-						.getWorkflow().workflow(keyJavaType);
-				
-				tempField.put(keyObj.toString(), tempValue);
+		private ArrayRefill(Object array, JavaType contentType) {
+			this.array = array;
+			this.contentType = contentType;
+			this.primitive = 
+					array.getClass().getComponentType().isPrimitive();
+			this.length = Array.getLength(array);
+		}
+
+		@Override
+		public boolean hasNext() {
+			return index < length;
+		}
+
+		@Override
+		public JavaType next() {
+			return contentType;
+		}
+
+		@Override
+		Object existing() {
+			return primitive ? null : Array.get(array, index);
+		}
+
+		@Override
+		public void accept(Object value) {
+			if (value != null || !primitive) {
+				Array.set(array, index, value);
 			}
+			
+			index++;
+		}
+
+		@Override
+		void keep() {
+			index++;
+		}
+
+		@Override
+		public Object complete() {
+			return array;
 		}
 	}
 	
-	@SuppressWarnings("unchecked")
-	private void generateDefaultsForUndefined (
-			Map<String, JavaType> description,
-			Map<String, Object> propertiesMap) {
+	/**
+	 * The task refilling an existing {@link List} in place. The elements 
+	 * within its new size are kept and repopulated, missing ones are added.
+	 */
+	private final class ListRefill extends RefillTask {
 		
-		if (!jrgenContext.getSettings().isGenerateUndefined()) {
-			return;
-		}
+		private final List<Object> list;
+		private final JavaType contentType;
+		private final int size;
 		
-		for (Entry<String, Object> entry : propertiesMap.entrySet()) {
-			JavaType fieldJavaType = description.get(entry.getKey());
+		private int index;
+		private boolean immutable;
+		
+		private ListRefill(List<Object> list, JavaType javaType) {
+			this.list = list;
+			this.contentType = javaType.getContentType();
+			this.size = reserve(javaType);
 			
-			Set<String> ignoreProperties = jrgenContext
-					.getTransientPropertyHandler()
-					.getProperties(fieldJavaType);
+			while (list.size() > size) {
+				list.remove(list.size() - 1);
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			return !immutable && index < size;
+		}
+
+		@Override
+		public JavaType next() {
+			return contentType;
+		}
+
+		@Override
+		Object existing() {
+			return index < list.size() ? list.get(index) : null;
+		}
+
+		@Override
+		public void accept(Object value) {
+			try {
+				if (index < list.size()) {
+					list.set(index, value);
+				} else {
+					list.add(value);
+				}
+			} catch (UnsupportedOperationException e) {
+				//The List is immutable, it is replaced instead.
+				immutable = true;
+			}
+			
+			index++;
+		}
+
+		@Override
+		void keep() {
+			index++;
+		}
+
+		@Override
+		public Object complete() {
+			return immutable ? null : list;
+		}
+	}
+	
+	/**
+	 * The task refilling an existing {@link Collection} that is not a 
+	 * {@link List}. It is cleared, and filled with elements built anew.
+	 */
+	private final class CollectionRefill extends RefillTask {
+		
+		private final Collection<Object> collection;
+		private final JavaType contentType;
+		
+		private int remaining;
+		private boolean immutable;
+		
+		private CollectionRefill(Collection<Object> collection, 
+				JavaType javaType) {
+			this.collection = collection;
+			this.contentType = javaType.getContentType();
 			
-			if (entry.getValue() instanceof Map) {
-				resolveUndefined(fieldJavaType, 
-						(Map<String, Object>)entry.getValue(), 
-						ignoreProperties);
+			collection.clear();
+			this.remaining = reserve(javaType);
+		}
+
+		@Override
+		public boolean hasNext() {
+			return !immutable && remaining > 0;
+		}
+
+		@Override
+		public JavaType next() {
+			return contentType;
+		}
+
+		@Override
+		public void accept(Object value) {
+			try {
+				collection.add(value);
+			} catch (UnsupportedOperationException e) {
+				//The Collection is immutable, it is replaced instead.
+				immutable = true;
 			}
+			
+			remaining--;
+		}
+
+		@Override
+		public Object complete() {
+			return immutable ? null : collection;
 		}
 	}
 	
-	private boolean isPropertyIgnored (String fieldName, 
-			Set<String> ignoreProperties) {
-		return ignoreProperties != null && 
-				ignoreProperties.contains(fieldName);
+	/**
+	 * The task refilling an existing {@link Map}. It is cleared, and filled
+	 * with keys and values built anew, the value of a null key is skipped.
+	 */
+	private final class MapRefill extends RefillTask {
+		
+		private final Map<Object, Object> map;
+		private final JavaType keyType;
+		private final JavaType contentType;
+		
+		private int remaining;
+		private boolean immutable;
+		private boolean value;
+		private Object key;
+		
+		private MapRefill(Map<Object, Object> map, JavaType javaType) {
+			this.map = map;
+			this.keyType = javaType.getKeyType();
+			this.contentType = javaType.getContentType();
+			
+			map.clear();
+			this.remaining = reserve(javaType);
+		}
+
+		@Override
+		public boolean hasNext() {
+			return !immutable && remaining > 0;
+		}
+
+		@Override
+		public JavaType next() {
+			return value ? contentType : keyType;
+		}
+
+		@Override
+		public void accept(Object resolved) {
+			if (!value) {
+				key = resolved;
+				value = key != null;
+				
+				if (!value) {
+					remaining--;
+				}
+				
+				return;
+			}
+			
+			try {
+				map.put(key, resolved);
+			} catch (UnsupportedOperationException e) {
+				//The Map is immutable, it is replaced instead.
+				immutable = true;
+			}
+			
+			key = null;
+			value = false;
+			remaining--;
+		}
+
+		@Override
+		public Object complete() {
+			return immutable ? null : map;
+		}
 	}
 }
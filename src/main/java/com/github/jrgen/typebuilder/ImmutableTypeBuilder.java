@@ -62,19 +62,20 @@ public class ImmutableTypeBuilder implements TypeBuilder<Object> {
 	
 	@Override
 	public Object build(JavaType javaType) {
-		Configuration config = jrgenContext.getTypeMap().get(javaType);
+		Configuration config = jrgenContext.getConfiguration(javaType);
 		
 		if (config == null) {
 			return null;
 		}
 		
-		Object[] objects = configDataToArray(config.getData());
+		Object[] objects = configDataToArray(config);
 		
 		return ArrayUtils.isEmpty(objects) ? 
 				null : convertArrayToObject(objects, javaType);
 	}
 	
-	private Object[] configDataToArray(Map<String, List<Object>> data) {
+	private Object[] configDataToArray(Configuration config) {
+		Map<String, List<Object>> data = config.getData();
 		
 		if (MapUtils.isEmpty(data)) {
 			return null;
@@ -86,7 +87,8 @@ public class ImmutableTypeBuilder implements TypeBuilder<Object> {
 			List<Object> objList = entry.getValue();
 			
 			if (!CollectionUtils.isEmpty(objList)) {
-				Object value = objList.get(random.nextInt(objList.size()));
+				Object value = objList.get(config.getSampler(entry.getKey())
+						.nextIndex(random));
 				Integer idx = Integer.valueOf(entry.getKey());
 				objects[idx] = value;
 			}
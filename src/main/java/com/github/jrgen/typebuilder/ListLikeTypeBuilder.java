@@ -3,6 +3,7 @@ package com.github.jrgen.typebuilder;
 import java.lang.reflect.Array;
 
 import com.fasterxml.jackson.databind.JavaType;
+import com.github.jrgen.context.GenerationContext;
 import com.github.jrgen.context.JrgenContext;
 import com.github.jrgen.settings.Settings;
 import com.github.jrgen.util.JrgenUtil;
@@ -17,6 +18,13 @@ import com.github.jrgen.workflow.Workflow;
  * that is created by default.
  * </p>
  * 
+ * <p>
+ * Containers are nodes of the {@link GenerationContext}. Once a limit is
+ * reached, an empty Array or a null value is returned according to the
+ * {@link Settings.LimitPolicy}. The size of the Array is shrunk to what is
+ * left of the budget of the {@link GenerationContext}.
+ * </p>
+ * 
  * @author Allan J. Shoulders
  * @version 1.0
  * @since 1.0.0
@@ -25,7 +33,7 @@ import com.github.jrgen.workflow.Workflow;
  * @see TypeBuilder
  * 
  */
-class ListLikeTypeBuilder implements TypeBuilder<Object> {
+class ListLikeTypeBuilder implements StepwiseTypeBuilder<Object> {
 
 	private JrgenContext jrgenContext;
 	
@@ -35,37 +43,96 @@ class ListLikeTypeBuilder implements TypeBuilder<Object> {
 	
 	@Override
 	public Object build(JavaType javaType) {
+		return BuildTasks.run(begin(javaType), jrgenContext.getWorkflow());
+	}
+	
+	@Override
+	public BuildTask<Object> begin(JavaType javaType) {
 		Settings settings = jrgenContext.getSettings();
+		GenerationContext generationContext = 
+				jrgenContext.getGenerationContext();
 		
 		JavaType contentType = 
 				javaType.getContentType();
 		
-		int containerSize;
-		
-		if (jrgenContext.getSettings().isRandomContainerSize()) {			
-			containerSize = (int)JrgenUtil.getNumberFromRange(
-					settings.getMinContainerSize(), 
-					settings.getMaxContainerSize());		
-		} else {
-			containerSize = settings.getDefaultContainerSize();
+		if (!generationContext.canEnter(contentType) || 
+				!generationContext.enter(javaType)) {
+			return BuildTasks.completed(generationContext.isEmptyAtLimit() ? 
+					Array.newInstance(contentType.getRawClass(), 0) : null);
 		}
 		
+		int containerSize = generationContext.reserveElements(
+				requestedSize(settings), contentType);
+		
 		Object objs = Array.newInstance(
-				javaType.getContentType().getRawClass(), 
+				contentType.getRawClass(), 
 				containerSize);
 		
-		if (Array.getLength(objs) == 0) {
-			return (settings.isNullOnEmptySet()) ? 
-					null : objs;
+		return new ListLikeTask(javaType, objs);
+	}
+	
+	/**
+	 * Returns the size of a container, either random or the default one, 
+	 * before the budget of the {@link GenerationContext} is applied.
+	 * 
+	 * @param settings the {@link Settings} holding the container sizes.
+	 * @return the requested size of a container.
+	 */
+	static int requestedSize(Settings settings) {
+		if (settings.isRandomContainerSize()) {			
+			return (int)JrgenUtil.getNumberFromRange(
+					settings.getMinContainerSize(), 
+					settings.getMaxContainerSize());		
 		}
 		
-		for (int i=0; i < containerSize; i++) {
-			Array.set(objs, 
-					i, 
-					jrgenContext.getWorkflow().workflow(contentType));
-		}		
+		return settings.getDefaultContainerSize();
+	}
+	
+	/**
+	 * The task filling the Array one element at a time.
+	 */
+	private final class ListLikeTask implements BuildTask<Object> {
 		
-		return objs;
+		private final JavaType javaType;
+		private final Object objs;
+		private int index;
+		
+		private ListLikeTask(JavaType javaType, Object objs) {
+			this.javaType = javaType;
+			this.objs = objs;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return index < Array.getLength(objs);
+		}
+
+		@Override
+		public JavaType next() {
+			return javaType.getContentType();
+		}
+
+		@Override
+		public void accept(Object value) {
+			Array.set(objs, index++, value);
+		}
+
+		@Override
+		public Object complete() {
+			jrgenContext.getGenerationContext().exit(javaType);
+			
+			if (Array.getLength(objs) == 0) {
+				return (jrgenContext.getSettings().isNullOnEmptySet()) ? 
+						null : objs;
+			}
+			
+			return objs;
+		}
+
+		@Override
+		public void abort() {
+			jrgenContext.getGenerationContext().exit(javaType);
+		}
 	}
 
 }
@@ -5,9 +5,9 @@ import java.util.Map;
 
 import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.jrgen.context.GenerationContext;
 import com.github.jrgen.context.JrgenContext;
 import com.github.jrgen.settings.Settings;
-import com.github.jrgen.util.JrgenUtil;
 
 /**
  * <p>
@@ -28,7 +28,7 @@ import com.github.jrgen.util.JrgenUtil;
  * @see TypeBuilder
  *
  */
-public class MapTypeBuilder implements TypeBuilder<Map<?, ?>> {
+public class MapTypeBuilder implements StepwiseTypeBuilder<Map<?, ?>> {
 	
 	private JrgenContext jrgenContext;
 
@@ -42,9 +42,14 @@ public class MapTypeBuilder implements TypeBuilder<Map<?, ?>> {
 		this.jrgenContext = jrgenContext;
 	}
 
+	@Override
+	public Map<?, ?> build(JavaType javaType) {
+		return BuildTasks.run(begin(javaType), jrgenContext.getWorkflow());
+	}
+
 	@SuppressWarnings("unchecked")
 	@Override
-	public Map<?, ?> build(JavaType javaType) {	
+	public BuildTask<Map<?, ?>> begin(JavaType javaType) {	
 		
 		if(!javaType.isMapLikeType()) {
 			return null;
@@ -53,37 +58,91 @@ public class MapTypeBuilder implements TypeBuilder<Map<?, ?>> {
 		ObjectMapper mapper = jrgenContext.getAbstractTypeHandler()
 				.getObjectMapper();
 		Settings settings = jrgenContext.getSettings();
+		GenerationContext generationContext = 
+				jrgenContext.getGenerationContext();
 		int containerSize;
 		
-		JavaType keyJavaType = javaType.getKeyType();
-		JavaType valueJavaType = javaType.getContentType();
-		
 		Map<Object, Object> mapObj = (Map<Object, Object>)mapper
 				.convertValue(Collections.EMPTY_MAP, javaType.getRawClass());
 		
-		if (settings.isRandomContainerSize()) {			
-			containerSize = (int)JrgenUtil.getNumberFromRange(
-					settings.getMinContainerSize(), 
-					settings.getMaxContainerSize());		
-		} else {
-			containerSize = settings.getDefaultContainerSize();
+		if (!generationContext.canEnter(javaType.getContentType()) || 
+				!generationContext.enter(javaType)) {
+			return BuildTasks.<Map<?, ?>>completed(
+					generationContext.isEmptyAtLimit() ? mapObj : null);
 		}
 		
-		if (containerSize == 0) {
-			return (settings.isNullOnEmptySet()) ? 
-					null : mapObj;
-		}	
+		containerSize = generationContext.reserveElements(
+				ListLikeTypeBuilder.requestedSize(settings), 
+				javaType.getKeyType(), javaType.getContentType());
+		
+		return new MapTask(javaType, mapObj, containerSize, mapper);
+	}
+	
+	/**
+	 * The task filling the {@link Map} one entry at a time. Each entry 
+	 * needs a key first, then a value unless the key resolved to null.
+	 */
+	private final class MapTask implements BuildTask<Map<?, ?>> {
+		
+		private final JavaType javaType;
+		private final Map<Object, Object> mapObj;
+		private final int containerSize;
+		private final ObjectMapper mapper;
+		
+		private int index;
+		private Object key;
 		
-		for (int i = 0; i < containerSize; i++) {
-			Object key = jrgenContext.getWorkflow().workflow(keyJavaType);
-			if (key != null) {
-				Object value = jrgenContext.getWorkflow().workflow(valueJavaType);
-				mapObj.put(mapper.convertValue(key, keyJavaType), 
-						mapper.convertValue(value, valueJavaType));
+		private MapTask(JavaType javaType, Map<Object, Object> mapObj, 
+				int containerSize, ObjectMapper mapper) {
+			this.javaType = javaType;
+			this.mapObj = mapObj;
+			this.containerSize = containerSize;
+			this.mapper = mapper;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return key != null || index < containerSize;
+		}
+
+		@Override
+		public JavaType next() {
+			return key == null ? javaType.getKeyType() : 
+				javaType.getContentType();
+		}
+
+		@Override
+		public void accept(Object value) {
+			if (key == null) {
+				key = value;
+				
+				if (key == null) {
+					index++;
+				}
+			} else {
+				mapObj.put(mapper.convertValue(key, javaType.getKeyType()), 
+						mapper.convertValue(value, javaType.getContentType()));
+				key = null;
+				index++;
 			}
-		}			
+		}
 
-		return mapObj;
+		@Override
+		public Map<?, ?> complete() {
+			jrgenContext.getGenerationContext().exit(javaType);
+			
+			if (containerSize == 0) {
+				return (jrgenContext.getSettings().isNullOnEmptySet()) ? 
+						null : mapObj;
+			}	
+			
+			return mapObj;
+		}
+
+		@Override
+		public void abort() {
+			jrgenContext.getGenerationContext().exit(javaType);
+		}
 	}
 
 }
@@ -0,0 +1,40 @@
+package com.github.jrgen.typebuilder;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.github.jrgen.workflow.IterativeWorkflow;
+
+/**
+ * <p>
+ * A StepwiseTypeBuilder is a {@link TypeBuilder} whose instances depend on 
+ * other values, and which can build them one step at a time through a 
+ * {@link BuildTask}. The {@link IterativeWorkflow} uses this interface to 
+ * build object graphs of any depth without recursion.
+ * </p>
+ * 
+ * <p>
+ * The build method of a StepwiseTypeBuilder is expected to produce the same
+ * instance as running the {@link BuildTask} returned by the begin method 
+ * against the {@link com.github.jrgen.workflow.Workflow}.
+ * </p>
+ * 
+ * @author Allan J. Shoulders
+ * @param <T> the parameterized type the TypeBuilder should return.
+ * @version 1.0
+ * @since 1.2.0
+ * @see BuildTask
+ * @see IterativeWorkflow
+ *
+ */
+public interface StepwiseTypeBuilder<T> extends TypeBuilder<T> {
+
+	/**
+	 * Begins building an instance of the given type.
+	 * 
+	 * @param javaType type requested by the developer and passed in by the 
+	 * {@link com.github.jrgen.workflow.Workflow} object.
+	 * @return the {@link BuildTask} building the instance, or null if this 
+	 * TypeBuilder does not handle the type.
+	 */
+	public BuildTask<T> begin(JavaType javaType);
+	
+}
@@ -34,6 +34,7 @@ public class AbstractTypeHandler {
 	@SuppressWarnings("rawtypes")
 	private Map<Class, Class> defaultTypeMap;
 	private ObjectMapper objectMapper;
+	private volatile ObjectMapper defaultObjectMapper;
 	
 	static {
 		TYPE_FACTORY = TypeFactory.defaultInstance();
@@ -108,6 +109,7 @@ public class AbstractTypeHandler {
 	public <T> void registerAbstractType (Class<T> whenThisType, 
 			Class<? extends T> useThisType) {
 		defaultTypeMap.put(whenThisType, useThisType);
+		defaultObjectMapper = null;
 	}
 	
 	/**
@@ -120,7 +122,10 @@ public class AbstractTypeHandler {
 	 * @return the concrete type (if any).
 	 */
 	public Class<?> removeAbstractType (Class<?> classType) {
-		return defaultTypeMap.remove(classType);
+		Class<?> concreteType = defaultTypeMap.remove(classType);
+		defaultObjectMapper = null;
+		
+		return concreteType;
 	}
 	
 	/**
@@ -129,24 +134,45 @@ public class AbstractTypeHandler {
 	 */
 	public void removeAllAbstractTypes () {
 		defaultTypeMap.clear();
+		defaultObjectMapper = null;
 	}
 	
 	/**
-	 * Returns a <b>new</b> instance of an {@link ObjectMapper} when called. 
-	 * If an {@link ObjectMapper} instance has already been assigned using 
-	 * the setter method, than that instance will always be returned. If the 
-	 * setter method is passed a null instance, then a new 
-	 * {@link ObjectMapper} will be returned.
+	 * Returns an {@link ObjectMapper} that knows of every registered 
+	 * abstract type. If an {@link ObjectMapper} instance has already been 
+	 * assigned using the setter method, than that instance will always be 
+	 * returned. Otherwise, an {@link ObjectMapper} is created and reused 
+	 * until an abstract type is registered or removed, at which point a 
+	 * <b>new</b> instance is created on the next call. If the setter method 
+	 * is passed a null instance, the created {@link ObjectMapper} is 
+	 * returned.
 	 * 
-	 * @return a new {@link ObjectMapper} instance or the {@link ObjectMapper} 
-	 * instance that was previously set.
+	 * @return the created {@link ObjectMapper} instance or the 
+	 * {@link ObjectMapper} instance that was previously set.
 	 */
-	@SuppressWarnings({ "rawtypes", "unchecked" })
 	public ObjectMapper getObjectMapper() {
 		if (objectMapper != null) {
 			return objectMapper;
 		}
 		
+		ObjectMapper mapper = defaultObjectMapper;
+		
+		if (mapper == null) {
+			mapper = createObjectMapper();
+			defaultObjectMapper = mapper;
+		}
+		
+		return mapper;
+	}
+	
+	/**
+	 * Helper method that creates an ObjectMapper with a module mapping every
+	 * registered abstract type to its concrete type.
+	 * 
+	 * @return
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private ObjectMapper createObjectMapper() {
 		SimpleModule simpleModule = new SimpleModule();
 		
 		for (Entry<Class, Class> absTypeEntry : defaultTypeMap.entrySet()) {
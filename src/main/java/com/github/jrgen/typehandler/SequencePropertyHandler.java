@@ -0,0 +1,233 @@
+package com.github.jrgen.typehandler;
+
+import static com.github.jrgen.util.JrgenUtil.validateNonNullArgument;
+
+import java.math.BigInteger;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.github.jrgen.sampler.StripedSequence;
+
+/***
+ * <p>
+ * This class manages the properties associated with a class type whose 
+ * generated values form an increasing sequence, such as order numbers or 
+ * creation timestamps. Each property has its own {@link StripedSequence}, 
+ * so values are unique, and increasing within each thread, even when 
+ * generated from many threads.
+ * </p>
+ * 
+ * <p>
+ * The numbers of a sequence are converted to the type of the property. 
+ * long, int, short and byte properties (or their wrappers), BigInteger, 
+ * String, {@link Date} and {@link Calendar} properties are supported, the 
+ * numbers of the latter two being milliseconds since the epoch. A number
+ * that does not fit the type of its property fails with an 
+ * {@link ArithmeticException}, rather than wrapping around to repeated or
+ * negative values. For example:
+ * </p>
+ * 
+ * <pre>
+ * handler.addProperties(Order.class, "orderId");
+ * handler.addSequence(Order.class, "createdAt", 
+ *         System.currentTimeMillis(), 1000);
+ * </pre>
+ * 
+ * <p>
+ * Properties of other types are generated as usual.
+ * </p>
+ * 
+ * @author Allan J. Shoulders
+ * @since 1.2.0
+ * @version 1.0
+ * @see StripedSequence
+ *
+ */
+public class SequencePropertyHandler {
+	
+	private final ConcurrentMap<Class<?>, 
+			ConcurrentMap<String, StripedSequence>> sequencesMap;
+
+	/**
+	 * Constructs a new instance of the SequencePropertyHandler.
+	 */
+	public SequencePropertyHandler() {
+		sequencesMap = new ConcurrentHashMap<Class<?>, 
+				ConcurrentMap<String, StripedSequence>>();
+	}
+	
+	/***
+	 * Convenience method to add properties whose sequences start at 1 and 
+	 * increase by 1.
+	 * 
+	 * @param classObj the class the properties belong to.
+	 * @param properties the properties whose values form a sequence.
+	 * @throws IllegalArgumentException if the classObj parameter is null.
+	 */
+	public void addProperties(Class<?> classObj, String... properties) {
+		for (String property : properties) {
+			addSequence(classObj, property, new StripedSequence(1, 1));
+		}
+	}
+	
+	/***
+	 * Adds a property whose values form the given sequence.
+	 * 
+	 * @param classObj the class the property belongs to.
+	 * @param property the property whose values form a sequence.
+	 * @param start the first value of the sequence.
+	 * @param step the difference between two consecutive values.
+	 * @throws IllegalArgumentException if the classObj parameter is null or
+	 * the step is 0.
+	 */
+	public void addSequence(Class<?> classObj, String property, long start, 
+			long step) {
+		addSequence(classObj, property, new StripedSequence(start, step));
+	}
+	
+	/***
+	 * Adds a property whose values form the given sequence, replacing its 
+	 * current sequence if any.
+	 * 
+	 * @param classObj the class the property belongs to.
+	 * @param property the property whose values form a sequence.
+	 * @param sequence the {@link StripedSequence} of the values.
+	 * @throws IllegalArgumentException if a parameter is null.
+	 */
+	public void addSequence(Class<?> classObj, String property, 
+			StripedSequence sequence) {
+		validateNonNullArgument(classObj, "classObj");
+		validateNonNullArgument(property, "property");
+		validateNonNullArgument(sequence, "sequence");
+		
+		ConcurrentMap<String, StripedSequence> sequences = 
+				sequencesMap.get(classObj);
+		
+		if (sequences == null) {
+			sequences = new ConcurrentHashMap<String, StripedSequence>();
+			ConcurrentMap<String, StripedSequence> existing = 
+					sequencesMap.putIfAbsent(classObj, sequences);
+			sequences = existing == null ? sequences : existing;
+		}
+		
+		sequences.put(property, sequence);
+	}
+	
+	/***
+	 * Removes the sequences of the given properties of the class.
+	 * 
+	 * @param classObj the class the properties belong to.
+	 * @param properties the properties whose values no longer form a 
+	 * sequence.
+	 * @return true if any of the properties was removed, false otherwise.
+	 */
+	public boolean removeProperties(Class<?> classObj, String... properties) {
+		Map<String, StripedSequence> sequences = sequencesMap.get(classObj);
+		boolean isRemoved = false;
+		
+		if (sequences != null) {
+			for (String property : properties) {
+				isRemoved |= sequences.remove(property) != null;
+			}
+		}
+		
+		return isRemoved;
+	}
+	
+	/**
+	 * Returns the sequence of a property of the class within the passed in
+	 * {@link JavaType}.
+	 * 
+	 * @param javaType the {@link JavaType} containing the class the property
+	 * belongs to.
+	 * @param property the name of the property.
+	 * @return the {@link StripedSequence} of the property, or null if there
+	 * is none.
+	 */
+	public StripedSequence getSequence(JavaType javaType, String property) {
+		Map<String, StripedSequence> sequences = 
+				sequencesMap.get(javaType.getRawClass());
+		
+		return sequences == null ? null : sequences.get(property);
+	}
+	
+	/**
+	 * Issues the next value of the sequence of a property.
+	 * 
+	 * @param beanType the type of the Java-bean the property belongs to.
+	 * @param property the name of the property.
+	 * @param propertyType the type of the property.
+	 * @return the next value, or null if the property has no sequence or its
+	 * type is not supported.
+	 * @throws ArithmeticException if the next value does not fit the type of
+	 * the property.
+	 */
+	public Object nextValue(JavaType beanType, String property, 
+			JavaType propertyType) {
+		StripedSequence sequence = getSequence(beanType, property);
+		
+		if (sequence == null) {
+			return null;
+		}
+		
+		Class<?> type = propertyType.getRawClass();
+		
+		if (type == long.class || type == Long.class) {
+			return sequence.next();
+		} else if (type == int.class || type == Integer.class) {
+			return (int) checkRange(sequence.next(), Integer.MIN_VALUE, 
+					Integer.MAX_VALUE, beanType, property);
+		} else if (type == short.class || type == Short.class) {
+			return (short) checkRange(sequence.next(), Short.MIN_VALUE, 
+					Short.MAX_VALUE, beanType, property);
+		} else if (type == byte.class || type == Byte.class) {
+			return (byte) checkRange(sequence.next(), Byte.MIN_VALUE, 
+					Byte.MAX_VALUE, beanType, property);
+		} else if (type == BigInteger.class) {
+			return BigInteger.valueOf(sequence.next());
+		} else if (type == String.class) {
+			return Long.toString(sequence.next());
+		} else if (type == Date.class) {
+			return new Date(sequence.next());
+		} else if (type == Calendar.class) {
+			Calendar calendar = Calendar.getInstance();
+			calendar.setTimeInMillis(sequence.next());
+			return calendar;
+		}
+		
+		return null;
+	}
+
+	/**
+	 * Helper method that checks a value of a sequence fits the type of its
+	 * property, so a sequence never wraps around to repeated or negative 
+	 * values.
+	 * 
+	 * @param value
+	 * @param min
+	 * @param max
+	 * @param beanType
+	 * @param property
+	 * @return
+	 */
+	private static long checkRange(long value, long min, long max, 
+			JavaType beanType, String property) {
+		if (value < min || value > max) {
+			throw new ArithmeticException("The sequence of the " + property + 
+					" property of " + beanType.getRawClass().getName() + 
+					" overflows its type: " + value);
+		}
+		
+		return value;
+	}
+
+	@Override
+	public String toString() {
+		return "SequencePropertyHandler [sequencesMap=" + sequencesMap + "]";
+	}
+
+}
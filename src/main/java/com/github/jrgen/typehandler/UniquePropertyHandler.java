@@ -0,0 +1,249 @@
+package com.github.jrgen.typehandler;
+
+import static com.github.jrgen.util.JrgenUtil.validateNonNullArgument;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.github.jrgen.sampler.UniqueSequence;
+import com.github.jrgen.settings.Settings;
+
+/***
+ * <p>
+ * This class manages a set of properties associated with a class type whose
+ * generated values must never repeat, such as identifiers, user names or 
+ * e-mail addresses.
+ * </p>
+ * 
+ * <p>
+ * The values of each unique property are issued by a {@link UniqueSequence}
+ * over the range the {@link Settings} define for the type of the property:
+ * </p>
+ * <ul>
+ * <li>long, int, short and byte properties (or their wrappers) use the 
+ * range between their min and max values, BigInteger properties the range 
+ * of long values.</li>
+ * <li>String properties use base-36 strings of the default String length,
+ * up to 11 characters.</li>
+ * </ul>
+ * 
+ * <p>
+ * No value already issued is remembered, so the memory used does not grow 
+ * with the number of values generated. The order of the values is 
+ * determined by the uniqueKey of the {@link Settings}; parallel processes 
+ * using the same key and distinct uniqueWorker numbers never issue the same
+ * value. Properties of other types are generated as usual.
+ * </p>
+ * 
+ * @author Allan J. Shoulders
+ * @since 1.2.0
+ * @version 1.0
+ * @see UniqueSequence
+ *
+ */
+public class UniquePropertyHandler {
+	
+	private static final int RADIX = 36;
+	private static final int MAX_STRING_LENGTH = 11;
+	
+	private final ConcurrentMap<Class<?>, Set<String>> uniquePropertiesMap;
+	private final ConcurrentMap<String, UniqueSequence> sequences;
+
+	/**
+	 * Constructs a new instance of the UniquePropertyHandler.
+	 */
+	public UniquePropertyHandler() {
+		uniquePropertiesMap = new ConcurrentHashMap<Class<?>, Set<String>>();
+		sequences = new ConcurrentHashMap<String, UniqueSequence>();
+	}
+	
+	/***
+	 * Convenience method to add class-properties mappings. If the class 
+	 * being passed in does not exist, then it is added along with all of the 
+	 * specified properties. If the class being passed in does exist, the 
+	 * provided properties will simply be added to the existing set.
+	 * 
+	 * @param classObj the class which will be associated with the set of 
+	 * unique properties.
+	 * @param properties the set of properties whose values are unique.
+	 * @throws IllegalArgumentException if the classObj parameter is null.
+	 */
+	public void addProperties(Class<?> classObj, String... properties) {
+		validateNonNullArgument(classObj, "classObj");
+		
+		Set<String> propertySet = uniquePropertiesMap.get(classObj);
+		
+		if (propertySet == null) {
+			propertySet = Collections.newSetFromMap(
+					new ConcurrentHashMap<String, Boolean>());
+			Set<String> existing = 
+					uniquePropertiesMap.putIfAbsent(classObj, propertySet);
+			propertySet = existing == null ? propertySet : existing;
+		}
+		
+		propertySet.addAll(Arrays.asList(properties));
+	}
+	
+	/***
+	 * Similar alternative to the aforementioned addProperties method. The 
+	 * only difference is that overloaded method accepts a {@link JavaType} 
+	 * instead of a class.
+	 * 
+	 * @param javaType the {@link JavaType} containing the actual class that 
+	 * will be associated with a set of unique properties.
+	 * @param properties the set of properties whose values are unique.
+	 */
+	public void addProperties(JavaType javaType, String... properties) {
+		addProperties(javaType.getRawClass(), properties);
+	}
+	
+	/***
+	 * Removes the given properties of the class. The values already issued
+	 * for these properties are forgotten, so adding them again starts their
+	 * sequence over.
+	 * 
+	 * @param classObj the class associated with the unique properties.
+	 * @param properties the properties whose values no longer have to be 
+	 * unique.
+	 * @return true if any of the properties was removed, false otherwise.
+	 */
+	public boolean removeProperties(Class<?> classObj, String... properties) {
+		Set<String> propertySet = uniquePropertiesMap.get(classObj);
+		
+		if (propertySet == null) {
+			return false;
+		}
+		
+		for (String property : properties) {
+			sequences.remove(sequenceName(classObj, property));
+		}
+		
+		boolean isRemoved = propertySet.removeAll(Arrays.asList(properties));
+		
+		if (propertySet.isEmpty()) {
+			uniquePropertiesMap.remove(classObj, propertySet);
+		}
+		
+		return isRemoved;
+	}
+	
+	/**
+	 * Convenience method to get the unique properties associated with the 
+	 * class within the passed in {@link JavaType}.
+	 * 
+	 * @param javaType the {@link JavaType} containing the actual class that 
+	 * will looked up for its associated properties if the class entry exists.
+	 * @return the unique properties for the class, or null if there are 
+	 * none.
+	 */
+	public Set<String> getProperties(JavaType javaType) {
+		return uniquePropertiesMap.get(javaType.getRawClass());
+	}
+	
+	/**
+	 * Issues the next unique value of a property.
+	 * 
+	 * @param beanType the type of the Java-bean the property belongs to.
+	 * @param property the name of the property.
+	 * @param propertyType the type of the property.
+	 * @param settings the {@link Settings} defining the range of the values.
+	 * @return the next unique value, or null if the property is not unique
+	 * or its type is not supported.
+	 * @throws IllegalStateException if every value of the range was issued.
+	 */
+	public Object nextValue(JavaType beanType, String property, 
+			JavaType propertyType, Settings settings) {
+		Set<String> propertySet = getProperties(beanType);
+		
+		if (propertySet == null || !propertySet.contains(property)) {
+			return null;
+		}
+		
+		Class<?> type = propertyType.getRawClass();
+		
+		if (type == long.class || type == Long.class) {
+			return next(beanType, property, settings.getMinLongValue(), 
+					settings.getMaxLongValue(), settings);
+		} else if (type == int.class || type == Integer.class) {
+			return (int) next(beanType, property, settings.getMinIntValue(), 
+					settings.getMaxIntValue(), settings);
+		} else if (type == short.class || type == Short.class) {
+			return (short) next(beanType, property, 
+					settings.getMinShortValue(), settings.getMaxShortValue(), 
+					settings);
+		} else if (type == byte.class || type == Byte.class) {
+			return (byte) next(beanType, property, 
+					settings.getMinByteValue(), settings.getMaxByteValue(), 
+					settings);
+		} else if (type == BigInteger.class) {
+			return BigInteger.valueOf(next(beanType, property, 
+					settings.getMinLongValue(), settings.getMaxLongValue(), 
+					settings));
+		} else if (type == String.class) {
+			int length = Math.min(MAX_STRING_LENGTH, 
+					Math.max(1, settings.getDefaultStringLength()));
+			long max = BigInteger.valueOf(RADIX).pow(length).longValue() - 1;
+			
+			return pad(Long.toString(next(beanType, property, 0, max, 
+					settings), RADIX), length);
+		}
+		
+		return null;
+	}
+	
+	/**
+	 * Helper method that issues the next number of the sequence of a 
+	 * property, creating the sequence on first use.
+	 * 
+	 * @param beanType
+	 * @param property
+	 * @param min
+	 * @param max
+	 * @param settings
+	 * @return
+	 */
+	private long next(JavaType beanType, String property, long min, long max,
+			Settings settings) {
+		String name = sequenceName(beanType.getRawClass(), property);
+		UniqueSequence sequence = sequences.get(name);
+		
+		if (sequence == null) {
+			//Each property is given its own order of the values.
+			long key = settings.getUniqueKey() ^ 
+					(name.hashCode() * 0x9E3779B97F4A7C15L);
+			
+			sequence = new UniqueSequence(min, max, key, 
+					settings.getUniqueWorker(), settings.getUniqueWorkers());
+			UniqueSequence existing = sequences.putIfAbsent(name, sequence);
+			sequence = existing == null ? sequence : existing;
+		}
+		
+		return sequence.next();
+	}
+	
+	private static String sequenceName(Class<?> classObj, String property) {
+		return classObj.getName() + "#" + property;
+	}
+	
+	private static String pad(String value, int length) {
+		StringBuilder sb = new StringBuilder(length);
+		
+		for (int i = value.length(); i < length; i++) {
+			sb.append('0');
+		}
+		
+		return sb.append(value).toString();
+	}
+
+	@Override
+	public String toString() {
+		return "UniquePropertyHandler [uniquePropertiesMap=" 
+				+ uniquePropertiesMap + ", sequences=" + sequences + "]";
+	}
+
+}
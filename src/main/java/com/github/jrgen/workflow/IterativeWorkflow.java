@@ -0,0 +1,203 @@
+package com.github.jrgen.workflow;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.github.jrgen.context.JrgenContext;
+import com.github.jrgen.typebuilder.BuildTask;
+import com.github.jrgen.typebuilder.StepwiseTypeBuilder;
+import com.github.jrgen.typebuilder.TypeBuilder;
+
+/**
+ * <p>
+ * This class is an implementation of the {@link Workflow} interface that 
+ * traverses its registered {@link TypeBuilder}s in the same order as the 
+ * {@link DefaultWorkflow}, and returns the same results, but without 
+ * recursion. Values built by a {@link StepwiseTypeBuilder} are kept on an 
+ * explicit stack of {@link BuildTask}s, so the depth of the object graph is 
+ * only bounded by the heap and by the limits of the 
+ * {@link com.github.jrgen.settings.Settings}, never by the size of the 
+ * thread's stack.
+ * </p>
+ * 
+ * <p>
+ * {@link TypeBuilder}s that do not implement {@link StepwiseTypeBuilder} 
+ * are called as they are by the {@link DefaultWorkflow}. To use this 
+ * Workflow, set it on the {@link JrgenContext} before initializing it:
+ * </p>
+ * 
+ * <pre>
+ * JrgenContext jrgenContext = new JrgenContext();
+ * jrgenContext.setWorkflow(new IterativeWorkflow());
+ * jrgenContext.initializeContext();
+ * </pre>
+ * 
+ * @author Allan J. Shoulders
+ * @since 1.2.0
+ * @version 1.0
+ * @see Workflow
+ * @see StepwiseTypeBuilder
+ *
+ */
+public class IterativeWorkflow implements Workflow {
+	
+	private static final Object PENDING = new Object();
+	
+	private final List<TypeBuilder<?>> typeBuilders;
+	
+	/**
+	 * Constructs a new instance of the IterativeWorkflow.
+	 */
+	public IterativeWorkflow() {
+		typeBuilders = new ArrayList<TypeBuilder<?>>();
+	}
+
+	@Override
+	public Object workflow(JavaType javaType) {
+		Deque<Frame> stack = new ArrayDeque<Frame>();
+		
+		try {
+			Object o = dispatch(javaType, 0, stack);
+			
+			while (!stack.isEmpty()) {
+				Frame top = stack.peek();
+				
+				if (top.task.hasNext()) {
+					o = dispatch(top.task.next(), 0, stack);
+					
+					if (o != PENDING) {
+						top.task.accept(o);
+					}
+					
+					continue;
+				}
+				
+				stack.pop();
+				o = top.task.complete();
+				
+				//The builder could not build the type, so the next 
+				//registered TypeBuilders are given their chance.
+				if (o == null) {
+					o = dispatch(top.javaType, top.builderIndex + 1, stack);
+				}
+				
+				if (o != PENDING && !stack.isEmpty()) {
+					stack.peek().task.accept(o);
+				}
+			}
+			
+			return o == PENDING ? null : o;
+		} catch (RuntimeException e) {
+			abort(stack);
+			throw e;
+		} catch (Error e) {
+			abort(stack);
+			throw e;
+		}
+	}
+	
+	/**
+	 * Helper method that passes the type to the registered 
+	 * {@link TypeBuilder}s, starting at the given index. If a 
+	 * {@link StepwiseTypeBuilder} begins building the type, its task is 
+	 * pushed on the stack and PENDING is returned.
+	 * 
+	 * @param javaType
+	 * @param fromIndex
+	 * @param stack
+	 * @return
+	 */
+	private Object dispatch (JavaType javaType, int fromIndex, 
+			Deque<Frame> stack) {
+		
+		for (int i = fromIndex; i < typeBuilders.size(); i++) {
+			TypeBuilder<?> typeBuilder = typeBuilders.get(i);
+			
+			if (typeBuilder instanceof StepwiseTypeBuilder<?>) {
+				BuildTask<?> task = ((StepwiseTypeBuilder<?>) typeBuilder)
+						.begin(javaType);
+				
+				if (task != null) {
+					stack.push(new Frame(javaType, i, task));
+					return PENDING;
+				}
+			} else {
+				Object o = typeBuilder.build(javaType);
+				
+				if (o != null) {
+					return o;
+				}
+			}
+		}
+		
+		return null;
+	}
+	
+	/**
+	 * Helper method that aborts every unfinished task, innermost first.
+	 * 
+	 * @param stack
+	 */
+	private void abort (Deque<Frame> stack) {
+		while (!stack.isEmpty()) {
+			stack.pop().task.abort();
+		}
+	}
+
+	@Override
+	public TypeBuilder<?> findTypeBuilder (
+			Class<? extends TypeBuilder<?>> typeBuilderClass) {
+		
+		for (TypeBuilder<?> typeBuilder : typeBuilders) {
+			if (typeBuilder.getClass() == typeBuilderClass) {
+				return typeBuilder;
+			}
+		}
+		
+		return null;
+	}
+	
+	@Override
+	public void addTypeBuilder (TypeBuilder<?> typeBuilder) {
+		typeBuilders.add(typeBuilder);
+	}
+	
+	@Override
+	public void addTypeBuilders(Collection<TypeBuilder<?>> typeBuilders) {
+		this.typeBuilders.addAll(typeBuilders);
+	}
+	
+	@Override
+	public boolean removeTypeBuilder (
+			Class<? extends TypeBuilder<?>> typeBuilderClass) {
+		TypeBuilder<?> remTypeBuilder = findTypeBuilder(typeBuilderClass);
+		return typeBuilders.remove(remTypeBuilder);
+	}
+
+	@Override
+	public String toString() {
+		return "IterativeWorkflow [typeBuilders=" + typeBuilders + "]";
+	}
+	
+	/**
+	 * An unfinished {@link BuildTask}, with the type it builds and the 
+	 * index of the {@link TypeBuilder} that began it.
+	 */
+	private static final class Frame {
+		
+		private final JavaType javaType;
+		private final int builderIndex;
+		private final BuildTask<?> task;
+		
+		private Frame(JavaType javaType, int builderIndex, 
+				BuildTask<?> task) {
+			this.javaType = javaType;
+			this.builderIndex = builderIndex;
+			this.task = task;
+		}
+	}
+}
@@ -0,0 +1,161 @@
+package com.github.jrgen.test.core;
+
+import java.io.ByteArrayInputStream;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import junit.framework.TestCase;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.jrgen.configuration.Configuration;
+import com.github.jrgen.configuration.ConfigurationImpl;
+import com.github.jrgen.configuration.ConfigurationReader;
+import com.github.jrgen.dictionary.Dictionaries;
+import com.github.jrgen.dictionary.MappedStringDictionary;
+import com.github.jrgen.dictionary.StringDictionary;
+
+public class ConfigurationReaderTest {
+
+	private static final Log log =
+			LogFactory.getLog(ConfigurationReaderTest.class);
+	private static final String[] RESOURCES = {"address", "contact", "file",
+		"immutable", "location", "names", "order"};
+
+	@Test
+	public void databindEquivalenceTest() throws Exception {
+		ConfigurationReader reader = new ConfigurationReader();
+		ObjectMapper mapper = new ObjectMapper();
+
+		for (String resource : RESOURCES) {
+			URL url = getClass().getResource(
+					"/jrgen-resources/" + resource + ".json");
+			Set<Configuration> streamed = reader.read(url);
+			Set<ConfigurationImpl> mapped = mapper.readValue(url, mapper
+					.getTypeFactory().constructCollectionType(Set.class,
+							ConfigurationImpl.class));
+
+			log.info(resource + ": " + streamed.size() + " configuration(s)");
+			TestCase.assertFalse(streamed.isEmpty());
+			TestCase.assertEquals(new HashSet<Configuration>(mapped),
+					new HashSet<Configuration>(streamed));
+		}
+	}
+
+	@Test
+	public void valueTypesTest() throws Exception {
+		String json = "[{\"namespaces\": [\"a.B\"], \"data\": {\"values\": " +
+				"[\"s\", 1, 12345678901, 1.5, true, null, [1], {\"k\": 2}]}}]";
+		Set<Configuration> configs = new ConfigurationReader().read(
+				new ByteArrayInputStream(json.getBytes("UTF-8")));
+		ConfigurationImpl config = (ConfigurationImpl) configs.iterator().next();
+		List<Object> values = config.getData().get("values");
+
+		TestCase.assertTrue(config.getNamespaces().contains("a.B"));
+		TestCase.assertEquals(8, values.size());
+		TestCase.assertEquals("s", values.get(0));
+		TestCase.assertEquals(Integer.valueOf(1), values.get(1));
+		TestCase.assertEquals(Long.valueOf(12345678901L), values.get(2));
+		TestCase.assertEquals(Double.valueOf(1.5), values.get(3));
+		TestCase.assertEquals(Boolean.TRUE, values.get(4));
+		TestCase.assertNull(values.get(5));
+		TestCase.assertTrue(values.get(6) instanceof List);
+		TestCase.assertTrue(values.get(7) instanceof Map);
+	}
+
+	@Test
+	public void weightedValuesTest() throws Exception {
+		String json = "[{\"namespaces\": [\"a.B\"], \"data\": {\"values\": " +
+				"[{\"value\": \"a\", \"weight\": 3}, " +
+				"{\"value\": \"b\", \"weight\": \"heavy\"}, " +
+				"{\"value\": \"c\", \"weight\": -1}, " +
+				"{\"value\": \"d\", \"mass\": 2}, " +
+				"{\"value\": {\"value\": 2, \"weight\": 5}, \"weight\": 1}]}}]";
+		ConfigurationImpl config = (ConfigurationImpl) new ConfigurationReader()
+				.read(new ByteArrayInputStream(json.getBytes("UTF-8")))
+				.iterator().next();
+		List<Object> values = config.getData().get("values");
+
+		//Only objects of a value and a valid weight are unwrapped, once.
+		TestCase.assertEquals("a", values.get(0));
+		TestCase.assertTrue(values.get(1) instanceof Map);
+		TestCase.assertTrue(values.get(2) instanceof Map);
+		TestCase.assertTrue(values.get(3) instanceof Map);
+		TestCase.assertEquals(Integer.valueOf(5), 
+				((Map<?, ?>) values.get(4)).get("weight"));
+	}
+
+	@Test
+	public void setDataCopiesTest() throws Exception {
+		Map<String, Object> weighted = new LinkedHashMap<String, Object>();
+		weighted.put("value", "a");
+		weighted.put("weight", 2);
+		List<Object> values = new ArrayList<Object>();
+		values.add(weighted);
+		Map<String, List<Object>> data = 
+				new LinkedHashMap<String, List<Object>>();
+		data.put("values", values);
+		ConfigurationImpl config = new ConfigurationImpl();
+		config.setData(data);
+
+		//The setter unwraps a copy, the reader hands its own lists over.
+		TestCase.assertEquals("a", config.getData().get("values").get(0));
+		TestCase.assertSame(weighted, values.get(0));
+	}
+
+	@Test(expected=JsonMappingException.class)
+	public void unknownFieldTest() throws Exception {
+		new ConfigurationReader().read(new ByteArrayInputStream(
+				"[{\"namespace\": [\"a.B\"]}]".getBytes("UTF-8")));
+	}
+
+	@Test
+	public void sharedReferenceTest() throws Exception {
+		StringDictionary firstNames = new MappedStringDictionary(
+				ByteBuffer.wrap("ann\nbob".getBytes("UTF-8")));
+		Dictionaries.register("firstNames", firstNames);
+		String json = "[{\"namespaces\": [\"a.Customer\"], \"data\": " +
+				"{\"firstName\": {\"$ref\": \"dict:firstNames\"}, " +
+				"\"code\": [1]}}, {\"dictionaries\": {\"agent\": " +
+				"\"dict:agents\"}, \"namespaces\": [\"a.Employee\"], \"data\": " +
+				"{\"firstName\": {\"$ref\": \"dict:firstNames\"}}}]";
+
+		try {
+			Iterator<Configuration> configs = new ConfigurationReader().read(
+					new ByteArrayInputStream(json.getBytes("UTF-8"))).iterator();
+			Configuration customer = configs.next();
+			Configuration employee = configs.next();
+			log.info(employee);
+
+			TestCase.assertSame(firstNames, customer.getDictionary("firstName"));
+			TestCase.assertSame(firstNames, employee.getDictionary("firstName"));
+			TestCase.assertFalse(customer.getData().containsKey("firstName"));
+			TestCase.assertEquals(1, customer.getData().get("code").size());
+			TestCase.assertEquals(2, customer.getSampler("firstName").size());
+
+			//Names not registered are text files of the dictionaries directory.
+			TestCase.assertSame(Dictionaries.resolve("dictionaries/agents.txt"),
+					employee.getDictionary("agent"));
+		} finally {
+			Dictionaries.unregister("firstNames");
+		}
+	}
+
+	@Test(expected=JsonMappingException.class)
+	public void invalidReferenceTest() throws Exception {
+		new ConfigurationReader().read(new ByteArrayInputStream(("[{\"data\": " +
+				"{\"firstName\": {\"ref\": \"dict:firstNames\"}}}]")
+				.getBytes("UTF-8")));
+	}
+}
@@ -0,0 +1,198 @@
+package com.github.jrgen.test.core;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import junit.framework.TestCase;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.github.jrgen.configuration.Configuration;
+import com.github.jrgen.context.ConfigurationReloader;
+import com.github.jrgen.context.JrgenContext;
+import com.github.jrgen.test.domain.Name;
+
+public class ConfigurationReloaderTest {
+
+	private static final Log log = 
+			LogFactory.getLog(ConfigurationReloaderTest.class);
+	
+	private File resource;
+	private JrgenContext ctx;
+	
+	@Before
+	public void createContext() throws IOException {
+		resource = File.createTempFile("jrgen-reload", ".json");
+		resource.deleteOnExit();
+		writeNames("alpha");
+		
+		ctx = new JrgenContext();
+		ctx.getSettings().getResources().clear();
+		ctx.getSettings().getResources().add(resource.toURI());
+		ctx.initalizeContext();
+	}
+	
+	@After
+	public void deleteResource() {
+		resource.delete();
+	}
+	
+	@Test
+	public void reloadTest() throws IOException {
+		JavaType nameType = TypeFactory.defaultInstance()
+				.constructType(Name.class);
+		Map<JavaType, Configuration> before = ctx.getTypeMap();
+		
+		TestCase.assertEquals("alpha", ctx.generate(Name.class).getFirstName());
+		TestCase.assertFalse(ctx.reload());
+		
+		writeNames("beta");
+		TestCase.assertTrue(ctx.reload());
+		log.info(ctx.getTypeMap());
+		
+		TestCase.assertEquals("beta", ctx.generate(Name.class).getFirstName());
+		TestCase.assertFalse(ctx.reload());
+		
+		//The map obtained before the reload is left untouched.
+		TestCase.assertNotSame(before.get(nameType), 
+				ctx.getConfiguration(nameType));
+		TestCase.assertEquals("alpha", 
+				before.get(nameType).getData().get("firstName").get(0));
+	}
+	
+	@Test
+	public void snapshotTest() throws IOException {
+		File snapshot = File.createTempFile("jrgen-reload", ".jrcs");
+		snapshot.delete();
+		snapshot.deleteOnExit();
+		
+		JrgenContext compiling = newContext(snapshot);
+		writeNames("beta");
+		TestCase.assertTrue(compiling.reload());
+		
+		//The snapshot is written again with the reloaded configurations.
+		JrgenContext mapped = newContext(snapshot);
+		TestCase.assertEquals(Collections.singleton(snapshot.toURI()), 
+				mapped.getLoadTimes().keySet());
+		TestCase.assertEquals("beta", 
+				mapped.generate(Name.class).getFirstName());
+		snapshot.delete();
+	}
+	
+	@Test
+	public void invalidFileTest() throws IOException {
+		write("[{\"namespaces\": ");
+		
+		try {
+			ctx.reload();
+			TestCase.fail("The invalid file was reloaded.");
+		} catch (RuntimeException e) {
+			log.info(e.getMessage());
+		}
+		
+		TestCase.assertEquals("alpha", ctx.generate(Name.class).getFirstName());
+		
+		//The file is only marked as loaded once reloaded, so it is retried.
+		try {
+			ctx.reload();
+			TestCase.fail("The invalid file was skipped.");
+		} catch (RuntimeException e) {
+			log.info(e.getMessage());
+		}
+		
+		resource.delete();
+		TestCase.assertTrue(ctx.reload());
+		TestCase.assertTrue(ctx.getTypeMap().isEmpty());
+	}
+	
+	@Test
+	public void emptyResourceTest() throws Exception {
+		File jar = File.createTempFile("jrgen-reload", ".jar");
+		jar.deleteOnExit();
+		JarOutputStream out = new JarOutputStream(new FileOutputStream(jar));
+		
+		try {
+			out.putNextEntry(new JarEntry("empty.json"));
+			out.write("[]".getBytes("UTF-8"));
+			out.closeEntry();
+		} finally {
+			out.close();
+		}
+		
+		JrgenContext jarCtx = new JrgenContext();
+		jarCtx.getSettings().getResources().clear();
+		jarCtx.getSettings().getResources().add(resource.toURI());
+		jarCtx.getSettings().getResources().add(
+				new URI("jar:" + jar.toURI() + "!/empty.json"));
+		jarCtx.initalizeContext();
+		
+		//A resource of a jar without configurations is not parsed again.
+		TestCase.assertFalse(jarCtx.reload());
+		jar.delete();
+	}
+	
+	@Test
+	public void reloaderTest() throws Exception {
+		ConfigurationReloader reloader = new ConfigurationReloader(ctx, 10, 
+				TimeUnit.MILLISECONDS);
+		reloader.start();
+		
+		try {
+			writeNames("gamma");
+			long deadline = System.currentTimeMillis() + 10000;
+			
+			while (!"gamma".equals(ctx.generate(Name.class).getFirstName())) {
+				TestCase.assertTrue(System.currentTimeMillis() < deadline);
+				Thread.sleep(10);
+			}
+			
+			log.info(reloader);
+		} finally {
+			reloader.stop();
+		}
+		
+		TestCase.assertFalse(reloader.isStarted());
+	}
+	
+	private JrgenContext newContext(File snapshot) {
+		JrgenContext context = new JrgenContext();
+		context.getSettings().getResources().clear();
+		context.getSettings().getResources().add(resource.toURI());
+		context.getSettings().setSnapshot(snapshot);
+		
+		return context.initalizeContext();
+	}
+	
+	private void writeNames(String firstName) throws IOException {
+		write("[{\"namespaces\": [\"com.github.jrgen.test.domain.Name\"], " + 
+				"\"data\": {\"firstName\": [\"" + firstName + "\"]}}]");
+	}
+	
+	private void write(String json) throws IOException {
+		long previous = resource.lastModified();
+		OutputStream out = new FileOutputStream(resource);
+		
+		try {
+			out.write(json.getBytes("UTF-8"));
+		} finally {
+			out.close();
+		}
+		
+		//File systems may only keep the modification time to the second.
+		resource.setLastModified(previous + 2000);
+	}
+}
@@ -0,0 +1,131 @@
+package com.github.jrgen.test.core;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import junit.framework.TestCase;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.junit.Test;
+
+import com.github.jrgen.configuration.Configuration;
+import com.github.jrgen.configuration.ConfigurationReader;
+import com.github.jrgen.configuration.ConfigurationSnapshot;
+import com.github.jrgen.sampler.IndexSampler;
+
+public class ConfigurationSnapshotTest {
+
+	private static final Log log =
+			LogFactory.getLog(ConfigurationSnapshotTest.class);
+	private static final String[] RESOURCES = {"jrgen-resources/address",
+		"jrgen-resources/contact", "jrgen-resources/file", 
+		"jrgen-resources/immutable", "jrgen-resources/location", 
+		"jrgen-resources/names", "jrgen-resources/order", 
+		"sampling-resources/address", "sampling-resources/names"};
+
+	@Test
+	public void roundTripTest() throws Exception {
+		ConfigurationReader reader = new ConfigurationReader();
+		List<URI> sources = new ArrayList<URI>();
+		Set<Configuration> configs = new HashSet<Configuration>();
+
+		for (String resource : RESOURCES) {
+			URL url = getClass().getResource(
+					"/" + resource + ".json");
+			Set<Configuration> read = reader.read(url);
+
+			for (Configuration config : read) {
+				config.setResource(url.toURI());
+			}
+
+			sources.add(url.toURI());
+			configs.addAll(read);
+		}
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ConfigurationSnapshot.write(out, sources, configs);
+		ConfigurationSnapshot snapshot = new ConfigurationSnapshot(
+				ByteBuffer.wrap(out.toByteArray()));
+		log.info(snapshot + ", " + out.size() + " bytes");
+
+		TestCase.assertEquals(configs.size(), snapshot.size());
+		TestCase.assertEquals(configs,
+				new HashSet<Configuration>(snapshot.getConfigurations()));
+		TestCase.assertTrue(snapshot.isCurrent(sources));
+
+		for (int i = 0; i < snapshot.size(); i++) {
+			TestCase.assertEquals(snapshot.getConfiguration(i).getNamespaces(),
+					snapshot.getNamespaces(i));
+		}
+	}
+
+	@Test
+	public void weightsTest() throws Exception {
+		String json = "[{\"namespaces\": [\"a.B\"], \"data\": {\"code\": " +
+				"[{\"value\": \"rare\", \"weight\": 0.000001}, " +
+				"{\"value\": \"common\", \"weight\": 1000}]}}]";
+		Set<Configuration> configs = new ConfigurationReader().read(
+				new ByteArrayInputStream(json.getBytes("UTF-8")));
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ConfigurationSnapshot.write(out, Collections.<URI>emptyList(), configs);
+		Configuration config = new ConfigurationSnapshot(ByteBuffer.wrap(
+				out.toByteArray())).getConfiguration(0);
+		IndexSampler sampler = config.getSampler("code");
+		Random random = new Random(7);
+
+		TestCase.assertEquals(configs.iterator().next(), config);
+
+		for (int i = 0; i < 100; i++) {
+			TestCase.assertEquals(1, sampler.nextIndex(random));
+		}
+	}
+
+	@Test
+	public void staleSnapshotTest() throws Exception {
+		File source = File.createTempFile("jrgen-snapshot", ".json");
+		File snapshotFile = File.createTempFile("jrgen-snapshot", ".jrcs");
+		source.deleteOnExit();
+		snapshotFile.deleteOnExit();
+		OutputStream out = new FileOutputStream(source);
+
+		try {
+			out.write("[{\"namespaces\": [\"a.B\"]}]".getBytes("UTF-8"));
+		} finally {
+			out.close();
+		}
+
+		List<URI> sources = Collections.singletonList(source.toURI());
+		ConfigurationSnapshot.write(snapshotFile, sources,
+				new ConfigurationReader().read(source.toURI().toURL()));
+		ConfigurationSnapshot snapshot = ConfigurationSnapshot.open(snapshotFile);
+
+		TestCase.assertTrue(snapshot.isCurrent(sources));
+		TestCase.assertFalse(snapshot.isCurrent(Collections.<URI>emptyList()));
+
+		long compiled = source.lastModified();
+		source.setLastModified(compiled + 60000);
+		TestCase.assertFalse(snapshot.isCurrent(sources));
+		
+		//A source restored with an older time is modified as well.
+		source.setLastModified(compiled - 60000);
+		TestCase.assertFalse(snapshot.isCurrent(sources));
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void notSnapshotTest() {
+		new ConfigurationSnapshot(ByteBuffer.wrap(new byte[16]));
+	}
+}
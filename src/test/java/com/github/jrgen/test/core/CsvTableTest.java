@@ -0,0 +1,108 @@
+package com.github.jrgen.test.core;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.zip.GZIPOutputStream;
+
+import junit.framework.TestCase;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.junit.Test;
+
+import com.github.jrgen.context.JrgenContext;
+import com.github.jrgen.dictionary.CsvTable;
+import com.github.jrgen.dictionary.StringDictionary;
+import com.github.jrgen.settings.Settings.FileType;
+import com.github.jrgen.test.domain.Name;
+
+public class CsvTableTest {
+
+	private static final Log log = LogFactory.getLog(CsvTableTest.class);
+	private static final String NAME = "com.github.jrgen.test.domain.Name";
+
+	@Test
+	public void parseTest() throws Exception {
+		CsvTable table = new CsvTable(ByteBuffer.wrap(("first,\"last\"\r\n" +
+				"ann,\"o\"\"hara, jr\"\r\n,\"two\nlines\"\n\u00e9,x")
+				.getBytes("UTF-8")));
+		log.info(table);
+
+		TestCase.assertEquals(Arrays.asList("first", "last"),
+				table.getColumns());
+		TestCase.assertEquals(3, table.size());
+
+		StringDictionary first = table.getDictionary("first");
+		StringDictionary last = table.getDictionary("last");
+
+		TestCase.assertEquals("ann", first.get(0));
+		TestCase.assertEquals("o\"hara, jr", last.get(0));
+		TestCase.assertEquals("", first.get(1));
+		TestCase.assertEquals("two\nlines", last.get(1));
+		TestCase.assertEquals("\u00e9", first.get(2));
+		TestCase.assertEquals("x", last.get(2));
+		TestCase.assertNull(table.getDictionary("middle"));
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void missingFieldTest() throws Exception {
+		new CsvTable(ByteBuffer.wrap("a,b\n1,2\n3\n".getBytes("UTF-8")));
+	}
+
+	@Test
+	public void contextTest() throws Exception {
+		File directory = File.createTempFile("jrgen-csv", "");
+		directory.delete();
+		directory.mkdir();
+		File csv = write(new File(directory, NAME + ".csv"),
+				"firstName,lastName\nada,lovelace\nalan,turing\n", false);
+		File text = write(new File(directory, NAME + ".middleName.txt.gz"),
+				"m\n", true);
+
+		try {
+			JrgenContext ctx = new JrgenContext();
+			ctx.getSettings().getResources().clear();
+			ctx.getSettings().getResources().add(csv.toURI());
+			ctx.getSettings().getResources().add(text.toURI());
+			ctx.getSettings().getFileTypes().add(FileType.TEXT);
+			ctx.getSettings().getFileTypes().add(FileType.CSV);
+			ctx.initalizeContext();
+			log.info(ctx.getTypeMap());
+
+			for (int i = 0; i < 20; i++) {
+				Name name = ctx.generate(Name.class);
+
+				TestCase.assertTrue(Arrays.asList("ada", "alan")
+						.contains(name.getFirstName()));
+				TestCase.assertTrue(Arrays.asList("lovelace", "turing")
+						.contains(name.getLastName()));
+				TestCase.assertEquals("m", name.getMiddleName());
+			}
+		} finally {
+			csv.delete();
+			text.delete();
+			directory.delete();
+		}
+	}
+
+	private static File write(File file, String content, boolean gzip)
+			throws IOException {
+		OutputStream out = new FileOutputStream(file);
+
+		try {
+			if (gzip) {
+				out = new GZIPOutputStream(out);
+			}
+
+			out.write(content.getBytes("UTF-8"));
+		} finally {
+			out.close();
+		}
+
+		return file;
+	}
+}
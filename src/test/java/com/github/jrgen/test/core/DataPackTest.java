@@ -0,0 +1,119 @@
+package com.github.jrgen.test.core;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import junit.framework.TestCase;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.github.jrgen.context.JrgenContext;
+import com.github.jrgen.dictionary.DataPack;
+import com.github.jrgen.dictionary.StringDictionary;
+import com.github.jrgen.test.domain.Contact;
+
+public class DataPackTest {
+	
+	private static final Log log = LogFactory.getLog(DataPackTest.class);
+	
+	private static final List<String> FIRST_NAMES = Arrays.asList(
+			"john", "jane", "david", "danielle", "Zo\u00eb", "");
+	private static final List<String> COMPANIES = Arrays.asList(
+			"Acme", "Globex", "Initech", "Umbrella");
+	private static final List<String> STREETS = Arrays.asList(
+			"Elm St.", "Main St.");
+	
+	@BeforeClass
+	public static void writePack() throws Exception {
+		File file = File.createTempFile("test-pack", DataPack.EXTENSION);
+		file.deleteOnExit();
+		OutputStream out = new FileOutputStream(file);
+		
+		try {
+			DataPack.write(out, lists());
+		} finally {
+			out.close();
+		}
+		
+		DataPack.register("test-pack", DataPack.open(file));
+	}
+	
+	@Test
+	public void roundTripTest() throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		DataPack.write(out, lists());
+		DataPack pack = new DataPack(ByteBuffer.wrap(out.toByteArray()));
+		
+		TestCase.assertEquals(lists().keySet(), pack.getNames());
+		
+		for (Map.Entry<String, List<String>> entry : lists().entrySet()) {
+			StringDictionary dictionary = pack.getDictionary(entry.getKey());
+			
+			TestCase.assertEquals(entry.getValue().size(), dictionary.size());
+			
+			for (int i = 0; i < dictionary.size(); i++) {
+				TestCase.assertEquals(entry.getValue().get(i), 
+						dictionary.get(i));
+			}
+		}
+		
+		log.info(pack);
+	}
+	
+	@Test
+	public void resolveTest() {
+		StringDictionary dictionary = DataPack.resolve("test-pack#firstNames");
+		
+		TestCase.assertEquals(FIRST_NAMES.size(), dictionary.size());
+		TestCase.assertEquals("Zo\u00eb", dictionary.get(4));
+	}
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void missingListTest() {
+		DataPack.resolve("test-pack#cities");
+	}
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void notAPackTest() {
+		new DataPack(ByteBuffer.wrap(new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 
+				9, 10, 11, 12}));
+	}
+	
+	@Test
+	public void dictionaryPropertiesTest() {
+		JrgenContext jrgenContext = new JrgenContext().initalizeContext();
+		Set<String> companies = new HashSet<String>();
+		
+		for (int i = 0; i < COMPANIES.size(); i++) {
+			Contact contact = jrgenContext.generate(Contact.class);
+			
+			TestCase.assertTrue(FIRST_NAMES.contains(contact.getFirstName()));
+			TestCase.assertTrue(STREETS.contains(contact.getStreet()));
+			TestCase.assertTrue(companies.add(contact.getCompany()));
+			TestCase.assertTrue(contact.getUserAgent().length() > 0);
+		}
+		
+		log.info(jrgenContext.generate(Contact.class));
+	}
+	
+	private static Map<String, List<String>> lists() {
+		Map<String, List<String>> lists = 
+				new LinkedHashMap<String, List<String>>();
+		lists.put("firstNames", FIRST_NAMES);
+		lists.put("companies", COMPANIES);
+		lists.put("streets", STREETS);
+		return lists;
+	}
+}
@@ -0,0 +1,110 @@
+package com.github.jrgen.test.core;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+import org.junit.Test;
+
+import com.github.jrgen.sampler.DeckSampler;
+
+public class DeckSamplerTest {
+	
+	private final Random random = new Random();
+
+	@Test
+	public void roundsTest() {
+		DeckSampler deck = new DeckSampler(1000);
+		
+		for (int round = 0; round < 3; round++) {
+			BitSet dealt = new BitSet(1000);
+			
+			for (int i = 0; i < 1000; i++) {
+				int index = deck.nextIndex(random);
+				
+				TestCase.assertFalse(dealt.get(index));
+				dealt.set(index);
+			}
+		}
+	}
+	
+	@Test
+	public void threadsTest() throws InterruptedException {
+		final DeckSampler deck = new DeckSampler(10000);
+		final int[][] dealt = new int[4][2500];
+		List<Thread> threads = new ArrayList<Thread>();
+		
+		for (int t = 0; t < dealt.length; t++) {
+			final int[] threadDealt = dealt[t];
+			
+			threads.add(new Thread(new Runnable() {
+				
+				@Override
+				public void run() {
+					for (int i = 0; i < threadDealt.length; i++) {
+						threadDealt[i] = deck.nextIndex(random);
+					}
+				}
+			}));
+		}
+		
+		for (Thread thread : threads) {
+			thread.start();
+		}
+		
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		
+		BitSet all = new BitSet(10000);
+		
+		for (int[] threadDealt : dealt) {
+			for (int index : threadDealt) {
+				TestCase.assertFalse(all.get(index));
+				all.set(index);
+			}
+		}
+		
+		TestCase.assertEquals(10000, all.cardinality());
+	}
+	
+	@Test
+	public void staleSegmentTest() throws InterruptedException {
+		final DeckSampler deck = new DeckSampler(32);
+		final BitSet dealt = new BitSet(32);
+		
+		//Claims a segment of the first round, of 2 values, and deals 1.
+		deck.nextIndex(random);
+		
+		//Claims the rest of the first round, then all but the last segment 
+		//of the second round.
+		Thread other = new Thread(new Runnable() {
+			
+			@Override
+			public void run() {
+				for (int i = 0; i < 60; i++) {
+					int index = deck.nextIndex(random);
+					
+					if (i >= 30) {
+						dealt.set(index);
+					}
+				}
+			}
+		});
+		other.start();
+		other.join();
+		
+		//The value left from the first round is discarded.
+		for (int i = 0; i < 2; i++) {
+			int index = deck.nextIndex(random);
+			
+			TestCase.assertFalse(dealt.get(index));
+			dealt.set(index);
+		}
+		
+		TestCase.assertEquals(32, dealt.cardinality());
+	}
+}
@@ -12,6 +12,7 @@ import org.junit.Test;
 import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.type.TypeFactory;
 import com.github.jrgen.descriptor.Descriptor;
+import com.github.jrgen.descriptor.PropertyAccessor;
 import com.github.jrgen.test.domain.Person;
 
 public class DescriptorTest {
@@ -69,4 +70,16 @@ public class DescriptorTest {
 		log.info(strBlder);
 		TestCase.assertFalse(javaTypeMap.isEmpty());
 	}
+	
+	@Test
+	public void describeAccessorsCachedTest() {
+		Descriptor d = new Descriptor();
+		Map<String, PropertyAccessor> accessors = 
+				d.describeAccessors(Person.class);
+		
+		log.info(accessors);
+		TestCase.assertSame(accessors, 
+				new Descriptor().describeAccessors(Person.class));
+		TestCase.assertNotNull(accessors.get("name").getWriteMethod());
+	}
 }
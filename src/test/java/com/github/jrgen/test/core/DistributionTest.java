@@ -0,0 +1,86 @@
+package com.github.jrgen.test.core;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+
+import com.github.jrgen.sampler.Distribution;
+import com.github.jrgen.sampler.IndexSampler;
+
+@RunWith(Parameterized.class)
+public class DistributionTest {
+	
+	private static final Log log = LogFactory.getLog(DistributionTest.class);
+	
+	@Parameters
+	public static Collection<Object[]> distributionParams() {
+		return Arrays.asList(new Object[][]{
+				{"uniform"}, {"zipf"}, {"zipf:1.5"}, {"normal"}, 
+				{"normal:0.5"}, {"exponential"}, {"lognormal:0.2,0.5"}
+		});
+	}
+	
+	@Parameter
+	public String specification;
+	
+	private final Random random = new Random();
+
+	@Test
+	public void testRanges() {
+		Distribution distribution = Distribution.parse(specification);
+		log.info(distribution);
+		
+		for (int i = 0; i < 10000; i++) {
+			long num = distribution.nextLong(random, -100, 100);
+			TestCase.assertTrue(num <= 100 && num >= -100);
+			
+			num = distribution.nextLong(random, 7, 7);
+			TestCase.assertEquals(7, num);
+			
+			double d = distribution.nextDouble(random, 10.0, 20.0);
+			TestCase.assertTrue(d < 20.0 && d >= 10.0);
+			
+			double fraction = distribution.nextFraction(random);
+			TestCase.assertTrue(fraction < 1.0 && fraction >= 0.0);
+		}
+		
+		distribution.nextLong(random, Long.MIN_VALUE, Long.MAX_VALUE);
+	}
+	
+	@Test
+	public void testSampler() {
+		IndexSampler sampler = Distribution.parse(specification).sampler(10);
+		int[] counts = new int[sampler.size()];
+		
+		for (int i = 0; i < 10000; i++) {
+			counts[sampler.nextIndex(random)]++;
+		}
+		
+		log.info(specification + ": " + Arrays.toString(counts));
+		
+		if (specification.startsWith("zipf") || 
+				specification.startsWith("exponential")) {
+			//The first values are favored.
+			TestCase.assertTrue(counts[0] > counts[9]);
+		}
+	}
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void testIllegalParameter() {
+		Distribution.parse(specification.split(":")[0] + ":-1");
+		
+		if (specification.startsWith("uniform")) {
+			throw new IllegalArgumentException();
+		}
+	}
+}
@@ -1,10 +1,14 @@
 package com.github.jrgen.test.core;
 
 import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -22,9 +26,14 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.type.TypeFactory;
 import com.github.jrgen.configuration.Configuration;
 import com.github.jrgen.context.JrgenContext;
+import com.github.jrgen.test.domain.Address;
 import com.github.jrgen.test.domain.ImmutableName;
 import com.github.jrgen.test.domain.Name;
 import com.github.jrgen.test.domain.Person;
+import com.github.jrgen.test.profile.Group;
+import com.github.jrgen.test.profile.PersonalGroup;
+import com.github.jrgen.test.profile.ProfessionalGroup;
+import com.github.jrgen.test.profile.UserProfile;
 
 public class JrgenContextTest {
 	
@@ -53,6 +62,266 @@ public class JrgenContextTest {
 		log.info(nameConfig);	
 	}
 	
+	@Test
+	public void typeMapResolvedOnceTest() {
+		Map<JavaType, Configuration> typeMap = ctx.getTypeMap();
+		
+		//The classes are resolved by the first call only, the same map is
+		//returned afterwards.
+		TestCase.assertNotNull(typeMap.get(typeFactory
+				.constructType(Name.class)));
+		TestCase.assertSame(typeMap, ctx.getTypeMap());
+	}
+
+	@Test
+	public void loadTimesTest() throws URISyntaxException {
+		File resources = new File(
+				JrgenContextTest.class.getResource("/jrgen-resources").toURI());
+		Set<URI> jsonFiles = new HashSet<URI>();
+		
+		for (File file : resources.listFiles()) {
+			if (file.getName().endsWith(".json")) {
+				jsonFiles.add(file.toURI());
+			}
+		}
+		
+		Map<URI, Long> loadTimes = ctx.getLoadTimes();
+		log.info(loadTimes);
+		
+		//Each file is parsed exactly once.
+		TestCase.assertEquals(jsonFiles, loadTimes.keySet());
+		
+		for (Long loadTime : loadTimes.values()) {
+			TestCase.assertTrue(loadTime >= 0);
+		}
+	}
+	
+	@Test
+	public void sequentialLoadingTest() {
+		JrgenContext sequential = new JrgenContext();
+		sequential.getSettings().setLoaderThreads(1);
+		sequential.initalizeContext();
+		
+		JrgenContext parallel = new JrgenContext();
+		parallel.getSettings().setLoaderThreads(4);
+		parallel.initalizeContext();
+		
+		TestCase.assertEquals(parallel.getTypeMap(), sequential.getTypeMap());
+		//The files are listed in the same order, however they are parsed.
+		TestCase.assertEquals(
+				new ArrayList<URI>(parallel.getLoadTimes().keySet()), 
+				new ArrayList<URI>(sequential.getLoadTimes().keySet()));
+	}
+	
+	@Test
+	public void snapshotTest() throws Exception {
+		File snapshot = File.createTempFile("jrgen-context", ".jrcs");
+		snapshot.delete();
+		snapshot.deleteOnExit();
+		
+		JrgenContext compiling = new JrgenContext();
+		compiling.getSettings().setSnapshot(snapshot);
+		compiling.initalizeContext();
+		
+		TestCase.assertTrue(snapshot.isFile());
+		
+		JrgenContext mapped = new JrgenContext();
+		mapped.getSettings().setSnapshot(snapshot);
+		mapped.initalizeContext();
+		log.info(mapped.getLoadTimes());
+		
+		//The resource files are no longer parsed.
+		TestCase.assertEquals(Collections.singleton(snapshot.toURI()), 
+				mapped.getLoadTimes().keySet());
+		TestCase.assertEquals(ctx.getTypeMap(), mapped.getTypeMap());
+		TestCase.assertNotNull(mapped.generate(Person.class).getName());
+	}
+	
+	@Test
+	public void lazyLoadingTest() throws Exception {
+		final JrgenContext lazy = new JrgenContext();
+		lazy.getSettings().setLazyLoading(true);
+		lazy.initalizeContext();
+		
+		TestCase.assertTrue(lazy.getLoadTimes().isEmpty());
+		
+		//Only the file holding the Name namespace is parsed, and only once.
+		final JavaType nameType = typeFactory.constructType(Name.class);
+		final Configuration[] configs = new Configuration[4];
+		List<Thread> threads = new LinkedList<Thread>();
+		
+		for (int i = 0; i < configs.length; i++) {
+			final int index = i;
+			threads.add(new Thread() {
+				@Override
+				public void run() {
+					configs[index] = lazy.getConfiguration(nameType);
+				}
+			});
+		}
+		
+		for (Thread thread : threads) {
+			thread.start();
+		}
+		
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		
+		for (Configuration config : configs) {
+			TestCase.assertSame(configs[0], config);
+		}
+		
+		TestCase.assertNotNull(configs[0]);
+		TestCase.assertNotNull(lazy.generate(Name.class).getFirstName());
+		TestCase.assertNull(lazy.getConfiguration(
+				typeFactory.constructType(String.class)));
+		log.info(lazy.getLoadTimes());
+		TestCase.assertEquals(1, lazy.getLoadTimes().size());
+		TestCase.assertTrue(lazy.getLoadTimes().keySet().iterator().next()
+				.getPath().endsWith("names.json"));
+		
+		TestCase.assertEquals(ctx.getTypeMap(), lazy.getTypeMap());
+		TestCase.assertEquals(ctx.getLoadTimes().keySet(), 
+				lazy.getLoadTimes().keySet());
+	}
+	
+	@Test
+	public void lazyLoadingRetryTest() throws Exception {
+		File resource = File.createTempFile("jrgen-lazy", ".json");
+		resource.deleteOnExit();
+		//The namespaces are indexed, the data cannot be mapped.
+		write(resource, "[{\"namespaces\": [\"com.github.jrgen.test." + 
+				"domain.Name\"], \"data\": {\"firstName\": 5}}]");
+		
+		JrgenContext lazy = new JrgenContext();
+		lazy.getSettings().getResources().clear();
+		lazy.getSettings().getResources().add(resource.toURI());
+		lazy.getSettings().setLazyLoading(true);
+		lazy.initalizeContext();
+		JavaType nameType = typeFactory.constructType(Name.class);
+		
+		try {
+			lazy.getConfiguration(nameType);
+			TestCase.fail("The invalid file was loaded.");
+		} catch (RuntimeException e) {
+			log.info(e.getMessage());
+		}
+		
+		//The failure is not kept, the fixed file is loaded.
+		write(resource, "[{\"namespaces\": [\"com.github.jrgen.test." + 
+				"domain.Name\"], \"data\": {\"firstName\": [\"ann\"]}}]");
+		TestCase.assertEquals("ann", lazy.getConfiguration(nameType)
+				.getData().get("firstName").get(0));
+		resource.delete();
+	}
+	
+	@Test
+	public void populateTest() {
+		Name name = new Name();
+		Address address = new Address();
+		Set<Name> contacts = new HashSet<Name>();
+		Person person = new Person();
+		person.setName(name);
+		person.setAddress(address);
+		person.setContacts(contacts);
+		
+		for (int i = 0; i < 3; i++) {
+			TestCase.assertSame(person, ctx.populate(person));
+			log.info(person);
+			
+			TestCase.assertSame(name, person.getName());
+			TestCase.assertSame(address, person.getAddress());
+			TestCase.assertSame(contacts, person.getContacts());
+			TestCase.assertNotNull(name.getFirstName());
+			TestCase.assertNotNull(address.getStreet());
+		}
+	}
+	
+	@Test
+	public void configuredObjectTest() throws Exception {
+		File resource = File.createTempFile("jrgen-object", ".json");
+		resource.deleteOnExit();
+		OutputStream out = new FileOutputStream(resource);
+		
+		try {
+			out.write(("[{\"namespaces\": [\"com.github.jrgen.test.domain." +
+					"Person\"], \"data\": {\"address\": " +
+					"[{\"city\": \"Springfield\"}]}}]").getBytes("UTF-8"));
+		} finally {
+			out.close();
+		}
+		
+		JrgenContext objects = new JrgenContext();
+		objects.getSettings().getResources().clear();
+		objects.getSettings().getResources().add(resource.toURI());
+		objects.initalizeContext();
+		
+		Person person = objects.generate(Person.class);
+		log.info(person);
+		
+		//The properties the configured object leaves undefined are generated.
+		TestCase.assertEquals("Springfield", person.getAddress().getCity());
+		TestCase.assertNotNull(person.getAddress().getStreet());
+		TestCase.assertNotNull(person.getAddress().getZipCode());
+		
+		person.getAddress().setStreet(null);
+		objects.populate(person);
+		
+		TestCase.assertEquals("Springfield", person.getAddress().getCity());
+		TestCase.assertNotNull(person.getAddress().getStreet());
+	}
+	
+	@Test
+	public void abstractTypeChangeTest() throws Exception {
+		File resource = File.createTempFile("jrgen-abstract", ".json");
+		resource.deleteOnExit();
+		OutputStream out = new FileOutputStream(resource);
+		
+		try {
+			out.write(("[{\"namespaces\": [\"com.github.jrgen.test.profile." +
+					"UserProfile\"], \"data\": {\"groups\": " +
+					"[[{\"groupName\": \"friends\"}]]}}]").getBytes("UTF-8"));
+		} finally {
+			out.close();
+		}
+		
+		JrgenContext abstracts = new JrgenContext();
+		abstracts.getSettings().getResources().clear();
+		abstracts.getSettings().getResources().add(resource.toURI());
+		abstracts.initalizeContext();
+		abstracts.getAbstractTypeHandler().registerAbstractType(Group.class, 
+				ProfessionalGroup.class);
+		
+		TestCase.assertTrue(abstracts.generate(UserProfile.class).getGroups()
+				.get(0) instanceof ProfessionalGroup);
+		
+		//The plans built before the change are not reused.
+		abstracts.getAbstractTypeHandler().removeAbstractType(Group.class);
+		abstracts.getAbstractTypeHandler().registerAbstractType(Group.class, 
+				PersonalGroup.class);
+		
+		TestCase.assertTrue(abstracts.generate(UserProfile.class).getGroups()
+				.get(0) instanceof PersonalGroup);
+	}
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void populateNonBeanTest() {
+		ctx.populate(Integer.valueOf(1));
+	}
+	
+	@Test
+	public void populateAtLimitTest() {
+		JrgenContext limited = new JrgenContext();
+		limited.getSettings().setMaxNodes(0);
+		limited.initalizeContext();
+		Name name = new Name();
+		
+		//The limit is reached, the instance is left as is.
+		TestCase.assertSame(name, limited.populate(name));
+		TestCase.assertNull(name.getFirstName());
+	}
+	
 	@Test(expected=UnsupportedOperationException.class)
 	public void unmodifiableMapTest() {
 		ctx.getTypeMap().remove(typeFactory.constructType(Name.class));
@@ -163,4 +432,63 @@ public class JrgenContextTest {
 	public void setTypeBuildersNullTest() {
 		ctx.setTypeBuilders(null);
 	}
+
+	@Test
+	public void namespacePatternTest() throws Exception {
+		File resource = File.createTempFile("jrgen-patterns", ".json");
+		resource.deleteOnExit();
+		OutputStream out = new FileOutputStream(resource);
+		
+		try {
+			out.write(("[{\"namespaces\": [\"com.github.jrgen.test.domain.*\"]," +
+					" \"data\": {\"firstName\": [\"wild\"]}}, " +
+					"{\"namespaces\": [\"com.github.jrgen.test.domain.Name\"]," +
+					" \"data\": {\"firstName\": [\"exact\"]}}, " +
+					"{\"namespaces\": [\"com.**.profile.*\"]}]")
+					.getBytes("UTF-8"));
+		} finally {
+			out.close();
+		}
+		
+		for (boolean lazyLoading : new boolean[] {false, true}) {
+			JrgenContext patterns = new JrgenContext();
+			patterns.getSettings().getResources().clear();
+			patterns.getSettings().getResources().add(resource.toURI());
+			patterns.getSettings().setLazyLoading(lazyLoading);
+			patterns.initalizeContext();
+			
+			JavaType addressType = typeFactory.constructType(Address.class);
+			Configuration address = patterns.getConfiguration(addressType);
+			
+			//The class named takes precedence over the pattern.
+			TestCase.assertEquals("exact", patterns.generate(Name.class)
+					.getFirstName());
+			TestCase.assertEquals("wild", address.getData().get("firstName")
+					.get(0));
+			TestCase.assertSame(address, patterns.getConfiguration(addressType));
+			TestCase.assertNotNull(patterns.getConfiguration(
+					typeFactory.constructType(UserProfile.class)));
+			TestCase.assertNull(patterns.getConfiguration(
+					typeFactory.constructType(String.class)));
+			
+			Map<JavaType, Configuration> typeMap = patterns.getTypeMap();
+			log.info(typeMap);
+			
+			TestCase.assertSame(address, typeMap.get(addressType));
+			TestCase.assertTrue(typeMap.containsKey(
+					typeFactory.constructType(Name.class)));
+			TestCase.assertTrue(typeMap.containsKey(
+					typeFactory.constructType(UserProfile.class)));
+		}
+	}
+	
+	private void write(File resource, String json) throws Exception {
+		OutputStream out = new FileOutputStream(resource);
+		
+		try {
+			out.write(json.getBytes("UTF-8"));
+		} finally {
+			out.close();
+		}
+	}
 }
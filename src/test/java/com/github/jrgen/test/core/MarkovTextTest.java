@@ -0,0 +1,74 @@
+package com.github.jrgen.test.core;
+
+import java.io.StringReader;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.junit.Test;
+
+import com.github.jrgen.context.JrgenContext;
+import com.github.jrgen.generator.MarkovText;
+import com.github.jrgen.test.domain.Order;
+
+public class MarkovTextTest {
+	
+	private static final Log log = LogFactory.getLog(MarkovTextTest.class);
+	
+	@Test
+	public void transitionsTest() throws Exception {
+		MarkovText text = new MarkovText(
+				new StringReader("a b c. a b d. a b c."));
+		Random random = new Random(42L);
+		int c = 0;
+		
+		TestCase.assertEquals(4, text.getVocabularySize());
+		
+		for (int i = 0; i < 3000; i++) {
+			String sentence = text.withLength(3).generate(random);
+			
+			TestCase.assertTrue(sentence, 
+					sentence.equals("a b c.") || sentence.equals("a b d."));
+			c += sentence.equals("a b c.") ? 1 : 0;
+		}
+		
+		log.info(text + ", a b c. " + c + " times");
+		TestCase.assertTrue(c > 1700 && c < 2300);
+	}
+	
+	@Test
+	public void lengthTest() {
+		MarkovText text = MarkovText.fromResource("corpus/sample.txt");
+		Random random = new Random(7L);
+		
+		TestCase.assertSame(text, MarkovText.fromResource("corpus/sample.txt"));
+		
+		for (int i = 0; i < 100; i++) {
+			String value = text.withLength(25).generate(random);
+			
+			TestCase.assertEquals(value, 25, value.split(" ").length);
+			TestCase.assertTrue(value, value.matches(".*[.!?]"));
+		}
+	}
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void missingCorpusTest() {
+		MarkovText.fromResource("corpus/missing.txt");
+	}
+	
+	@Test
+	public void textPropertiesTest() {
+		JrgenContext jrgenContext = new JrgenContext().initalizeContext();
+		
+		for (int i = 0; i < 20; i++) {
+			Order order = jrgenContext.generate(Order.class);
+			
+			TestCase.assertEquals(order.getDescription(), 15, 
+					order.getDescription().split(" ").length);
+		}
+		
+		log.info(jrgenContext.generate(Order.class));
+	}
+}
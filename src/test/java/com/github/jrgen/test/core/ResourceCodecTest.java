@@ -0,0 +1,113 @@
+package com.github.jrgen.test.core;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Set;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import junit.framework.TestCase;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.junit.Test;
+
+import com.github.jrgen.configuration.Configuration;
+import com.github.jrgen.configuration.ConfigurationReader;
+import com.github.jrgen.configuration.ResourceCodec;
+import com.github.jrgen.configuration.ResourceCodecs;
+import com.github.jrgen.context.JrgenContext;
+import com.github.jrgen.test.domain.Name;
+
+public class ResourceCodecTest {
+
+	private static final Log log = LogFactory.getLog(ResourceCodecTest.class);
+	private static final String CONFIG = "[{\"namespaces\": " +
+			"[\"com.github.jrgen.test.domain.Name\"], " +
+			"\"data\": {\"firstName\": [\"zipped\"]}}]";
+
+	@Test
+	public void gzipTest() throws Exception {
+		File file = File.createTempFile("jrgen-codec", ".json.gz");
+		file.deleteOnExit();
+		OutputStream out = new GZIPOutputStream(new FileOutputStream(file));
+
+		try {
+			out.write(CONFIG.getBytes("UTF-8"));
+		} finally {
+			out.close();
+		}
+
+		Set<Configuration> configs = new ConfigurationReader().read(
+				file.toURI().toURL());
+		TestCase.assertEquals("zipped", configs.iterator().next().getData()
+				.get("firstName").get(0));
+
+		JrgenContext ctx = new JrgenContext();
+		ctx.getSettings().getResources().clear();
+		ctx.getSettings().getResources().add(file.toURI());
+		ctx.initalizeContext();
+		log.info(ctx.getLoadTimes());
+
+		TestCase.assertEquals("zipped", ctx.generate(Name.class).getFirstName());
+	}
+
+	@Test
+	public void customCodecTest() throws Exception {
+		ResourceCodec deflate = new ResourceCodec() {
+			@Override
+			public String getExtension() {
+				return ".deflate";
+			}
+
+			@Override
+			public InputStream decode(InputStream in) throws IOException {
+				return new InflaterInputStream(in);
+			}
+		};
+		File file = File.createTempFile("jrgen-codec", ".json.deflate");
+		file.deleteOnExit();
+		OutputStream out = new DeflaterOutputStream(new FileOutputStream(file));
+
+		try {
+			out.write(CONFIG.getBytes("UTF-8"));
+		} finally {
+			out.close();
+		}
+
+		ResourceCodecs.register(deflate);
+
+		try {
+			TestCase.assertSame(deflate, ResourceCodecs.forPath(file.getPath()));
+			TestCase.assertEquals(1, new ConfigurationReader().read(
+					file.toURI().toURL()).size());
+		} finally {
+			ResourceCodecs.unregister(".deflate");
+		}
+
+		TestCase.assertNull(ResourceCodecs.forPath(file.getPath()));
+		TestCase.assertEquals("names.json",
+				ResourceCodecs.stripExtension("names.json.GZ"));
+		TestCase.assertEquals("names.json",
+				ResourceCodecs.stripExtension("names.json"));
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void illegalExtensionTest() {
+		ResourceCodecs.register(new ResourceCodec() {
+			@Override
+			public String getExtension() {
+				return "gz";
+			}
+
+			@Override
+			public InputStream decode(InputStream in) {
+				return in;
+			}
+		});
+	}
+}
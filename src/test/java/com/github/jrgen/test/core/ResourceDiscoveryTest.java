@@ -0,0 +1,176 @@
+package com.github.jrgen.test.core;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import junit.framework.TestCase;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.github.jrgen.configuration.Configuration;
+import com.github.jrgen.configuration.ConfigurationReader;
+import com.github.jrgen.context.JrgenContext;
+import com.github.jrgen.context.ResourceDiscovery;
+
+public class ResourceDiscoveryTest {
+
+	private static final Log log = LogFactory.getLog(ResourceDiscoveryTest.class);
+	private static final String CONFIG = "[{\"namespaces\": [\"a.B\"]}]";
+
+	private static File jar;
+
+	@BeforeClass
+	public static void createJar() throws IOException {
+		ByteArrayOutputStream inner = new ByteArrayOutputStream();
+		JarOutputStream innerJar = new JarOutputStream(inner);
+		addEntry(innerJar, "cfg/d.json", CONFIG);
+		innerJar.close();
+
+		jar = File.createTempFile("jrgen-discovery", ".jar");
+		jar.deleteOnExit();
+		OutputStream out = new FileOutputStream(jar);
+		JarOutputStream outerJar = new JarOutputStream(out);
+		addEntry(outerJar, "cfg/", null);
+		addEntry(outerJar, "cfg/b.json", CONFIG);
+		addEntry(outerJar, "cfg/a.json", CONFIG);
+		addEntry(outerJar, "cfg/sub/c.json", CONFIG);
+		outerJar.putNextEntry(new JarEntry("lib/inner.jar"));
+		outerJar.write(inner.toByteArray());
+		outerJar.close();
+	}
+
+	@Test
+	public void directoryTest() throws Exception {
+		ClassLoader classLoader = getClass().getClassLoader();
+		List<URI> resources = ResourceDiscovery.list(classLoader,
+				"/jrgen-resources", 2);
+		log.info(resources);
+
+		TestCase.assertEquals(7, resources.size());
+
+		for (URI resource : resources) {
+			TestCase.assertEquals("file", resource.getScheme());
+		}
+
+		//The listing is cached per ClassLoader.
+		TestCase.assertSame(resources, ResourceDiscovery.list(classLoader,
+				"jrgen-resources/", 1));
+	}
+
+	@Test
+	public void jarTest() throws Exception {
+		URLClassLoader classLoader = new URLClassLoader(
+				new URL[] {jar.toURI().toURL()}, null);
+		List<URI> resources = ResourceDiscovery.list(classLoader, "/cfg", 4);
+		log.info(resources);
+
+		TestCase.assertEquals(2, resources.size());
+		TestCase.assertTrue(resources.get(0).toString().endsWith(
+				".jar!/cfg/a.json"));
+		TestCase.assertTrue(resources.get(1).toString().endsWith(
+				".jar!/cfg/b.json"));
+		TestCase.assertEquals(1, new ConfigurationReader().read(
+				resources.get(0).toURL()).size());
+		TestCase.assertEquals(Arrays.asList(new URI("jar:" + jar.toURI() +
+				"!/cfg/a.json")), ResourceDiscovery.list(
+						new URL("jar:" + jar.toURI() + "!/cfg/a.json")));
+	}
+
+	@Test
+	public void nestedJarTest() throws Exception {
+		List<URI> resources = ResourceDiscovery.list(new URL("jar:" +
+				jar.toURI() + "!/lib/inner.jar!/cfg"));
+		log.info(resources);
+
+		TestCase.assertEquals(Arrays.asList(new URI("jar:" + jar.toURI() +
+				"!/lib/inner.jar!/cfg/d.json")), resources);
+
+		//The resource listed is streamed from the outer jar when loaded.
+		Set<Configuration> configs = new ConfigurationReader().read(
+				resources.get(0).toURL());
+
+		TestCase.assertEquals(Collections.singleton("a.B"),
+				configs.iterator().next().getNamespaces());
+	}
+
+	@Test
+	public void openStreamTest() throws Exception {
+		InputStream in = ResourceDiscovery.openStream(new URL("jar:" +
+				jar.toURI() + "!/lib/inner.jar!/cfg/d.json"));
+		ByteArrayOutputStream content = new ByteArrayOutputStream();
+
+		try {
+			int b;
+
+			while ((b = in.read()) >= 0) {
+				content.write(b);
+			}
+		} finally {
+			in.close();
+		}
+
+		TestCase.assertEquals(CONFIG, content.toString("UTF-8"));
+
+		try {
+			ResourceDiscovery.openStream(new URL("jar:" + jar.toURI() +
+					"!/lib/inner.jar!/cfg/missing.json")).close();
+			TestCase.fail("A missing entry was opened.");
+		} catch (FileNotFoundException e) {
+			log.info(e.getMessage());
+		}
+	}
+
+	@Test
+	public void contextTest() throws Exception {
+		Thread thread = Thread.currentThread();
+		ClassLoader original = thread.getContextClassLoader();
+		thread.setContextClassLoader(new URLClassLoader(
+				new URL[] {jar.toURI().toURL()}, original));
+
+		try {
+			JrgenContext ctx = new JrgenContext();
+			ctx.getSettings().getResources().clear();
+			ctx.getSettings().getResources().add(new URI("/cfg"));
+			ctx.initalizeContext();
+			Map<URI, Long> loadTimes = ctx.getLoadTimes();
+			log.info(loadTimes);
+
+			TestCase.assertEquals(new HashSet<URI>(Arrays.asList(
+					new URI("jar:" + jar.toURI() + "!/cfg/a.json"),
+					new URI("jar:" + jar.toURI() + "!/cfg/b.json"))),
+					loadTimes.keySet());
+		} finally {
+			thread.setContextClassLoader(original);
+		}
+	}
+
+	private static void addEntry(JarOutputStream out, String name,
+			String content) throws IOException {
+		out.putNextEntry(new JarEntry(name));
+
+		if (content != null) {
+			out.write(content.getBytes("UTF-8"));
+		}
+
+		out.closeEntry();
+	}
+}
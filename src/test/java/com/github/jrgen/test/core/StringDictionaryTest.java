@@ -0,0 +1,176 @@
+package com.github.jrgen.test.core;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.junit.Test;
+
+import com.github.jrgen.configuration.Configuration;
+import com.github.jrgen.configuration.DictionaryConfigurationReader;
+import com.github.jrgen.dictionary.CachingStringDictionary;
+import com.github.jrgen.dictionary.Dictionaries;
+import com.github.jrgen.dictionary.MappedStringDictionary;
+import com.github.jrgen.dictionary.StringDictionary;
+
+public class StringDictionaryTest {
+	
+	private static final Log log = LogFactory.getLog(StringDictionaryTest.class);
+	
+	@Test
+	public void linesTest() throws Exception {
+		StringDictionary dictionary = new MappedStringDictionary(ByteBuffer
+				.wrap("alpha\r\n\nbeta\ngamma \u00e9".getBytes("UTF-8")));
+		
+		TestCase.assertEquals(4, dictionary.size());
+		TestCase.assertEquals("alpha", dictionary.get(0));
+		TestCase.assertEquals("", dictionary.get(1));
+		TestCase.assertEquals("beta", dictionary.get(2));
+		TestCase.assertEquals("gamma \u00e9", dictionary.get(3));
+		
+		TestCase.assertEquals(2, new MappedStringDictionary(
+				ByteBuffer.wrap("a\nb\n".getBytes("UTF-8"))).size());
+		TestCase.assertEquals(0, new MappedStringDictionary(
+				ByteBuffer.wrap(new byte[0])).size());
+	}
+	
+	@Test(expected=IndexOutOfBoundsException.class)
+	public void outOfRangeTest() throws Exception {
+		new MappedStringDictionary(ByteBuffer.wrap("a\nb".getBytes("UTF-8")))
+				.get(2);
+	}
+	
+	@Test
+	public void cachingTest() {
+		final int[] decoded = new int[1];
+		final List<String> values = Arrays.asList("a", "b", "c");
+		StringDictionary counting = new StringDictionary() {
+			@Override
+			public int size() {
+				return values.size();
+			}
+			
+			@Override
+			public String get(int index) {
+				decoded[0]++;
+				return values.get(index);
+			}
+		};
+		StringDictionary cached = new CachingStringDictionary(counting, 2);
+		
+		for (int i = 0; i < 10; i++) {
+			TestCase.assertEquals("a", cached.get(0));
+			TestCase.assertEquals("b", cached.get(1));
+		}
+		
+		TestCase.assertEquals(2, decoded[0]);
+		
+		//c evicts a, the least recently used value.
+		cached.get(2);
+		cached.get(1);
+		cached.get(0);
+		TestCase.assertEquals(4, decoded[0]);
+		log.info(cached);
+	}
+	
+	@Test
+	public void cachingEvictionTest() {
+		final int[] decoded = new int[1];
+		StringDictionary counting = new StringDictionary() {
+			@Override
+			public int size() {
+				return 1000;
+			}
+			
+			@Override
+			public String get(int index) {
+				decoded[0]++;
+				return "value" + index;
+			}
+		};
+		StringDictionary cached = new CachingStringDictionary(counting, 64);
+		Random random = new Random(11);
+		
+		//Evictions keep every other value reachable.
+		for (int i = 0; i < 100000; i++) {
+			int index = random.nextInt(1000);
+			TestCase.assertEquals("value" + index, cached.get(index));
+		}
+		
+		//A hot set within the capacity is decoded once or twice at most.
+		decoded[0] = 0;
+		
+		for (int i = 0; i < 10000; i++) {
+			cached.get(i % 48);
+		}
+		
+		TestCase.assertTrue(String.valueOf(decoded[0]), decoded[0] <= 96);
+		decoded[0] = 0;
+		
+		for (int i = 0; i < 48; i++) {
+			cached.get(i);
+		}
+		
+		TestCase.assertEquals(0, decoded[0]);
+	}
+	
+	@Test
+	public void resolveTest() {
+		StringDictionary dictionary = 
+				Dictionaries.resolve("dictionaries/agents.txt");
+		
+		TestCase.assertSame(dictionary, 
+				Dictionaries.resolve("dictionaries/agents.txt"));
+		TestCase.assertEquals(4, dictionary.size());
+		TestCase.assertEquals("curl/8.4.0", dictionary.get(2));
+		TestCase.assertTrue(Dictionaries.resolve("dictionaries/agents.txt?lru=8") 
+				instanceof CachingStringDictionary);
+	}
+	
+	@Test
+	public void rewriteInPlaceTest() throws Exception {
+		File directory = File.createTempFile("jrgen", "");
+		directory.delete();
+		directory.mkdir();
+		File file = new File(directory, "com.acme.Person.firstName.txt");
+		DictionaryConfigurationReader reader = 
+				new DictionaryConfigurationReader();
+		
+		try {
+			write(file, "alpha\nbeta\ngamma\ndelta\n");
+			Configuration former = reader.read(file.toURI()).iterator().next();
+			StringDictionary dictionary = former.getDictionary("firstName");
+			TestCase.assertEquals(4, dictionary.size());
+			
+			//Truncated in place, the file is no longer what was mapped.
+			write(file, "x\n");
+			Configuration current = reader.read(file.toURI()).iterator().next();
+			
+			TestCase.assertEquals("delta", dictionary.get(3));
+			TestCase.assertSame(dictionary, former.getDictionary("firstName"));
+			TestCase.assertEquals(1, current.getDictionary("firstName").size());
+			TestCase.assertEquals("x", current.getDictionary("firstName").get(0));
+		} finally {
+			file.delete();
+			directory.delete();
+		}
+	}
+	
+	private static void write(File file, String content) throws Exception {
+		OutputStream out = new FileOutputStream(file);
+		
+		try {
+			out.write(content.getBytes("UTF-8"));
+		} finally {
+			out.close();
+		}
+	}
+}
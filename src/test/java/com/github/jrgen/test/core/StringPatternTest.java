@@ -0,0 +1,61 @@
+package com.github.jrgen.test.core;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import junit.framework.TestCase;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+import com.github.jrgen.generator.StringPattern;
+
+@RunWith(Parameterized.class)
+public class StringPatternTest {
+	
+	private static final Log log = LogFactory.getLog(StringPatternTest.class);
+	
+	private final String regex;
+	
+	public StringPatternTest(String regex) {
+		this.regex = regex;
+	}
+	
+	@Parameters
+	public static Collection<Object[]> patterns() {
+		return Arrays.asList(new Object[][] {
+				{"[A-Z]{3}-\\d{4}"},
+				{"\\(\\d{3}\\) \\d{3}-\\d{4}"},
+				{"[0-9a-f]{8}-[0-9a-f]{4}-4[0-9a-f]{3}-[89ab][0-9a-f]{3}-[0-9a-f]{12}"},
+				{"^(Mr|Mrs|Dr)\\.? [A-Z][a-z]+$"},
+				{"(?:ab|c)*d+e?f{2,}"},
+				{"[^0-9]{5}\\w\\s."},
+				{"[a-c-]{1,3}\\.[]x]"}
+		});
+	}
+	
+	@Test
+	public void generateTest() {
+		StringPattern pattern = StringPattern.compile(regex);
+		Pattern matcher = Pattern.compile(regex);
+		Random random = new Random(42L);
+		
+		for (int i = 0; i < 500; i++) {
+			String value = pattern.generate(random);
+			TestCase.assertTrue(value, matcher.matcher(value).matches());
+		}
+		
+		log.info(pattern + ": " + pattern.generate(random));
+	}
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void malformedTest() {
+		StringPattern.compile(regex + "(");
+	}
+}
@@ -0,0 +1,122 @@
+package com.github.jrgen.test.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import junit.framework.TestCase;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.junit.Test;
+
+import com.github.jrgen.context.JrgenContext;
+import com.github.jrgen.sampler.StripedSequence;
+import com.github.jrgen.test.domain.Order;
+import com.github.jrgen.test.domain.PrimitiveTypesBean;
+
+public class StripedSequenceTest {
+	
+	private static final Log log = LogFactory.getLog(StripedSequenceTest.class);
+	
+	@Test
+	public void concurrentSequenceTest() throws Exception {
+		final StripedSequence sequence = new StripedSequence(100, 3, 16);
+		final int threads = 4;
+		final int count = 10000;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		List<Future<long[]>> futures = new ArrayList<Future<long[]>>();
+		
+		try {
+			for (int t = 0; t < threads; t++) {
+				futures.add(executor.submit(new Callable<long[]>() {
+					@Override
+					public long[] call() {
+						long[] values = new long[count];
+						
+						for (int i = 0; i < count; i++) {
+							values[i] = sequence.next();
+						}
+						
+						return values;
+					}
+				}));
+			}
+			
+			boolean[] seen = new boolean[threads * count];
+			
+			for (Future<long[]> future : futures) {
+				long[] values = future.get();
+				
+				for (int i = 0; i < count; i++) {
+					TestCase.assertEquals(0, (values[i] - 100) % 3);
+					TestCase.assertTrue(i == 0 || values[i] > values[i - 1]);
+					
+					int position = (int) ((values[i] - 100) / 3);
+					TestCase.assertFalse(seen[position]);
+					seen[position] = true;
+				}
+			}
+		} finally {
+			executor.shutdown();
+		}
+		
+		log.info(sequence);
+	}
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void zeroStepTest() {
+		new StripedSequence(0, 0);
+	}
+	
+	@Test(expected=ArithmeticException.class)
+	public void overflowTest() {
+		StripedSequence sequence = new StripedSequence(Long.MAX_VALUE - 1, 1);
+		
+		TestCase.assertEquals(Long.MAX_VALUE - 1, sequence.next());
+		TestCase.assertEquals(Long.MAX_VALUE, sequence.next());
+		sequence.next();
+	}
+	
+	@Test
+	public void narrowedOverflowTest() {
+		JrgenContext jrgenContext = new JrgenContext();
+		jrgenContext.getSequencePropertyHandler().addSequence(
+				PrimitiveTypesBean.class, "aByte", Byte.MAX_VALUE, 1);
+		jrgenContext.initalizeContext();
+		
+		TestCase.assertEquals(Byte.MAX_VALUE, jrgenContext.generate(
+				PrimitiveTypesBean.class).getaByte());
+		
+		try {
+			jrgenContext.generate(PrimitiveTypesBean.class);
+			TestCase.fail("The sequence wrapped around.");
+		} catch (ArithmeticException e) {
+			log.info(e.getMessage());
+		}
+	}
+	
+	@Test
+	public void sequencePropertiesTest() {
+		long start = System.currentTimeMillis();
+		JrgenContext jrgenContext = new JrgenContext();
+		jrgenContext.getSequencePropertyHandler().addProperties(
+				Order.class, "orderId");
+		jrgenContext.getSequencePropertyHandler().addSequence(
+				Order.class, "createdAt", start, 1000);
+		jrgenContext.initalizeContext();
+		
+		for (int i = 0; i < 100; i++) {
+			Order order = jrgenContext.generate(Order.class);
+			
+			TestCase.assertEquals(i + 1, order.getOrderId());
+			TestCase.assertEquals(start + i * 1000L, 
+					order.getCreatedAt().getTime());
+		}
+		
+		log.info(jrgenContext.getSequencePropertyHandler());
+	}
+}
@@ -0,0 +1,87 @@
+package com.github.jrgen.test.core;
+
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Set;
+
+import junit.framework.TestCase;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.junit.Test;
+
+import com.github.jrgen.context.JrgenContext;
+import com.github.jrgen.sampler.FeistelPermutation;
+import com.github.jrgen.sampler.UniqueSequence;
+import com.github.jrgen.test.domain.BasicTypesTestBean;
+
+public class UniqueSequenceTest {
+	
+	private static final Log log = LogFactory.getLog(UniqueSequenceTest.class);
+
+	@Test
+	public void permutationTest() {
+		int[] sizes = {1, 2, 3, 7, 64, 1000, 4097};
+		
+		for (int size : sizes) {
+			FeistelPermutation permutation = 
+					new FeistelPermutation(size, 42L);
+			BitSet seen = new BitSet(size);
+			
+			for (int i = 0; i < size; i++) {
+				long value = permutation.permute(i);
+				
+				TestCase.assertTrue(value >= 0 && value < size);
+				TestCase.assertFalse(seen.get((int) value));
+				seen.set((int) value);
+			}
+		}
+	}
+	
+	@Test
+	public void workersTest() {
+		UniqueSequence first = new UniqueSequence(-500, 499, 7L, 0, 2);
+		UniqueSequence second = new UniqueSequence(-500, 499, 7L, 1, 2);
+		Set<Long> values = new HashSet<Long>();
+		
+		for (int i = 0; i < 500; i++) {
+			TestCase.assertTrue(values.add(first.next()));
+			TestCase.assertTrue(values.add(second.next()));
+		}
+		
+		log.info(first);
+		TestCase.assertEquals(1000, values.size());
+	}
+	
+	@Test(expected=IllegalStateException.class)
+	public void exhaustedTest() {
+		UniqueSequence sequence = new UniqueSequence(0, 9, 7L, 0, 1);
+		
+		for (int i = 0; i < 11; i++) {
+			sequence.next();
+		}
+	}
+	
+	@Test
+	public void uniquePropertiesTest() {
+		JrgenContext jrgenContext = new JrgenContext();
+		jrgenContext.getSettings().setMinLongValue(0);
+		jrgenContext.getSettings().setMaxLongValue(4999);
+		jrgenContext.getSettings().setDefaultStringLength(3);
+		jrgenContext.getUniquePropertyHandler().addProperties(
+				BasicTypesTestBean.class, "longProperty", "stringProperty");
+		jrgenContext.initalizeContext();
+		
+		Set<Long> longs = new HashSet<Long>();
+		Set<String> strings = new HashSet<String>();
+		
+		for (int i = 0; i < 5000; i++) {
+			BasicTypesTestBean bean = 
+					jrgenContext.generate(BasicTypesTestBean.class);
+			
+			TestCase.assertTrue(longs.add(bean.getLongProperty()));
+			TestCase.assertTrue(strings.add(bean.getStringProperty()));
+			TestCase.assertEquals(3, bean.getStringProperty().length());
+		}
+	}
+}
@@ -16,12 +16,14 @@ import org.junit.Test;
 import com.fasterxml.jackson.databind.JavaType;
 import com.github.jrgen.context.JrgenContext;
 import com.github.jrgen.test.domain.Address;
+import com.github.jrgen.test.domain.LinkedNode;
 import com.github.jrgen.test.domain.Name;
 import com.github.jrgen.test.domain.Person;
 import com.github.jrgen.test.domain.PrimitiveTypesBean;
 import com.github.jrgen.typebuilder.ImmutableTypeBuilder;
 import com.github.jrgen.typebuilder.TypeBuilder;
 import com.github.jrgen.workflow.DefaultWorkflow;
+import com.github.jrgen.workflow.IterativeWorkflow;
 
 public class WorkflowTest {
 	
@@ -105,6 +107,71 @@ public class WorkflowTest {
 		log.info(doWorkflow(javaType));
 	}
 	
+	@Test
+	public void iterativeWorkflowTest() {
+		JrgenContext iterativeContext = new JrgenContext();
+		iterativeContext.setWorkflow(new IterativeWorkflow());
+		iterativeContext.initalizeContext();
+		
+		Person person = iterativeContext.generate(Person.class);
+		log.info(person);
+		TestCase.assertNotNull(person);
+	}
+	
+	@Test
+	public void iterativeWorkflowDeepGraphTest() {
+		int chainLength = 20000;
+		JrgenContext iterativeContext = new JrgenContext();
+		iterativeContext.getSettings().setMaxDepth(chainLength);
+		iterativeContext.getSettings().setMaxRecursionDepth(chainLength);
+		iterativeContext.setWorkflow(new IterativeWorkflow());
+		iterativeContext.initalizeContext();
+		
+		LinkedNode node = iterativeContext.generate(LinkedNode.class);
+		int length = 0;
+		
+		while (node != null) {
+			length++;
+			node = node.getNext();
+		}
+		
+		log.info("Generated a chain of " + length + " nodes.");
+		TestCase.assertEquals(chainLength, length);
+	}
+	
+	@Test
+	public void iterativeWorkflowDeepPopulateTest() {
+		int chainLength = 20000;
+		JrgenContext iterativeContext = new JrgenContext();
+		iterativeContext.getSettings().setMaxDepth(chainLength);
+		iterativeContext.getSettings().setMaxRecursionDepth(chainLength);
+		iterativeContext.setWorkflow(new IterativeWorkflow());
+		iterativeContext.initalizeContext();
+		
+		LinkedNode head = new LinkedNode();
+		LinkedNode tail = head;
+		
+		for (int i = 1; i < chainLength; i++) {
+			tail.setNext(new LinkedNode());
+			tail = tail.getNext();
+		}
+		
+		//Every node is repopulated in place, the last one is given no next
+		//node once the limits are reached.
+		TestCase.assertSame(head, iterativeContext.populate(head));
+		
+		LinkedNode node = head;
+		int length = 0;
+		
+		while (node != null) {
+			TestCase.assertNotNull(node.getValue());
+			length++;
+			node = node.getNext();
+		}
+		
+		TestCase.assertEquals(chainLength, length);
+	}
+	
 	@Test
 	public void setSubtractionTest() {
 		LinkedHashSet<Integer> set1 = new LinkedHashSet<Integer>();
@@ -0,0 +1,39 @@
+package com.github.jrgen.test.domain;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public class Badge {
+
+	private String code;
+	private String secret;
+
+	@JsonCreator
+	public Badge(@JsonProperty("code") String code) {
+		this.code = code;
+	}
+
+	public String getCode() {
+		return code;
+	}
+
+	public void setCode(String code) {
+		this.code = code;
+	}
+
+	@JsonIgnore
+	public String getSecret() {
+		return secret;
+	}
+
+	@JsonIgnore
+	public void setSecret(String secret) {
+		this.secret = secret;
+	}
+
+	@Override
+	public String toString() {
+		return "Badge [code=" + code + ", secret=" + secret + "]";
+	}
+}
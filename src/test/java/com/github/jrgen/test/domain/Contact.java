@@ -0,0 +1,48 @@
+package com.github.jrgen.test.domain;
+
+public class Contact {
+
+	private String firstName;
+	private String company;
+	private CharSequence street;
+	private String userAgent;
+
+	public String getFirstName() {
+		return firstName;
+	}
+
+	public void setFirstName(String firstName) {
+		this.firstName = firstName;
+	}
+
+	public String getCompany() {
+		return company;
+	}
+
+	public void setCompany(String company) {
+		this.company = company;
+	}
+
+	public CharSequence getStreet() {
+		return street;
+	}
+
+	public void setStreet(CharSequence street) {
+		this.street = street;
+	}
+
+	public String getUserAgent() {
+		return userAgent;
+	}
+
+	public void setUserAgent(String userAgent) {
+		this.userAgent = userAgent;
+	}
+
+	@Override
+	public String toString() {
+		return "Contact [firstName=" + firstName + ", company=" + company
+				+ ", street=" + street + ", userAgent=" + userAgent + "]";
+	}
+
+}
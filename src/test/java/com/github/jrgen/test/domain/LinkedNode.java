@@ -0,0 +1,34 @@
+package com.github.jrgen.test.domain;
+
+public class LinkedNode {
+	
+	private String value;
+	private LinkedNode next;
+	
+	public LinkedNode() {
+		super();
+	}
+
+	public String getValue() {
+		return value;
+	}
+
+	public void setValue(String value) {
+		this.value = value;
+	}
+
+	public LinkedNode getNext() {
+		return next;
+	}
+
+	public void setNext(LinkedNode next) {
+		this.next = next;
+	}
+
+	@Override
+	public String toString() {
+		return "LinkedNode [value=" + value + ", hasNext=" + (next != null)
+				+ "]";
+	}
+	
+}
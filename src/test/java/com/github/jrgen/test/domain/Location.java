@@ -0,0 +1,48 @@
+package com.github.jrgen.test.domain;
+
+public class Location {
+
+	private String city;
+	private String state;
+	private String zipCode;
+	private int population;
+
+	public String getCity() {
+		return city;
+	}
+
+	public void setCity(String city) {
+		this.city = city;
+	}
+
+	public String getState() {
+		return state;
+	}
+
+	public void setState(String state) {
+		this.state = state;
+	}
+
+	public String getZipCode() {
+		return zipCode;
+	}
+
+	public void setZipCode(String zipCode) {
+		this.zipCode = zipCode;
+	}
+
+	public int getPopulation() {
+		return population;
+	}
+
+	public void setPopulation(int population) {
+		this.population = population;
+	}
+
+	@Override
+	public String toString() {
+		return "Location [city=" + city + ", state=" + state + ", zipCode="
+				+ zipCode + ", population=" + population + "]";
+	}
+
+}
@@ -0,0 +1,41 @@
+package com.github.jrgen.test.domain;
+
+import java.util.Date;
+
+public class Order {
+
+	private long orderId;
+	private Date createdAt;
+	private String description;
+
+	public long getOrderId() {
+		return orderId;
+	}
+
+	public void setOrderId(long orderId) {
+		this.orderId = orderId;
+	}
+
+	public Date getCreatedAt() {
+		return createdAt;
+	}
+
+	public void setCreatedAt(Date createdAt) {
+		this.createdAt = createdAt;
+	}
+
+	public String getDescription() {
+		return description;
+	}
+
+	public void setDescription(String description) {
+		this.description = description;
+	}
+
+	@Override
+	public String toString() {
+		return "Order [orderId=" + orderId + ", createdAt=" + createdAt
+				+ ", description=" + description + "]";
+	}
+
+}
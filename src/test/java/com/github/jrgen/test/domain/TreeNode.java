@@ -0,0 +1,45 @@
+package com.github.jrgen.test.domain;
+
+import java.util.List;
+
+public class TreeNode {
+	
+	private String label;
+	private TreeNode parent;
+	private List<TreeNode> children;
+	
+	public TreeNode() {
+		super();
+	}
+
+	public String getLabel() {
+		return label;
+	}
+
+	public void setLabel(String label) {
+		this.label = label;
+	}
+
+	public TreeNode getParent() {
+		return parent;
+	}
+
+	public void setParent(TreeNode parent) {
+		this.parent = parent;
+	}
+
+	public List<TreeNode> getChildren() {
+		return children;
+	}
+
+	public void setChildren(List<TreeNode> children) {
+		this.children = children;
+	}
+
+	@Override
+	public String toString() {
+		return "TreeNode [label=" + label + ", parent=" + parent
+				+ ", children=" + children + "]";
+	}
+	
+}
@@ -96,6 +96,92 @@ public class CollectionTypeBuilderTest {
 		testByClassTypeForArrays(arrayTypes);
 	}
 	
+	@Test
+	public void elementBudgetTest() {
+		Settings budgetSettings = Settings.getInstance();
+		budgetSettings.setRandomContainerSize(false);
+		budgetSettings.setMaxElements(100);
+		JrgenContext budgetContext = 
+				new JrgenContext(budgetSettings).initalizeContext();
+		
+		JavaType javaType = typeFactory.constructCollectionType(List.class, 
+				typeFactory.constructCollectionType(List.class, 
+						typeFactory.constructCollectionType(List.class, 
+								Integer.class)));
+		
+		for (int i = 0; i < 3; i++) {
+			List<?> outer = (List<?>) budgetContext.generate(javaType);
+			int elements = outer.size();
+			
+			for (Object middle : outer) {
+				elements += ((List<?>) middle).size();
+				
+				for (Object inner : (List<?>) middle) {
+					elements += ((List<?>) inner).size();
+				}
+			}
+			
+			log.info("Generated " + elements + " elements.");
+			TestCase.assertEquals(10, outer.size());
+			TestCase.assertEquals(100, elements);
+		}
+	}
+	
+	@Test
+	public void siblingBudgetTest() {
+		Settings budgetSettings = Settings.getInstance();
+		budgetSettings.setRandomContainerSize(false);
+		budgetSettings.setMaxElements(30);
+		JrgenContext budgetContext = 
+				new JrgenContext(budgetSettings).initalizeContext();
+		
+		JavaType javaType = typeFactory.constructCollectionType(List.class, 
+				typeFactory.constructCollectionType(List.class, 
+						Integer.class));
+		
+		//The elements left by the outer list are split among the inner ones.
+		List<?> outer = (List<?>) budgetContext.generate(javaType);
+		TestCase.assertEquals(10, outer.size());
+		
+		for (Object inner : outer) {
+			TestCase.assertEquals(2, ((List<?>) inner).size());
+		}
+		
+		//The sibling containers of a bean each get a share of the elements,
+		//the five containers that are not configured a fifth each.
+		CollectionsTestBean bean = 
+				budgetContext.generate(CollectionsTestBean.class);
+		log.info(bean);
+		
+		TestCase.assertFalse(bean.getIntList().isEmpty());
+		TestCase.assertFalse(bean.getIntSet().isEmpty());
+		TestCase.assertFalse(bean.getStrIntMap().isEmpty());
+		TestCase.assertFalse(bean.getSetListInt().isEmpty());
+		TestCase.assertTrue(bean.getIntList().size() <= 6);
+	}
+	
+	@Test
+	public void byteBudgetTest() {
+		Settings budgetSettings = Settings.getInstance();
+		budgetSettings.setRandomContainerSize(false);
+		budgetSettings.setMaxBytes(2000);
+		JrgenContext budgetContext = 
+				new JrgenContext(budgetSettings).initalizeContext();
+		
+		JavaType javaType = typeFactory.constructCollectionType(List.class, 
+				typeFactory.constructCollectionType(List.class, String.class));
+		
+		List<?> outer = (List<?>) budgetContext.generate(javaType);
+		int strings = 0;
+		
+		for (Object inner : outer) {
+			strings += ((List<?>) inner).size();
+		}
+		
+		log.info("Generated " + strings + " strings.");
+		TestCase.assertTrue(strings > 0 && strings < 25);
+	}
+	
 	private void testByClassTypeToJavaType(Class<?>[] types) {
 		StringBuilder sb = new StringBuilder("\n");
 		
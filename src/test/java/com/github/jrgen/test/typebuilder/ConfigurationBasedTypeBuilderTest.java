@@ -1,6 +1,19 @@
 package com.github.jrgen.test.typebuilder;
 
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Array;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import junit.framework.TestCase;
 
@@ -8,11 +21,16 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.junit.Test;
 
+import com.github.jrgen.configuration.TupleTable;
 import com.github.jrgen.context.JrgenContext;
+import com.github.jrgen.settings.Settings;
 import com.github.jrgen.test.domain.Address;
+import com.github.jrgen.test.domain.Badge;
 import com.github.jrgen.test.domain.CollectionsTestBean;
+import com.github.jrgen.test.domain.Location;
 import com.github.jrgen.test.domain.Name;
 import com.github.jrgen.test.domain.Person;
+import com.github.jrgen.test.domain.TreeNode;
 import com.github.jrgen.typehandler.TransientPropertyHandler;
 
 public class ConfigurationBasedTypeBuilderTest {
@@ -27,6 +45,16 @@ public class ConfigurationBasedTypeBuilderTest {
 		strBlder = new StringBuilder();
 	}
 	
+	@Test
+	public void jacksonAnnotationsTest() {
+		Badge badge = jrgenContext.generate(Badge.class);
+		log.info(badge);
+		
+		//The type is converted by the mapper, its annotations apply.
+		TestCase.assertNotNull(badge.getCode());
+		TestCase.assertNull(badge.getSecret());
+	}
+	
 	@Test
 	public void ignorePropertiesTest() {
 		jrgenContext.getSettings().setGenerateUndefined(false);
@@ -44,6 +72,151 @@ public class ConfigurationBasedTypeBuilderTest {
 		TestCase.assertNull(name.getMiddleName());
 	}
 	
+	@Test
+	public void weightedValuesTest() throws URISyntaxException {
+		JrgenContext sampling = newSamplingContext();
+		int ny = 0;
+		int ca = 0;
+		
+		for (int i = 0; i < 2000; i++) {
+			String state = sampling.generate(Address.class).getState();
+			
+			TestCase.assertFalse("TX".equals(state));
+			
+			if ("NY".equals(state)) {
+				ny++;
+			} else if ("CA".equals(state)) {
+				ca++;
+			}
+		}
+		
+		log.info("NY: " + ny + ", CA: " + ca);
+		TestCase.assertEquals(2000, ny + ca);
+		TestCase.assertTrue(ny > ca);
+	}
+	
+	@Test
+	public void distributedValuesTest() throws URISyntaxException {
+		JrgenContext sampling = newSamplingContext();
+		int white = 0;
+		int thomas = 0;
+		
+		for (int i = 0; i < 2000; i++) {
+			String lastName = sampling.generate(Name.class).getLastName();
+			
+			if ("white".equals(lastName)) {
+				white++;
+			} else if ("thomas".equals(lastName)) {
+				thomas++;
+			}
+		}
+		
+		log.info("white: " + white + ", thomas: " + thomas);
+		TestCase.assertTrue(white > 1000);
+		TestCase.assertTrue(white > thomas);
+	}
+	
+	@Test
+	public void deckValuesTest() throws URISyntaxException {
+		JrgenContext sampling = newSamplingContext();
+		
+		//All 26 middle names are dealt before any is dealt again.
+		for (int round = 0; round < 3; round++) {
+			Set<String> middleNames = new HashSet<String>();
+			
+			for (int i = 0; i < 26; i++) {
+				TestCase.assertTrue(middleNames.add(
+						sampling.generate(Name.class).getMiddleName()));
+			}
+		}
+	}
+	
+	@Test
+	public void patternValuesTest() throws URISyntaxException {
+		JrgenContext sampling = newSamplingContext();
+		sampling.getSettings().setGenerateUndefined(false);
+		
+		for (int i = 0; i < 200; i++) {
+			Address address = sampling.generate(Address.class);
+			
+			TestCase.assertTrue(address.getZipCode(), 
+					address.getZipCode().matches("\\d{5}(-\\d{4})?"));
+			TestCase.assertTrue(address.getCity(), address.getCity()
+					.matches("[A-Z][a-z]{3,8}( (Falls|Springs|City))?"));
+		}
+	}
+	
+	@Test
+	public void nestedPatternsTest() throws Exception {
+		File resource = File.createTempFile("jrgen-nested", ".json");
+		resource.deleteOnExit();
+		OutputStream out = new FileOutputStream(resource);
+		
+		try {
+			out.write(("[{\"namespaces\": [\"com.github.jrgen.test.domain." +
+					"Address\"], \"patterns\": {\"zipCode\": \"\\\\d{5}\"}}]")
+					.getBytes("UTF-8"));
+		} finally {
+			out.close();
+		}
+		
+		JrgenContext patterns = new JrgenContext();
+		patterns.getSettings().getResources().clear();
+		patterns.getSettings().getResources().add(resource.toURI());
+		patterns.getSettings().setGenerateUndefined(false);
+		patterns.initalizeContext();
+		
+		//A nested type configured only through patterns is populated from 
+		//its configuration, its other properties left undefined.
+		Address address = patterns.generate(Person.class).getAddress();
+		log.info(address);
+		
+		TestCase.assertTrue(address.getZipCode().matches("\\d{5}"));
+		TestCase.assertNull(address.getStreet());
+	}
+	
+	@Test
+	public void tupleValuesTest() {
+		Map<String, String> rows = new HashMap<String, String>();
+		rows.put("Albany", "NY 12207 97856");
+		rows.put("Buffalo", "NY 14201 261310");
+		rows.put("Fresno", "CA 93650 494665");
+		rows.put("Oakland", "CA 94601 390724");
+		rows.put("Austin", "TX 73301 790390");
+		rows.put("Dallas", "TX 75201 1197816");
+		
+		for (int i = 0; i < 200; i++) {
+			Location location = jrgenContext.generate(Location.class);
+			
+			TestCase.assertEquals(location.toString(), 
+					rows.get(location.getCity()), location.getState() + " " + 
+					location.getZipCode() + " " + location.getPopulation());
+		}
+	}
+	
+	@Test
+	public void tupleTableTest() {
+		List<List<Object>> rows = new ArrayList<List<Object>>();
+		
+		for (int i = 0; i < 1000; i++) {
+			rows.add(Arrays.<Object>asList(i, "state" + (i % 50)));
+		}
+		
+		TupleTable table = new TupleTable(
+				Arrays.asList("id", "state"), rows);
+		
+		TestCase.assertEquals(1000, table.size());
+		TestCase.assertEquals(1000, table.distinctValues(0));
+		TestCase.assertEquals(50, table.distinctValues(1));
+		
+		for (int i = 0; i < 1000; i++) {
+			TestCase.assertEquals(i, table.get(0, i));
+			TestCase.assertEquals("state" + (i % 50), table.get(1, i));
+		}
+		
+		log.info(table);
+	}
+	
 	@Test
 	public void ignoreLowConfigurationTest() {
 		jrgenContext
@@ -134,4 +307,134 @@ public class ConfigurationBasedTypeBuilderTest {
 		TestCase.assertNotNull(ctb.getStringSet());
 		TestCase.assertNotNull(ctb.getIntSet());			
 	}
+	
+	@Test
+	public void fieldConfigurationTest() {
+		List<String> firstNames = Arrays.asList("john", "jane", "david", 
+				"danielle", "tom", "theresa", "mike", "michelle");
+		
+		Collection<Person> people = jrgenContext.generate(Person.class, 10);
+		
+		for (Person person : people) {
+			strBlder.append(person).append("\n");
+			TestCase.assertTrue(firstNames.contains(
+					person.getName().getFirstName()));
+			TestCase.assertNotNull(person.getAddress().getStreet());
+			TestCase.assertNotNull(person.getAddress().getCity());
+		}
+		
+		log.info(strBlder);
+	}
+	
+	@Test
+	public void recursiveTypeTest() {
+		Settings settings = jrgenContext.getSettings();
+		settings.setMaxContainerSize(3);
+		settings.setMaxRecursionDepth(2);
+		
+		for (int i = 0; i < 10; i++) {
+			TreeNode treeNode = jrgenContext.generate(TreeNode.class);
+			TestCase.assertNotNull(treeNode);
+			TestCase.assertTrue(treeDepth(treeNode) <= 
+				settings.getMaxRecursionDepth() + 1);
+		}
+		
+		TestCase.assertEquals(0, jrgenContext.getGenerationContext().getDepth());
+	}
+	
+	@Test
+	public void defaultLimitsTest() throws ClassNotFoundException {
+		Settings settings = jrgenContext.getSettings();
+		settings.setRandomContainerSize(false);
+		settings.setDefaultContainerSize(1);
+		StringBuilder arrayName = new StringBuilder();
+		
+		for (int i = 0; i < 40; i++) {
+			arrayName.append('[');
+		}
+		
+		//An array nested deeper than any limit used to be generated in full,
+		//the limits only apply once they are set.
+		Object array = jrgenContext.generate(Class.forName(
+				arrayName.append("Ljava.lang.String;").toString()));
+		
+		for (int i = 0; i < 40; i++) {
+			TestCase.assertNotNull(array);
+			TestCase.assertEquals(1, Array.getLength(array));
+			array = Array.get(array, 0);
+		}
+		
+		TestCase.assertTrue(array instanceof String);
+	}
+	
+	@Test
+	public void recursiveTypeEmptyAtLimitTest() {
+		Settings settings = jrgenContext.getSettings();
+		settings.setLimitPolicy(Settings.LimitPolicy.EMPTY);
+		settings.setRandomContainerSize(false);
+		settings.setDefaultContainerSize(2);
+		settings.setMaxRecursionDepth(0);
+		
+		TreeNode treeNode = jrgenContext.generate(TreeNode.class);
+		log.info(treeNode);
+		
+		TestCase.assertNull(treeNode.getParent());
+		TestCase.assertNotNull(treeNode.getChildren());
+		TestCase.assertTrue(treeNode.getChildren().isEmpty());
+	}
+	
+	@Test
+	public void maxNodesTest() {
+		Settings settings = jrgenContext.getSettings();
+		settings.setRandomContainerSize(false);
+		settings.setDefaultContainerSize(10);
+		settings.setMaxRecursionDepth(10);
+		settings.setMaxNodes(50);
+		
+		TreeNode treeNode = jrgenContext.generate(TreeNode.class);
+		TestCase.assertTrue(countNodes(treeNode) <= 50);
+	}
+	
+	private JrgenContext newSamplingContext() throws URISyntaxException {
+		//The weights, distributions and patterns are kept apart from the 
+		//shared fixtures, which the other tests rely on.
+		JrgenContext sampling = new JrgenContext();
+		sampling.getSettings().getResources().clear();
+		sampling.getSettings().getResources().add(
+				new URI("/sampling-resources"));
+		
+		return sampling.initalizeContext();
+	}
+	
+	private int treeDepth(TreeNode treeNode) {
+		if (treeNode == null) {
+			return 0;
+		}
+		
+		int depth = treeDepth(treeNode.getParent());
+		
+		if (treeNode.getChildren() != null) {
+			for (TreeNode child : treeNode.getChildren()) {
+				depth = Math.max(depth, treeDepth(child));
+			}
+		}
+		
+		return depth + 1;
+	}
+	
+	private int countNodes(TreeNode treeNode) {
+		if (treeNode == null) {
+			return 0;
+		}
+		
+		int count = 1 + countNodes(treeNode.getParent());
+		
+		if (treeNode.getChildren() != null) {
+			for (TreeNode child : treeNode.getChildren()) {
+				count += countNodes(child);
+			}
+		}
+		
+		return count;
+	}
 }